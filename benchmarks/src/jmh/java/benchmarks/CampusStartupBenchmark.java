@@ -0,0 +1,66 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.CampusMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CampusStartupBenchmark measures how long it takes to construct a CampusMap from the
+ * campus_buildings.tsv and campus_paths.tsv files and from the campus graph file compiled
+ * from them. A campus written by DataGenerator can be measured with -p campusDir=&lt;directory&gt;.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+public class CampusStartupBenchmark {
+
+    // This class does not represent an ADT.
+
+    // a directory holding the campus files, or DataSource.BUNDLED for the bundled ones
+    @Param({DataSource.BUNDLED})
+    public String campusDir;
+
+    private Path graphFile;
+
+    /**
+     * Compiles the campus files into a temporary campus graph file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        graphFile = Files.createTempFile("campus", ".graph");
+        DataSource.campusMap(campusDir).writeGraphFile(graphFile);
+    }
+
+    /**
+     * Deletes the campus graph file.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(graphFile);
+    }
+
+    /**
+     * @return the campus map parsed from the campus files
+     */
+    @Benchmark
+    public CampusMap fromDataFiles() {
+        return DataSource.campusMap(campusDir);
+    }
+
+    /**
+     * @return the campus map loaded from the campus graph file
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public CampusMap fromGraphFile() throws IOException {
+        return new CampusMap(graphFile);
+    }
+}
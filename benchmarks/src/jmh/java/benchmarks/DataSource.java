@@ -0,0 +1,78 @@
+package benchmarks;
+
+import pathfinder.CampusMap;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * DataSource lets a benchmark read either the data files bundled with the projects or
+ * ones on the filesystem, such as the files written by DataGenerator. A benchmark takes
+ * the location as a String parameter, which can be set with JMH's -p option.
+ */
+final class DataSource {
+
+    // No AF, RI, or checkRep because this class only contains static methods and
+    // it does not represent any data abstraction
+
+    /**
+     * The campus directory parameter that stands for the bundled campus files.
+     */
+    static final String BUNDLED = "";
+
+    private DataSource() {
+    }
+
+    /**
+     * @param campusDir BUNDLED, or a directory holding the files DataGenerator.BUILDINGS_FILE
+     *                  and DataGenerator.PATHS_FILE
+     * @return the buildings of the campus
+     */
+    static List<CampusBuilding> campusBuildings(String campusDir) {
+        if (campusDir.equals(BUNDLED)) {
+            return CampusPathsParser.parseCampusBuildings(DataGenerator.BUILDINGS_FILE);
+        }
+        return CampusPathsParser.parseCampusBuildings(Paths.get(campusDir, DataGenerator.BUILDINGS_FILE));
+    }
+
+    /**
+     * @param campusDir BUNDLED, or a directory holding the files DataGenerator.BUILDINGS_FILE
+     *                  and DataGenerator.PATHS_FILE
+     * @return the path segments of the campus
+     */
+    static List<CampusPath> campusPaths(String campusDir) {
+        if (campusDir.equals(BUNDLED)) {
+            return CampusPathsParser.parseCampusPaths(DataGenerator.PATHS_FILE);
+        }
+        return CampusPathsParser.parseCampusPaths(Paths.get(campusDir, DataGenerator.PATHS_FILE));
+    }
+
+    /**
+     * @param campusDir BUNDLED, or a directory holding the files DataGenerator.BUILDINGS_FILE
+     *                  and DataGenerator.PATHS_FILE
+     * @return the campus map of the campus
+     */
+    static CampusMap campusMap(String campusDir) {
+        if (campusDir.equals(BUNDLED)) {
+            return new CampusMap();
+        }
+        return new CampusMap(Paths.get(campusDir, DataGenerator.BUILDINGS_FILE),
+                Paths.get(campusDir, DataGenerator.PATHS_FILE));
+    }
+
+    /**
+     * @param file the path of a file on the filesystem, or the name of a file in the
+     *             resources/data folder
+     * @return the path of the file if it is on the filesystem, or null if it is not and
+     * should be read from the resources/data folder instead
+     */
+    static Path onFilesystem(String file) {
+        Path path = Paths.get(file);
+        return Files.isRegularFile(path) ? path : null;
+    }
+}
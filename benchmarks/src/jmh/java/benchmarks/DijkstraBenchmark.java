@@ -0,0 +1,140 @@
+package benchmarks;
+
+import graph.CompactGraph;
+import graph.Edge;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.Dijkstra;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DijkstraBenchmark measures Dijkstra.dijkstraAlgo between buildings of campus_paths.tsv,
+ * over the Graph and over its compact snapshot, against the previous implementation,
+ * which kept a whole Path in the priority queue for every relaxed edge. Each call finds
+ * the route for the next pair of buildings, so a measurement covers every pair many times
+ * over. The gc profiler reports the bytes allocated per query as gc.alloc.rate.norm. A
+ * campus written by DataGenerator can be measured with -p campusDir=&lt;directory&gt;.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class DijkstraBenchmark {
+
+    // This class does not represent an ADT.
+
+    // a directory holding the campus files, or DataSource.BUNDLED for the bundled ones
+    @Param({DataSource.BUNDLED})
+    public String campusDir;
+
+    private Graph<Point, Double> graph;
+    private CompactGraph<Point, Double> compact;
+    private List<Point> buildings;
+    private int pair;
+
+    /**
+     * Builds the campus graph the same way CampusMap does.
+     */
+    @Setup
+    public void setUp() {
+        graph = new Graph<>();
+        buildings = new ArrayList<>();
+        for (CampusBuilding b : DataSource.campusBuildings(campusDir)) {
+            Point p = new Point(b.getX(), b.getY());
+            graph.addVertex(p);
+            buildings.add(p);
+        }
+        for (CampusPath path : DataSource.campusPaths(campusDir)) {
+            Point pStart = new Point(path.getX1(), path.getY1());
+            Point pEnd = new Point(path.getX2(), path.getY2());
+            graph.addVertex(pStart);
+            graph.addVertex(pEnd);
+            graph.addEdge(pStart, pEnd, path.getDistance());
+        }
+        compact = graph.freeze(Double::doubleValue);
+        pair = 0;
+    }
+
+    /**
+     * @return the route between the next pair of buildings, with the path-copying Dijkstra
+     */
+    @Benchmark
+    public Path<Point> pathCopyingGraph() {
+        int next = nextPair();
+        return pathCopyingDijkstra(graph, buildings.get(next / buildings.size()),
+                buildings.get(next % buildings.size()));
+    }
+
+    /**
+     * @return the route between the next pair of buildings, over the Graph
+     */
+    @Benchmark
+    public Path<Point> dijkstraAlgoGraph() {
+        int next = nextPair();
+        return Dijkstra.dijkstraAlgo(graph, buildings.get(next / buildings.size()),
+                buildings.get(next % buildings.size()));
+    }
+
+    /**
+     * @return the route between the next pair of buildings, over the compact snapshot
+     */
+    @Benchmark
+    public Path<Point> dijkstraAlgoCompact() {
+        int next = nextPair();
+        return Dijkstra.dijkstraAlgo(compact, buildings.get(next / buildings.size()),
+                buildings.get(next % buildings.size()));
+    }
+
+    /**
+     * @return the index of the next pair of buildings, counting from 0 up to the square
+     * of the number of buildings and then starting over
+     */
+    private int nextPair() {
+        int next = pair;
+        pair = (pair + 1) % (buildings.size() * buildings.size());
+        return next;
+    }
+
+    /**
+     * The Dijkstra.dijkstraAlgo before it kept parent pointers, kept as the baseline of
+     * this benchmark.
+     *
+     * @param graph the given graph that will be used for Dijkstra
+     * @param start the type of T starting vertex
+     * @param dest  the type of T ending vertex
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     */
+    private static <T> Path<T> pathCopyingDijkstra(Graph<T, Double> graph, T start, T dest) {
+        Queue<Path<T>> active = new PriorityQueue<>((o1, o2) -> Double.compare(o1.getCost(), o2.getCost()));
+        Set<T> finished = new HashSet<>();
+        active.add(new Path<>(start));
+        while (!active.isEmpty()) {
+            Path<T> minPath = active.remove();
+            T minDestNode = minPath.getEnd();
+            if (minDestNode.equals(dest)) {
+                return minPath;
+            }
+            if (!finished.contains(minDestNode)) {
+                for (Edge<T, Double> e : graph.getChildrenOf(minDestNode)) {
+                    T child = e.getToVertex();
+                    if (!finished.contains(child)) {
+                        active.add(minPath.extend(child, e.getLabel()));
+                    }
+                }
+                finished.add(minDestNode);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import graph.Edge;
+import graph.Graph;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphBenchmark measures building a Graph one vertex and one edge at a time, and
+ * reading the outgoing edges of every vertex back, on a random graph with an
+ * average out-degree of four.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class GraphBenchmark {
+
+    // This class does not represent an ADT.
+
+    private static final int DEGREE = 4;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private String[] vertices;
+    private int[] from;
+    private int[] to;
+    private Graph<String, String> graph;
+
+    /**
+     * Picks the vertices and the edges, and builds the graph that getChildrenOf reads.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(331);
+        vertices = new String[size];
+        for (int i = 0; i < size; i++) {
+            vertices[i] = "v" + i;
+        }
+        from = new int[size * DEGREE];
+        to = new int[size * DEGREE];
+        for (int e = 0; e < from.length; e++) {
+            from[e] = random.nextInt(size);
+            to[e] = random.nextInt(size);
+        }
+        graph = addEdges();
+    }
+
+    /**
+     * @return a graph with every vertex and no edges
+     */
+    @Benchmark
+    public Graph<String, String> addVertex() {
+        Graph<String, String> result = new Graph<>();
+        for (String vertex : vertices) {
+            result.addVertex(vertex);
+        }
+        return result;
+    }
+
+    /**
+     * @return a graph with every vertex and every edge
+     */
+    @Benchmark
+    public Graph<String, String> addEdges() {
+        Graph<String, String> result = addVertex();
+        for (int e = 0; e < from.length; e++) {
+            result.addEdge(vertices[from[e]], vertices[to[e]], "e");
+        }
+        return result;
+    }
+
+    /**
+     * Reads the outgoing edges of every vertex.
+     *
+     * @param blackhole the sink that keeps the edges from being optimized away
+     */
+    @Benchmark
+    public void getChildrenOf(Blackhole blackhole) {
+        for (String vertex : vertices) {
+            for (Edge<String, String> edge : graph.getChildrenOf(vertex)) {
+                blackhole.consume(edge);
+            }
+        }
+    }
+}
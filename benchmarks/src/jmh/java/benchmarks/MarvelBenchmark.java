@@ -0,0 +1,150 @@
+package benchmarks;
+
+import graph.BipartiteGraph;
+import graph.CompactGraph;
+import graph.Edge;
+import graph.Graph;
+import marvel.BidirectionalBFS;
+import marvel.MarvelGraphLoader;
+import marvel.MarvelPaths;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MarvelBenchmark measures loading marvel.tsv, with MarvelPaths.buildGraph, with
+ * buildGraph followed by freeze and with MarvelGraphLoader, and breadth first search
+ * between random pairs of characters over each representation of the graph. Loading takes
+ * up to a few seconds, so those benchmarks run fewer and longer iterations than the
+ * searches. The gc profiler reports the bytes each load allocates as gc.alloc.rate.norm,
+ * and MarvelHeapBenchmark the bytes each loaded graph keeps. Another dataset, such as one written by DataGenerator, can be measured with
+ * -p file=&lt;path&gt;.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+public class MarvelBenchmark {
+
+    // This class does not represent an ADT.
+
+    private static final int PAIRS = 64;
+
+    // the path of a file on the filesystem, or the name of a file in the resources/data folder
+    @Param({"marvel.tsv"})
+    public String file;
+
+    private Graph<String, String> graph;
+    private CompactGraph<String, String> compact;
+    private BipartiteGraph<String, String> bipartite;
+    private BidirectionalBFS bidirectional;
+    private String[] starts;
+    private String[] dests;
+    private int pair;
+
+    /**
+     * Loads every representation of the graph and picks the pairs of characters.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        graph = buildGraph();
+        compact = loadCompact();
+        bipartite = loadBipartite();
+        bidirectional = new BidirectionalBFS(compact);
+        Random random = new Random(331);
+        starts = new String[PAIRS];
+        dests = new String[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            starts[i] = compact.vertexAt(random.nextInt(compact.size()));
+            dests[i] = compact.vertexAt(random.nextInt(compact.size()));
+        }
+        pair = 0;
+    }
+
+    /**
+     * @return the Graph built from the file
+     */
+    @Benchmark
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+    public Graph<String, String> buildGraph() {
+        Path path = DataSource.onFilesystem(file);
+        return path == null ? MarvelPaths.buildGraph(file) : MarvelPaths.buildGraph(path);
+    }
+
+    /**
+     * @return the Graph built from the file, frozen into a compact graph
+     */
+    @Benchmark
+    @Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 3, time = 5, timeUnit = TimeUnit.SECONDS)
+    public CompactGraph<String, String> buildGraphAndFreeze() {
+        return buildGraph().freeze();
+    }
+
+    /**
+     * @return the compact graph loaded from the file
+     */
+    @Benchmark
+    public CompactGraph<String, String> loadCompact() throws IOException {
+        Path path = DataSource.onFilesystem(file);
+        return path == null ? MarvelGraphLoader.load(file) : MarvelGraphLoader.load(path);
+    }
+
+    /**
+     * @return the bipartite graph loaded from the file
+     */
+    @Benchmark
+    public BipartiteGraph<String, String> loadBipartite() throws IOException {
+        Path path = DataSource.onFilesystem(file);
+        return path == null ? MarvelGraphLoader.loadBipartite(file) : MarvelGraphLoader.loadBipartite(path);
+    }
+
+    /**
+     * @return the path between the next pair of characters, over the Graph
+     */
+    @Benchmark
+    public List<Edge<String, String>> bfsGraph() {
+        int next = nextPair();
+        return MarvelPaths.bFSFindPath(graph, starts[next], dests[next]);
+    }
+
+    /**
+     * @return the path between the next pair of characters, over the compact graph
+     */
+    @Benchmark
+    public List<Edge<String, String>> bfsCompact() {
+        int next = nextPair();
+        return MarvelPaths.bFSFindPath(compact, starts[next], dests[next]);
+    }
+
+    /**
+     * @return the path between the next pair of characters, over the bipartite graph
+     */
+    @Benchmark
+    public List<Edge<String, String>> bfsBipartite() {
+        int next = nextPair();
+        return MarvelPaths.bFSFindPath(bipartite, starts[next], dests[next]);
+    }
+
+    /**
+     * @return the path between the next pair of characters, with the bidirectional search
+     */
+    @Benchmark
+    public List<Edge<String, String>> bfsBidirectional() {
+        int next = nextPair();
+        return bidirectional.findPath(starts[next], dests[next]);
+    }
+
+    /**
+     * @return the index of the next pair of characters
+     */
+    private int nextPair() {
+        int next = pair;
+        pair = (pair + 1) % PAIRS;
+        return next;
+    }
+}
@@ -0,0 +1,150 @@
+package benchmarks;
+
+import graph.BipartiteGraph;
+import graph.CompactGraph;
+import graph.Graph;
+import marvel.MarvelGraphLoader;
+import marvel.MarvelPaths;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MarvelHeapBenchmark measures the heap that a graph loaded from marvel.tsv keeps, for
+ * each of the loaders MarvelBenchmark times. Every load replaces the graph held by the
+ * one before it, and at the end of every iteration the retainedBytes counter reports the
+ * heap in use after a full garbage collection with the last graph held, less the heap in
+ * use after one before the iteration. JMH only reports the counter in the average time
+ * mode, which also times the loads, but MarvelBenchmark is the one to read for the time.
+ * JMH adds up the counter over the iterations, so only one iteration is measured.
+ * Another dataset, such as one written by DataGenerator, can be measured with
+ * -p file=&lt;path&gt;.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 1, time = 5, timeUnit = TimeUnit.SECONDS)
+// a System.gc of the serial collector does not always free the graph of the last load
+@Fork(jvmArgsAppend = "-XX:+UseG1GC")
+public class MarvelHeapBenchmark {
+
+    // This class does not represent an ADT.
+
+    // the path of a file on the filesystem, or the name of a file in the resources/data folder
+    @Param({"marvel.tsv"})
+    public String file;
+
+    /**
+     * RetainedHeap holds the graph last loaded, and measures the heap it keeps once the
+     * iteration is over. JMH reports its public field as a counter of the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+
+        // This class does not represent an ADT.
+
+        // the bytes of heap the graph keeps, which JMH reports
+        public long retainedBytes;
+
+        private long usedBefore;
+        private Object graph;
+
+        /**
+         * Measures the heap in use before the iteration loads any graph.
+         */
+        @Setup(Level.Iteration)
+        public void measureBefore() {
+            graph = null;
+            retainedBytes = 0;
+            usedBefore = usedHeapAfterGc();
+        }
+
+        /**
+         * Measures the heap the last graph keeps, and lets go of it.
+         */
+        @TearDown(Level.Iteration)
+        public void measureAfter() {
+            retainedBytes = usedHeapAfterGc() - usedBefore;
+            graph = null;
+        }
+
+        /**
+         * Holds on to the graph until the next load or the end of the iteration.
+         *
+         * @param loaded the graph just loaded
+         */
+        void hold(Object loaded) {
+            graph = loaded;
+        }
+
+        /**
+         * @return the number of bytes of heap in use after a full garbage collection
+         */
+        private static long usedHeapAfterGc() {
+            System.gc();
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+
+    /**
+     * Loads the Graph from the file and holds on to it.
+     *
+     * @param heap the state that holds the graph
+     */
+    @Benchmark
+    public void buildGraph(RetainedHeap heap) {
+        heap.hold(loadGraph());
+    }
+
+    /**
+     * Loads the Graph from the file, freezes it into a compact graph, and holds on to the
+     * compact graph only.
+     *
+     * @param heap the state that holds the graph
+     */
+    @Benchmark
+    public void buildGraphAndFreeze(RetainedHeap heap) {
+        heap.hold(loadGraph().freeze());
+    }
+
+    /**
+     * Loads the compact graph from the file and holds on to it.
+     *
+     * @param heap the state that holds the graph
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public void loadCompact(RetainedHeap heap) throws IOException {
+        Path path = DataSource.onFilesystem(file);
+        CompactGraph<String, String> graph =
+                path == null ? MarvelGraphLoader.load(file) : MarvelGraphLoader.load(path);
+        heap.hold(graph);
+    }
+
+    /**
+     * Loads the bipartite graph from the file and holds on to it.
+     *
+     * @param heap the state that holds the graph
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public void loadBipartite(RetainedHeap heap) throws IOException {
+        Path path = DataSource.onFilesystem(file);
+        BipartiteGraph<String, String> graph =
+                path == null ? MarvelGraphLoader.loadBipartite(file) : MarvelGraphLoader.loadBipartite(path);
+        heap.hold(graph);
+    }
+
+    /**
+     * @return the Graph built from the file
+     */
+    private Graph<String, String> loadGraph() {
+        Path path = DataSource.onFilesystem(file);
+        return path == null ? MarvelPaths.buildGraph(file) : MarvelPaths.buildGraph(path);
+    }
+}
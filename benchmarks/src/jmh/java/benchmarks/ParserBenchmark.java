@@ -0,0 +1,40 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPath;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParserBenchmark measures reading the campus data files with CampusPathsParser. The
+ * files of a campus written by DataGenerator can be measured with -p campusDir=&lt;directory&gt;.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class ParserBenchmark {
+
+    // This class does not represent an ADT.
+
+    // a directory holding the campus files, or DataSource.BUNDLED for the bundled ones
+    @Param({DataSource.BUNDLED})
+    public String campusDir;
+
+    /**
+     * @return every path segment of the campus paths file
+     */
+    @Benchmark
+    public List<CampusPath> parseCampusPaths() {
+        return DataSource.campusPaths(campusDir);
+    }
+
+    /**
+     * @return every building of the campus buildings file
+     */
+    @Benchmark
+    public List<CampusBuilding> parseCampusBuildings() {
+        return DataSource.campusBuildings(campusDir);
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PathBenchmark measures building a path of a given number of segments with
+ * Path.extend, one segment at a time, which copies the path every time, and with
+ * all the segments at once.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class PathBenchmark {
+
+    // This class does not represent an ADT.
+
+    @Param({"10", "100"})
+    public int length;
+
+    private Point start;
+    private List<Point> ends;
+    private double[] costs;
+
+    /**
+     * Picks the points and the costs of the segments.
+     */
+    @Setup
+    public void setUp() {
+        start = new Point(0, 0);
+        ends = new ArrayList<>();
+        costs = new double[length];
+        for (int i = 0; i < length; i++) {
+            ends.add(new Point(i + 1, i % 7));
+            costs[i] = 1.0 + i % 3;
+        }
+    }
+
+    /**
+     * @return the path, built one segment at a time
+     */
+    @Benchmark
+    public Path<Point> extendOneAtATime() {
+        Path<Point> path = new Path<>(start);
+        for (int i = 0; i < length; i++) {
+            path = path.extend(ends.get(i), costs[i]);
+        }
+        return path;
+    }
+
+    /**
+     * @return the path, built with all the segments at once
+     */
+    @Benchmark
+    public Path<Point> extendAll() {
+        return new Path<>(start).extend(ends, costs);
+    }
+}
@@ -0,0 +1,98 @@
+package benchmarks;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import pathfinder.PathJsonWriter;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PathJsonBenchmark measures writing a path of a given number of segments to a response
+ * stream as JSON: with a new Gson instance to a string, as the server used to for every
+ * request, with one shared Gson instance straight to the stream, and with PathJsonWriter.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class PathJsonBenchmark {
+
+    // This class does not represent an ADT.
+
+    @Param({"50", "1000", "20000"})
+    public int length;
+
+    private Path<Point> path;
+    private Gson gson;
+    private ByteArrayOutputStream out;
+
+    /**
+     * Builds a random walk of the given length, whose coordinates have as many digits as
+     * those of the campus data.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(DataGenerator.DEFAULT_SEED);
+        double x = 2000;
+        double y = 1500;
+        List<Point> ends = new ArrayList<>();
+        double[] costs = new double[length];
+        for (int i = 0; i < length; i++) {
+            double nextX = Math.round((x + random.nextDouble() * 40 - 20) * 1e4) / 1e4;
+            double nextY = Math.round((y + random.nextDouble() * 40 - 20) * 1e4) / 1e4;
+            costs[i] = Math.hypot(nextX - x, nextY - y);
+            ends.add(new Point(nextX, nextY));
+            x = nextX;
+            y = nextY;
+        }
+        path = new Path<>(new Point(2000, 1500)).extend(ends, costs);
+        gson = new Gson();
+        out = new ByteArrayOutputStream();
+    }
+
+    /**
+     * @return the number of bytes written
+     * @throws IOException if the path cannot be written
+     */
+    @Benchmark
+    public int gsonPerRequest() throws IOException {
+        out.reset();
+        out.write(new Gson().toJson(path).getBytes(StandardCharsets.UTF_8));
+        return out.size();
+    }
+
+    /**
+     * @return the number of bytes written
+     * @throws IOException if the path cannot be written
+     */
+    @Benchmark
+    public int gsonShared() throws IOException {
+        out.reset();
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        gson.toJson(path, writer);
+        writer.flush();
+        return out.size();
+    }
+
+    /**
+     * @return the number of bytes written
+     * @throws IOException if the path cannot be written
+     */
+    @Benchmark
+    public int pathJsonWriter() throws IOException {
+        out.reset();
+        PathJsonWriter json = new PathJsonWriter(out);
+        json.path(path);
+        json.flush();
+        return out.size();
+    }
+}
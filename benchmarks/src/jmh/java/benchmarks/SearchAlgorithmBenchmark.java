@@ -0,0 +1,61 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pathfinder.CampusMap;
+import pathfinder.SearchAlgorithm;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SearchAlgorithmBenchmark measures CampusMap.findShortestPath between buildings with
+ * each of the search algorithms, so that the engines can be compared with each other
+ * and with DijkstraBenchmark. The contraction hierarchy is built during setup. A campus
+ * written by DataGenerator can be measured with -p campusDir=&lt;directory&gt;.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class SearchAlgorithmBenchmark {
+
+    // This class does not represent an ADT.
+
+    @Param({"DIJKSTRA", "A_STAR", "BIDIRECTIONAL_DIJKSTRA", "CONTRACTION_HIERARCHIES"})
+    public SearchAlgorithm algorithm;
+
+    // a directory holding the campus files, or DataSource.BUNDLED for the bundled ones
+    @Param({DataSource.BUNDLED})
+    public String campusDir;
+
+    private CampusMap map;
+    private List<String> buildings;
+    private int pair;
+
+    /**
+     * Loads the campus map and prepares the algorithm being measured.
+     */
+    @Setup
+    public void setUp() {
+        map = DataSource.campusMap(campusDir);
+        buildings = new ArrayList<>(map.buildingNames().keySet());
+        buildings.sort(null);
+        if (algorithm == SearchAlgorithm.CONTRACTION_HIERARCHIES) {
+            map.contractionHierarchy();
+        }
+        pair = 0;
+    }
+
+    /**
+     * @return the route between the next pair of buildings
+     */
+    @Benchmark
+    public Path<Point> findShortestPath() {
+        int next = pair;
+        pair = (pair + 1) % (buildings.size() * buildings.size());
+        return map.findShortestPath(buildings.get(next / buildings.size()),
+                buildings.get(next % buildings.size()), algorithm);
+    }
+}
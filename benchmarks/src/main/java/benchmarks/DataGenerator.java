@@ -0,0 +1,302 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * DataGenerator writes synthetic data files in the formats of the bundled ones, so that
+ * the parsers, loaders, searches and benchmarks can be run on graphs far larger than
+ * campus_paths.tsv and marvel.tsv. Every file is a function of its size and seed only,
+ * so the same arguments always write the same bytes.
+ *
+ * <p>A campus is a square grid of points, each moved a little away from its place in
+ * the grid, where every point has a path to its neighbors to the right and below and
+ * about half of the squares of the grid have a path along one of their diagonals. No
+ * two paths cross, the distance of every path is the straight-line distance between its
+ * ends, and every path is written in both directions, as in campus_paths.tsv. About one
+ * point in forty is a building.
+ *
+ * <p>A Marvel dataset lists the characters of one book after another, where the number
+ * of characters in a book is skewed towards small books the way it is in marvel.tsv and
+ * a few characters appear in many more books than the rest.
+ *
+ * <p>Run it with the generateData Gradle task of the benchmarks project, e.g.
+ * {@code gradlew :benchmarks:generateData -PgeneratorArgs="marvel build/marvel-10M.tsv 10000000"},
+ * where the arguments are one of
+ * <pre>
+ *     campus &lt;directory&gt; &lt;edges&gt; [seed]
+ *     marvel &lt;file&gt; &lt;edges&gt; [seed]
+ * </pre>
+ * The campus mode writes campus_buildings.tsv and campus_paths.tsv into the directory.
+ */
+public class DataGenerator {
+
+    // No AF, RI, or checkRep because this class only contains static methods and
+    // it does not represent any data abstraction
+
+    /**
+     * The seed used when none is given.
+     */
+    public static final long DEFAULT_SEED = 331;
+
+    /**
+     * The name of the campus buildings file written by writeCampus.
+     */
+    public static final String BUILDINGS_FILE = "campus_buildings.tsv";
+
+    /**
+     * The name of the campus paths file written by writeCampus.
+     */
+    public static final String PATHS_FILE = "campus_paths.tsv";
+
+    // the distance between two neighboring points of the grid, before they are moved
+    private static final double SPACING = 20;
+    // how far a point may be moved from its place in the grid, as a fraction of SPACING;
+    // below one half, so that every square of the grid stays convex
+    private static final double JITTER = 0.3;
+    private static final double DIAGONAL_CHANCE = 0.5;
+    private static final int POINTS_PER_BUILDING = 40;
+    // the mean number of characters in a book, after the first, and the most in one book
+    private static final double MEAN_EXTRA_CHARACTERS = 6.5;
+    private static final int MAX_CHARACTERS = 200;
+    // the number of edges per character; marvel.tsv has about 180
+    private static final int EDGES_PER_CHARACTER = 180;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes the files given by the command-line arguments and prints what was written.
+     *
+     * @param args The command-line arguments provided to the system.
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3 || args.length > 4
+                || !(args[0].equals("campus") || args[0].equals("marvel"))) {
+            System.err.println("usage: DataGenerator campus <directory> <edges> [seed]");
+            System.err.println("       DataGenerator marvel <file> <edges> [seed]");
+            System.exit(1);
+        }
+        Path target = Paths.get(args[1]);
+        long edges = Long.parseLong(args[2]);
+        long seed = args.length == 4 ? Long.parseLong(args[3]) : DEFAULT_SEED;
+        long start = System.nanoTime();
+        long written = args[0].equals("campus") ? writeCampus(target, edges, seed)
+                : writeMarvel(target, edges, seed);
+        System.out.println(String.format("wrote %d edges to %s in %.1f s",
+                written, target, (System.nanoTime() - start) / 1e9));
+    }
+
+    /**
+     * Writes a campus of about the given number of edges into the given directory, as
+     * the files BUILDINGS_FILE and PATHS_FILE.
+     *
+     * @param directory the directory to write the files into, which is created if it
+     *                  does not exist
+     * @param edges     the number of edges, counting each direction of a path, to write
+     *                  about; at least 4 paths are always written
+     * @param seed      the seed that the campus is generated from
+     * @return the number of edges written
+     * @throws IOException              if a file cannot be written
+     * @throws IllegalArgumentException if directory is null or edges is not positive
+     * @spec.effects replaces the files BUILDINGS_FILE and PATHS_FILE in directory
+     */
+    public static long writeCampus(Path directory, long edges, long seed) throws IOException {
+        if (directory == null || edges <= 0) {
+            throw new IllegalArgumentException();
+        }
+        // a grid of side * side points has about 5 * side * side edges
+        long side = Math.max(2, Math.round(Math.sqrt(edges / 5.0)));
+        if (side * side > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("too many edges: " + edges);
+        }
+        Files.createDirectories(directory);
+        try (Writer out = writer(directory.resolve(BUILDINGS_FILE))) {
+            out.write("short_name\tlongName\tx\ty\n");
+            long points = side * side;
+            for (long building = 0; building * POINTS_PER_BUILDING < points; building++) {
+                long first = building * POINTS_PER_BUILDING;
+                long point = first + (long) (unit(seed, building, 3)
+                        * Math.min(POINTS_PER_BUILDING, points - first));
+                String shortName = buildingName(building);
+                out.write(shortName + "\t" + "Building " + shortName + "\t"
+                        + x(seed, side, point) + "\t" + y(seed, side, point) + "\n");
+            }
+        }
+        long written = 0;
+        try (Writer out = writer(directory.resolve(PATHS_FILE))) {
+            out.write("start-x\tstart-y\tend-x\tend-y\tdistance\n");
+            for (long row = 0; row < side; row++) {
+                for (long col = 0; col < side; col++) {
+                    long point = row * side + col;
+                    if (col + 1 < side) {
+                        written += writePath(out, seed, side, point, point + 1);
+                    }
+                    if (row + 1 < side) {
+                        written += writePath(out, seed, side, point, point + side);
+                    }
+                    if (col + 1 < side && row + 1 < side && unit(seed, point, 2) < DIAGONAL_CHANCE) {
+                        // only one diagonal of a square, so that no two paths cross
+                        if (unit(seed, point, 4) < 0.5) {
+                            written += writePath(out, seed, side, point, point + side + 1);
+                        } else {
+                            written += writePath(out, seed, side, point + 1, point + side);
+                        }
+                    }
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Writes a Marvel dataset with at least the given number of edges, where two
+     * characters in the same book count as two edges, as they do in MarvelPaths.buildGraph.
+     *
+     * @param file  the file to write
+     * @param edges the number of edges to write at least
+     * @param seed  the seed that the dataset is generated from
+     * @return the number of edges written
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if file is null or edges is not positive
+     * @spec.effects replaces file
+     */
+    public static long writeMarvel(Path file, long edges, long seed) throws IOException {
+        if (file == null || edges <= 0) {
+            throw new IllegalArgumentException();
+        }
+        int characters = (int) Math.max(2 * MAX_CHARACTERS,
+                Math.min(Integer.MAX_VALUE, edges / EDGES_PER_CHARACTER));
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] book = new int[MAX_CHARACTERS];
+        long written = 0;
+        try (Writer out = writer(file)) {
+            out.write("hero\tbook\n");
+            for (long title = 0; written < edges; title++) {
+                int size = Math.min(MAX_CHARACTERS,
+                        1 + (int) (-MEAN_EXTRA_CHARACTERS * Math.log(1 - random.nextDouble())));
+                String bookName = "BOOK " + title;
+                for (int i = 0; i < size; i++) {
+                    book[i] = nextCharacter(random, characters, book, i);
+                    out.write("HERO " + book[i] + "\t" + bookName + "\n");
+                }
+                written += (long) size * (size - 1);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * @param random     the source of randomness
+     * @param characters the number of characters to pick from
+     * @param book       the characters already picked for the book
+     * @param size       the number of characters already picked for the book
+     * @return a character, skewed towards the lower ones, that is not among the
+     * first size characters of book
+     * @spec.requires size &lt; characters
+     */
+    private static int nextCharacter(SplittableRandom random, int characters, int[] book, int size) {
+        while (true) {
+            double u = random.nextDouble();
+            int character = (int) (characters * u * u);
+            boolean picked = false;
+            for (int i = 0; i < size && !picked; i++) {
+                picked = book[i] == character;
+            }
+            if (!picked) {
+                return character;
+            }
+        }
+    }
+
+    /**
+     * Writes a path between two points of the grid in both directions.
+     *
+     * @param out   the writer of the campus paths file
+     * @param seed  the seed that the campus is generated from
+     * @param side  the number of points on each side of the grid
+     * @param start the index of the point at one end of the path
+     * @param end   the index of the point at the other end of the path
+     * @return the number of edges written, which is 2
+     * @throws IOException if the path cannot be written
+     */
+    private static int writePath(Writer out, long seed, long side, long start, long end) throws IOException {
+        double x1 = x(seed, side, start);
+        double y1 = y(seed, side, start);
+        double x2 = x(seed, side, end);
+        double y2 = y(seed, side, end);
+        double distance = Math.hypot(x2 - x1, y2 - y1);
+        out.write(x1 + "\t" + y1 + "\t" + x2 + "\t" + y2 + "\t" + distance + "\n");
+        out.write(x2 + "\t" + y2 + "\t" + x1 + "\t" + y1 + "\t" + distance + "\n");
+        return 2;
+    }
+
+    /**
+     * @return the x coordinate of the given point of the grid, rounded to 4 decimal
+     * places like the coordinates of campus_paths.tsv
+     */
+    private static double x(long seed, long side, long point) {
+        return coordinate(point % side, unit(seed, point, 0));
+    }
+
+    /**
+     * @return the y coordinate of the given point of the grid, rounded to 4 decimal
+     * places like the coordinates of campus_paths.tsv
+     */
+    private static double y(long seed, long side, long point) {
+        return coordinate(point / side, unit(seed, point, 1));
+    }
+
+    /**
+     * @param index the index of the column or row of the point
+     * @param unit  a number in [0, 1) that decides how far the point is moved
+     * @return the coordinate of the point along one axis
+     */
+    private static double coordinate(long index, double unit) {
+        double value = SPACING * (1 + index + JITTER * (2 * unit - 1));
+        return Math.round(value * 1e4) / 1e4;
+    }
+
+    /**
+     * Returns a number that only depends on its arguments, so that a point of the grid
+     * can be placed again without storing every point.
+     *
+     * @param seed   the seed that the campus is generated from
+     * @param index  the index of a point or a building
+     * @param stream which of the numbers of that point or building to return
+     * @return a number in [0, 1) that looks uniformly random
+     */
+    private static double unit(long seed, long index, int stream) {
+        long z = seed * 0x9E3779B97F4A7C15L + index * 8 + stream;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @param building the index of a building
+     * @return a short name of at least 3 capital letters that no other building has
+     */
+    private static String buildingName(long building) {
+        StringBuilder name = new StringBuilder();
+        for (long rest = building; name.length() < 3 || rest > 0; rest /= 26) {
+            name.append((char) ('A' + rest % 26));
+        }
+        return name.reverse().toString();
+    }
+
+    /**
+     * @param file the file to write
+     * @return a buffered writer of the file, which replaces it
+     * @throws IOException if the file cannot be opened
+     */
+    private static Writer writer(Path file) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.US_ASCII), BUFFER_SIZE);
+    }
+}
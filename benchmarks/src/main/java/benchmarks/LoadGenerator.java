@@ -0,0 +1,376 @@
+package benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * LoadGenerator sends /find-path requests between random pairs of buildings to a running
+ * campus paths server from many clients at once, and reports the throughput, the bytes
+ * received and the latency of every Accept-Encoding it is asked to compare, so that the
+ * effect of response compression and of the Jetty settings of the server can be measured.
+ * Every client sends its next request as soon as the last one is answered, over a
+ * keep-alive connection.
+ *
+ * <p>Run the server, then run it with the loadTest Gradle task of the benchmarks project,
+ * e.g. {@code gradlew :benchmarks:loadTest -PloadArgs="--clients 32 --seconds 20"}, where
+ * the arguments are any of
+ * <pre>
+ *     --url URL             the address of the server, by default http://localhost:4567
+ *     --clients N           the number of clients sending requests at once, by default 16
+ *     --seconds N           how long to measure every encoding for, by default 10
+ *     --warmup N            how long to send requests before measuring, by default 3
+ *     --encodings A,B,...   the Accept-Encoding headers to compare, by default identity,gzip
+ *     --format FORMAT       segments or polyline, the format of the paths, by default segments
+ *     --seed N              the seed of the random pairs of buildings
+ * </pre>
+ */
+public class LoadGenerator {
+
+    // No AF, RI, or checkRep because this class only contains static methods and
+    // it does not represent any data abstraction
+
+    // the number of random pairs of buildings that the clients cycle through
+    private static final int PAIRS = 4096;
+
+    /**
+     * Measures the server given by the command-line arguments and prints a report.
+     *
+     * @param args The command-line arguments provided to the system.
+     * @throws IOException          if the server cannot be reached
+     * @throws InterruptedException if the measurement is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new TreeMap<>();
+        options.put("url", "http://localhost:4567");
+        options.put("clients", "16");
+        options.put("seconds", "10");
+        options.put("warmup", "3");
+        options.put("encodings", "identity,gzip");
+        options.put("format", "segments");
+        options.put("seed", Long.toString(DataGenerator.DEFAULT_SEED));
+        for (int i = 0; i < args.length; i += 2) {
+            String name = args[i].startsWith("--") ? args[i].substring(2) : "";
+            if (!options.containsKey(name) || i + 1 == args.length) {
+                System.err.println("usage: LoadGenerator [--url URL] [--clients N] [--seconds N] [--warmup N]");
+                System.err.println("                     [--encodings A,B,...] [--format segments|polyline] [--seed N]");
+                System.exit(1);
+            }
+            options.put(name, args[i + 1]);
+        }
+        String url = options.get("url");
+        int clients = Integer.parseInt(options.get("clients"));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(clients))
+                .build();
+        List<String> buildings = buildingNames(client, url);
+        List<URI> requests = findPathRequests(url, buildings, options.get("format"), PAIRS,
+                Long.parseLong(options.get("seed")));
+        System.out.println(String.format("%d clients, %d buildings, %s s warmup and %s s per encoding",
+                clients, buildings.size(), options.get("warmup"), options.get("seconds")));
+        System.out.println(Report.HEADER);
+        for (String encoding : options.get("encodings").split(",")) {
+            Duration warmup = Duration.ofSeconds(Long.parseLong(options.get("warmup")));
+            Duration measured = Duration.ofSeconds(Long.parseLong(options.get("seconds")));
+            run(client, requests, encoding.trim(), clients, warmup);
+            System.out.println(run(client, requests, encoding.trim(), clients, measured));
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Fetches the short names of the buildings of a server.
+     *
+     * @param client the client to send the request with
+     * @param url    the address of the server
+     * @return the short names of the buildings, in lexicographic order
+     * @throws IOException              if the server cannot be reached or answers with an error
+     * @throws InterruptedException     if the request is interrupted
+     * @throws IllegalArgumentException if client or url is null
+     */
+    public static List<String> buildingNames(HttpClient client, String url) throws IOException, InterruptedException {
+        if (client == null || url == null) {
+            throw new IllegalArgumentException();
+        }
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url + "/list-building")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("/list-building answered with status " + response.statusCode());
+        }
+        Map<String, String> names = new Gson().fromJson(response.body(),
+                new TypeToken<TreeMap<String, String>>() { }.getType());
+        return new ArrayList<>(names.keySet());
+    }
+
+    /**
+     * Makes /find-path requests between random pairs of different buildings.
+     *
+     * @param url       the address of the server
+     * @param buildings the short names of the buildings
+     * @param format    the format to ask for the paths in, "segments" or "polyline"
+     * @param count     the number of requests to make
+     * @param seed      the seed that the pairs are chosen from
+     * @return the addresses of the requests, which only depend on the arguments
+     * @throws IllegalArgumentException if url, buildings or format is null, or if there
+     *                                  are fewer than two buildings
+     */
+    public static List<URI> findPathRequests(String url, List<String> buildings, String format, int count,
+                                             long seed) {
+        if (url == null || buildings == null || format == null || buildings.size() < 2) {
+            throw new IllegalArgumentException();
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        List<URI> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int start = random.nextInt(buildings.size());
+            int end = (start + 1 + random.nextInt(buildings.size() - 1)) % buildings.size();
+            requests.add(URI.create(url + "/find-path?start=" + encode(buildings.get(start))
+                    + "&end=" + encode(buildings.get(end))
+                    + (format.equals("polyline") ? "&format=polyline" : "")));
+        }
+        return requests;
+    }
+
+    /**
+     * Sends the given requests, over and over, from the given number of clients at once
+     * for the given time.
+     *
+     * @param client   the client to send the requests with
+     * @param requests the addresses of the requests, which each client goes through in turn,
+     *                 starting at a different one
+     * @param encoding the Accept-Encoding header of every request, or "identity" to send none
+     * @param clients  the number of clients
+     * @param duration how long to send requests for
+     * @return the report of the requests that were answered in that time
+     * @throws InterruptedException     if the measurement is interrupted
+     * @throws IllegalArgumentException if an argument is null, if requests is empty or if
+     *                                  clients is not positive
+     */
+    public static Report run(HttpClient client, List<URI> requests, String encoding, int clients, Duration duration)
+            throws InterruptedException {
+        if (client == null || requests == null || requests.isEmpty() || encoding == null || clients <= 0
+                || duration == null) {
+            throw new IllegalArgumentException();
+        }
+        ExecutorService threads = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        List<Future<ClientResult>> results = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int first = (int) ((long) c * requests.size() / clients);
+            results.add(threads.submit(() -> runClient(client, requests, first, encoding, end)));
+        }
+        List<ClientResult> finished = new ArrayList<>();
+        try {
+            for (Future<ClientResult> result : results) {
+                finished.add(result.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            threads.shutdownNow();
+        }
+        return new Report(encoding, finished, System.nanoTime() - start);
+    }
+
+    /**
+     * Sends requests from one client until the end time.
+     *
+     * @param client   the client to send the requests with
+     * @param requests the addresses of the requests
+     * @param first    the index of the first request to send
+     * @param encoding the Accept-Encoding header of every request, or "identity" to send none
+     * @param end      the value of System.nanoTime() to stop at
+     * @return what the client measured
+     * @throws InterruptedException if the client is interrupted
+     */
+    private static ClientResult runClient(HttpClient client, List<URI> requests, int first, String encoding,
+                                          long end) throws InterruptedException {
+        ClientResult result = new ClientResult();
+        int next = first;
+        while (System.nanoTime() < end) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(requests.get(next));
+            if (!encoding.equals("identity")) {
+                request.header("Accept-Encoding", encoding);
+            }
+            next = (next + 1) % requests.size();
+            long sent = System.nanoTime();
+            try {
+                // the body is counted as it arrives, still compressed
+                HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                result.add(System.nanoTime() - sent, response.body().length, response.statusCode() != 200);
+            } catch (IOException e) {
+                result.add(System.nanoTime() - sent, 0, true);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param name a building name
+     * @return the name encoded as a query parameter
+     */
+    private static String encode(String name) {
+        return URLEncoder.encode(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The measurements of one client, which only that client adds to.
+     */
+    private static class ClientResult {
+        private long[] latencies = new long[1024];
+        private int requests;
+        private long errors;
+        private long bytes;
+
+        /**
+         * @param latencyNanos how long the request took
+         * @param bodyBytes    the bytes of the body of the response
+         * @param error        whether the request failed
+         */
+        private void add(long latencyNanos, long bodyBytes, boolean error) {
+            if (requests == latencies.length) {
+                latencies = Arrays.copyOf(latencies, 2 * requests);
+            }
+            latencies[requests++] = latencyNanos;
+            bytes += bodyBytes;
+            if (error) {
+                errors++;
+            }
+        }
+    }
+
+    /**
+     * Report represents the immutable measurements of one run of a load: how many
+     * requests were answered, how fast, and with how many bytes.
+     */
+    public static class Report {
+        /**
+         * The header of the columns of toString.
+         */
+        public static final String HEADER = String.format("%-10s %10s %10s %12s %10s %10s %10s %8s",
+                "encoding", "requests", "req/s", "bytes/req", "MB/s", "p50 ms", "p99 ms", "errors");
+
+        private final String encoding;
+        private final long requests;
+        private final long errors;
+        private final long bytes;
+        private final long elapsedNanos;
+        private final long[] latencies;
+
+        // RI: encoding != null && requests == latencies.length && 0 <= errors <= requests
+        //     && bytes >= 0 && elapsedNanos > 0 && latencies is sorted
+
+        // AF(this): requests requests sent with the Accept-Encoding encoding in elapsedNanos
+        //           nanoseconds, of which errors failed, whose bodies held bytes bytes and
+        //           whose latencies, in nanoseconds, are latencies
+
+        /**
+         * @param encoding     the Accept-Encoding of the requests
+         * @param clients      the measurements of every client
+         * @param elapsedNanos how long the run took
+         */
+        private Report(String encoding, List<ClientResult> clients, long elapsedNanos) {
+            this.encoding = encoding;
+            this.elapsedNanos = Math.max(1, elapsedNanos);
+            long requests = 0;
+            long errors = 0;
+            long bytes = 0;
+            for (ClientResult client : clients) {
+                requests += client.requests;
+                errors += client.errors;
+                bytes += client.bytes;
+            }
+            this.requests = requests;
+            this.errors = errors;
+            this.bytes = bytes;
+            this.latencies = new long[(int) requests];
+            int filled = 0;
+            for (ClientResult client : clients) {
+                System.arraycopy(client.latencies, 0, latencies, filled, client.requests);
+                filled += client.requests;
+            }
+            Arrays.sort(latencies);
+            checkRep();
+        }
+
+        /**
+         * @return the number of requests answered
+         */
+        public long requests() {
+            return requests;
+        }
+
+        /**
+         * @return the number of requests that failed or were not answered with status 200
+         */
+        public long errors() {
+            return errors;
+        }
+
+        /**
+         * @return the total bytes of the bodies of the responses, as they were sent
+         */
+        public long bytes() {
+            return bytes;
+        }
+
+        /**
+         * @return the number of requests answered per second
+         */
+        public double throughput() {
+            return requests * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * @param quantile the fraction of the requests, such as 0.99
+         * @return the latency, in nanoseconds, that the fraction of the requests took at
+         * most, or 0 if there were none
+         * @throws IllegalArgumentException if quantile is not between 0 and 1
+         */
+        public long latency(double quantile) {
+            if (!(quantile >= 0 && quantile <= 1)) {
+                throw new IllegalArgumentException();
+            }
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * latencies.length);
+            return latencies[Math.max(0, rank - 1)];
+        }
+
+        /**
+         * @return one line of measurements, in the columns of HEADER
+         */
+        @Override
+        public String toString() {
+            return String.format("%-10s %10d %10.1f %12.1f %10.2f %10.2f %10.2f %8d",
+                    encoding, requests, throughput(), requests == 0 ? 0.0 : (double) bytes / requests,
+                    bytes / 1e6 / (elapsedNanos / 1e9), latency(0.5) / 1e6, latency(0.99) / 1e6, errors);
+        }
+
+        private void checkRep() {
+            assert encoding != null && requests == latencies.length && 0 <= errors && errors <= requests;
+            assert bytes >= 0 && elapsedNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package benchmarks.implTest;
+
+import benchmarks.DataGenerator;
+import graph.CompactGraph;
+import graph.Graph;
+import marvel.MarvelGraphLoader;
+import marvel.MarvelPaths;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation
+ * of the DataGenerator class, and that the files it writes can be read from the
+ * filesystem.
+ */
+public class DataGeneratorTest {
+
+    private java.nio.file.Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("generated");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        List<java.nio.file.Path> files;
+        try (Stream<java.nio.file.Path> walk = Files.walk(directory)) {
+            files = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (java.nio.file.Path file : files) {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Every path is written in both directions with its straight-line distance, and
+     * every pair of buildings is connected
+     */
+    @Test
+    public void testCampus() throws IOException {
+        long edges = DataGenerator.writeCampus(directory, 2000, DataGenerator.DEFAULT_SEED);
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths(directory.resolve(DataGenerator.PATHS_FILE));
+        assertEquals(edges, paths.size());
+        assertTrue(1800 <= edges && edges <= 2200);
+        for (int i = 0; i < paths.size(); i += 2) {
+            CampusPath there = paths.get(i);
+            CampusPath back = paths.get(i + 1);
+            assertEquals(there.getX1(), back.getX2(), 0);
+            assertEquals(there.getY2(), back.getY1(), 0);
+            assertEquals(there.getDistance(), back.getDistance(), 0);
+            assertEquals(Math.hypot(there.getX2() - there.getX1(), there.getY2() - there.getY1()),
+                    there.getDistance(), 1e-9);
+        }
+        CampusMap map = new CampusMap(directory.resolve(DataGenerator.BUILDINGS_FILE),
+                directory.resolve(DataGenerator.PATHS_FILE));
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        buildings.sort(null);
+        assertTrue(buildings.size() >= 2);
+        assertEquals("Building AAA", map.longNameForShort("AAA"));
+        Path<Point> route = map.findShortestPath(buildings.get(0), buildings.get(buildings.size() - 1));
+        assertNotNull(route);
+        assertTrue(route.getCost() > 0);
+    }
+
+    /**
+     * The Graph, compact graph and bipartite graph built from a generated file agree
+     * with each other, and have at least the number of edges asked for
+     */
+    @Test
+    public void testMarvel() throws IOException {
+        java.nio.file.Path file = directory.resolve("marvel.tsv");
+        long edges = DataGenerator.writeMarvel(file, 20000, DataGenerator.DEFAULT_SEED);
+        assertTrue(edges >= 20000);
+        Graph<String, String> graph = MarvelPaths.buildGraph(file);
+        CompactGraph<String, String> compact = MarvelGraphLoader.load(file);
+        assertEquals(edges, compact.edgeCount());
+        assertEquals(graph.size(), compact.size());
+        assertEquals(graph.freeze().edgeCount(), compact.edgeCount());
+        assertEquals(compact.size(), MarvelGraphLoader.loadBipartite(file).leftSize());
+    }
+
+    @Test
+    public void testSameSeedWritesSameFile() throws IOException {
+        java.nio.file.Path first = directory.resolve("first");
+        java.nio.file.Path second = directory.resolve("second");
+        DataGenerator.writeCampus(first, 500, 7);
+        DataGenerator.writeCampus(second, 500, 7);
+        DataGenerator.writeMarvel(first.resolve("marvel.tsv"), 5000, 7);
+        DataGenerator.writeMarvel(second.resolve("marvel.tsv"), 5000, 7);
+        for (String name : new String[]{DataGenerator.BUILDINGS_FILE, DataGenerator.PATHS_FILE, "marvel.tsv"}) {
+            assertArrayEquals(Files.readAllBytes(first.resolve(name)), Files.readAllBytes(second.resolve(name)));
+        }
+        DataGenerator.writeMarvel(second.resolve("marvel.tsv"), 5000, 8);
+        assertFalse(Arrays.equals(Files.readAllBytes(first.resolve("marvel.tsv")),
+                Files.readAllBytes(second.resolve("marvel.tsv"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoEdges() throws IOException {
+        DataGenerator.writeMarvel(directory.resolve("marvel.tsv"), 0, DataGenerator.DEFAULT_SEED);
+    }
+
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testMissingCampusFile() {
+        new CampusMap(directory.resolve("missing.tsv"), directory.resolve("missing.tsv"));
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks.implTest;
+
+import benchmarks.LoadGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation
+ * of the LoadGenerator class, against a small stand-in for the campus paths server.
+ */
+public class LoadGeneratorTest {
+
+    private HttpServer server;
+    private ExecutorService threads;
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/list-building", exchange ->
+                send(exchange, "{\"CSE\":\"Paul G. Allen Center\",\"MUS\":\"Music Building\",\"KNE\":\"Kane Hall\"}"));
+        StringBuilder path = new StringBuilder("{\"cost\":1.0,\"path\":[");
+        for (int i = 0; i < 200; i++) {
+            path.append(i == 0 ? "" : ",").append("{\"x\":").append(i * 1.5).append(",\"y\":").append(i).append('}');
+        }
+        String body = path.append("]}").toString();
+        server.createContext("/find-path", exchange -> send(exchange, body));
+        threads = Executors.newFixedThreadPool(4);
+        server.setExecutor(threads);
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        threads.shutdownNow();
+    }
+
+    /**
+     * Answers with the given body, compressed with gzip if the request accepts it.
+     */
+    private static void send(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Test
+    public void testBuildingNames() throws Exception {
+        assertEquals(List.of("CSE", "KNE", "MUS"), LoadGenerator.buildingNames(HttpClient.newHttpClient(), url));
+    }
+
+    @Test
+    public void testRequestsAreRepeatableAndBetweenDifferentBuildings() {
+        List<String> buildings = List.of("CSE", "KNE", "MUS");
+        List<URI> requests = LoadGenerator.findPathRequests(url, buildings, "polyline", 100, 1);
+        assertEquals(requests, LoadGenerator.findPathRequests(url, buildings, "polyline", 100, 1));
+        for (URI request : requests) {
+            String query = request.getQuery();
+            assertTrue(query, query.endsWith("&format=polyline"));
+            String start = query.substring("start=".length(), query.indexOf('&'));
+            assertFalse(query, query.contains("end=" + start + "&"));
+        }
+    }
+
+    @Test
+    public void testCompressionIsMeasured() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        List<URI> requests = LoadGenerator.findPathRequests(url, LoadGenerator.buildingNames(client, url),
+                "segments", 10, 1);
+        LoadGenerator.Report identity = LoadGenerator.run(client, requests, "identity", 2, Duration.ofMillis(300));
+        LoadGenerator.Report gzip = LoadGenerator.run(client, requests, "gzip", 2, Duration.ofMillis(300));
+        for (LoadGenerator.Report report : new LoadGenerator.Report[]{identity, gzip}) {
+            assertTrue(report.requests() > 0);
+            assertEquals(0, report.errors());
+            assertTrue(report.throughput() > 0);
+            assertTrue(report.latency(0.5) <= report.latency(0.99));
+        }
+        assertTrue((double) gzip.bytes() / gzip.requests() < (double) identity.bytes() / identity.requests() / 2);
+    }
+}
@@ -82,8 +82,10 @@ class App extends Component {
                 alert("We can't find a path from one building to itself!")
             } else {
                 // Fetch the information of the shortest path between these two places
+                // Ask for the path as an encoded polyline, which is several times smaller
+                // than a list of segments; Map decodes it.
                 let response = await fetch("http://localhost:4567/find-path?start=" + shortNameStart + "&end="
-                    + shortNameEnd);
+                    + shortNameEnd + "&format=polyline");
                 // If the response doesn't have the right status code that indicates that
                 // we received a valid response, alert the user.
                 if (!response.ok) {
@@ -94,12 +96,11 @@ class App extends Component {
                 // the user
                 let requestedPath = await response.json();
                 // update the shortest path we found.
-                // JSON string contains Path<Point> and Path has a field named path.
-                // Therefore, We use requestedPath.path because it gives us information
-                // of a list of segments that represents the shortest path between the two
-                // places queried by the user
+                // The JSON string holds the cost of the path and its points, encoded
+                // as a polyline, which Map turns back into the list of segments that
+                // represents the shortest path between the two places queried by the user
                 this.setState({
-                    pathObject: requestedPath.path
+                    pathObject: requestedPath
                 });
             }
         } catch (e) {
@@ -68,8 +68,8 @@ class Map extends Component {
             ctx.drawImage(this.state.backgroundImage, 0, 0);
         }
         // Get the list of segments that represents the shortest path we
-        // are going to draw
-        let listOfSegments = this.props.pathObject;
+        // are going to draw, decoding it first if the server sent it as a polyline
+        let listOfSegments = segmentsOf(this.props.pathObject);
         // loop through the list of segments
         for (let index of Object.keys(listOfSegments)) {
             // get the current segment
@@ -105,4 +105,45 @@ class Map extends Component {
     }
 }
 
+// Decodes the points of a path that the server encoded as a polyline with the given
+// number of decimal digits. Every coordinate is the difference from the previous one,
+// written five bits at a time as the characters '?' to '~'. The differences may be
+// wider than 32 bits, so they are put together with arithmetic instead of bit operators.
+export function decodePolyline(encoded, precision) {
+    let scale = Math.pow(10, precision);
+    let points = [];
+    let index = 0;
+    let coordinates = [0, 0];
+    while (index < encoded.length) {
+        for (let i = 0; i < 2; i++) {
+            let bits = 0;
+            let factor = 1;
+            let chunk;
+            do {
+                chunk = encoded.charCodeAt(index++) - 63;
+                bits += (chunk % 32) * factor;
+                factor *= 32;
+            } while (chunk >= 32);
+            // undo the zigzag that put the sign in the lowest bit
+            coordinates[i] += bits % 2 === 1 ? -(bits + 1) / 2 : bits / 2;
+        }
+        points.push({x: coordinates[0] / scale, y: coordinates[1] / scale});
+    }
+    return points;
+}
+
+// Returns the list of segments of a path the server sent, which is either a list of
+// segments already or an object with an encoded polyline of the points of the path.
+function segmentsOf(pathObject) {
+    if (pathObject === null || pathObject.polyline === undefined) {
+        return pathObject === null ? [] : pathObject;
+    }
+    let points = decodePolyline(pathObject.polyline, pathObject.precision);
+    let segments = [];
+    for (let i = 1; i < points.length; i++) {
+        segments.push({start: points[i - 1], end: points[i]});
+    }
+    return segments;
+}
+
 export default Map;
\ No newline at end of file
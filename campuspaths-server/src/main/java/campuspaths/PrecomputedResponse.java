@@ -0,0 +1,170 @@
+package campuspaths;
+
+import campuspaths.utils.AcceptEncoding;
+import spark.Request;
+import spark.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * PrecomputedResponse represents an immutable response body that is encoded once and then
+ * sent as is to every request for it, along with a gzip-compressed copy for the clients
+ * that accept one, if the server's compression policy compresses the body with gzip. Both
+ * copies carry a strong entity tag derived from the content of the
+ * body, so that a client that already has the body can revalidate it with If-None-Match
+ * and be answered with 304 Not Modified and no body at all. Since the tag only depends on
+ * the content, it stays the same across restarts and reloads of the server that do not
+ * change the body.
+ */
+public class PrecomputedResponse {
+    // the Cache-Control of the response: clients may keep it, but must revalidate it
+    // before using it, since the campus data can be reloaded at any time
+    private static final String CACHE_CONTROL = "no-cache";
+
+    // the policy of a response that is not given one: gzip every body at the default level
+    private static final ResponseCompression GZIP = new ResponseCompression(List.of("gzip"), 0, 6);
+
+    private final String contentType;
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+    private static final boolean DEBUG = false;
+
+    // RI: contentType != null && body != null && etag != null && gzipEtag != null
+    //     && (gzipBody == null || gzipBody.length < body.length)
+
+    // AF(this): a response whose body is body, of type contentType, and whose entity tag
+    //           is etag; gzipBody is the body compressed with gzip, whose entity tag is
+    //           gzipEtag, or null if the policy did not compress it or compressing the
+    //           body does not make it smaller
+
+    /**
+     * Encodes the given body, with a copy compressed with gzip at the default level.
+     *
+     * @param contentType the media type of the body
+     * @param body        the body of the response, which must not be modified afterwards
+     * @throws IllegalArgumentException if contentType or body is null
+     * @spec.effects creates the response with the given body, its compressed copy and
+     * their entity tags
+     */
+    public PrecomputedResponse(String contentType, byte[] body) {
+        this(contentType, body, GZIP);
+    }
+
+    /**
+     * Encodes the given body, with a copy compressed with gzip if the given policy
+     * compresses a body of its size with gzip, at the level of the policy.
+     *
+     * @param contentType the media type of the body
+     * @param body        the body of the response, which must not be modified afterwards
+     * @param compression the policy the server compresses its responses by
+     * @throws IllegalArgumentException if contentType, body or compression is null
+     * @spec.effects creates the response with the given body, its compressed copy if the
+     * policy makes one, and their entity tags
+     */
+    public PrecomputedResponse(String contentType, byte[] body, ResponseCompression compression) {
+        if (contentType == null || body == null || compression == null) {
+            throw new IllegalArgumentException();
+        }
+        this.contentType = contentType;
+        this.body = body;
+        byte[] compressed = compression.compresses("gzip", body.length)
+                ? compression.compress("gzip", body) : null;
+        this.gzipBody = compressed != null && compressed.length < body.length ? compressed : null;
+        String tag = digest(body);
+        // every encoding of the body is a different representation, so it needs its own tag
+        this.etag = "\"" + tag + "\"";
+        this.gzipEtag = "\"" + tag + "-gzip\"";
+        checkRep();
+    }
+
+    /**
+     * Answers a request with this response: with 304 and no body if the request's
+     * If-None-Match header names either copy of the body, and otherwise with the
+     * compressed copy if the client accepts gzip, or with the body itself.
+     *
+     * @param request  the request to answer
+     * @param response the response to the request
+     * @throws IOException if the body cannot be written
+     * @spec.modifies response
+     * @spec.effects sets the status, the headers and the body of response
+     */
+    public void send(Request request, Response response) throws IOException {
+        boolean compressed = gzipBody != null && AcceptEncoding.accepts(request.headers("Accept-Encoding"), "gzip");
+        if (gzipBody != null) {
+            // caches must not give a compressed copy to a client that did not ask for one
+            response.header("Vary", "Accept-Encoding");
+        }
+        response.header("Cache-Control", CACHE_CONTROL);
+        response.header("ETag", compressed ? gzipEtag : etag);
+        if (matches(request.headers("If-None-Match"))) {
+            response.status(304);
+            return;
+        }
+        response.type(contentType);
+        if (compressed) {
+            response.header("Content-Encoding", "gzip");
+        }
+        byte[] sent = compressed ? gzipBody : body;
+        response.raw().setContentLength(sent.length);
+        OutputStream out = response.raw().getOutputStream();
+        out.write(sent);
+        out.flush();
+    }
+
+    /**
+     * Tells whether an If-None-Match header names this response, which it does if it is
+     * "*" or lists the entity tag of either copy of the body. Like the header requires,
+     * the tags are compared weakly, so a tag marked W/ matches too.
+     *
+     * @param ifNoneMatch the If-None-Match header of a request, or null if it has none
+     * @return true if the client already has the body
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(etag) || trimmed.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param body the bytes to digest
+     * @return the first 128 bits of the SHA-256 digest of the bytes, in unpadded base64url,
+     * which only uses characters an entity tag may hold
+     */
+    private static String digest(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform must support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void checkRep() {
+        assert contentType != null && body != null && etag != null && gzipEtag != null;
+        if (DEBUG) {
+            assert gzipBody == null || gzipBody.length < body.length;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package campuspaths;
+
+import campuspaths.metrics.ServerMetrics;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * QueryExecutor represents the threads that run the searches of the server, apart from
+ * the threads of Jetty, so that a burst of expensive searches cannot take every thread
+ * that answers requests.
+ *
+ * <p>At most a fixed number of queries run at once. The queries that are waiting for
+ * their turn are limited as well: a query that would make too many wait is rejected
+ * straight away, which sheds the load of a burst instead of answering every request
+ * of it too late. Every query has a deadline, and a query that has not finished by then
+ * is cancelled: if it is still waiting it never runs, and if it is running its thread
+ * is interrupted, which stops the search it runs, whatever its algorithm.
+ *
+ * <p>On a runtime that has virtual threads, every query runs on a virtual thread of its
+ * own, and a semaphore keeps all but the allowed number of them waiting. Otherwise the
+ * queries run on a pool of that many platform threads.
+ */
+public class QueryExecutor {
+    private final ExecutorService executor;
+    private final Semaphore running;
+    private final boolean virtual;
+    private final int parallelism;
+    private final int maxQueued;
+    private final long timeoutNanos;
+    private final AtomicInteger queued;
+    private final ServerMetrics metrics;
+    private static final boolean DEBUG = false;
+
+    // RI: executor != null && parallelism > 0 && maxQueued >= 0 && timeoutNanos > 0
+    //     && queued != null && metrics != null
+    //     && (virtual iff running != null) && (running == null || running.availablePermits() <= parallelism)
+    //     && queued.get() >= 0
+
+    // AF(this): an executor that runs at most parallelism queries at once, on the virtual
+    //           threads of executor iff virtual, where running holds the turns of the
+    //           virtual threads that are not taken; queued queries have been submitted and
+    //           have not started, and a query is rejected if maxQueued queries are already
+    //           queued; every query is cancelled timeoutNanos nanoseconds after its request
+    //           started, and the waits and rejections are recorded in metrics
+
+    /**
+     * Creates an executor of queries.
+     *
+     * @param preferVirtual whether to run the queries on virtual threads, if the runtime has them
+     * @param parallelism   the most queries that may run at once
+     * @param maxQueued     the most queries that may wait for their turn before more are rejected
+     * @param timeoutMillis the time after the start of a request when its queries are cancelled
+     * @param metrics       the measurements to record the queue waits, rejections and timeouts in
+     * @throws IllegalArgumentException if parallelism or timeoutMillis is not positive, if
+     *                                  maxQueued is negative, or if metrics is null
+     */
+    public QueryExecutor(boolean preferVirtual, int parallelism, int maxQueued, long timeoutMillis,
+                         ServerMetrics metrics) {
+        if (parallelism <= 0 || maxQueued < 0 || timeoutMillis <= 0 || metrics == null) {
+            throw new IllegalArgumentException();
+        }
+        ExecutorService virtualExecutor = preferVirtual ? newVirtualThreadExecutor() : null;
+        this.virtual = virtualExecutor != null;
+        this.executor = virtual ? virtualExecutor : newPool(parallelism);
+        this.running = virtual ? new Semaphore(parallelism) : null;
+        this.parallelism = parallelism;
+        this.maxQueued = maxQueued;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.queued = new AtomicInteger();
+        this.metrics = metrics;
+        checkRep();
+    }
+
+    /**
+     * Creates an executor of queries configured by the system properties the server was run
+     * with: -Dcampuspaths.queryThreads=N runs at most N queries at once, by default as many
+     * as there are processors; -Dcampuspaths.virtualThreads=false runs them on a pool of
+     * platform threads even if the runtime has virtual threads; -Dcampuspaths.maxQueuedQueries=N
+     * rejects queries once N are waiting, by default 64; and -Dcampuspaths.queryTimeoutMillis=N
+     * cancels the queries of a request N milliseconds after it started, by default 10000.
+     *
+     * @param metrics the measurements to record the queue waits, rejections and timeouts in
+     * @return the executor
+     * @throws IllegalArgumentException if a property is out of range, or if metrics is null
+     */
+    public static QueryExecutor fromSystemProperties(ServerMetrics metrics) {
+        String virtualThreads = System.getProperty("campuspaths.virtualThreads", "true");
+        return new QueryExecutor(Boolean.parseBoolean(virtualThreads),
+                Integer.getInteger("campuspaths.queryThreads", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("campuspaths.maxQueuedQueries", 64),
+                Long.getLong("campuspaths.queryTimeoutMillis", 10000L),
+                metrics);
+    }
+
+    /**
+     * @return true if the queries run on virtual threads, false if they run on a pool of
+     * platform threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * @return the most queries that may run at once
+     */
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @return the number of queries that have been submitted and have not started
+     */
+    public int queued() {
+        return queued.get();
+    }
+
+    /**
+     * @param startNanos the value of System.nanoTime() when a request started
+     * @return the value of System.nanoTime() when the queries of the request are cancelled
+     */
+    public long deadlineOf(long startNanos) {
+        return startNanos + timeoutNanos;
+    }
+
+    /**
+     * Runs a query and waits for its result.
+     *
+     * @param query    the query to run
+     * @param deadline the value of System.nanoTime() when the query is cancelled
+     * @param <T>      the type of the result of the query
+     * @return the result of the query
+     * @throws RejectedExecutionException if too many queries are already waiting
+     * @throws TimeoutException           if the query did not finish by the deadline
+     * @throws InterruptedException       if this thread is interrupted while waiting
+     * @throws ExecutionException         if the query threw an exception, which is its cause
+     * @throws IllegalArgumentException   if query is null
+     */
+    public <T> T call(Callable<T> query, long deadline)
+            throws TimeoutException, InterruptedException, ExecutionException {
+        return await(submit(query), deadline);
+    }
+
+    /**
+     * Submits a query to be run once it is its turn.
+     *
+     * @param query the query to run
+     * @param <T>   the type of the result of the query
+     * @return the future result of the query
+     * @throws RejectedExecutionException if too many queries are already waiting
+     * @throws IllegalArgumentException   if query is null
+     * @spec.modifies this
+     */
+    public <T> Future<T> submit(Callable<T> query) {
+        return enqueue(query, true);
+    }
+
+    /**
+     * Submits a query of a request that has already been admitted, such as the next search
+     * of a batch whose first search was submitted with submit. It is never rejected, so a
+     * request is never shed after it has started to answer.
+     *
+     * @param query the query to run
+     * @param <T>   the type of the result of the query
+     * @return the future result of the query
+     * @throws IllegalArgumentException if query is null
+     * @spec.modifies this
+     */
+    public <T> Future<T> submitAdmitted(Callable<T> query) {
+        return enqueue(query, false);
+    }
+
+    /**
+     * Waits for the result of a query, and cancels it if it is not done by the deadline.
+     *
+     * @param future   the future result of the query
+     * @param deadline the value of System.nanoTime() when the query is cancelled
+     * @param <T>      the type of the result of the query
+     * @return the result of the query
+     * @throws TimeoutException     if the query did not finish by the deadline
+     * @throws InterruptedException if this thread is interrupted while waiting, which
+     *                              cancels the query as well
+     * @throws ExecutionException   if the query threw an exception, which is its cause
+     */
+    public <T> T await(Future<T> future, long deadline)
+            throws TimeoutException, InterruptedException, ExecutionException {
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            metrics.recordQueryTimeout();
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Stops accepting queries, and interrupts the ones that are running.
+     *
+     * @spec.modifies this
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param query   the query to run
+     * @param mayShed whether to reject the query if too many queries are already waiting
+     * @param <T>     the type of the result of the query
+     * @return the future result of the query
+     * @throws RejectedExecutionException if the query is rejected, or this has been shut down
+     * @throws IllegalArgumentException   if query is null
+     */
+    private <T> Future<T> enqueue(Callable<T> query, boolean mayShed) {
+        if (query == null) {
+            throw new IllegalArgumentException();
+        }
+        if (queued.incrementAndGet() > maxQueued && mayShed) {
+            queued.decrementAndGet();
+            metrics.recordQueryRejected();
+            throw new RejectedExecutionException(maxQueued + " queries are already waiting");
+        }
+        AtomicBoolean waiting = new AtomicBoolean(true);
+        long submittedNanos = System.nanoTime();
+        Query<T> task = new Query<>(() -> run(query, waiting, submittedNanos), waiting);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            leaveQueue(waiting);
+            throw e;
+        }
+        checkRep();
+        return task;
+    }
+
+    /**
+     * Runs a query once it is its turn.
+     *
+     * @param query          the query to run
+     * @param waiting        whether the query still counts as queued
+     * @param submittedNanos the value of System.nanoTime() when the query was submitted
+     * @param <T>            the type of the result of the query
+     * @return the result of the query
+     * @throws Exception if the query throws it, or InterruptedException if the query is
+     *                   cancelled while it waits for its turn
+     */
+    private <T> T run(Callable<T> query, AtomicBoolean waiting, long submittedNanos) throws Exception {
+        if (running != null) {
+            running.acquire();
+        }
+        try {
+            leaveQueue(waiting);
+            metrics.recordQueryWait(System.nanoTime() - submittedNanos);
+            return query.call();
+        } finally {
+            if (running != null) {
+                running.release();
+            }
+        }
+    }
+
+    /**
+     * Takes a query out of the count of queued queries, unless it already has been.
+     *
+     * @param waiting whether the query still counts as queued, which becomes false
+     */
+    private void leaveQueue(AtomicBoolean waiting) {
+        if (waiting.compareAndSet(true, false)) {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return an executor that starts a virtual thread for every task, or null if the
+     * runtime has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // looked up reflectively, since the server is compiled for Java 11
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param threads the number of threads of the pool
+     * @return a pool of that many daemon threads, with an unbounded queue, since the
+     * queries are counted and rejected before they reach it
+     */
+    private static ExecutorService newPool(int threads) {
+        AtomicInteger created = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "campuspaths-query-" + created.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), factory);
+    }
+
+    private void checkRep() {
+        assert executor != null && parallelism > 0 && maxQueued >= 0 && timeoutNanos > 0;
+        assert queued != null && metrics != null && virtual == (running != null);
+        if (DEBUG) {
+            assert running == null || running.availablePermits() <= parallelism;
+            assert queued.get() >= 0;
+        }
+    }
+
+    /**
+     * One submitted query, which counts as queued until it starts to run or is cancelled.
+     *
+     * @param <T> the type of the result of the query
+     */
+    private class Query<T> extends FutureTask<T> {
+        private final AtomicBoolean waiting;
+
+        /**
+         * @param query   the query to run
+         * @param waiting whether the query still counts as queued
+         */
+        Query(Callable<T> query, AtomicBoolean waiting) {
+            super(query);
+            this.waiting = waiting;
+        }
+
+        @Override
+        protected void done() {
+            // a query that is cancelled before it starts never runs
+            leaveQueue(waiting);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package campuspaths;
+
+import campuspaths.utils.AcceptEncoding;
+import spark.Request;
+import spark.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ResponseCompression represents the immutable policy the server compresses the bodies of
+ * its responses by: with the first of its content codings that the client accepts, once
+ * the body has at least a minimum number of bytes, since compressing a small body costs
+ * more time than sending it saves.
+ *
+ * <p>The body is written to a stream opened by open, which holds the first bytes back
+ * until it knows whether the body reaches the minimum size, and only then sets the
+ * Content-Encoding of the response. After that it compresses the bytes as they come, and
+ * flushing it flushes the compressor as well, so a response that is streamed in parts
+ * still reaches the client part by part.
+ */
+public class ResponseCompression {
+    // the size of the buffers of the compressors
+    private static final int BUFFER_SIZE = 8192;
+
+    private final List<String> encodings;
+    private final int minSize;
+    private final int level;
+    private static final boolean DEBUG = false;
+
+    // RI: encodings != null && every element of encodings is "gzip" or "deflate"
+    //     && minSize >= 0 && 1 <= level <= 9
+
+    // AF(this): a policy that compresses a body of at least minSize bytes with the first
+    //           element of encodings the client accepts, at deflate level level, and
+    //           compresses nothing if encodings is empty
+
+    /**
+     * Creates a compression policy.
+     *
+     * @param encodings the content codings to compress with, "gzip" or "deflate", most
+     *                  preferred first; empty to compress nothing
+     * @param minSize   the fewest bytes a body must have to be compressed
+     * @param level     the deflate level, from 1, the fastest, to 9, the smallest
+     * @throws IllegalArgumentException if encodings is null or holds another coding, if
+     *                                  minSize is negative, or if level is not from 1 to 9
+     */
+    public ResponseCompression(List<String> encodings, int minSize, int level) {
+        if (encodings == null || minSize < 0 || level < 1 || level > 9) {
+            throw new IllegalArgumentException();
+        }
+        for (String encoding : encodings) {
+            if (!"gzip".equals(encoding) && !"deflate".equals(encoding)) {
+                throw new IllegalArgumentException("unknown encoding " + encoding);
+            }
+        }
+        this.encodings = List.copyOf(encodings);
+        this.minSize = minSize;
+        this.level = level;
+        checkRep();
+    }
+
+    /**
+     * Opens the stream to write the body of a response to. Closing the stream finishes
+     * the body, but leaves the stream of the response open for Spark to close.
+     *
+     * @param request  the request the response answers
+     * @param response the response, whose headers must not have been sent yet
+     * @return the stream to write the body to
+     * @throws IOException if the stream of the response cannot be opened
+     * @spec.modifies response
+     * @spec.effects sets the Vary header of response if this compresses anything, and its
+     * Content-Encoding header once the body is known to be compressed
+     */
+    public OutputStream open(Request request, Response response) throws IOException {
+        OutputStream raw = new Unclosed(response.raw().getOutputStream());
+        if (encodings.isEmpty()) {
+            return raw;
+        }
+        // caches must not give a compressed copy to a client that did not ask for one
+        response.header("Vary", "Accept-Encoding");
+        String acceptEncoding = request.headers("Accept-Encoding");
+        for (String encoding : encodings) {
+            if (AcceptEncoding.accepts(acceptEncoding, encoding)) {
+                return new Compressing(raw, response, encoding);
+            }
+        }
+        return raw;
+    }
+
+    /**
+     * Tells whether this policy compresses a body of the given size with the given coding
+     * for a client that accepts it.
+     *
+     * @param encoding the content coding, such as "gzip"
+     * @param size     the number of bytes of the body
+     * @return true if encoding is one of the codings of this policy and size is at least
+     * its minimum size
+     */
+    public boolean compresses(String encoding, int size) {
+        return encodings.contains(encoding) && size >= minSize;
+    }
+
+    /**
+     * Compresses a whole body at once, at the deflate level of this policy, for a
+     * response that is compressed once and sent many times.
+     *
+     * @param encoding the content coding to compress with, "gzip" or "deflate"
+     * @param body     the bytes to compress
+     * @return the bytes compressed with the given coding
+     * @throws IllegalArgumentException if encoding is not "gzip" or "deflate", or if body
+     *                                  is null
+     */
+    public byte[] compress(String encoding, byte[] body) {
+        if ((!"gzip".equals(encoding) && !"deflate".equals(encoding)) || body == null) {
+            throw new IllegalArgumentException();
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream out = encoding.equals("gzip")
+                ? new LeveledGzip(compressed) : new Deflating(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            // a ByteArrayOutputStream never fails
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private void checkRep() {
+        assert encodings != null && minSize >= 0 && 1 <= level && level <= 9;
+        if (DEBUG) {
+            for (String encoding : encodings) {
+                assert encoding.equals("gzip") || encoding.equals("deflate");
+            }
+        }
+    }
+
+    /**
+     * The stream of the body of one response the client accepts compressed: it holds
+     * the body back until it has minSize bytes or is closed, and then either compresses
+     * it with the chosen coding or, if it is closed first, sends it as it is.
+     */
+    private class Compressing extends OutputStream {
+        private final OutputStream raw;
+        private final Response response;
+        private final String encoding;
+        private ByteArrayOutputStream pending;
+        private OutputStream out;
+
+        /**
+         * @param raw      the stream of the response
+         * @param response the response, to set the Content-Encoding of
+         * @param encoding the content coding to compress with
+         */
+        Compressing(OutputStream raw, Response response, String encoding) {
+            this.raw = raw;
+            this.response = response;
+            this.encoding = encoding;
+            this.pending = new ByteArrayOutputStream(Math.min(minSize, BUFFER_SIZE) + 1);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out != null) {
+                out.write(b, off, len);
+                return;
+            }
+            pending.write(b, off, len);
+            if (pending.size() >= minSize) {
+                start(true);
+            }
+        }
+
+        /**
+         * Flushes the bytes written so far to the client, unless they are still held back
+         * because there are too few to tell whether to compress them.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out == null) {
+                start(false);
+            }
+            out.close();
+        }
+
+        /**
+         * Chooses how to send the body and sends the bytes held back so far.
+         *
+         * @param compress whether to compress the body
+         * @throws IOException if the bytes cannot be written
+         */
+        private void start(boolean compress) throws IOException {
+            if (compress) {
+                response.header("Content-Encoding", encoding);
+                out = encoding.equals("gzip") ? new LeveledGzip(raw) : new Deflating(raw);
+            } else {
+                out = raw;
+            }
+            pending.writeTo(out);
+            pending = null;
+        }
+    }
+
+    /**
+     * A gzip stream at the deflate level of this policy, whose flush sends everything
+     * written so far.
+     */
+    private class LeveledGzip extends GZIPOutputStream {
+        /**
+         * @param out the stream to write the compressed bytes to
+         * @throws IOException if the gzip header cannot be written
+         */
+        LeveledGzip(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE, true);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * A zlib stream, the "deflate" content coding, at the deflate level of this policy,
+     * whose flush sends everything written so far.
+     */
+    private class Deflating extends DeflaterOutputStream {
+        // the deflater of the stream, which a stream given one does not end itself
+        private final Deflater deflater;
+
+        /**
+         * @param out the stream to write the compressed bytes to
+         */
+        Deflating(OutputStream out) {
+            this(out, new Deflater(level));
+        }
+
+        /**
+         * @param out      the stream to write the compressed bytes to
+         * @param deflater the deflater to compress with
+         */
+        private Deflating(OutputStream out, Deflater deflater) {
+            super(out, deflater, BUFFER_SIZE, true);
+            this.deflater = deflater;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * A stream whose close only flushes the stream it wraps, so that the stream of a
+     * response stays open for Spark.
+     */
+    private static class Unclosed extends FilterOutputStream {
+        /**
+         * @param out the stream to wrap
+         */
+        Unclosed(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
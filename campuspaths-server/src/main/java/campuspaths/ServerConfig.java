@@ -0,0 +1,240 @@
+package campuspaths;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+import spark.Spark;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
+import spark.embeddedserver.jetty.JettyServerFactory;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * ServerConfig represents the immutable settings of the HTTP side of the server: the
+ * address it listens on, the connector and thread pool of its Jetty server, and the
+ * compression of its responses. They are read from a properties file, by default the
+ * server.properties bundled with the server, which lists every setting and its default.
+ *
+ * <p>The settings are:
+ * <pre>
+ *     server.host                   the address to listen on
+ *     server.port                   the port to listen on
+ *     jetty.acceptors               the threads that accept connections, -1 to let Jetty choose
+ *     jetty.selectors               the threads that select ready connections, -1 to let Jetty choose
+ *     jetty.acceptQueueSize         the connections the OS may queue before they are accepted,
+ *                                   0 for its default
+ *     jetty.idleTimeoutMillis       how long an idle keep-alive connection is kept open
+ *     jetty.minThreads              the fewest threads of the pool that answers requests
+ *     jetty.maxThreads              the most threads of the pool, acceptors and selectors included
+ *     jetty.threadIdleTimeoutMillis how long an idle thread above minThreads is kept
+ *     compression.enabled           whether to compress responses the client accepts compressed
+ *     compression.minSize           the fewest bytes a response must have to be compressed
+ *     compression.level             the deflate level, 1 (fastest) to 9 (smallest)
+ *     compression.encodings         the content codings to use, gzip and deflate, in order of preference
+ * </pre>
+ */
+public class ServerConfig {
+    /**
+     * The resource, next to this class, that holds the default settings.
+     */
+    public static final String DEFAULT_RESOURCE = "server.properties";
+
+    private final String host;
+    private final int port;
+    private final int acceptors;
+    private final int selectors;
+    private final int acceptQueueSize;
+    private final long idleTimeoutMillis;
+    private final int minThreads;
+    private final int maxThreads;
+    private final int threadIdleTimeoutMillis;
+    private final boolean compressionEnabled;
+    private final int compressionMinSize;
+    private final int compressionLevel;
+    private final List<String> compressionEncodings;
+    private static final boolean DEBUG = false;
+
+    // RI: host != null && 0 <= port <= 65535 && acceptors >= -1 && selectors >= -1
+    //     && acceptQueueSize >= 0 && idleTimeoutMillis > 0 && 0 < minThreads <= maxThreads
+    //     && threadIdleTimeoutMillis > 0 && compressionMinSize >= 0
+    //     && 1 <= compressionLevel <= 9 && compressionEncodings != null
+    //     && every element of compressionEncodings is "gzip" or "deflate"
+
+    // AF(this): the settings named by the fields, where compressionEncodings lists the
+    //           content codings to compress responses with, most preferred first
+
+    /**
+     * Reads the settings from the given properties, where every setting they leave out
+     * has its default from DEFAULT_RESOURCE.
+     *
+     * @param properties the settings
+     * @throws IllegalArgumentException if properties is null, or if a setting is not a
+     *                                  valid value
+     */
+    public ServerConfig(Properties properties) {
+        if (properties == null) {
+            throw new IllegalArgumentException();
+        }
+        Properties settings = defaults();
+        settings.putAll(properties);
+        host = settings.getProperty("server.host").trim();
+        port = intSetting(settings, "server.port", 0, 65535);
+        acceptors = intSetting(settings, "jetty.acceptors", -1, Integer.MAX_VALUE);
+        selectors = intSetting(settings, "jetty.selectors", -1, Integer.MAX_VALUE);
+        acceptQueueSize = intSetting(settings, "jetty.acceptQueueSize", 0, Integer.MAX_VALUE);
+        idleTimeoutMillis = intSetting(settings, "jetty.idleTimeoutMillis", 1, Integer.MAX_VALUE);
+        minThreads = intSetting(settings, "jetty.minThreads", 1, Integer.MAX_VALUE);
+        maxThreads = intSetting(settings, "jetty.maxThreads", minThreads, Integer.MAX_VALUE);
+        threadIdleTimeoutMillis = intSetting(settings, "jetty.threadIdleTimeoutMillis", 1, Integer.MAX_VALUE);
+        compressionEnabled = Boolean.parseBoolean(settings.getProperty("compression.enabled").trim());
+        compressionMinSize = intSetting(settings, "compression.minSize", 0, Integer.MAX_VALUE);
+        compressionLevel = intSetting(settings, "compression.level", 1, 9);
+        List<String> encodings = new ArrayList<>();
+        for (String encoding : settings.getProperty("compression.encodings").split(",")) {
+            String name = encoding.trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("gzip") && !name.equals("deflate")) {
+                throw new IllegalArgumentException("compression.encodings: unknown encoding " + encoding);
+            }
+            encodings.add(name);
+        }
+        compressionEncodings = Collections.unmodifiableList(encodings);
+        checkRep();
+    }
+
+    /**
+     * Reads the settings the server was run with: from the properties file FILE if it was
+     * run with -Dcampuspaths.config=FILE, and otherwise the defaults.
+     *
+     * @return the settings
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a setting is not a valid value
+     */
+    public static ServerConfig fromSystemProperties() throws IOException {
+        Properties properties = new Properties();
+        String file = System.getProperty("campuspaths.config");
+        if (file != null) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            }
+        }
+        return new ServerConfig(properties);
+    }
+
+    /**
+     * Makes Spark run its Jetty server with these settings. Must be called before any
+     * route or filter is added, since the first one starts the server.
+     *
+     * @spec.effects the Jetty server Spark starts listens on host and port with a
+     * connector and a thread pool configured by these settings
+     */
+    public void applyToSpark() {
+        Spark.port(port);
+        EmbeddedServers.add(EmbeddedServers.Identifiers.JETTY, new EmbeddedJettyFactory(new JettyServerFactory() {
+            @Override
+            public Server create(int sparkMaxThreads, int sparkMinThreads, int sparkThreadTimeoutMillis) {
+                QueuedThreadPool threads = new QueuedThreadPool(maxThreads, minThreads, threadIdleTimeoutMillis);
+                threads.setName("campuspaths-http");
+                return create(threads);
+            }
+
+            @Override
+            public Server create(ThreadPool threadPool) {
+                Server server = new Server(threadPool);
+                // Spark keeps the connectors a server already has instead of adding its own
+                ServerConnector connector = new ServerConnector(server, acceptors, selectors);
+                connector.setHost(host);
+                connector.setPort(port);
+                connector.setIdleTimeout(idleTimeoutMillis);
+                connector.setAcceptQueueSize(acceptQueueSize);
+                server.addConnector(connector);
+                return server;
+            }
+        }));
+    }
+
+    /**
+     * @return the port to listen on
+     */
+    public int port() {
+        return port;
+    }
+
+    /**
+     * @return the compression of responses these settings describe
+     */
+    public ResponseCompression compression() {
+        return new ResponseCompression(compressionEnabled ? compressionEncodings : List.of(),
+                compressionMinSize, compressionLevel);
+    }
+
+    /**
+     * @return a one-line description of the settings, to log when the server starts
+     */
+    public String describe() {
+        return String.format("listening on %s:%d with %s acceptors, %s selectors, %d to %d threads"
+                        + " and a %d ms idle timeout; compressing responses of %d bytes or more with %s",
+                host, port, acceptors < 0 ? "default" : acceptors, selectors < 0 ? "default" : selectors,
+                minThreads, maxThreads, idleTimeoutMillis, compressionMinSize,
+                compressionEnabled ? String.join(" or ", compressionEncodings) : "nothing");
+    }
+
+    /**
+     * @return the default settings, read from DEFAULT_RESOURCE
+     * @throws IllegalStateException if the resource is missing or cannot be read
+     */
+    private static Properties defaults() {
+        Properties defaults = new Properties();
+        try (InputStream in = ServerConfig.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(DEFAULT_RESOURCE + " is missing");
+            }
+            defaults.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot read " + DEFAULT_RESOURCE, e);
+        }
+        return defaults;
+    }
+
+    /**
+     * @param settings the settings
+     * @param name     the name of the setting
+     * @param min      the smallest value it may have
+     * @param max      the largest value it may have
+     * @return the value of the setting
+     * @throws IllegalArgumentException if the setting is not an integer between min and max
+     */
+    private static int intSetting(Properties settings, String name, int min, int max) {
+        String value = settings.getProperty(name);
+        try {
+            int parsed = value == null ? min - 1 : Integer.parseInt(value.trim());
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(name + " must be an integer from " + min + " to " + max
+                + ", not " + value);
+    }
+
+    private void checkRep() {
+        assert host != null && 0 <= port && port <= 65535 && acceptors >= -1 && selectors >= -1;
+        assert acceptQueueSize >= 0 && idleTimeoutMillis > 0 && 0 < minThreads && minThreads <= maxThreads;
+        assert threadIdleTimeoutMillis > 0 && compressionMinSize >= 0 && compressionEncodings != null;
+        if (DEBUG) {
+            assert 1 <= compressionLevel && compressionLevel <= 9;
+            for (String encoding : compressionEncodings) {
+                assert encoding.equals("gzip") || encoding.equals("deflate");
+            }
+        }
+    }
+}
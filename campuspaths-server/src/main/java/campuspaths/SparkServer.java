@@ -1,40 +1,138 @@
 package campuspaths;
 
+import campuspaths.metrics.ServerMetrics;
+import campuspaths.utils.AcceptHeader;
 import campuspaths.utils.CORSFilter;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pathfinder.BuildingRouteTable;
+import pathfinder.CachingModelAPI;
 import pathfinder.CampusMap;
+import pathfinder.EvictionPolicy;
+import pathfinder.Isochrone;
+import pathfinder.ModelAPI;
+import pathfinder.PathJsonWriter;
+import pathfinder.Polyline;
+import pathfinder.ReloadingModelAPI;
+import pathfinder.SearchAlgorithm;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
 
+import spark.Filter;
 import spark.Request;
 import spark.Response;
 import spark.Route;
 import spark.Spark;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 
 public class SparkServer {
 
-    public static void main(String[] args) {
+    private static final String BUILDINGS_FILE = "campus_buildings.tsv";
+    private static final String PATHS_FILE = "campus_paths.tsv";
+    // how long the data files must stay unchanged before they are reloaded
+    private static final long RELOAD_QUIET_MILLIS = 500;
+    // the most pairs of buildings one /find-paths request may ask for
+    private static final int MAX_BATCH_PAIRS = 10000;
+    // the media type of paths written as {"cost", "precision", "polyline"} objects
+    private static final String POLYLINE_TYPE = "application/vnd.campuspaths.polyline+json";
+    // the routes whose requests are measured separately
+    private static final Set<String> ROUTES = Set.of("/list-building", "/find-path", "/find-paths",
+            "/reachable", "/metrics");
+    // the request attribute that holds the time the request started at
+    private static final String START_NANOS_ATTRIBUTE = "campuspaths.startNanos";
+    // how many seconds a client that was turned away because the server is busy should wait
+    private static final String RETRY_AFTER_SECONDS = "1";
+    // Gson instances are thread-safe, so every request shares this one
+    private static final Gson GSON = new Gson();
+
+    public static void main(String[] args) throws IOException {
+        // the Jetty server is configured before the first filter is added, which starts it
+        ServerConfig config = ServerConfig.fromSystemProperties();
+        config.applyToSpark();
+        ResponseCompression compression = config.compression();
+
         CORSFilter corsFilter = new CORSFilter();
         corsFilter.apply();
         // The above two lines help set up some settings that allow the
         // React application to make requests to the Spark server, even though it
         // comes from a different server.
-        // You should leave these two lines at the very beginning of main().
+        // You should leave these two lines at the very beginning of main(),
+        // right after the server is configured.
+
+        Logger logger = LoggerFactory.getLogger("CampusPaths Server");
+        logger.info(config.describe());
+        ServerMetrics metrics = new ServerMetrics();
+        measureRequests(metrics);
+        // the searches run on their own threads, so that a burst of them cannot take the
+        // threads that answer cheap requests such as /list-building and /metrics
+        QueryExecutor queries = QueryExecutor.fromSystemProperties(metrics);
+        logger.info("running at most " + queries.parallelism() + " searches at once on "
+                + (queries.isVirtual() ? "virtual" : "platform") + " threads");
+        // every request takes the current model once and answers from it alone, so a
+        // request that is running when the data is reloaded finishes on the old model
+        Supplier<ModelAPI> models = campusModels(logger, metrics);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ModelAPI model = models.get();
+            if (model instanceof CachingModelAPI) {
+                logger.info(((CachingModelAPI) model).report());
+            }
+            queries.shutdown();
+        }));
+        Spark.get("/metrics", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                response.type("text/plain; version=0.0.4");
+                writeText(compression, request, response, metrics.prometheus());
+                return "";
+            }
+        });
 
-        CampusMap campusMap = new CampusMap();
+        // the names of the buildings only change when the model does, so they are
+        // serialized and compressed once for every model
+        AtomicReference<BuildingList> buildingList = new AtomicReference<>();
         Spark.get("/list-building", new Route() {
             @Override
             public Object handle(Request request, Response response) throws Exception {
-                Map<String, String> shortToLong = campusMap.buildingNames();
-                Gson gson = new Gson();
-                return gson.toJson(shortToLong);
+                ModelAPI campusMap = models.get();
+                BuildingList current = buildingList.get();
+                if (current == null || current.model != campusMap) {
+                    current = new BuildingList(campusMap, compression);
+                    buildingList.set(current);
+                }
+                current.response.send(request, response);
+                return "";
             }
         });
 
         Spark.get("/find-path", new Route() {
             @Override
             public Object handle(Request request, Response response) throws Exception {
+                ModelAPI campusMap = models.get();
                 String startBuilding = request.queryParams("start");
                 String endBuilding = request.queryParams("end");
                 if (startBuilding == null || endBuilding == null) {
@@ -50,9 +148,464 @@ public class SparkServer {
                         Spark.halt(400, "the name of the destination point does not exist");
                     }
                 }
-                Gson gson = new Gson();
-                return gson.toJson(campusMap.findShortestPath(startBuilding, endBuilding));
+                long deadline = queries.deadlineOf(startNanos(request));
+                Path<Point> path = answer(response, () -> queries.call(
+                        () -> campusMap.findShortestPath(startBuilding, endBuilding), deadline));
+                boolean polyline = wantsPolyline(request, response);
+                response.type(polyline ? POLYLINE_TYPE : "application/json");
+                OutputStream out = compression.open(request, response);
+                PathJsonWriter json = new PathJsonWriter(out);
+                writePath(json, path, polyline);
+                json.flush();
+                out.close();
+                return "";
+            }
+        });
+
+        Spark.get("/reachable", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                ModelAPI campusMap = models.get();
+                String startBuilding = request.queryParams("start");
+                String budgetParam = request.queryParams("budget");
+                if (startBuilding == null || budgetParam == null) {
+                    Spark.halt(400, "must have a starting point and a budget");
+                }
+                if (!campusMap.shortNameExists(startBuilding)) {
+                    Spark.halt(400, "the name of the starting point does not exist.");
+                }
+                double budget = -1;
+                try {
+                    budget = Double.parseDouble(budgetParam);
+                } catch (NumberFormatException e) {
+                    // reported below
+                }
+                if (!(budget >= 0) || Double.isInfinite(budget)) {
+                    Spark.halt(400, "the budget must be a non-negative number");
+                }
+                boolean withSegments = Boolean.parseBoolean(request.queryParams("segments"));
+                double maxCost = budget;
+                long deadline = queries.deadlineOf(startNanos(request));
+                Isochrone reachable = answer(response, () -> queries.call(
+                        () -> campusMap.reachableBuildings(startBuilding, maxCost, withSegments), deadline));
+                response.type("application/json");
+                writeText(compression, request, response, GSON.toJson(reachable));
+                return "";
+            }
+        });
+
+        Spark.post("/find-paths", new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                ModelAPI campusMap = models.get();
+                RoutePair[] pairs = parseRoutePairs(request.body());
+                for (RoutePair pair : pairs) {
+                    if (!campusMap.shortNameExists(pair.start) || !campusMap.shortNameExists(pair.end)) {
+                        Spark.halt(400, "the name of the building " +
+                                (campusMap.shortNameExists(pair.start) ? pair.end : pair.start) +
+                                " does not exist");
+                    }
+                }
+                boolean polyline = wantsPolyline(request, response);
+                response.type(polyline ? POLYLINE_TYPE : "application/json");
+                long deadline = queries.deadlineOf(startNanos(request));
+                return answer(response, () -> {
+                    writePaths(queries, deadline, campusMap, pairs, polyline,
+                            () -> compression.open(request, response));
+                    return "";
+                });
+            }
+        });
+    }
+
+    /**
+     * Parses the body of a /find-paths request, a JSON array of objects that each have
+     * a "start" and an "end" building short name.
+     *
+     * @param body the body of the request
+     * @return the pairs of buildings in the body, in order
+     * @spec.effects halts the request with status 400 if the body is not such an array,
+     * or if it holds more than MAX_BATCH_PAIRS pairs
+     */
+    private static RoutePair[] parseRoutePairs(String body) {
+        RoutePair[] pairs = null;
+        try {
+            pairs = GSON.fromJson(body, RoutePair[].class);
+        } catch (JsonParseException e) {
+            Spark.halt(400, "the body must be a JSON array of {\"start\", \"end\"} objects");
+        }
+        if (pairs == null) {
+            Spark.halt(400, "the body must be a JSON array of {\"start\", \"end\"} objects");
+        }
+        if (pairs.length > MAX_BATCH_PAIRS) {
+            Spark.halt(400, "at most " + MAX_BATCH_PAIRS + " pairs can be found in one request");
+        }
+        for (RoutePair pair : pairs) {
+            if (pair == null || pair.start == null || pair.end == null) {
+                Spark.halt(400, "every pair must have a starting point and a destination point");
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Finds the paths between the given pairs of buildings and writes them to out as a
+     * JSON array, in the order of the pairs. The pairs are grouped by their starting
+     * building, so that one single-source search answers every pair in a group, and the
+     * groups are searched as queries of the given executor, up to its parallelism ahead
+     * of the group being written. Only the first group can be rejected, before anything
+     * is written. Every path is written as soon as it and the paths before it have been
+     * found.
+     *
+     * @param queries   the executor to run the searches on
+     * @param deadline  the value of System.nanoTime() when the searches are cancelled
+     * @param campusMap the model to find the paths with
+     * @param pairs     the pairs of buildings, whose names all exist in campusMap
+     * @param polyline  whether to write the paths as encoded polylines
+     * @param body      the function that opens the stream to write the paths to, which is
+     *                  only opened once the first search has been admitted, and only closed
+     *                  if every path has been written
+     * @throws IOException                if the paths cannot be written
+     * @throws RejectedExecutionException if too many queries are already waiting
+     * @throws TimeoutException           if the searches did not finish by the deadline
+     * @throws InterruptedException       if this thread is interrupted while waiting
+     * @throws ExecutionException         if a search threw an exception, which is its cause
+     */
+    private static void writePaths(QueryExecutor queries, long deadline, ModelAPI campusMap, RoutePair[] pairs,
+                                   boolean polyline, Callable<OutputStream> body) throws Exception {
+        Map<String, Integer> groupOfStart = new HashMap<>();
+        List<String> starts = new ArrayList<>();
+        List<List<String>> endsOfGroups = new ArrayList<>();
+        int[] group = new int[pairs.length];
+        int[] positionInGroup = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            group[i] = groupOfStart.computeIfAbsent(pairs[i].start, start -> {
+                starts.add(start);
+                endsOfGroups.add(new ArrayList<>());
+                return starts.size() - 1;
+            });
+            List<String> ends = endsOfGroups.get(group[i]);
+            positionInGroup[i] = ends.size();
+            ends.add(pairs[i].end);
+        }
+        // the groups appear in the order of their first pair, so group g is needed before g + 1
+        List<Future<List<Path<Point>>>> searches = new ArrayList<>();
+        try {
+            if (!starts.isEmpty()) {
+                searches.add(queries.submit(() -> campusMap.findShortestPaths(starts.get(0), endsOfGroups.get(0))));
+            }
+            OutputStream out = body.call();
+            PathJsonWriter json = new PathJsonWriter(out);
+            json.beginArray();
+            for (int i = 0; i < pairs.length; i++) {
+                while (searches.size() < Math.min(starts.size(), group[i] + queries.parallelism())) {
+                    int next = searches.size();
+                    searches.add(queries.submitAdmitted(
+                            () -> campusMap.findShortestPaths(starts.get(next), endsOfGroups.get(next))));
+                }
+                Future<List<Path<Point>>> search = searches.get(group[i]);
+                if (!search.isDone()) {
+                    // send what is ready while waiting for the next group
+                    json.flush();
+                }
+                writePath(json, queries.await(search, deadline).get(positionInGroup[i]), polyline);
+            }
+            json.endArray();
+            json.flush();
+            out.close();
+        } finally {
+            // stops the searches that are no longer needed if the request fails
+            for (Future<List<Path<Point>>> search : searches) {
+                search.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Computes the answer to a request, halting the request with status 503 if the query
+     * executor rejected a search of it or cancelled one because it missed its deadline.
+     *
+     * @param response the response to the request
+     * @param answer   the computation of the answer, which may wait for searches
+     * @param <T>      the type of the answer
+     * @return the answer
+     * @throws IOException if part of the answer has already been sent when a search is
+     *                     cancelled, so that the response cannot be halted and must be cut off
+     * @throws Exception   if the computation, or a search it waited for, threw it
+     */
+    private static <T> T answer(Response response, Callable<T> answer) throws Exception {
+        try {
+            return answer.call();
+        } catch (RejectedExecutionException e) {
+            response.header("Retry-After", RETRY_AFTER_SECONDS);
+            throw Spark.halt(503, "the server is too busy to search, try again later");
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (response.raw() != null && response.raw().isCommitted()) {
+                throw new IOException("the search was cancelled after the response was started", e);
+            }
+            throw Spark.halt(503, "the search took too long and was cancelled");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    /**
+     * Writes a text body, compressed if the client accepts it and it is long enough.
+     *
+     * @param compression the policy to compress the body by
+     * @param request     the request the body answers
+     * @param response    the response to write the body of
+     * @param text        the body
+     * @throws IOException if the body cannot be written
+     */
+    private static void writeText(ResponseCompression compression, Request request, Response response,
+                                  String text) throws IOException {
+        OutputStream out = compression.open(request, response);
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.close();
+    }
+
+    /**
+     * @param request a request that the server is answering
+     * @return the value of System.nanoTime() when the request started
+     */
+    private static long startNanos(Request request) {
+        Long start = request.attribute(START_NANOS_ATTRIBUTE);
+        return start == null ? System.nanoTime() : start;
+    }
+
+    /**
+     * Measures every request the server answers: filters around every route record how
+     * long it took and the status it was answered with.
+     *
+     * @param metrics the measurements to record the requests in
+     */
+    private static void measureRequests(ServerMetrics metrics) {
+        Spark.before(new Filter() {
+            @Override
+            public void handle(Request request, Response response) {
+                request.attribute(START_NANOS_ATTRIBUTE, System.nanoTime());
+            }
+        });
+        // afterAfter filters also run after a route halts or throws
+        Spark.afterAfter(new Filter() {
+            @Override
+            public void handle(Request request, Response response) {
+                Long start = request.attribute(START_NANOS_ATTRIBUTE);
+                if (start != null) {
+                    metrics.recordRequest(routeName(request.pathInfo()), response.status(),
+                            System.nanoTime() - start);
+                }
             }
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * @param path the path of a request
+     * @return the name the request is measured under, which is the path if it is one of
+     * the routes of the server and "other" otherwise, so that requests for made-up paths
+     * cannot make up any number of measurements
+     */
+    private static String routeName(String path) {
+        return ROUTES.contains(path) ? path : "other";
+    }
+
+    /**
+     * Tells whether a client asked for paths as encoded polylines, with format=polyline, or
+     * with an Accept header that prefers POLYLINE_TYPE to application/json, instead of as
+     * lists of segments. Without a format parameter the answer depends on the Accept header,
+     * so the response is marked to vary with it.
+     *
+     * @param request  the request for paths
+     * @param response the response to the request
+     * @return true if the paths should be written as encoded polylines
+     * @spec.modifies response
+     * @spec.effects adds Accept to the Vary header of response if request has no format parameter
+     */
+    private static boolean wantsPolyline(Request request, Response response) {
+        String format = request.queryParams("format");
+        if (format != null) {
+            return format.equals("polyline");
+        }
+        // caches must not give one representation to a client that asked for the other
+        response.header("Vary", "Accept");
+        // JSON comes first, so that it wins ties and is sent to a client that accepts neither
+        return POLYLINE_TYPE.equals(AcceptHeader.negotiate(request.headers("Accept"), "application/json",
+                POLYLINE_TYPE));
+    }
+
+    /**
+     * @param json     the writer to write the path with
+     * @param path     the path to write, which may be null
+     * @param polyline whether to write the path as an encoded polyline instead of a list of segments
+     * @throws IOException if the path cannot be written
+     */
+    private static void writePath(PathJsonWriter json, Path<Point> path, boolean polyline) throws IOException {
+        if (polyline) {
+            json.polyline(path, Polyline.DEFAULT_PRECISION);
+        } else {
+            json.path(path);
+        }
+    }
+
+    /**
+     * Loads the campus model. By default it is loaded once from the data files bundled with
+     * the pathfinder project. If the server was run with -Dcampuspaths.dataDir=DIR, it is
+     * loaded from the campus_buildings.tsv and campus_paths.tsv files in DIR instead, and
+     * loaded again in the background whenever they change; the time every reload took is
+     * logged and exported to /metrics. Otherwise, if it was run with
+     * -Dcampuspaths.graphFile=FILE, it is loaded once from the campus graph file FILE,
+     * compiled by the pathfinder project's compileCampusGraph task, which starts much
+     * faster than parsing the data files.
+     *
+     * @param logger  the logger to report the loads to
+     * @param metrics the measurements to record the searches of every model in
+     * @return the function that returns the model the server should answer a request with
+     * @throws IOException if the campus graph file cannot be read
+     */
+    private static Supplier<ModelAPI> campusModels(Logger logger, ServerMetrics metrics) throws IOException {
+        String dataDir = System.getProperty("campuspaths.dataDir");
+        if (dataDir == null) {
+            String graphFile = System.getProperty("campuspaths.graphFile");
+            CampusMap map = graphFile == null ? new CampusMap() : new CampusMap(Paths.get(graphFile));
+            ModelAPI model = configure(map, logger, metrics, false);
+            return () -> model;
+        }
+        // every load after the first one is of changed data
+        AtomicBoolean loaded = new AtomicBoolean();
+        ReloadingModelAPI reloading = new ReloadingModelAPI(Paths.get(dataDir),
+                List.of(BUILDINGS_FILE, PATHS_FILE), RELOAD_QUIET_MILLIS,
+                directory -> configure(new CampusMap(directory.resolve(BUILDINGS_FILE),
+                        directory.resolve(PATHS_FILE)), logger, metrics, loaded.getAndSet(true)));
+        reloading.setReloadListener(() -> logger.info(reloading.report()));
+        metrics.watchReloads(reloading);
+        try {
+            reloading.start();
+            logger.info("watching " + dataDir + " for campus data changes");
+        } catch (IOException e) {
+            logger.warn("could not watch " + dataDir + ", so the campus data will not be reloaded: "
+                    + e.getMessage());
+        }
+        return reloading::current;
+    }
+
+    /**
+     * Configures a newly loaded campus map with the options the server was run with.
+     * Run with -Dcampuspaths.precomputeRoutes=true to answer /find-path from a table
+     * of the routes between every pair of buildings, built once per load.
+     *
+     * @param map     the campus map to configure
+     * @param logger  the logger to report to
+     * @param metrics the measurements to record the searches of the map in
+     * @param reload  true if the map was loaded from changed campus data, which no saved
+     *                contraction hierarchy can belong to
+     * @return the model the server should answer requests with
+     */
+    private static ModelAPI configure(CampusMap map, Logger logger, ServerMetrics metrics, boolean reload) {
+        if (Boolean.getBoolean("campuspaths.precomputeRoutes")) {
+            BuildingRouteTable<Point> routes = map.precomputeBuildingRoutes();
+            logger.info(routes.report());
+        }
+        useSearchAlgorithm(map, logger, reload);
+        map.setSearchListener(metrics);
+        return withRouteCache(map);
+    }
+
+    /**
+     * Puts a route cache in front of the campus map if the server was run with
+     * -Dcampuspaths.routeCacheSize=N, which caches the N most popular routes. Running it with
+     * -Dcampuspaths.routeCachePolicy=TINY_LFU keeps the routes that are asked for most often
+     * instead of the ones asked for most recently. The counters of the cache are logged when
+     * the server shuts down.
+     *
+     * @param map the campus map to answer requests with
+     * @return the model the server should answer requests with
+     */
+    private static ModelAPI withRouteCache(CampusMap map) {
+        int cacheSize = Integer.getInteger("campuspaths.routeCacheSize", 0);
+        if (cacheSize <= 0) {
+            return map;
+        }
+        EvictionPolicy policy = EvictionPolicy.valueOf(
+                System.getProperty("campuspaths.routeCachePolicy", EvictionPolicy.LRU.name()));
+        return new CachingModelAPI(map, cacheSize, policy);
+    }
+
+    /**
+     * The answer to /list-building from one model, the JSON object that maps the short
+     * name of every building to its long name.
+     */
+    private static class BuildingList {
+        private final ModelAPI model;
+        private final PrecomputedResponse response;
+
+        /**
+         * @param model       the model to list the buildings of
+         * @param compression the policy the server compresses its responses by
+         */
+        private BuildingList(ModelAPI model, ResponseCompression compression) {
+            this.model = model;
+            // sorted, so that the bytes, and so the entity tag, only change with the names
+            String json = GSON.toJson(new TreeMap<>(model.buildingNames()));
+            this.response = new PrecomputedResponse("application/json", json.getBytes(StandardCharsets.UTF_8),
+                    compression);
+        }
+    }
+
+    /**
+     * One pair of buildings in the body of a /find-paths request.
+     */
+    private static class RoutePair {
+        private String start;
+        private String end;
+    }
+
+    /**
+     * Selects the search algorithm of the campus map if the server was run with
+     * -Dcampuspaths.searchAlgorithm=NAME, the name of a pathfinder.SearchAlgorithm. For
+     * CONTRACTION_HIERARCHIES, -Dcampuspaths.hierarchyFile=FILE loads the hierarchy from
+     * FILE if it exists and was built from the same graph, and otherwise contracts the
+     * graph and saves the hierarchy there, replacing the file. After a reload the graph is
+     * always contracted again, since the file holds the hierarchy of the old data.
+     *
+     * @param map    the campus map to configure
+     * @param logger the logger to report problems with the hierarchy file to
+     * @param reload true if the map was loaded from changed campus data
+     */
+    private static void useSearchAlgorithm(CampusMap map, Logger logger, boolean reload) {
+        String algorithm = System.getProperty("campuspaths.searchAlgorithm");
+        if (algorithm == null) {
+            return;
+        }
+        map.setSearchAlgorithm(SearchAlgorithm.valueOf(algorithm));
+        String hierarchyFile = System.getProperty("campuspaths.hierarchyFile");
+        if (map.getSearchAlgorithm() != SearchAlgorithm.CONTRACTION_HIERARCHIES || hierarchyFile == null) {
+            return;
+        }
+        File file = new File(hierarchyFile);
+        if (!reload && file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                map.readContractionHierarchy(in);
+                logger.info("loaded contraction hierarchy from " + file);
+                return;
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("could not use contraction hierarchy file " + file + ", so it will be replaced: "
+                        + e.getMessage());
+            }
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            map.writeContractionHierarchy(out);
+            logger.info("saved contraction hierarchy to " + file);
+        } catch (IOException e) {
+            // the map keeps the hierarchy it contracted to write the file
+            logger.warn("could not save contraction hierarchy to " + file + ": " + e.getMessage());
+        }
+    }
+}
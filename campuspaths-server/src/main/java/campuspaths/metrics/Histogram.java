@@ -0,0 +1,137 @@
+package campuspaths.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram represents a mutable, thread-safe distribution of non-negative long values,
+ * such as request latencies in nanoseconds, that can report any quantile of the values
+ * recorded so far to within about 3% of it.
+ *
+ * <p>Like an HDR histogram, it keeps a count per bucket, with buckets whose width grows
+ * with the value: the values below 64 have a bucket each, and every power of two above
+ * that is split into 32 equal buckets. Recording a value increments one bucket with a
+ * single atomic operation and never takes a lock, so many threads can record at once.
+ */
+public class Histogram {
+    // the number of buckets every power of two is split into is 2^SUB_BUCKET_BITS
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = bucketOf(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private static final boolean DEBUG = false;
+
+    // RI: counts != null && counts.length() == BUCKETS && count != null && sum != null
+    //     && every element of counts >= 0
+
+    // AF(this): the values recorded so far, where counts[i] of them lie in bucket i,
+    //           count is the number of them and sum is their total
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @spec.effects this is empty
+     */
+    public Histogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new LongAdder();
+        sum = new LongAdder();
+        checkRep();
+    }
+
+    /**
+     * Records one value.
+     *
+     * @param value the value to record, which is recorded as 0 if it is negative
+     * @spec.modifies this
+     * @spec.effects adds value to this
+     */
+    public void record(long value) {
+        long recorded = Math.max(value, 0);
+        counts.incrementAndGet(bucketOf(recorded));
+        count.increment();
+        sum.add(recorded);
+    }
+
+    /**
+     * @return the number of values recorded
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return the total of the values recorded
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the value that the given fraction of the recorded values are at most. The
+     * values recorded while this runs may or may not be counted.
+     *
+     * @param quantile the fraction of the values, such as 0.99
+     * @return the largest value of the bucket that holds the quantile, or 0 if no value
+     * has been recorded
+     * @throws IllegalArgumentException if quantile is not between 0 and 1
+     */
+    public long quantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException();
+        }
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(BUCKETS - 1);
+    }
+
+    /**
+     * @param value a non-negative value
+     * @return the index of the bucket that holds value
+     */
+    private static int bucketOf(long value) {
+        // the number of low bits dropped, so that the rest fits in 2 * SUB_BUCKETS buckets
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS + 1));
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * @param bucket the index of a bucket
+     * @return the largest value that lies in the bucket
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket >> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (bucket - (shift << SUB_BUCKET_BITS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    private void checkRep() {
+        assert counts != null && counts.length() == BUCKETS && count != null && sum != null;
+        if (DEBUG) {
+            for (int i = 0; i < BUCKETS; i++) {
+                assert counts.get(i) >= 0;
+            }
+        }
+    }
+}
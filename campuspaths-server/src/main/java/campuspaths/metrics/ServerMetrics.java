@@ -0,0 +1,325 @@
+package campuspaths.metrics;
+
+import graph.SearchEffort;
+import graph.SearchListener;
+import pathfinder.ReloadingModelAPI;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ServerMetrics represents the mutable, thread-safe measurements of a running server:
+ * for every route, how many requests it answered, how many of them failed and how long
+ * they took, for every search the server ran, how much work it did, and for the queries
+ * that ran the searches, how long they waited for their turn and how many of them were
+ * rejected or cancelled, and, if it reloads its campus data, how many reloads it did, how
+ * many of them failed and how long the last one took. It renders them in the Prometheus
+ * text exposition format.
+ *
+ * <p>Recording never takes a lock: the counters are LongAdders and the distributions are
+ * Histograms, so the requests being measured never wait for each other.
+ */
+public class ServerMetrics implements SearchListener {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final ConcurrentMap<String, RouteMetrics> routes;
+    private final LongAdder searches;
+    private final LongAdder settledVertices;
+    private final LongAdder edgesRelaxed;
+    private final LongAdder queuePushes;
+    private final LongAdder stalePops;
+    private final Histogram settledPerSearch;
+    private final Histogram queueSizes;
+    private final Histogram pathLengths;
+    private final Histogram searchDurations;
+    private final Histogram queueWaits;
+    private final LongAdder rejectedQueries;
+    private final LongAdder timedOutQueries;
+    private volatile ReloadingModelAPI reloads;
+    private static final boolean DEBUG = false;
+
+    // RI: routes != null && no key or value of routes is null && searches != null
+    //     && settledVertices != null && edgesRelaxed != null && queuePushes != null
+    //     && stalePops != null && settledPerSearch != null && queueSizes != null
+    //     && pathLengths != null && searchDurations != null && queueWaits != null
+    //     && rejectedQueries != null && timedOutQueries != null
+
+    // AF(this): the measurements of a server, where routes maps the name of every route
+    //           that has been requested to its measurements, searches is the number of
+    //           searches run, settledVertices, edgesRelaxed, queuePushes and stalePops are
+    //           the totals of their work, and settledPerSearch, queueSizes, pathLengths and
+    //           searchDurations are the distributions of the vertices each search settled,
+    //           of the largest size its queue reached, of the lengths of the paths they found
+    //           and of how long each search took in nanoseconds; queueWaits is the
+    //           distribution of how long each query waited for its turn in nanoseconds,
+    //           and rejectedQueries and timedOutQueries are the numbers of queries rejected
+    //           because too many were waiting and cancelled because they missed their deadline;
+    //           reloads is the model whose reloads are measured, or null if the server does
+    //           not reload its campus data
+
+    /**
+     * Creates the measurements of a server that has not answered any request yet.
+     *
+     * @spec.effects this has no measurements
+     */
+    public ServerMetrics() {
+        routes = new ConcurrentHashMap<>();
+        searches = new LongAdder();
+        settledVertices = new LongAdder();
+        edgesRelaxed = new LongAdder();
+        queuePushes = new LongAdder();
+        stalePops = new LongAdder();
+        settledPerSearch = new Histogram();
+        queueSizes = new Histogram();
+        pathLengths = new Histogram();
+        searchDurations = new Histogram();
+        queueWaits = new Histogram();
+        rejectedQueries = new LongAdder();
+        timedOutQueries = new LongAdder();
+        checkRep();
+    }
+
+    /**
+     * Records one answered request.
+     *
+     * @param route        the name of the route that answered the request
+     * @param status       the HTTP status of the response
+     * @param elapsedNanos how long the request took to answer, in nanoseconds
+     * @throws IllegalArgumentException if route is null
+     * @spec.modifies this
+     * @spec.effects adds the request to the measurements of route
+     */
+    public void recordRequest(String route, int status, long elapsedNanos) {
+        if (route == null) {
+            throw new IllegalArgumentException();
+        }
+        RouteMetrics metrics = routes.computeIfAbsent(route, name -> new RouteMetrics());
+        metrics.requests.increment();
+        if (status >= 400) {
+            metrics.errors.increment();
+        }
+        metrics.latency.record(elapsedNanos);
+    }
+
+    /**
+     * Records the work of one search.
+     *
+     * @param effort the work the search did
+     * @spec.modifies this
+     * @spec.effects adds the search to the measurements of searches
+     */
+    @Override
+    public void searchFinished(SearchEffort effort) {
+        searches.increment();
+        settledVertices.add(effort.getSettledVertices());
+        edgesRelaxed.add(effort.getEdgesRelaxed());
+        queuePushes.add(effort.getQueuePushes());
+        stalePops.add(effort.getStalePops());
+        settledPerSearch.record(effort.getSettledVertices());
+        queueSizes.record(effort.getMaxQueueSize());
+        if (effort.getPathLength() >= 0) {
+            pathLengths.record(effort.getPathLength());
+        }
+        searchDurations.record(effort.getElapsedNanos());
+    }
+
+    /**
+     * Records how long a query waited for its turn to run.
+     *
+     * @param waitNanos the time from when the query was submitted to when it started, in nanoseconds
+     * @spec.modifies this
+     * @spec.effects adds the wait to the measurements of queries
+     */
+    public void recordQueryWait(long waitNanos) {
+        queueWaits.record(waitNanos);
+    }
+
+    /**
+     * Records a query that was rejected because too many queries were waiting.
+     *
+     * @spec.modifies this
+     * @spec.effects adds the rejection to the measurements of queries
+     */
+    public void recordQueryRejected() {
+        rejectedQueries.increment();
+    }
+
+    /**
+     * Records a query that was cancelled because it did not finish by its deadline.
+     *
+     * @spec.modifies this
+     * @spec.effects adds the timeout to the measurements of queries
+     */
+    public void recordQueryTimeout() {
+        timedOutQueries.increment();
+    }
+
+    /**
+     * Measures the reloads of the given model from now on, in place of any model measured
+     * before. The model keeps the counts itself, so they are read when the measurements
+     * are rendered.
+     *
+     * @param model the model whose reloads to measure
+     * @throws IllegalArgumentException if model is null
+     * @spec.modifies this
+     * @spec.effects this.reloads = model
+     */
+    public void watchReloads(ReloadingModelAPI model) {
+        if (model == null) {
+            throw new IllegalArgumentException();
+        }
+        reloads = model;
+    }
+
+    /**
+     * @return all the measurements in the Prometheus text exposition format, version 0.0.4
+     */
+    public String prometheus() {
+        StringBuilder text = new StringBuilder();
+        Map<String, RouteMetrics> byRoute = new TreeMap<>(routes);
+        header(text, "campuspaths_requests_total", "counter", "Requests answered, by route.");
+        for (Map.Entry<String, RouteMetrics> route : byRoute.entrySet()) {
+            sample(text, "campuspaths_requests_total", route(route.getKey()), route.getValue().requests.sum());
+        }
+        header(text, "campuspaths_request_errors_total", "counter",
+                "Requests answered with a status of 400 or more, by route.");
+        for (Map.Entry<String, RouteMetrics> route : byRoute.entrySet()) {
+            sample(text, "campuspaths_request_errors_total", route(route.getKey()), route.getValue().errors.sum());
+        }
+        header(text, "campuspaths_request_duration_seconds", "summary", "Time to answer a request, by route.");
+        for (Map.Entry<String, RouteMetrics> route : byRoute.entrySet()) {
+            summary(text, "campuspaths_request_duration_seconds", route(route.getKey()),
+                    route.getValue().latency, 1e-9);
+        }
+        header(text, "campuspaths_searches_total", "counter",
+                "Searches run by any algorithm, including those of /reachable, but not lookups in the "
+                        + "precomputed route table or the searches that build it.");
+        sample(text, "campuspaths_searches_total", "", searches.sum());
+        header(text, "campuspaths_search_settled_vertices_total", "counter",
+                "Vertices settled by all the searches.");
+        sample(text, "campuspaths_search_settled_vertices_total", "", settledVertices.sum());
+        header(text, "campuspaths_search_edges_relaxed_total", "counter",
+                "Edges relaxed by all the searches.");
+        sample(text, "campuspaths_search_edges_relaxed_total", "", edgesRelaxed.sum());
+        header(text, "campuspaths_search_queue_pushes_total", "counter",
+                "Vertices pushed into the priority queue by all the searches.");
+        sample(text, "campuspaths_search_queue_pushes_total", "", queuePushes.sum());
+        header(text, "campuspaths_search_stale_pops_total", "counter",
+                "Stale entries popped from the priority queue by all the searches.");
+        sample(text, "campuspaths_search_stale_pops_total", "", stalePops.sum());
+        header(text, "campuspaths_search_settled_vertices", "summary", "Vertices settled per search.");
+        summary(text, "campuspaths_search_settled_vertices", "", settledPerSearch, 1);
+        header(text, "campuspaths_search_max_queue_size", "summary",
+                "Largest size the priority queue reached per search.");
+        summary(text, "campuspaths_search_max_queue_size", "", queueSizes, 1);
+        header(text, "campuspaths_search_path_edges", "summary", "Edges of the path found per search.");
+        summary(text, "campuspaths_search_path_edges", "", pathLengths, 1);
+        header(text, "campuspaths_search_duration_seconds", "summary", "Time to run a search.");
+        summary(text, "campuspaths_search_duration_seconds", "", searchDurations, 1e-9);
+        header(text, "campuspaths_query_queue_wait_seconds", "summary",
+                "Time a query waited for its turn to run.");
+        summary(text, "campuspaths_query_queue_wait_seconds", "", queueWaits, 1e-9);
+        header(text, "campuspaths_queries_rejected_total", "counter",
+                "Queries rejected because too many were waiting.");
+        sample(text, "campuspaths_queries_rejected_total", "", rejectedQueries.sum());
+        header(text, "campuspaths_queries_timed_out_total", "counter",
+                "Queries cancelled because they missed their deadline.");
+        sample(text, "campuspaths_queries_timed_out_total", "", timedOutQueries.sum());
+        ReloadingModelAPI model = reloads;
+        if (model != null) {
+            header(text, "campuspaths_reloads_total", "counter",
+                    "Reloads of the campus data, counting the failed ones but not the first load.");
+            sample(text, "campuspaths_reloads_total", "", model.reloadCount());
+            header(text, "campuspaths_reload_failures_total", "counter",
+                    "Reloads of the campus data that failed and kept the old data.");
+            sample(text, "campuspaths_reload_failures_total", "", model.failedReloadCount());
+            header(text, "campuspaths_last_reload_duration_seconds", "gauge",
+                    "Time the most recent load of the campus data took, including the first.");
+            sample(text, "campuspaths_last_reload_duration_seconds", "", model.lastReloadNanos() * 1e-9);
+        }
+        return text.toString();
+    }
+
+    /**
+     * @param text the text to append to
+     * @param name the name of the metric
+     * @param type the Prometheus type of the metric
+     * @param help the description of the metric
+     */
+    private static void header(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * @param text   the text to append to
+     * @param name   the name of the metric
+     * @param labels the labels of the sample, separated by commas, or "" for none
+     * @param value  the value of the sample
+     */
+    private static void sample(StringBuilder text, String name, String labels, double value) {
+        text.append(name);
+        if (!labels.isEmpty()) {
+            text.append('{').append(labels).append('}');
+        }
+        text.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+        text.append('\n');
+    }
+
+    /**
+     * Appends the quantiles, the sum and the count of a histogram.
+     *
+     * @param text      the text to append to
+     * @param name      the name of the metric
+     * @param labels    the labels of every sample, separated by commas, or "" for none
+     * @param histogram the values of the metric
+     * @param scale     the factor that turns a recorded value into the unit of the metric
+     */
+    private static void summary(StringBuilder text, String name, String labels, Histogram histogram,
+                                double scale) {
+        String separator = labels.isEmpty() ? "" : ",";
+        for (double quantile : QUANTILES) {
+            sample(text, name, labels + separator + "quantile=\"" + quantile + "\"",
+                    histogram.quantile(quantile) * scale);
+        }
+        sample(text, name + "_sum", labels, histogram.sum() * scale);
+        sample(text, name + "_count", labels, histogram.count());
+    }
+
+    /**
+     * @param name the name of a route
+     * @return the label of the route, with the characters Prometheus requires escaped
+     */
+    private static String route(String name) {
+        return "route=\"" + name.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private void checkRep() {
+        assert routes != null && searches != null && settledVertices != null && edgesRelaxed != null;
+        assert queuePushes != null && stalePops != null && settledPerSearch != null && queueSizes != null;
+        assert pathLengths != null && searchDurations != null && queueWaits != null;
+        assert rejectedQueries != null && timedOutQueries != null;
+        if (DEBUG) {
+            for (Map.Entry<String, RouteMetrics> route : routes.entrySet()) {
+                assert route.getKey() != null && route.getValue() != null;
+            }
+        }
+    }
+
+    /**
+     * The measurements of one route.
+     */
+    private static class RouteMetrics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Histogram latency = new Histogram();
+    }
+}
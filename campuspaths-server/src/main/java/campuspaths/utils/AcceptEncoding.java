@@ -0,0 +1,65 @@
+package campuspaths.utils;
+
+import java.util.Locale;
+
+/**
+ * AcceptEncoding reads the Accept-Encoding header of a request, which lists the content
+ * codings a client can decode, such as "gzip, deflate;q=0.5, br".
+ */
+public class AcceptEncoding {
+
+    // No AF, RI, or checkRep because this class only contains static methods and
+    // it does not represent any data abstraction
+
+    /**
+     * Tells whether a client accepts a content coding: whether the header names the coding,
+     * or "*", with a quality above 0.
+     *
+     * @param header the Accept-Encoding header of the request, or null if it has none
+     * @param coding the name of the content coding, such as "gzip", in lower case
+     * @return true if the client accepts the coding
+     * @throws IllegalArgumentException if coding is null
+     */
+    public static boolean accepts(String header, String coding) {
+        if (coding == null) {
+            throw new IllegalArgumentException();
+        }
+        if (header == null) {
+            return false;
+        }
+        boolean accepted = false;
+        for (String element : header.split(",")) {
+            int parameters = element.indexOf(';');
+            String name = (parameters < 0 ? element : element.substring(0, parameters))
+                    .trim().toLowerCase(Locale.ROOT);
+            boolean positive = parameters < 0 || quality(element.substring(parameters + 1)) > 0;
+            if (name.equals(coding)) {
+                // an explicit entry overrides "*"
+                return positive;
+            }
+            if (name.equals("*")) {
+                accepted = positive;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * @param parameters the parameters of an element of the header, such as "q=0.5"
+     * @return the quality the parameters give, which is 1 if they give none, and 0 if
+     * it is not a number
+     */
+    static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=") || trimmed.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,74 @@
+package campuspaths.utils;
+
+import java.util.Locale;
+
+/**
+ * AcceptHeader reads the Accept header of a request, which lists the media types a client
+ * can use along with how much it prefers each, such as
+ * "application/json, application/*;q=0.5, *&#47;*;q=0.1".
+ */
+public class AcceptHeader {
+
+    // No AF, RI, or checkRep because this class only contains static methods and
+    // it does not represent any data abstraction
+
+    /**
+     * Picks the media type a client prefers out of the ones the server can send: the one
+     * with the highest quality, where the quality of a type is given by the most specific
+     * entry of the header that matches it, "type/subtype" before "type/*" before "*&#47;*".
+     * A request without the header accepts every type.
+     *
+     * @param header the Accept header of the request, or null if it has none
+     * @param types  the media types the server can send, such as "application/json", in
+     *               lower case and in the order the server prefers them, which breaks ties
+     * @return the type of types the client prefers, or null if it accepts none of them
+     * @throws IllegalArgumentException if types is null or empty, or if any of types is
+     *                                  null or not of the form "type/subtype"
+     */
+    public static String negotiate(String header, String... types) {
+        if (types == null || types.length == 0) {
+            throw new IllegalArgumentException();
+        }
+        String preferred = null;
+        double preferredQuality = 0;
+        for (String type : types) {
+            double quality = quality(header, type);
+            if (quality > preferredQuality) {
+                preferred = type;
+                preferredQuality = quality;
+            }
+        }
+        return preferred;
+    }
+
+    /**
+     * @param header the Accept header of the request, or null if it has none
+     * @param type   a media type, such as "application/json", in lower case
+     * @return the quality the header gives type, which is 0 if no entry matches it
+     * @throws IllegalArgumentException if type is null or not of the form "type/subtype"
+     */
+    private static double quality(String header, String type) {
+        int slash = type == null ? -1 : type.indexOf('/');
+        if (slash <= 0 || slash == type.length() - 1) {
+            throw new IllegalArgumentException();
+        }
+        if (header == null || header.trim().isEmpty()) {
+            return 1;
+        }
+        String anySubtype = type.substring(0, slash + 1) + "*";
+        // 2 for an entry that names type, 1 for type/*, 0 for */*, and -1 for no entry
+        int specificity = -1;
+        double quality = 0;
+        for (String element : header.split(",")) {
+            int parameters = element.indexOf(';');
+            String range = (parameters < 0 ? element : element.substring(0, parameters))
+                    .trim().toLowerCase(Locale.ROOT);
+            int matched = range.equals(type) ? 2 : range.equals(anySubtype) ? 1 : range.equals("*/*") ? 0 : -1;
+            if (matched > specificity) {
+                specificity = matched;
+                quality = parameters < 0 ? 1 : AcceptEncoding.quality(element.substring(parameters + 1));
+            }
+        }
+        return quality;
+    }
+}
@@ -0,0 +1,73 @@
+package campuspaths.implTest;
+
+import campuspaths.utils.AcceptEncoding;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * AcceptEncoding class.
+ */
+public class AcceptEncodingTest {
+
+    @Test
+    public void testNoHeader() {
+        assertFalse(AcceptEncoding.accepts(null, "gzip"));
+        assertFalse(AcceptEncoding.accepts("", "gzip"));
+    }
+
+    @Test
+    public void testListedCodings() {
+        String header = "gzip, deflate;q=0.5, br";
+        assertTrue(AcceptEncoding.accepts(header, "gzip"));
+        assertTrue(AcceptEncoding.accepts(header, "deflate"));
+        assertTrue(AcceptEncoding.accepts(header, "br"));
+        assertFalse(AcceptEncoding.accepts(header, "identity"));
+    }
+
+    @Test
+    public void testNamesIgnoreCaseAndSpaces() {
+        assertTrue(AcceptEncoding.accepts("  GZip ;Q=1 ", "gzip"));
+    }
+
+    @Test
+    public void testZeroQualityRefuses() {
+        assertFalse(AcceptEncoding.accepts("gzip;q=0", "gzip"));
+        assertFalse(AcceptEncoding.accepts("gzip; q=0.0", "gzip"));
+        assertFalse(AcceptEncoding.accepts("deflate, gzip;q=0", "gzip"));
+        assertTrue(AcceptEncoding.accepts("gzip;q=0.001", "gzip"));
+    }
+
+    @Test
+    public void testQualityThatIsNotNumberRefuses() {
+        assertFalse(AcceptEncoding.accepts("gzip;q=high", "gzip"));
+    }
+
+    @Test
+    public void testOtherParametersAreIgnored() {
+        assertTrue(AcceptEncoding.accepts("gzip;level=9", "gzip"));
+        assertFalse(AcceptEncoding.accepts("gzip;level=9;q=0", "gzip"));
+    }
+
+    @Test
+    public void testWildcard() {
+        assertTrue(AcceptEncoding.accepts("*", "gzip"));
+        assertTrue(AcceptEncoding.accepts("br, *;q=0.1", "deflate"));
+        assertFalse(AcceptEncoding.accepts("*;q=0", "gzip"));
+    }
+
+    @Test
+    public void testExplicitCodingOverridesWildcard() {
+        assertFalse(AcceptEncoding.accepts("*, gzip;q=0", "gzip"));
+        assertFalse(AcceptEncoding.accepts("gzip;q=0, *", "gzip"));
+        assertTrue(AcceptEncoding.accepts("*;q=0, gzip", "gzip"));
+        assertTrue(AcceptEncoding.accepts("gzip, *;q=0", "gzip"));
+        assertFalse(AcceptEncoding.accepts("*;q=0, gzip", "deflate"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullCoding() {
+        AcceptEncoding.accepts("gzip", null);
+    }
+}
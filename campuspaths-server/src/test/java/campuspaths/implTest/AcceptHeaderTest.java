@@ -0,0 +1,83 @@
+package campuspaths.implTest;
+
+import campuspaths.utils.AcceptHeader;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * AcceptHeader class.
+ */
+public class AcceptHeaderTest {
+    private static final String JSON = "application/json";
+    private static final String POLYLINE = "application/vnd.campuspaths.polyline+json";
+
+    /**
+     * @param header the Accept header of a request
+     * @return the type the request prefers, offering JSON before POLYLINE
+     */
+    private static String negotiate(String header) {
+        return AcceptHeader.negotiate(header, JSON, POLYLINE);
+    }
+
+    @Test
+    public void testNoHeaderGetsFirstType() {
+        assertEquals(JSON, negotiate(null));
+        assertEquals(JSON, negotiate(" "));
+    }
+
+    @Test
+    public void testHigherQualityWins() {
+        assertEquals(JSON, negotiate(JSON + ", " + POLYLINE + ";q=0.1"));
+        assertEquals(POLYLINE, negotiate(JSON + ";q=0.5, " + POLYLINE));
+        assertEquals(POLYLINE, negotiate(POLYLINE));
+        assertEquals(JSON, negotiate(POLYLINE + ";q=0, " + JSON + ";q=0.1"));
+    }
+
+    @Test
+    public void testTieGoesToFirstType() {
+        assertEquals(JSON, negotiate(POLYLINE + ", " + JSON));
+        assertEquals(JSON, negotiate(POLYLINE + ";q=0.5, " + JSON + ";q=0.5"));
+    }
+
+    @Test
+    public void testWildcards() {
+        assertEquals(JSON, negotiate("*/*"));
+        assertEquals(JSON, negotiate("application/*"));
+        assertEquals(POLYLINE, negotiate("*/*;q=0.1, " + POLYLINE));
+        assertEquals(POLYLINE, negotiate("application/*;q=0.2, " + POLYLINE + ";q=0.3"));
+        assertNull(negotiate("text/*, image/png"));
+    }
+
+    @Test
+    public void testMostSpecificEntryGivesQuality() {
+        // the explicit entry overrides the wildcards, wherever it is in the header
+        assertEquals(POLYLINE, negotiate(JSON + ";q=0, */*"));
+        assertEquals(JSON, negotiate("*/*, " + POLYLINE + ";q=0"));
+        assertEquals(JSON, negotiate("application/*;q=0.9, */*;q=0.1, " + POLYLINE + ";q=0.5"));
+        assertEquals(POLYLINE, negotiate("application/*;q=0.9, */*, " + JSON + ";q=0.5"));
+    }
+
+    @Test
+    public void testRefusedEverywhereGetsNull() {
+        assertNull(negotiate("*/*;q=0"));
+        assertNull(negotiate(JSON + ";q=0, " + POLYLINE + ";q=0"));
+    }
+
+    @Test
+    public void testNamesIgnoreCaseAndParameters() {
+        assertEquals(POLYLINE, negotiate(" Application/VND.CampusPaths.Polyline+JSON ;charset=utf-8, "
+                + JSON + ";q=0.9"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoTypes() {
+        AcceptHeader.negotiate(JSON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeWithoutSubtype() {
+        AcceptHeader.negotiate(JSON, "application");
+    }
+}
@@ -0,0 +1,94 @@
+package campuspaths.implTest;
+
+import campuspaths.metrics.Histogram;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * Histogram class.
+ */
+public class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.sum());
+        assertEquals(0, histogram.quantile(0.5));
+        assertEquals(0, histogram.quantile(1));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (long value = 0; value < 64; value++) {
+            histogram.record(value);
+        }
+        assertEquals(64, histogram.count());
+        assertEquals(63 * 64 / 2, histogram.sum());
+        assertEquals(0, histogram.quantile(0));
+        assertEquals(0, histogram.quantile(1.0 / 64));
+        assertEquals(1, histogram.quantile(2.0 / 64));
+        assertEquals(31, histogram.quantile(0.5));
+        assertEquals(63, histogram.quantile(1));
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        // 64 and 65 share the first bucket of width 2, and 128 to 131 the first of width 4
+        assertEquals(65, onlyValue(64));
+        assertEquals(65, onlyValue(65));
+        assertEquals(67, onlyValue(66));
+        assertEquals(127, onlyValue(126));
+        assertEquals(127, onlyValue(127));
+        assertEquals(131, onlyValue(128));
+        assertEquals(131, onlyValue(131));
+        assertEquals(135, onlyValue(132));
+        assertEquals(Long.MAX_VALUE, onlyValue(Long.MAX_VALUE));
+    }
+
+    /**
+     * @param value the value to record
+     * @return the median of a histogram that holds only value
+     */
+    private static long onlyValue(long value) {
+        Histogram histogram = new Histogram();
+        histogram.record(value);
+        return histogram.quantile(0.5);
+    }
+
+    @Test
+    public void testQuantileBetweenBuckets() {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(10);
+        }
+        histogram.record(1000);
+        assertEquals(10, histogram.quantile(0.5));
+        assertEquals(10, histogram.quantile(0.98));
+        // 1000 lies in the bucket of width 16 from 992 to 1007
+        assertEquals(1007, histogram.quantile(0.991));
+        assertEquals(1007, histogram.quantile(1));
+    }
+
+    @Test
+    public void testNegativeValuesAreRecordedAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.count());
+        assertEquals(0, histogram.sum());
+        assertEquals(0, histogram.quantile(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantileAboveOne() {
+        new Histogram().quantile(1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantileNaN() {
+        new Histogram().quantile(Double.NaN);
+    }
+}
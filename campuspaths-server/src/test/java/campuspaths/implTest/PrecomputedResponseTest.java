@@ -0,0 +1,185 @@
+package campuspaths.implTest;
+
+import campuspaths.PrecomputedResponse;
+import campuspaths.ResponseCompression;
+import campuspaths.testUtils.FakeExchange;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * PrecomputedResponse class.
+ */
+public class PrecomputedResponseTest {
+    private static final String JSON = "application/json";
+
+    /**
+     * @return a body long and repetitive enough that gzip makes it smaller
+     */
+    private static byte[] compressibleBody() {
+        return "{\"CSE\":\"Paul G. Allen Center for Computer Science & Engineering\"}"
+                .repeat(50).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sends the response to a request with the given headers.
+     *
+     * @param response the response to send
+     * @param headers  the names and values of the headers of the request, alternately
+     * @return the exchange the response was sent in
+     */
+    private static FakeExchange send(PrecomputedResponse response, String... headers) throws IOException {
+        FakeExchange exchange = new FakeExchange();
+        for (int i = 0; i < headers.length; i += 2) {
+            exchange.withHeader(headers[i], headers[i + 1]);
+        }
+        response.send(exchange.request(), exchange.response());
+        return exchange;
+    }
+
+    @Test
+    public void testSendsBodyAsIs() throws IOException {
+        byte[] body = compressibleBody();
+        FakeExchange exchange = send(new PrecomputedResponse(JSON, body));
+        assertEquals(200, exchange.status());
+        assertEquals(JSON, exchange.type());
+        assertArrayEquals(body, exchange.body());
+        assertEquals(body.length, exchange.contentLength());
+        assertNull(exchange.responseHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", exchange.responseHeader("Vary"));
+        assertEquals("no-cache", exchange.responseHeader("Cache-Control"));
+        String etag = exchange.responseHeader("ETag");
+        assertTrue(etag, etag.matches("\"[A-Za-z0-9_-]+\""));
+    }
+
+    @Test
+    public void testSendsCompressedCopyWithItsOwnTag() throws IOException {
+        byte[] body = compressibleBody();
+        PrecomputedResponse response = new PrecomputedResponse(JSON, body);
+        FakeExchange plain = send(response);
+        FakeExchange compressed = send(response, "Accept-Encoding", "deflate, gzip");
+        assertEquals("gzip", compressed.responseHeader("Content-Encoding"));
+        assertEquals(compressed.body().length, compressed.contentLength());
+        assertTrue(compressed.body().length < body.length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+        assertNotEquals(plain.responseHeader("ETag"), compressed.responseHeader("ETag"));
+    }
+
+    @Test
+    public void testRefusedGzipIsNotSent() throws IOException {
+        PrecomputedResponse response = new PrecomputedResponse(JSON, compressibleBody());
+        assertNull(send(response, "Accept-Encoding", "gzip;q=0").responseHeader("Content-Encoding"));
+        assertNull(send(response, "Accept-Encoding", "*;q=0").responseHeader("Content-Encoding"));
+        assertEquals("gzip", send(response, "Accept-Encoding", "*").responseHeader("Content-Encoding"));
+    }
+
+    @Test
+    public void testBodyThatDoesNotShrinkIsNeverCompressed() throws IOException {
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        FakeExchange exchange = send(new PrecomputedResponse(JSON, body), "Accept-Encoding", "gzip");
+        assertNull(exchange.responseHeader("Content-Encoding"));
+        assertArrayEquals(body, exchange.body());
+    }
+
+    @Test
+    public void testPolicyWithoutGzipSendsBodyAsIs() throws IOException {
+        byte[] body = compressibleBody();
+        for (ResponseCompression compression : List.of(new ResponseCompression(List.of(), 0, 6),
+                new ResponseCompression(List.of("deflate"), 0, 6),
+                new ResponseCompression(List.of("gzip"), body.length + 1, 6))) {
+            FakeExchange exchange = send(new PrecomputedResponse(JSON, body, compression),
+                    "Accept-Encoding", "gzip");
+            assertNull(exchange.responseHeader("Content-Encoding"));
+            assertNull(exchange.responseHeader("Vary"));
+            assertArrayEquals(body, exchange.body());
+        }
+    }
+
+    @Test
+    public void testCompressesAtLevelOfPolicy() throws IOException {
+        byte[] body = compressibleBody();
+        ResponseCompression fastest = new ResponseCompression(List.of("deflate", "gzip"), 0, 1);
+        FakeExchange exchange = send(new PrecomputedResponse(JSON, body, fastest), "Accept-Encoding", "gzip");
+        assertEquals("gzip", exchange.responseHeader("Content-Encoding"));
+        assertArrayEquals(fastest.compress("gzip", body), exchange.body());
+    }
+
+    @Test
+    public void testTagDependsOnlyOnContent() throws IOException {
+        String first = send(new PrecomputedResponse(JSON, compressibleBody())).responseHeader("ETag");
+        String again = send(new PrecomputedResponse(JSON, compressibleBody())).responseHeader("ETag");
+        String other = send(new PrecomputedResponse(JSON, "{}".getBytes(StandardCharsets.UTF_8)))
+                .responseHeader("ETag");
+        assertEquals(first, again);
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    public void testNotModifiedHasNoBody() throws IOException {
+        PrecomputedResponse response = new PrecomputedResponse(JSON, compressibleBody());
+        String etag = send(response).responseHeader("ETag");
+        FakeExchange exchange = send(response, "If-None-Match", etag);
+        assertEquals(304, exchange.status());
+        assertEquals(0, exchange.body().length);
+        assertEquals(etag, exchange.responseHeader("ETag"));
+        assertEquals("Accept-Encoding", exchange.responseHeader("Vary"));
+    }
+
+    @Test
+    public void testMatchesStar() {
+        PrecomputedResponse response = new PrecomputedResponse(JSON, compressibleBody());
+        assertTrue(response.matches("*"));
+        assertTrue(response.matches(" * "));
+        assertFalse(response.matches(null));
+        assertFalse(response.matches(""));
+    }
+
+    @Test
+    public void testMatchesWeakTags() throws IOException {
+        PrecomputedResponse response = new PrecomputedResponse(JSON, compressibleBody());
+        String etag = send(response).responseHeader("ETag");
+        String gzipEtag = send(response, "Accept-Encoding", "gzip").responseHeader("ETag");
+        assertTrue(response.matches("W/" + etag));
+        assertTrue(response.matches("W/" + gzipEtag));
+        // the tag without its quotes is not the same tag
+        assertFalse(response.matches(etag.substring(1, etag.length() - 1)));
+        assertFalse(response.matches("W/\"other\""));
+    }
+
+    @Test
+    public void testMatchesAnyTagOfList() throws IOException {
+        PrecomputedResponse response = new PrecomputedResponse(JSON, compressibleBody());
+        String etag = send(response).responseHeader("ETag");
+        String gzipEtag = send(response, "Accept-Encoding", "gzip").responseHeader("ETag");
+        assertTrue(response.matches("\"other\", " + etag));
+        assertTrue(response.matches(etag + ",\"other\""));
+        assertTrue(response.matches("\"other\" ,  W/" + gzipEtag + " , W/\"another\""));
+        assertFalse(response.matches("\"other\", W/\"another\""));
+        // a client that has the compressed copy is not sent the plain one again either
+        assertEquals(304, send(response, "If-None-Match", "\"other\", " + gzipEtag).status());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullContentType() {
+        new PrecomputedResponse(null, new byte[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullBody() {
+        new PrecomputedResponse(JSON, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullCompression() {
+        new PrecomputedResponse(JSON, new byte[0], null);
+    }
+}
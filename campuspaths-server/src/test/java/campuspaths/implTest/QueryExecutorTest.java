@@ -0,0 +1,171 @@
+package campuspaths.implTest;
+
+import campuspaths.QueryExecutor;
+import campuspaths.metrics.ServerMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * QueryExecutor class. Every executor runs one query at a time on a platform thread, so a
+ * query that blocks keeps the others queued.
+ */
+public class QueryExecutorTest {
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private ServerMetrics metrics;
+    private QueryExecutor queries;
+    private CountDownLatch started;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() {
+        metrics = new ServerMetrics();
+        queries = new QueryExecutor(false, 1, 2, TIMEOUT_MILLIS, metrics);
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        queries.shutdown();
+    }
+
+    /**
+     * @return a query that takes the only thread until release is counted down
+     */
+    private Callable<String> blocking() {
+        return () -> {
+            started.countDown();
+            release.await();
+            return "blocked";
+        };
+    }
+
+    /**
+     * Checks that the measurements have the given line.
+     */
+    private void assertMetric(String line) {
+        String text = metrics.prometheus();
+        assertTrue(text, text.contains("\n" + line + "\n"));
+    }
+
+    @Test
+    public void testRejectsOnceMaxQueuedAreWaiting() throws Exception {
+        Future<String> running = queries.submit(blocking());
+        assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        Future<String> first = queries.submit(() -> "first");
+        Future<String> second = queries.submit(() -> "second");
+        assertEquals(2, queries.queued());
+        try {
+            queries.submit(() -> "third");
+            fail("the query should have been rejected");
+        } catch (RejectedExecutionException e) {
+            assertEquals(2, queries.queued());
+        }
+        assertMetric("campuspaths_queries_rejected_total 1");
+        // a query of a request that was already admitted is never rejected
+        Future<String> admitted = queries.submitAdmitted(() -> "admitted");
+        assertEquals(3, queries.queued());
+        release.countDown();
+        long deadline = queries.deadlineOf(System.nanoTime());
+        assertEquals("blocked", queries.await(running, deadline));
+        assertEquals("first", queries.await(first, deadline));
+        assertEquals("second", queries.await(second, deadline));
+        assertEquals("admitted", queries.await(admitted, deadline));
+        assertEquals(0, queries.queued());
+        assertMetric("campuspaths_query_queue_wait_seconds_count 4");
+    }
+
+    @Test
+    public void testCancelledQueryLeavesQueue() throws Exception {
+        queries.submit(blocking());
+        assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        Future<String> waiting = queries.submit(() -> "never");
+        assertEquals(1, queries.queued());
+        assertTrue(waiting.cancel(true));
+        assertEquals(0, queries.queued());
+        // the place it left can be taken again
+        queries.submit(() -> "first");
+        queries.submit(() -> "second");
+        assertEquals(2, queries.queued());
+    }
+
+    @Test
+    public void testTimedOutQueriesAreCancelled() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<String> running = queries.submit(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "blocked";
+        });
+        assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        Future<String> waiting = queries.submit(() -> "never");
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+        try {
+            queries.await(waiting, deadline);
+            fail("the waiting query should have timed out");
+        } catch (TimeoutException e) {
+            assertTrue(waiting.isCancelled());
+            assertEquals(0, queries.queued());
+        }
+        try {
+            queries.await(running, deadline);
+            fail("the running query should have timed out");
+        } catch (TimeoutException e) {
+            assertTrue(running.isCancelled());
+            // cancelling a running query interrupts its thread
+            assertTrue(interrupted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        }
+        assertMetric("campuspaths_queries_timed_out_total 2");
+        assertEquals("next", queries.call(() -> "next", queries.deadlineOf(System.nanoTime())));
+        assertEquals(0, queries.queued());
+    }
+
+    @Test
+    public void testPropertiesDefaults() {
+        QueryExecutor defaults = QueryExecutor.fromSystemProperties(metrics);
+        try {
+            assertEquals(Runtime.getRuntime().availableProcessors(), defaults.parallelism());
+            assertEquals(0, defaults.queued());
+        } finally {
+            defaults.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoParallelism() {
+        new QueryExecutor(false, 0, 2, TIMEOUT_MILLIS, metrics);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMaxQueued() {
+        new QueryExecutor(false, 1, -1, TIMEOUT_MILLIS, metrics);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoTimeout() {
+        new QueryExecutor(false, 1, 2, 0, metrics);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullQuery() {
+        queries.submit(null);
+    }
+}
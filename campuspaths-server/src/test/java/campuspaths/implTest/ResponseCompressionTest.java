@@ -0,0 +1,211 @@
+package campuspaths.implTest;
+
+import campuspaths.ResponseCompression;
+import campuspaths.testUtils.FakeExchange;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * ResponseCompression class.
+ */
+public class ResponseCompressionTest {
+    private static final int MIN_SIZE = 100;
+
+    /**
+     * @param size the number of bytes
+     * @return a body of that many bytes
+     */
+    private static byte[] body(int size) {
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) ('a' + i % 7);
+        }
+        return body;
+    }
+
+    /**
+     * Writes a body through the given compression to a request with the given
+     * Accept-Encoding header, and closes the stream.
+     *
+     * @return the exchange the body was written in
+     */
+    private static FakeExchange write(ResponseCompression compression, String acceptEncoding, byte[] body)
+            throws IOException {
+        FakeExchange exchange = new FakeExchange().withHeader("Accept-Encoding", acceptEncoding);
+        try (OutputStream out = compression.open(exchange.request(), exchange.response())) {
+            out.write(body);
+        }
+        return exchange;
+    }
+
+    /**
+     * @param in the stream to read
+     * @return every byte of the stream
+     */
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream closed = in) {
+            return closed.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testBodyBelowMinSizeIsSentAsIs() throws IOException {
+        ResponseCompression compression = new ResponseCompression(List.of("gzip", "deflate"), MIN_SIZE, 6);
+        byte[] body = body(MIN_SIZE - 1);
+        FakeExchange exchange = write(compression, "gzip, deflate", body);
+        assertNull(exchange.responseHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", exchange.responseHeader("Vary"));
+        assertArrayEquals(body, exchange.body());
+    }
+
+    @Test
+    public void testBodyAtMinSizeIsCompressedWithFirstAcceptedCoding() throws IOException {
+        byte[] body = body(MIN_SIZE);
+        ResponseCompression gzipFirst = new ResponseCompression(List.of("gzip", "deflate"), MIN_SIZE, 6);
+        FakeExchange gzip = write(gzipFirst, "deflate, gzip", body);
+        assertEquals("gzip", gzip.responseHeader("Content-Encoding"));
+        assertArrayEquals(body, readAll(new GZIPInputStream(new ByteArrayInputStream(gzip.body()))));
+        // the order of the policy decides, not the order of the header
+        FakeExchange deflate = write(gzipFirst, "gzip;q=0, deflate", body);
+        assertEquals("deflate", deflate.responseHeader("Content-Encoding"));
+        assertArrayEquals(body, readAll(new InflaterInputStream(new ByteArrayInputStream(deflate.body()))));
+    }
+
+    @Test
+    public void testBodyWrittenInPartsIsCompressedOnceItReachesMinSize() throws IOException {
+        ResponseCompression compression = new ResponseCompression(List.of("gzip"), MIN_SIZE, 1);
+        byte[] body = body(3 * MIN_SIZE);
+        FakeExchange exchange = new FakeExchange().withHeader("Accept-Encoding", "gzip");
+        try (OutputStream out = compression.open(exchange.request(), exchange.response())) {
+            out.write(body, 0, MIN_SIZE / 2);
+            assertNull(exchange.responseHeader("Content-Encoding"));
+            out.write(body[MIN_SIZE / 2]);
+            out.write(body, MIN_SIZE / 2 + 1, body.length - MIN_SIZE / 2 - 1);
+            assertEquals("gzip", exchange.responseHeader("Content-Encoding"));
+        }
+        assertArrayEquals(body, readAll(new GZIPInputStream(new ByteArrayInputStream(exchange.body()))));
+    }
+
+    @Test
+    public void testFlushBeforeMinSizeSendsNothing() throws IOException {
+        ResponseCompression compression = new ResponseCompression(List.of("gzip"), MIN_SIZE, 6);
+        FakeExchange exchange = new FakeExchange().withHeader("Accept-Encoding", "gzip");
+        OutputStream out = compression.open(exchange.request(), exchange.response());
+        out.write(body(MIN_SIZE - 1));
+        out.flush();
+        assertEquals(0, exchange.body().length);
+        assertEquals(0, exchange.flushes());
+        assertNull(exchange.responseHeader("Content-Encoding"));
+        // once the body is compressed, a flush sends everything written so far
+        out.write(body(MIN_SIZE));
+        out.flush();
+        assertTrue(exchange.body().length > 0);
+        assertTrue(exchange.flushes() > 0);
+        out.close();
+    }
+
+    @Test
+    public void testClientThatAcceptsNoCodingGetsBodyAsIs() throws IOException {
+        ResponseCompression compression = new ResponseCompression(List.of("gzip", "deflate"), 0, 6);
+        byte[] body = body(MIN_SIZE);
+        assertArrayEquals(body, write(compression, null, body).body());
+        assertArrayEquals(body, write(compression, "br", body).body());
+        assertArrayEquals(body, write(compression, "*;q=0", body).body());
+        assertNull(write(compression, "gzip;q=0, deflate;q=0", body).responseHeader("Content-Encoding"));
+    }
+
+    @Test
+    public void testNoEncodingsCompressesNothing() throws IOException {
+        ResponseCompression compression = new ResponseCompression(List.of(), 0, 6);
+        byte[] body = body(MIN_SIZE);
+        FakeExchange exchange = write(compression, "gzip", body);
+        assertNull(exchange.responseHeader("Content-Encoding"));
+        assertNull(exchange.responseHeader("Vary"));
+        assertArrayEquals(body, exchange.body());
+    }
+
+    @Test
+    public void testDeflatingCloseEndsDeflater() throws Exception {
+        ResponseCompression compression = new ResponseCompression(List.of("deflate"), 0, 6);
+        FakeExchange exchange = new FakeExchange().withHeader("Accept-Encoding", "deflate");
+        OutputStream out = compression.open(exchange.request(), exchange.response());
+        out.write(body(MIN_SIZE));
+        Deflater deflater = (Deflater) field(field(out, "out"), "deflater");
+        assertEquals(MIN_SIZE, deflater.getBytesRead());
+        out.close();
+        try {
+            deflater.getBytesRead();
+            fail("the deflater should have been ended");
+        } catch (NullPointerException e) {
+            // an ended deflater cannot be used
+        }
+    }
+
+    /**
+     * @param object an object
+     * @param name   the name of a private field declared by the class of the object
+     * @return the value of the field
+     */
+    private static Object field(Object object, String name) throws ReflectiveOperationException {
+        Field field = object.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(object);
+    }
+
+    @Test
+    public void testCompressesOnlyItsCodingsFromMinSize() {
+        ResponseCompression compression = new ResponseCompression(List.of("gzip"), MIN_SIZE, 6);
+        assertTrue(compression.compresses("gzip", MIN_SIZE));
+        assertFalse(compression.compresses("gzip", MIN_SIZE - 1));
+        assertFalse(compression.compresses("deflate", MIN_SIZE));
+        assertFalse(new ResponseCompression(List.of(), 0, 6).compresses("gzip", MIN_SIZE));
+    }
+
+    @Test
+    public void testCompressWholeBody() throws IOException {
+        byte[] body = body(10 * MIN_SIZE);
+        ResponseCompression compression = new ResponseCompression(List.of("gzip", "deflate"), 0, 9);
+        assertArrayEquals(body, readAll(new GZIPInputStream(
+                new ByteArrayInputStream(compression.compress("gzip", body)))));
+        assertArrayEquals(body, readAll(new InflaterInputStream(
+                new ByteArrayInputStream(compression.compress("deflate", body)))));
+        // a lower level compresses less
+        byte[] fastest = new ResponseCompression(List.of("gzip"), 0, 1).compress("gzip", body);
+        assertTrue(compression.compress("gzip", body).length <= fastest.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompressUnknownCoding() {
+        new ResponseCompression(List.of("gzip"), 0, 6).compress("br", body(MIN_SIZE));
+    }
+
+    @Test
+    public void testInvalidPolicies() {
+        for (Runnable invalid : Arrays.<Runnable>asList(
+                () -> new ResponseCompression(null, 0, 6),
+                () -> new ResponseCompression(List.of("br"), 0, 6),
+                () -> new ResponseCompression(List.of("gzip"), -1, 6),
+                () -> new ResponseCompression(List.of("gzip"), 0, 0),
+                () -> new ResponseCompression(List.of("gzip"), 0, 10))) {
+            try {
+                invalid.run();
+                fail("the policy should have been rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
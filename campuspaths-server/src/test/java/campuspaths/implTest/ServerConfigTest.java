@@ -0,0 +1,131 @@
+package campuspaths.implTest;
+
+import campuspaths.ServerConfig;
+import campuspaths.testUtils.FakeExchange;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * ServerConfig class.
+ */
+public class ServerConfigTest {
+
+    /**
+     * @param settings the names and values of the settings, alternately
+     * @return the settings as properties
+     */
+    private static Properties settings(String... settings) {
+        Properties properties = new Properties();
+        for (int i = 0; i < settings.length; i += 2) {
+            properties.setProperty(settings[i], settings[i + 1]);
+        }
+        return properties;
+    }
+
+    /**
+     * Checks that the given settings are rejected with a message that names the setting.
+     *
+     * @param setting the name of the setting that is not valid
+     * @param value   its value
+     */
+    private static void assertRejected(String setting, String value) {
+        try {
+            new ServerConfig(settings(setting, value));
+            fail(setting + "=" + value + " should have been rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(setting + ":")
+                    || e.getMessage().startsWith(setting + " must be"));
+        }
+    }
+
+    @Test
+    public void testDefaults() {
+        ServerConfig config = new ServerConfig(new Properties());
+        assertEquals(4567, config.port());
+        assertEquals("listening on 0.0.0.0:4567 with default acceptors, default selectors, 8 to 200 threads"
+                + " and a 30000 ms idle timeout; compressing responses of 1024 bytes or more with gzip or deflate",
+                config.describe());
+    }
+
+    @Test
+    public void testSettingsOverrideDefaults() {
+        ServerConfig config = new ServerConfig(settings("server.host", " 127.0.0.1 ", "server.port", "8080",
+                "jetty.acceptors", "1", "jetty.maxThreads", "8", "compression.encodings", " Deflate ,GZIP"));
+        assertEquals(8080, config.port());
+        assertEquals("listening on 127.0.0.1:8080 with 1 acceptors, default selectors, 8 to 8 threads"
+                + " and a 30000 ms idle timeout; compressing responses of 1024 bytes or more with deflate or gzip",
+                config.describe());
+    }
+
+    @Test
+    public void testOutOfRangeSettings() {
+        assertRejected("server.port", "-1");
+        assertRejected("server.port", "65536");
+        assertRejected("jetty.acceptors", "-2");
+        assertRejected("jetty.acceptQueueSize", "-1");
+        assertRejected("jetty.idleTimeoutMillis", "0");
+        assertRejected("jetty.minThreads", "0");
+        assertRejected("jetty.threadIdleTimeoutMillis", "0");
+        assertRejected("compression.minSize", "-1");
+        assertRejected("compression.level", "0");
+        assertRejected("compression.level", "10");
+    }
+
+    @Test
+    public void testSettingsThatAreNotNumbers() {
+        assertRejected("server.port", "http");
+        assertRejected("jetty.maxThreads", "");
+        assertRejected("compression.level", "6.5");
+    }
+
+    @Test
+    public void testMaxThreadsBelowMinThreads() {
+        try {
+            new ServerConfig(settings("jetty.minThreads", "10", "jetty.maxThreads", "9"));
+            fail("maxThreads below minThreads should have been rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("jetty.maxThreads must be an integer from 10 to " + Integer.MAX_VALUE + ", not 9",
+                    e.getMessage());
+        }
+    }
+
+    @Test
+    public void testUnknownEncoding() {
+        assertRejected("compression.encodings", "gzip, br");
+        assertRejected("compression.encodings", "");
+    }
+
+    @Test
+    public void testCompressionDisabled() throws IOException {
+        ServerConfig config = new ServerConfig(settings("compression.enabled", "false", "compression.minSize", "0"));
+        assertTrue(config.describe().endsWith("with nothing"));
+        FakeExchange exchange = new FakeExchange().withHeader("Accept-Encoding", "gzip");
+        try (OutputStream out = config.compression().open(exchange.request(), exchange.response())) {
+            out.write(new byte[64]);
+        }
+        assertNull(exchange.responseHeader("Content-Encoding"));
+        assertEquals(64, exchange.body().length);
+    }
+
+    @Test
+    public void testCompressionEnabled() throws IOException {
+        ServerConfig config = new ServerConfig(settings("compression.minSize", "0", "compression.encodings",
+                "deflate"));
+        FakeExchange exchange = new FakeExchange().withHeader("Accept-Encoding", "gzip, deflate");
+        try (OutputStream out = config.compression().open(exchange.request(), exchange.response())) {
+            out.write(new byte[64]);
+        }
+        assertEquals("deflate", exchange.responseHeader("Content-Encoding"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullProperties() {
+        new ServerConfig(null);
+    }
+}
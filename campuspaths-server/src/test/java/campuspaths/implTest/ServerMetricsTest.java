@@ -0,0 +1,148 @@
+package campuspaths.implTest;
+
+import campuspaths.metrics.ServerMetrics;
+import graph.SearchEffort;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.ReloadingModelAPI;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * ServerMetrics class.
+ */
+public class ServerMetricsTest {
+
+    /**
+     * Checks that the exposition text has the given line.
+     */
+    private static void assertLine(String text, String line) {
+        assertTrue(text, ("\n" + text).contains("\n" + line + "\n"));
+    }
+
+    @Test
+    public void testEveryMetricHasHelpAndType() {
+        String text = new ServerMetrics().prometheus();
+        assertTrue(text.endsWith("\n"));
+        String name = null;
+        for (String line : text.split("\n")) {
+            if (line.startsWith("# HELP ")) {
+                name = line.split(" ")[2];
+            } else if (line.startsWith("# TYPE ")) {
+                assertEquals(name, line.split(" ")[2]);
+                assertTrue(line, line.matches("# TYPE \\S+ (counter|gauge|summary)"));
+            } else {
+                // every sample follows the HELP and TYPE of its metric
+                assertNotNull(line, name);
+                assertTrue(line, line.startsWith(name));
+                assertTrue(line, line.matches("[a-z_]+(\\{[^}]*\\})? -?[0-9.E-]+"));
+            }
+        }
+    }
+
+    @Test
+    public void testRequestsByRoute() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.recordRequest("/find-path", 200, 40);
+        metrics.recordRequest("/find-path", 404, 20);
+        metrics.recordRequest("/list-building", 200, 10);
+        String text = metrics.prometheus();
+        assertLine(text, "# HELP campuspaths_requests_total Requests answered, by route.");
+        assertLine(text, "# TYPE campuspaths_requests_total counter");
+        assertLine(text, "campuspaths_requests_total{route=\"/find-path\"} 2");
+        assertLine(text, "campuspaths_requests_total{route=\"/list-building\"} 1");
+        assertLine(text, "campuspaths_request_errors_total{route=\"/find-path\"} 1");
+        assertLine(text, "campuspaths_request_errors_total{route=\"/list-building\"} 0");
+        assertLine(text, "# TYPE campuspaths_request_duration_seconds summary");
+        assertLine(text, "campuspaths_request_duration_seconds{route=\"/find-path\",quantile=\"0.5\"} "
+                + 20 * 1e-9);
+        assertLine(text, "campuspaths_request_duration_seconds{route=\"/find-path\",quantile=\"0.999\"} "
+                + 40 * 1e-9);
+        assertLine(text, "campuspaths_request_duration_seconds_sum{route=\"/find-path\"} " + 60 * 1e-9);
+        assertLine(text, "campuspaths_request_duration_seconds_count{route=\"/find-path\"} 2");
+        // the routes are listed in order
+        assertTrue(text.indexOf("route=\"/find-path\"") < text.indexOf("route=\"/list-building\""));
+    }
+
+    @Test
+    public void testRouteLabelIsEscaped() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.recordRequest("a\"b\\c\nd", 200, 0);
+        assertLine(metrics.prometheus(), "campuspaths_requests_total{route=\"a\\\"b\\\\c\\nd\"} 1");
+    }
+
+    @Test
+    public void testSearches() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.searchFinished(new SearchEffort(10, 25, 12, 2, 6, 4, 0));
+        metrics.searchFinished(new SearchEffort(30, 40, 31, 1, 9, -1, 0));
+        String text = metrics.prometheus();
+        assertLine(text, "campuspaths_searches_total 2");
+        assertLine(text, "campuspaths_search_settled_vertices_total 40");
+        assertLine(text, "campuspaths_search_edges_relaxed_total 65");
+        assertLine(text, "campuspaths_search_queue_pushes_total 43");
+        assertLine(text, "campuspaths_search_stale_pops_total 3");
+        assertLine(text, "campuspaths_search_settled_vertices{quantile=\"0.5\"} 10");
+        assertLine(text, "campuspaths_search_settled_vertices{quantile=\"0.9\"} 30");
+        assertLine(text, "campuspaths_search_settled_vertices_sum 40");
+        assertLine(text, "campuspaths_search_settled_vertices_count 2");
+        assertLine(text, "campuspaths_search_max_queue_size{quantile=\"0.99\"} 9");
+        // only the search that looked for a path has a path length
+        assertLine(text, "campuspaths_search_path_edges_count 1");
+        assertLine(text, "campuspaths_search_path_edges_sum 4");
+    }
+
+    @Test
+    public void testQueries() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.recordQueryWait(0);
+        metrics.recordQueryRejected();
+        metrics.recordQueryTimeout();
+        metrics.recordQueryTimeout();
+        String text = metrics.prometheus();
+        assertLine(text, "campuspaths_query_queue_wait_seconds_count 1");
+        assertLine(text, "campuspaths_queries_rejected_total 1");
+        assertLine(text, "campuspaths_queries_timed_out_total 2");
+    }
+
+    @Test
+    public void testReloads() {
+        ServerMetrics metrics = new ServerMetrics();
+        assertFalse(metrics.prometheus().contains("campuspaths_reloads_total"));
+        CampusMap map = new CampusMap();
+        AtomicInteger loads = new AtomicInteger();
+        ReloadingModelAPI model = new ReloadingModelAPI(Paths.get("."), List.of(), 0, directory -> {
+            if (loads.getAndIncrement() == 2) {
+                throw new IllegalStateException("bad data");
+            }
+            return map;
+        });
+        metrics.watchReloads(model);
+        String text = metrics.prometheus();
+        assertLine(text, "# TYPE campuspaths_reloads_total counter");
+        assertLine(text, "campuspaths_reloads_total 0");
+        assertLine(text, "campuspaths_reload_failures_total 0");
+        assertLine(text, "# TYPE campuspaths_last_reload_duration_seconds gauge");
+        assertTrue(model.reload());
+        assertFalse(model.reload());
+        text = metrics.prometheus();
+        assertLine(text, "campuspaths_reloads_total 2");
+        assertLine(text, "campuspaths_reload_failures_total 1");
+        assertLine(text, "campuspaths_last_reload_duration_seconds " + model.lastReloadNanos() * 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullRoute() {
+        new ServerMetrics().recordRequest(null, 200, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWatchNullReloads() {
+        new ServerMetrics().watchReloads(null);
+    }
+}
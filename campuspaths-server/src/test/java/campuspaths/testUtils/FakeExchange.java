@@ -0,0 +1,183 @@
+package campuspaths.testUtils;
+
+import spark.Request;
+import spark.Response;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * FakeExchange represents one request to the server and the response to it, without a
+ * server: the request has the headers a test gives it, and the response records the
+ * status, headers and body written to it, so that a test can check them.
+ */
+public class FakeExchange {
+    private final Map<String, String> requestHeaders;
+    private final Map<String, String> responseHeaders;
+    private final ByteArrayOutputStream body;
+    private int status;
+    private String type;
+    private int contentLength;
+    private int flushes;
+
+    /**
+     * Creates a request with no headers and a response that nothing has been written to.
+     */
+    public FakeExchange() {
+        requestHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        body = new ByteArrayOutputStream();
+        status = 200;
+        contentLength = -1;
+    }
+
+    /**
+     * Adds a header to the request.
+     *
+     * @param name  the name of the header
+     * @param value the value of the header
+     * @return this
+     */
+    public FakeExchange withHeader(String name, String value) {
+        requestHeaders.put(name, value);
+        return this;
+    }
+
+    /**
+     * @return the request, which has the headers given to withHeader
+     */
+    public Request request() {
+        return new Request() {
+            @Override
+            public String headers(String header) {
+                return requestHeaders.get(header);
+            }
+        };
+    }
+
+    /**
+     * @return the response, which records everything written to it in this
+     */
+    public Response response() {
+        HttpServletResponse raw = (HttpServletResponse) Proxy.newProxyInstance(
+                HttpServletResponse.class.getClassLoader(), new Class<?>[]{HttpServletResponse.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getOutputStream":
+                            return new BodyStream();
+                        case "setContentLength":
+                            contentLength = (Integer) args[0];
+                            return null;
+                        default:
+                            if (method.getReturnType() == boolean.class) {
+                                return false;
+                            }
+                            return method.getReturnType() == int.class ? 0 : null;
+                    }
+                });
+        return new Response() {
+            @Override
+            public void header(String name, String value) {
+                responseHeaders.put(name, value);
+            }
+
+            @Override
+            public void status(int statusCode) {
+                status = statusCode;
+            }
+
+            @Override
+            public int status() {
+                return status;
+            }
+
+            @Override
+            public void type(String contentType) {
+                type = contentType;
+            }
+
+            @Override
+            public HttpServletResponse raw() {
+                return raw;
+            }
+        };
+    }
+
+    /**
+     * @param name the name of a header
+     * @return the value of the header of the response, or null if it was not set
+     */
+    public String responseHeader(String name) {
+        return responseHeaders.get(name);
+    }
+
+    /**
+     * @return the status of the response
+     */
+    public int status() {
+        return status;
+    }
+
+    /**
+     * @return the content type of the response, or null if it was not set
+     */
+    public String type() {
+        return type;
+    }
+
+    /**
+     * @return the Content-Length of the response, or -1 if it was not set
+     */
+    public int contentLength() {
+        return contentLength;
+    }
+
+    /**
+     * @return the bytes written to the body of the response so far
+     */
+    public byte[] body() {
+        return body.toByteArray();
+    }
+
+    /**
+     * @return the number of times the body of the response was flushed
+     */
+    public int flushes() {
+        return flushes;
+    }
+
+    /**
+     * The stream of the body of the response.
+     */
+    private class BodyStream extends ServletOutputStream {
+        @Override
+        public void write(int b) {
+            body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            body.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
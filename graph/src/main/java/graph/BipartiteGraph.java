@@ -0,0 +1,339 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Represents an immutable, compact bipartite graph between left and right vertices,
+ * such as the characters of a comic and the books they appear in. It stores each
+ * incidence between a left and a right vertex once, instead of one edge between
+ * every two left vertices that share a right vertex, which a graph of k left
+ * vertices sharing one right vertex would need k * (k - 1) of.
+ *
+ * <p>Every vertex of each side is numbered with an int id in the range
+ * [0, leftSize()) or [0, rightSize()). The incidences of left vertex l are the
+ * ids in the range [firstRightEdge(l), endRightEdge(l)), ordered by the ids of
+ * the right vertices they lead to, and the incidences of right vertex r are the
+ * ids in the range [firstLeftEdge(r), endLeftEdge(r)), ordered by the ids of the
+ * left vertices they lead to.
+ */
+public class BipartiteGraph<L, R> {
+    private final List<L> left;
+    private final List<R> right;
+    private final Map<L, Integer> leftIds;
+    private final Map<R, Integer> rightIds;
+    private final int[] leftOffsets;
+    private final int[] rightTargets;
+    private final int[] rightOffsets;
+    private final int[] leftTargets;
+    private static final boolean DEBUG = false;
+
+    // RI: left != null && right != null && leftIds != null && rightIds != null
+    //     && neither left nor right contains null
+    //     && leftIds.get(left.get(i)) == i for all 0 <= i < left.size()
+    //     && rightIds.get(right.get(i)) == i for all 0 <= i < right.size()
+    //     && leftOffsets.length == left.size() + 1 && rightOffsets.length == right.size() + 1
+    //     && both offsets arrays start at 0, never decrease, and end at rightTargets.length
+    //     && rightTargets.length == leftTargets.length
+    //     && rightTargets is sorted within the incidences of every left vertex, and
+    //        leftTargets within the incidences of every right vertex
+    //     && the pairs (l, rightTargets[e]) and (leftTargets[e], r) are the same multiset
+
+    // AF(this): a bipartite graph whose left vertices are left.get(0), ..., left.get(leftSize() - 1)
+    //           and whose right vertices are right.get(0), ..., right.get(rightSize() - 1),
+    //           where the left vertex with id l is incident to the right vertices with the ids
+    //           rightTargets[leftOffsets[l]], ..., rightTargets[leftOffsets[l + 1] - 1]
+
+    /**
+     * Creates a graph from its representation
+     *
+     * @spec.requires the arguments satisfy the RI and are not modified afterwards
+     */
+    private BipartiteGraph(List<L> left, List<R> right, Map<L, Integer> leftIds, Map<R, Integer> rightIds,
+                           int[] leftOffsets, int[] rightTargets, int[] rightOffsets, int[] leftTargets) {
+        this.left = left;
+        this.right = right;
+        this.leftIds = leftIds;
+        this.rightIds = rightIds;
+        this.leftOffsets = leftOffsets;
+        this.rightTargets = rightTargets;
+        this.rightOffsets = rightOffsets;
+        this.leftTargets = leftTargets;
+        checkRep();
+    }
+
+    /**
+     * Creates a graph from its vertices and a list of incidences, where the incidence i
+     * joins the left vertex with id incidenceLeft[i] and the right vertex with id
+     * incidenceRight[i]. An incidence may appear more than once. The arguments are
+     * copied, so later changes to them are not reflected in the graph.
+     *
+     * @param left           the left vertices, ordered by their ids
+     * @param right          the right vertices, ordered by their ids
+     * @param incidenceLeft  the id of the left vertex of each incidence
+     * @param incidenceRight the id of the right vertex of each incidence
+     * @param <L>            the type of the left vertices
+     * @param <R>            the type of the right vertices
+     * @return a bipartite graph with the given vertices and incidences
+     * @throws IllegalArgumentException if any argument is null, if left or right contains
+     *                                  null or a vertex twice, if the incidence arrays have
+     *                                  different lengths, or if an incidence does not join
+     *                                  a left and a right vertex
+     */
+    public static <L, R> BipartiteGraph<L, R> fromArrays(List<L> left, List<R> right,
+                                                         int[] incidenceLeft, int[] incidenceRight) {
+        if (left == null || right == null || incidenceLeft == null || incidenceRight == null
+                || incidenceLeft.length != incidenceRight.length) {
+            throw new IllegalArgumentException();
+        }
+        List<L> leftList = new ArrayList<>(left);
+        List<R> rightList = new ArrayList<>(right);
+        Map<L, Integer> leftIds = ids(leftList);
+        Map<R, Integer> rightIds = ids(rightList);
+        int count = incidenceLeft.length;
+        for (int i = 0; i < count; i++) {
+            if (incidenceLeft[i] < 0 || incidenceLeft[i] >= leftList.size()
+                    || incidenceRight[i] < 0 || incidenceRight[i] >= rightList.size()) {
+                throw new IllegalArgumentException();
+            }
+        }
+        // group the incidences by their left vertex in the order given, then build
+        // each side from the other in id order, so that both come out sorted
+        int[] byLeftOffsets = offsets(incidenceLeft, leftList.size());
+        int[] byLeft = new int[count];
+        int[] next = Arrays.copyOf(byLeftOffsets, leftList.size());
+        for (int i = 0; i < count; i++) {
+            byLeft[next[incidenceLeft[i]]++] = incidenceRight[i];
+        }
+        int[] rightOffsets = offsets(incidenceRight, rightList.size());
+        int[] leftTargets = new int[count];
+        next = Arrays.copyOf(rightOffsets, rightList.size());
+        for (int l = 0; l < leftList.size(); l++) {
+            for (int e = byLeftOffsets[l]; e < byLeftOffsets[l + 1]; e++) {
+                leftTargets[next[byLeft[e]]++] = l;
+            }
+        }
+        int[] leftOffsets = byLeftOffsets;
+        int[] rightTargets = byLeft;
+        next = Arrays.copyOf(leftOffsets, leftList.size());
+        for (int r = 0; r < rightList.size(); r++) {
+            for (int e = rightOffsets[r]; e < rightOffsets[r + 1]; e++) {
+                rightTargets[next[leftTargets[e]]++] = r;
+            }
+        }
+        return new BipartiteGraph<>(leftList, rightList, leftIds, rightIds,
+                leftOffsets, rightTargets, rightOffsets, leftTargets);
+    }
+
+    /**
+     * @param vertices the vertices of one side, ordered by their ids
+     * @return the id of every vertex
+     * @throws IllegalArgumentException if vertices contains null or a vertex twice
+     */
+    private static <V> Map<V, Integer> ids(List<V> vertices) {
+        Map<V, Integer> ids = new HashMap<>();
+        for (int v = 0; v < vertices.size(); v++) {
+            if (vertices.get(v) == null || ids.put(vertices.get(v), v) != null) {
+                throw new IllegalArgumentException();
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @param ends the id of the vertex of one side of each incidence
+     * @param size the number of vertices of that side
+     * @return the index of the first incidence of each vertex when they are grouped by
+     * vertex, followed by the number of incidences
+     */
+    private static int[] offsets(int[] ends, int size) {
+        int[] offsets = new int[size + 1];
+        for (int end : ends) {
+            offsets[end + 1]++;
+        }
+        for (int v = 0; v < size; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        return offsets;
+    }
+
+    /**
+     * Returns the number of left vertices in this graph
+     *
+     * @return the number of left vertices in this graph
+     */
+    public int leftSize() {
+        return left.size();
+    }
+
+    /**
+     * Returns the number of right vertices in this graph
+     *
+     * @return the number of right vertices in this graph
+     */
+    public int rightSize() {
+        return right.size();
+    }
+
+    /**
+     * Returns the number of incidences between a left and a right vertex in this graph
+     *
+     * @return the number of incidences in this graph
+     */
+    public int incidenceCount() {
+        return rightTargets.length;
+    }
+
+    /**
+     * Returns the id of the given left vertex
+     *
+     * @param vertex The type of L vertex to look up
+     * @return the id of the given left vertex, or -1 if it is not in this graph
+     * @spec.requires vertex != null
+     */
+    public int leftIdOf(L vertex) {
+        Integer id = leftIds.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the id of the given right vertex
+     *
+     * @param vertex The type of R vertex to look up
+     * @return the id of the given right vertex, or -1 if it is not in this graph
+     * @spec.requires vertex != null
+     */
+    public int rightIdOf(R vertex) {
+        Integer id = rightIds.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the left vertex with the given id
+     *
+     * @param id the id of the left vertex
+     * @return the left vertex with the given id
+     * @throws IndexOutOfBoundsException if id is not in [0, leftSize())
+     */
+    public L leftAt(int id) {
+        return left.get(id);
+    }
+
+    /**
+     * Returns the right vertex with the given id
+     *
+     * @param id the id of the right vertex
+     * @return the right vertex with the given id
+     * @throws IndexOutOfBoundsException if id is not in [0, rightSize())
+     */
+    public R rightAt(int id) {
+        return right.get(id);
+    }
+
+    /**
+     * Returns the left vertices of this graph, ordered by their ids
+     *
+     * @return an unmodifiable list of the left vertices of this graph
+     */
+    public List<L> getLeftVertices() {
+        return Collections.unmodifiableList(left);
+    }
+
+    /**
+     * Returns the right vertices of this graph, ordered by their ids
+     *
+     * @return an unmodifiable list of the right vertices of this graph
+     */
+    public List<R> getRightVertices() {
+        return Collections.unmodifiableList(right);
+    }
+
+    /**
+     * Returns the id of the first incidence of the given left vertex
+     *
+     * @param left the id of the left vertex
+     * @return the id of the first incidence of the given left vertex
+     * @spec.requires 0 <= left < leftSize()
+     */
+    public int firstRightEdge(int left) {
+        return leftOffsets[left];
+    }
+
+    /**
+     * Returns one past the id of the last incidence of the given left vertex
+     *
+     * @param left the id of the left vertex
+     * @return one past the id of the last incidence of the given left vertex
+     * @spec.requires 0 <= left < leftSize()
+     */
+    public int endRightEdge(int left) {
+        return leftOffsets[left + 1];
+    }
+
+    /**
+     * Returns the id of the right vertex of the given incidence of a left vertex
+     *
+     * @param edge the id of an incidence of a left vertex
+     * @return the id of the right vertex that the incidence leads to
+     * @spec.requires 0 <= edge < incidenceCount()
+     */
+    public int rightTarget(int edge) {
+        return rightTargets[edge];
+    }
+
+    /**
+     * Returns the id of the first incidence of the given right vertex
+     *
+     * @param right the id of the right vertex
+     * @return the id of the first incidence of the given right vertex
+     * @spec.requires 0 <= right < rightSize()
+     */
+    public int firstLeftEdge(int right) {
+        return rightOffsets[right];
+    }
+
+    /**
+     * Returns one past the id of the last incidence of the given right vertex
+     *
+     * @param right the id of the right vertex
+     * @return one past the id of the last incidence of the given right vertex
+     * @spec.requires 0 <= right < rightSize()
+     */
+    public int endLeftEdge(int right) {
+        return rightOffsets[right + 1];
+    }
+
+    /**
+     * Returns the id of the left vertex of the given incidence of a right vertex
+     *
+     * @param edge the id of an incidence of a right vertex
+     * @return the id of the left vertex that the incidence leads to
+     * @spec.requires 0 <= edge < incidenceCount()
+     */
+    public int leftTarget(int edge) {
+        return leftTargets[edge];
+    }
+
+    private void checkRep() {
+        assert left != null && right != null && leftIds != null && rightIds != null;
+        assert leftOffsets.length == left.size() + 1 && rightOffsets.length == right.size() + 1;
+        assert leftOffsets[left.size()] == rightTargets.length;
+        assert rightOffsets[right.size()] == leftTargets.length;
+        assert rightTargets.length == leftTargets.length;
+        if (DEBUG) {
+            for (int l = 0; l < left.size(); l++) {
+                assert left.get(l) != null && leftIds.get(left.get(l)) == l;
+                for (int e = leftOffsets[l]; e < leftOffsets[l + 1]; e++) {
+                    assert 0 <= rightTargets[e] && rightTargets[e] < right.size();
+                    assert e == leftOffsets[l] || rightTargets[e - 1] <= rightTargets[e];
+                }
+            }
+            for (int r = 0; r < right.size(); r++) {
+                assert right.get(r) != null && rightIds.get(right.get(r)) == r;
+                for (int e = rightOffsets[r]; e < rightOffsets[r + 1]; e++) {
+                    assert 0 <= leftTargets[e] && leftTargets[e] < left.size();
+                    assert e == rightOffsets[r] || leftTargets[e - 1] <= leftTargets[e];
+                }
+            }
+        }
+    }
+}
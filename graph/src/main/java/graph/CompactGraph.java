@@ -0,0 +1,498 @@
+package graph;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Represents an immutable, compact snapshot of a directed labeled graph.
+ * Every vertex is numbered with an int id in the range [0, size()), and the
+ * outgoing edges of each vertex are stored contiguously in primitive arrays
+ * (compressed sparse row layout) instead of one Edge object per edge.
+ * The edges of vertex v are the edge ids in the range
+ * [firstEdge(v), endEdge(v)), in the same order as Graph#getChildrenOf
+ * returned them when the snapshot was taken, so they are sorted by
+ * edgeOrder() if the graph had one.
+ *
+ * <p>A snapshot keeps either the label of every edge, a numeric weight for every
+ * edge, or both. A snapshot taken with a weight function only keeps the weights, so
+ * that it holds one primitive double per edge instead of a reference to a boxed label.
+ */
+public class CompactGraph<T, E> {
+    private final List<T> vertices;
+    private final Map<T, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final Object[] labels;
+    private final Comparator<? super Edge<T, E>> edgeOrder;
+    private static final boolean DEBUG = false;
+
+    // RI: vertices != null && ids != null && offsets != null && targets != null
+    //     && vertices does not contain null && ids.get(vertices.get(i)) == i
+    //     for all 0 <= i < vertices.size() && ids.size() == vertices.size()
+    //     && offsets.length == vertices.size() + 1 && offsets[0] == 0
+    //     && offsets is non-decreasing && offsets[size()] == targets.length
+    //     && 0 <= targets[e] < size() for every edge e
+    //     && (weights == null || weights.length == targets.length)
+    //     && (labels == null || labels.length == targets.length)
+    //     && (weights != null || labels != null)
+    //     && (edgeOrder == null || the edges of every vertex are sorted by edgeOrder)
+
+    // AF(this): a graph whose vertices are vertices.get(0), ..., vertices.get(size() - 1)
+    //           where the vertex with id v has the outgoing edges
+    //           offsets[v], ..., offsets[v + 1] - 1, and the edge e goes to
+    //           vertices.get(targets[e]) with the label labels[e], if labels != null,
+    //           and the numeric weight weights[e], if weights != null.
+
+    /**
+     * Creates a snapshot of the given adjacency map
+     *
+     * @param adjacency the adjacency map of the graph to take a snapshot of
+     * @param weight    the function that turns an edge label into a numeric weight,
+     *                  or null if the snapshot should keep the labels instead
+     * @param edgeOrder the order the edges of every vertex in adjacency are sorted by,
+     *                  or null if they are not sorted
+     * @spec.requires adjacency != null and every edge in adjacency goes to a
+     * vertex that is a key of adjacency
+     * @spec.effects creates a snapshot that contains every vertex and edge of
+     * adjacency, keeping the edge labels if weight is null and their weights otherwise
+     */
+    CompactGraph(Map<T, List<Edge<T, E>>> adjacency, ToDoubleFunction<? super E> weight,
+                 Comparator<? super Edge<T, E>> edgeOrder) {
+        this.edgeOrder = edgeOrder;
+        int n = adjacency.size();
+        vertices = new ArrayList<>(n);
+        ids = new HashMap<>();
+        int edgeCount = 0;
+        for (Map.Entry<T, List<Edge<T, E>>> entry : adjacency.entrySet()) {
+            ids.put(entry.getKey(), vertices.size());
+            vertices.add(entry.getKey());
+            edgeCount += entry.getValue().size();
+        }
+        offsets = new int[n + 1];
+        targets = new int[edgeCount];
+        weights = weight == null ? null : new double[edgeCount];
+        labels = weight == null ? new Object[edgeCount] : null;
+        int e = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = e;
+            for (Edge<T, E> edge : adjacency.get(vertices.get(v))) {
+                targets[e] = ids.get(edge.getToVertex());
+                if (weights != null) {
+                    weights[e] = weight.applyAsDouble(edge.getLabel());
+                } else {
+                    labels[e] = edge.getLabel();
+                }
+                e++;
+            }
+        }
+        offsets[n] = e;
+        checkRep();
+    }
+
+    /**
+     * Creates a graph from its representation
+     *
+     * @spec.requires the arguments satisfy the RI and are not modified afterwards
+     */
+    private CompactGraph(List<T> vertices, Map<T, Integer> ids, int[] offsets, int[] targets,
+                         double[] weights, Object[] labels, Comparator<? super Edge<T, E>> edgeOrder) {
+        this.vertices = vertices;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.labels = labels;
+        this.edgeOrder = edgeOrder;
+        checkRep();
+    }
+
+    /**
+     * Creates a graph directly from arrays in compressed sparse row layout, for
+     * loaders that can build them faster than adding one edge at a time to a Graph.
+     * The vertex with id v is vertices.get(v), and its outgoing edges are
+     * offsets[v], ..., offsets[v + 1] - 1, where the edge e goes to the vertex
+     * with id targets[e] and has the label labels.get(e). The arguments are
+     * copied, so later changes to them are not reflected in the graph.
+     *
+     * @param vertices  the vertices, ordered by their ids
+     * @param offsets   the id of the first outgoing edge of each vertex, followed by
+     *                  the number of edges
+     * @param targets   the id of the vertex that each edge goes to
+     * @param labels    the label of each edge
+     * @param edgeOrder the order the edges of every vertex are sorted by, or null
+     *                  if they are not sorted
+     * @param <T>       the type of the vertices
+     * @param <E>       the type of the edge labels
+     * @return a graph with the given vertices and edges and no numeric weights
+     * @throws IllegalArgumentException if vertices, offsets, targets or labels is null,
+     *                                  if vertices contains null or a vertex twice, if
+     *                                  offsets.length != vertices.size() + 1, if offsets
+     *                                  does not start at 0 and never decrease up to
+     *                                  targets.length, if labels.size() != targets.length,
+     *                                  or if a target is not the id of a vertex
+     * @spec.requires if edgeOrder != null, the edges of every vertex are sorted by it
+     */
+    public static <T, E> CompactGraph<T, E> fromArrays(List<T> vertices, int[] offsets, int[] targets,
+                                                       List<? extends E> labels,
+                                                       Comparator<? super Edge<T, E>> edgeOrder) {
+        return fromArrays(vertices, offsets, targets, labels, null, edgeOrder);
+    }
+
+    /**
+     * Creates a graph directly from arrays in compressed sparse row layout, the same
+     * way as fromArrays(List, int[], int[], List, Comparator) does, along with a
+     * numeric weight for every edge, where the edge e has the weight weights[e]. A
+     * graph given weights need not be given labels, in which case it holds only the
+     * weights, like a snapshot made by Graph.freeze(ToDoubleFunction).
+     *
+     * @param vertices  the vertices, ordered by their ids
+     * @param offsets   the id of the first outgoing edge of each vertex, followed by
+     *                  the number of edges
+     * @param targets   the id of the vertex that each edge goes to
+     * @param labels    the label of each edge, or null if the graph should only store
+     *                  numeric weights
+     * @param weights   the numeric weight of each edge, or null if the graph should
+     *                  not store numeric weights
+     * @param edgeOrder the order the edges of every vertex are sorted by, or null
+     *                  if they are not sorted
+     * @param <T>       the type of the vertices
+     * @param <E>       the type of the edge labels
+     * @return a graph with the given vertices, edges and numeric weights
+     * @throws IllegalArgumentException in the same cases as
+     *                                  fromArrays(List, int[], int[], List, Comparator)
+     *                                  except that labels may be null if weights is not,
+     *                                  and if weights.length != targets.length
+     * @spec.requires if edgeOrder != null, the edges of every vertex are sorted by it
+     */
+    public static <T, E> CompactGraph<T, E> fromArrays(List<T> vertices, int[] offsets, int[] targets,
+                                                       List<? extends E> labels, double[] weights,
+                                                       Comparator<? super Edge<T, E>> edgeOrder) {
+        return fromArrays(vertices, offsets, targets, labels, weights, edgeOrder, true);
+    }
+
+    /**
+     * Creates a graph from arrays in compressed sparse row layout like
+     * fromArrays(List, int[], int[], List, double[], Comparator), but takes ownership of
+     * vertices, offsets, targets and weights instead of copying them, for loaders that
+     * built the arrays only to hand them over. The caller must not modify them afterwards.
+     *
+     * @param vertices  the vertices, ordered by their ids
+     * @param offsets   the id of the first outgoing edge of each vertex, followed by
+     *                  the number of edges
+     * @param targets   the id of the vertex that each edge goes to
+     * @param labels    the label of each edge, or null if the graph should only store
+     *                  numeric weights
+     * @param weights   the numeric weight of each edge, or null if the graph should
+     *                  not store numeric weights
+     * @param edgeOrder the order the edges of every vertex are sorted by, or null
+     *                  if they are not sorted
+     * @param <T>       the type of the vertices
+     * @param <E>       the type of the edge labels
+     * @return a graph with the given vertices, edges and numeric weights, which shares
+     * vertices, offsets, targets and weights with the caller
+     * @throws IllegalArgumentException in the same cases as
+     *                                  fromArrays(List, int[], int[], List, double[], Comparator)
+     * @spec.requires vertices, offsets, targets and weights are not modified after this call,
+     * and if edgeOrder != null, the edges of every vertex are sorted by it
+     */
+    public static <T, E> CompactGraph<T, E> wrapArrays(List<T> vertices, int[] offsets, int[] targets,
+                                                       List<? extends E> labels, double[] weights,
+                                                       Comparator<? super Edge<T, E>> edgeOrder) {
+        return fromArrays(vertices, offsets, targets, labels, weights, edgeOrder, false);
+    }
+
+    /**
+     * Checks the arrays of a graph in compressed sparse row layout, and creates the graph.
+     *
+     * @param copy whether to copy vertices, offsets, targets and weights, rather than
+     *             keep them
+     * @see #fromArrays(List, int[], int[], List, double[], Comparator)
+     */
+    private static <T, E> CompactGraph<T, E> fromArrays(List<T> vertices, int[] offsets, int[] targets,
+                                                        List<? extends E> labels, double[] weights,
+                                                        Comparator<? super Edge<T, E>> edgeOrder,
+                                                        boolean copy) {
+        if (vertices == null || offsets == null || targets == null || (labels == null && weights == null)
+                || offsets.length != vertices.size() + 1
+                || (labels != null && labels.size() != targets.length)
+                || (weights != null && weights.length != targets.length)
+                || offsets[0] != 0 || offsets[vertices.size()] != targets.length) {
+            throw new IllegalArgumentException();
+        }
+        int n = vertices.size();
+        List<T> vertexList = copy ? new ArrayList<>(vertices) : vertices;
+        Map<T, Integer> ids = new HashMap<>();
+        for (int v = 0; v < n; v++) {
+            T vertex = vertexList.get(v);
+            if (vertex == null || ids.put(vertex, v) != null || offsets[v] > offsets[v + 1]) {
+                throw new IllegalArgumentException();
+            }
+        }
+        int[] targetArray = copy ? targets.clone() : targets;
+        for (int target : targetArray) {
+            if (target < 0 || target >= n) {
+                throw new IllegalArgumentException();
+            }
+        }
+        return new CompactGraph<>(vertexList, ids, copy ? offsets.clone() : offsets, targetArray,
+                weights == null || !copy ? weights : weights.clone(),
+                labels == null ? null : labels.toArray(), edgeOrder);
+    }
+
+    /**
+     * Returns the number of vertices in this graph
+     *
+     * @return the number of vertices in this graph
+     */
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns the number of edges in this graph
+     *
+     * @return the number of edges in this graph
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns true if this graph contains the specified vertex
+     *
+     * @param vertex The type of T vertex whose presence in this graph is to be tested
+     * @return true if this graph contains the specified vertex
+     * @spec.requires vertex != null
+     */
+    public boolean containVertex(T vertex) {
+        return ids.containsKey(vertex);
+    }
+
+    /**
+     * Returns the id of the given vertex
+     *
+     * @param vertex The type of T vertex to look up
+     * @return the id of the given vertex, or -1 if it is not in this graph
+     * @spec.requires vertex != null
+     */
+    public int idOf(T vertex) {
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the vertex with the given id
+     *
+     * @param id the id of the vertex
+     * @return the vertex with the given id
+     * @throws IndexOutOfBoundsException if id is not in [0, size())
+     */
+    public T vertexAt(int id) {
+        return vertices.get(id);
+    }
+
+    /**
+     * Returns a list of vertices contained in this graph, ordered by their ids
+     *
+     * @return an unmodifiable list of vertices contained in this graph
+     */
+    public List<T> getVertices() {
+        return Collections.unmodifiableList(vertices);
+    }
+
+    /**
+     * Returns the id of the first outgoing edge of the given vertex
+     *
+     * @param vertex the id of the vertex
+     * @return the id of the first outgoing edge of the given vertex
+     * @spec.requires 0 <= vertex < size()
+     */
+    public int firstEdge(int vertex) {
+        return offsets[vertex];
+    }
+
+    /**
+     * Returns one past the id of the last outgoing edge of the given vertex
+     *
+     * @param vertex the id of the vertex
+     * @return one past the id of the last outgoing edge of the given vertex
+     * @spec.requires 0 <= vertex < size()
+     */
+    public int endEdge(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    /**
+     * Returns the id of the vertex that the given edge goes to
+     *
+     * @param edge the id of the edge
+     * @return the id of the vertex that the given edge goes to
+     * @spec.requires 0 <= edge < edgeCount()
+     */
+    public int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the id of the vertex that the given edge starts from
+     *
+     * @param edge the id of the edge
+     * @return the id of the vertex that the given edge starts from
+     * @spec.requires 0 <= edge < edgeCount()
+     */
+    public int edgeSource(int edge) {
+        // the edges of each vertex are contiguous, so binary search for the
+        // last vertex whose edges begin at or before the given edge
+        int low = 0;
+        int high = vertices.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns true if this graph stores a numeric weight for every edge
+     *
+     * @return true if this graph stores a numeric weight for every edge
+     */
+    public boolean hasWeights() {
+        return weights != null;
+    }
+
+    /**
+     * Returns the numeric weight of the given edge
+     *
+     * @param edge the id of the edge
+     * @return the numeric weight of the given edge
+     * @throws IllegalStateException if this graph does not store weights
+     * @spec.requires 0 <= edge < edgeCount()
+     */
+    public double edgeWeight(int edge) {
+        if (weights == null) {
+            throw new IllegalStateException("this graph does not store edge weights");
+        }
+        return weights[edge];
+    }
+
+    /**
+     * Returns true if this graph stores the label of every edge
+     *
+     * @return true if this graph stores the label of every edge, false if it only
+     * stores their numeric weights
+     */
+    public boolean hasLabels() {
+        return labels != null;
+    }
+
+    /**
+     * Returns the label of the given edge
+     *
+     * @param edge the id of the edge
+     * @return the label of the given edge
+     * @throws IllegalStateException if this graph does not store labels
+     * @spec.requires 0 <= edge < edgeCount()
+     */
+    @SuppressWarnings("unchecked")
+    public E edgeLabel(int edge) {
+        if (labels == null) {
+            throw new IllegalStateException("this graph only stores edge weights, not labels");
+        }
+        return (E) labels[edge];
+    }
+
+    /**
+     * Returns a list of all the outgoing edges that are connected with the
+     * given vertex. The returned list is newly created on every call.
+     *
+     * @param vertex The type of T parent vertex
+     * @return a list of all the outgoing edges that are connected with the
+     * given vertex
+     * @throws IllegalArgumentException if the given vertex is not in this graph
+     * @throws IllegalStateException    if this graph does not store labels
+     * @spec.requires vertex != null
+     */
+    public List<Edge<T, E>> getChildrenOf(T vertex) {
+        int v = idOf(vertex);
+        if (v < 0) {
+            throw new IllegalArgumentException();
+        }
+        List<Edge<T, E>> children = new ArrayList<>(endEdge(v) - firstEdge(v));
+        for (int e = firstEdge(v); e < endEdge(v); e++) {
+            children.add(new Edge<>(vertex, vertexAt(targets[e]), edgeLabel(e)));
+        }
+        return children;
+    }
+
+    /**
+     * Returns the order that the outgoing edges of every vertex are sorted by
+     *
+     * @return the order of the outgoing edges of every vertex, or null if
+     * they are not sorted
+     */
+    public Comparator<? super Edge<T, E>> edgeOrder() {
+        return edgeOrder;
+    }
+
+    /**
+     * Returns the reverse of this graph, which has the same vertices with the same ids
+     * and, for every edge from u to v in this graph, an edge from v to u with the same
+     * label and weight. The incoming edges of each vertex are ordered by the ids of the
+     * vertices they come from, then by their order in this graph.
+     *
+     * @return the reverse of this graph
+     */
+    public CompactGraph<T, E> transpose() {
+        int n = vertices.size();
+        int[] reverseOffsets = new int[n + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        int[] next = Arrays.copyOf(reverseOffsets, n);
+        int[] reverseTargets = new int[targets.length];
+        double[] reverseWeights = weights == null ? null : new double[targets.length];
+        Object[] reverseLabels = labels == null ? null : new Object[targets.length];
+        for (int v = 0; v < n; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int slot = next[targets[e]]++;
+                reverseTargets[slot] = v;
+                if (labels != null) {
+                    reverseLabels[slot] = labels[e];
+                }
+                if (weights != null) {
+                    reverseWeights[slot] = weights[e];
+                }
+            }
+        }
+        return new CompactGraph<>(vertices, ids, reverseOffsets, reverseTargets,
+                reverseWeights, reverseLabels, null);
+    }
+
+    private void checkRep() {
+        assert vertices != null && ids != null && offsets != null && targets != null;
+        assert offsets.length == vertices.size() + 1;
+        assert offsets[vertices.size()] == targets.length;
+        assert weights == null || weights.length == targets.length;
+        assert labels == null || labels.length == targets.length;
+        assert weights != null || labels != null;
+        if (DEBUG) {
+            for (int v = 0; v < vertices.size(); v++) {
+                assert vertices.get(v) != null;
+                assert ids.get(vertices.get(v)) == v;
+                assert offsets[v] <= offsets[v + 1];
+            }
+            for (int target : targets) {
+                assert 0 <= target && target < vertices.size();
+            }
+        }
+    }
+}
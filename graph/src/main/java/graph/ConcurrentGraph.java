@@ -0,0 +1,241 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Represents a mutable, directed labeled graph that contains unique vertices,
+ * like Graph, that may be read by any number of threads while other threads
+ * add vertices and edges to it.
+ *
+ * <p>The outgoing edges of every vertex are kept in a copy-on-write list: adding
+ * an edge copies the list of its source vertex and publishes the copy in place of
+ * the old one. Reading the graph never takes a lock, and the list getChildrenOf
+ * returns is an unmodifiable snapshot that later writes do not change. Writers
+ * take one lock, so adding an edge to a vertex with d outgoing edges costs O(d);
+ * graphs that are built once and then only read should be built with Graph and
+ * frozen instead.
+ */
+public class ConcurrentGraph<T, E> {
+    private final ConcurrentHashMap<T, List<Edge<T, E>>> graph;
+    private final Comparator<? super Edge<T, E>> edgeOrder;
+    // held by every writer, and by freeze so that it sees no write half done
+    private final Object writeLock;
+    private static final boolean DEBUG = false;
+
+    // RI: graph != null && writeLock != null && graph does not contain null
+    //     vertices nor null edges && every list in graph is unmodifiable
+    //     && graph must contain the vertex v if v appears in any edge in this
+    //     graph && (edgeOrder == null || the outgoing edges of every vertex are
+    //     sorted by edgeOrder)
+
+    // AF(this): the same as the AF of Graph, where the children of a vertex v
+    //           are the edges in the list graph.get(v)
+
+    /**
+     * Creates an empty, directed labeled graph
+     *
+     * @spec.effects sets this to empty
+     */
+    public ConcurrentGraph() {
+        graph = new ConcurrentHashMap<>();
+        edgeOrder = null;
+        writeLock = new Object();
+        checkRep();
+    }
+
+    /**
+     * Creates an empty, directed labeled graph that keeps the outgoing edges
+     * of every vertex sorted by the given order
+     *
+     * @param edgeOrder the order of the outgoing edges of every vertex
+     * @throws IllegalArgumentException if edgeOrder is null
+     * @spec.effects sets this to empty
+     */
+    public ConcurrentGraph(Comparator<? super Edge<T, E>> edgeOrder) {
+        if (edgeOrder == null) {
+            throw new IllegalArgumentException();
+        }
+        graph = new ConcurrentHashMap<>();
+        this.edgeOrder = edgeOrder;
+        writeLock = new Object();
+        checkRep();
+    }
+
+    /**
+     * Adds the given vertex to this graph
+     *
+     * @param vertex The type of T vertex that is to be added
+     * @return true if the vertex is added successfully, otherwise false
+     * @spec.requires vertex != null
+     * @spec.modifies this
+     * @spec.effects Adds the given vertex to this graph
+     */
+    public boolean addVertex(T vertex) {
+        synchronized (writeLock) {
+            checkRep();
+            boolean added = graph.putIfAbsent(vertex, Collections.emptyList()) == null;
+            checkRep();
+            return added;
+        }
+    }
+
+    /**
+     * Returns true if this graph contains the specified vertex
+     *
+     * @param vertex The type of T vertex whose presence in this graph is to be tested
+     * @return true if this graph contains the specified vertex
+     * @spec.requires vertex != null
+     */
+    public boolean containVertex(T vertex) {
+        return graph.containsKey(vertex);
+    }
+
+    /**
+     * Returns a list of vertices contained in this graph, which contains at least
+     * every vertex added before the call started
+     *
+     * @return a list of vertices contained in this graph
+     */
+    public List<T> getVertices() {
+        return new ArrayList<>(graph.keySet());
+    }
+
+    /**
+     * Adds a labeled edge that connects the given two vertices to this graph,
+     * if those vertices exist in this graph. Readers see either all of the
+     * outgoing edges of fromVertex before the call or all of them after it.
+     *
+     * @param fromVertex The type of T beginning vertex of this edge
+     * @param toVertex   The type of T ending vertex of this edge
+     * @param edgeLabel  The type of E label of the edge that is to be added
+     * @return true is the edge is added successfully, otherwise return false
+     * @spec.requires edgeLabel != null, fromVertex != null, toVertex != null
+     * @spec.modifies this
+     * @spec.effects Adds a labeled edge that connects the given two vertices
+     * to this graph, if those vertices exist in this graph
+     */
+    public boolean addEdge(T fromVertex, T toVertex, E edgeLabel) {
+        synchronized (writeLock) {
+            checkRep();
+            if (!graph.containsKey(fromVertex) || !graph.containsKey(toVertex)) {
+                return false;
+            }
+            Edge<T, E> currEdge = new Edge<>(fromVertex, toVertex, edgeLabel);
+            List<Edge<T, E>> children = new ArrayList<>(graph.get(fromVertex));
+            if (edgeOrder == null) {
+                children.add(currEdge);
+            } else {
+                // binary search for the position after every edge that is not greater,
+                // so that equal edges stay in the order they were added
+                int low = 0;
+                int high = children.size();
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (edgeOrder.compare(children.get(mid), currEdge) <= 0) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                children.add(low, currEdge);
+            }
+            graph.put(fromVertex, Collections.unmodifiableList(children));
+            checkRep();
+            return true;
+        }
+    }
+
+    /**
+     * Returns a list of all the outgoing edges that are connected with the
+     * given vertex when the call is made
+     *
+     * @param vertex The type of T parent vertex
+     * @return an unmodifiable list of all the outgoing edges that are connected
+     * with the given vertex, sorted by edgeOrder() if this graph has one, that
+     * later changes to this graph are not reflected in
+     * @throws IllegalArgumentException if the given vertex is not in this graph
+     * @spec.requires vertex != null
+     */
+    public List<Edge<T, E>> getChildrenOf(T vertex) {
+        List<Edge<T, E>> children = graph.get(vertex);
+        if (children == null) {
+            throw new IllegalArgumentException();
+        }
+        return children;
+    }
+
+    /**
+     * Returns the order that the outgoing edges of every vertex are kept in
+     *
+     * @return the order of the outgoing edges of every vertex, or null if
+     * they are kept in the order they were added
+     */
+    public Comparator<? super Edge<T, E>> edgeOrder() {
+        return edgeOrder;
+    }
+
+    /**
+     * Returns the number of vertices in this graph
+     *
+     * @return the number of vertices in this graph
+     */
+    public int size() {
+        return graph.size();
+    }
+
+    /**
+     * Returns an immutable, compact snapshot of this graph as it was at one
+     * moment between the start and the end of the call. Writers wait while the
+     * snapshot is taken; readers do not.
+     *
+     * @return a compact snapshot of this graph that keeps the edge labels
+     * and the edge order
+     */
+    public CompactGraph<T, E> freeze() {
+        synchronized (writeLock) {
+            checkRep();
+            return new CompactGraph<>(graph, null, edgeOrder);
+        }
+    }
+
+    /**
+     * Returns an immutable, compact snapshot of this graph as it was at one
+     * moment between the start and the end of the call, with a numeric weight
+     * for every edge in place of its label. Writers wait while the snapshot is
+     * taken; readers do not.
+     *
+     * @param weight the function that turns an edge label into its numeric weight
+     * @return a compact snapshot of this graph that keeps the numeric weights of the
+     * edges and the edge order, but not the edge labels
+     * @throws IllegalArgumentException if weight is null
+     */
+    public CompactGraph<T, E> freeze(ToDoubleFunction<? super E> weight) {
+        if (weight == null) {
+            throw new IllegalArgumentException();
+        }
+        synchronized (writeLock) {
+            checkRep();
+            return new CompactGraph<>(graph, weight, edgeOrder);
+        }
+    }
+
+    private void checkRep() {
+        assert graph != null && writeLock != null;
+        if (DEBUG) {
+            for (T vertex : graph.keySet()) {
+                assert vertex != null;
+                List<Edge<T, E>> edges = graph.get(vertex);
+                for (Edge<T, E> edge : edges) {
+                    assert edge != null && edge.getLabel() != null
+                            && edge.getFromVertex() != null
+                            && graph.containsKey(edge.getToVertex());
+                }
+                for (int i = 1; edgeOrder != null && i < edges.size(); i++) {
+                    assert edgeOrder.compare(edges.get(i - 1), edges.get(i)) <= 0;
+                }
+            }
+        }
+    }
+}
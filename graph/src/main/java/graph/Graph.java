@@ -1,18 +1,24 @@
 package graph;
 
 import java.util.*;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Represents a mutable, directed labeled graph that contains unique vertices.
+ * The outgoing edges of each vertex are kept in the order they were added,
+ * unless the graph is created with an edge order, in which case they are
+ * always kept sorted by it.
  */
 
 public class Graph<T, E> {
     private Map<T, List<Edge<T, E>>> graph;
+    private final Comparator<? super Edge<T, E>> edgeOrder;
     private static final boolean DEBUG = false;
 
     // RI: graph != null && graph does not contain null vertices nor null edges
     //     && graph must contain the vertex v if v appears in any edge in this
-    //     graph
+    //     graph && (edgeOrder == null || the outgoing edges of every vertex are
+    //     sorted by edgeOrder)
 
     // AF(this): an empty graph {} if this.size() = 0
     //           {v1 = [], ...} where v1 is an vertex in this graph
@@ -30,6 +36,25 @@ public class Graph<T, E> {
      */
     public Graph() {
         graph = new HashMap<>();
+        edgeOrder = null;
+        checkRep();
+    }
+
+    /**
+     * Creates an empty, directed labeled graph that keeps the outgoing edges
+     * of every vertex sorted by the given order, so that callers which need
+     * them in that order do not have to sort them on every visit
+     *
+     * @param edgeOrder the order of the outgoing edges of every vertex
+     * @throws IllegalArgumentException if edgeOrder is null
+     * @spec.effects sets this to empty
+     */
+    public Graph(Comparator<? super Edge<T, E>> edgeOrder) {
+        if (edgeOrder == null) {
+            throw new IllegalArgumentException();
+        }
+        graph = new HashMap<>();
+        this.edgeOrder = edgeOrder;
         checkRep();
     }
 
@@ -47,7 +72,7 @@ public class Graph<T, E> {
         if (containVertex(vertex)) {
             return false;
         }
-        graph.put(vertex, new LinkedList<>());
+        graph.put(vertex, edgeOrder == null ? new LinkedList<>() : new ArrayList<>());
         checkRep();
         return true;
     }
@@ -95,7 +120,24 @@ public class Graph<T, E> {
             return false;
         }
         Edge<T, E> currEdge = new Edge<>(fromVertex, toVertex, edgeLabel);
-        graph.get(fromVertex).add(currEdge);
+        List<Edge<T, E>> children = graph.get(fromVertex);
+        if (edgeOrder == null) {
+            children.add(currEdge);
+        } else {
+            // binary search for the position after every edge that is not greater,
+            // so that equal edges stay in the order they were added
+            int low = 0;
+            int high = children.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (edgeOrder.compare(children.get(mid), currEdge) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            children.add(low, currEdge);
+        }
         checkRep();
         return true;
     }
@@ -106,7 +148,8 @@ public class Graph<T, E> {
      *
      * @param vertex The type of T parent vertex
      * @return a list of all the outgoing edges that are connected with the
-     * given vertex
+     * given vertex, sorted by edgeOrder() if this graph has one, in which case
+     * the list is an unmodifiable view
      * @throws IllegalArgumentException if the given vertex is not in this graph
      * @spec.requires vertex != null
      */
@@ -116,9 +159,22 @@ public class Graph<T, E> {
             throw new IllegalArgumentException();
         }
         checkRep();
+        if (edgeOrder != null) {
+            return Collections.unmodifiableList(graph.get(vertex));
+        }
         return graph.get(vertex);
     }
 
+    /**
+     * Returns the order that the outgoing edges of every vertex are kept in
+     *
+     * @return the order of the outgoing edges of every vertex, or null if
+     * they are kept in the order they were added
+     */
+    public Comparator<? super Edge<T, E>> edgeOrder() {
+        return edgeOrder;
+    }
+
     /**
      * Returns the number of vertices in this graph
      *
@@ -129,6 +185,38 @@ public class Graph<T, E> {
         return graph.size();
     }
 
+    /**
+     * Returns an immutable, compact snapshot of this graph that numbers the
+     * vertices with int ids and stores the edges in primitive arrays. Later
+     * changes to this graph are not reflected in the snapshot.
+     *
+     * @return a compact snapshot of this graph that keeps the edge labels
+     * and the edge order
+     */
+    public CompactGraph<T, E> freeze() {
+        checkRep();
+        return new CompactGraph<>(graph, null, edgeOrder);
+    }
+
+    /**
+     * Returns an immutable, compact snapshot of this graph that numbers the
+     * vertices with int ids and stores the edges in primitive arrays, with a
+     * numeric weight for every edge in place of its label. Later changes to
+     * this graph are not reflected in the snapshot.
+     *
+     * @param weight the function that turns an edge label into its numeric weight
+     * @return a compact snapshot of this graph that keeps the numeric weights of the
+     * edges and the edge order, but not the edge labels
+     * @throws IllegalArgumentException if weight is null
+     */
+    public CompactGraph<T, E> freeze(ToDoubleFunction<? super E> weight) {
+        checkRep();
+        if (weight == null) {
+            throw new IllegalArgumentException();
+        }
+        return new CompactGraph<>(graph, weight, edgeOrder);
+    }
+
     private void checkRep() {
         assert graph != null;
         if (DEBUG) {
@@ -140,6 +228,9 @@ public class Graph<T, E> {
                             && edge.getFromVertex() != null &&
                             edge.getToVertex() != null;
                 }
+                for (int i = 1; edgeOrder != null && i < edges.size(); i++) {
+                    assert edgeOrder.compare(edges.get(i - 1), edges.get(i)) <= 0;
+                }
             }
         }
     }
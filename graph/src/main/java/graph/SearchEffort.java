@@ -0,0 +1,119 @@
+package graph;
+
+/**
+ * SearchEffort represents the immutable record of the work one search over a graph did:
+ * how many vertices it settled, that is, found the final cost or distance of, how many
+ * edges it relaxed, that is, looked at to see whether they reach a vertex more cheaply,
+ * how many times it pushed a vertex into its queue, how many entries it popped from the
+ * queue that were stale because their vertex had been settled already, how large the
+ * queue grew, how many edges the path it found has and how long it took.
+ */
+public class SearchEffort {
+    private final long settledVertices;
+    private final long edgesRelaxed;
+    private final long queuePushes;
+    private final long stalePops;
+    private final long maxQueueSize;
+    private final int pathLength;
+    private final long elapsedNanos;
+
+    // RI: settledVertices >= 0 && edgesRelaxed >= 0 && queuePushes >= 0 && stalePops >= 0
+    //     && maxQueueSize >= 0 && pathLength >= -1 && elapsedNanos >= 0
+
+    // AF(this): a search that settled settledVertices vertices, relaxed edgesRelaxed
+    //           edges, pushed a vertex into its queue queuePushes times, popped
+    //           stalePops stale entries from it, had at most maxQueueSize entries in it
+    //           at once, found a path of pathLength edges, or found no path if
+    //           pathLength == -1, and took elapsedNanos nanoseconds
+
+    /**
+     * @param settledVertices the number of vertices the search settled
+     * @param edgesRelaxed    the number of edges the search relaxed
+     * @param queuePushes     the number of times the search pushed a vertex into its queue
+     * @param stalePops       the number of stale entries the search popped from its queue
+     * @param maxQueueSize    the largest number of entries the queue held at once
+     * @param pathLength      the number of edges of the path the search found, or -1 if it
+     *                        found none or did not look for a single path
+     * @param elapsedNanos    how long the search took, in nanoseconds
+     * @throws IllegalArgumentException if a count is negative, or pathLength is less than -1
+     */
+    public SearchEffort(long settledVertices, long edgesRelaxed, long queuePushes, long stalePops,
+                        long maxQueueSize, int pathLength, long elapsedNanos) {
+        if (settledVertices < 0 || edgesRelaxed < 0 || queuePushes < 0 || stalePops < 0
+                || maxQueueSize < 0 || pathLength < -1 || elapsedNanos < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.settledVertices = settledVertices;
+        this.edgesRelaxed = edgesRelaxed;
+        this.queuePushes = queuePushes;
+        this.stalePops = stalePops;
+        this.maxQueueSize = maxQueueSize;
+        this.pathLength = pathLength;
+        this.elapsedNanos = elapsedNanos;
+        checkRep();
+    }
+
+    /**
+     * @return the number of vertices the search settled
+     */
+    public long getSettledVertices() {
+        return settledVertices;
+    }
+
+    /**
+     * @return the number of edges the search relaxed
+     */
+    public long getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    /**
+     * @return the number of times the search pushed a vertex into its queue
+     */
+    public long getQueuePushes() {
+        return queuePushes;
+    }
+
+    /**
+     * @return the number of stale entries the search popped from its queue, which is
+     * always 0 for a breadth first search
+     */
+    public long getStalePops() {
+        return stalePops;
+    }
+
+    /**
+     * @return the largest number of entries the queue of the search held at once
+     */
+    public long getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    /**
+     * @return the number of edges of the path the search found, or -1 if it found none or
+     * did not look for a single path
+     */
+    public int getPathLength() {
+        return pathLength;
+    }
+
+    /**
+     * @return how long the search took, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("settled %d vertices, relaxed %d edges, %d queue pushes, %d stale pops, "
+                        + "queue of at most %d, path of %s, took %.3f ms", settledVertices, edgesRelaxed,
+                queuePushes, stalePops, maxQueueSize, pathLength < 0 ? "none" : pathLength + " edges",
+                elapsedNanos / 1e6);
+    }
+
+    private void checkRep() {
+        assert settledVertices >= 0 && edgesRelaxed >= 0 && queuePushes >= 0 && stalePops >= 0;
+        assert maxQueueSize >= 0 && pathLength >= -1 && elapsedNanos >= 0;
+    }
+}
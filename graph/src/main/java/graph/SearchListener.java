@@ -0,0 +1,19 @@
+package graph;
+
+/**
+ * A SearchListener is told how much work every search over a graph took, once the search
+ * is done. Searches only count their work when they are given a listener, so a search
+ * without one costs nothing extra.
+ *
+ * <p>A listener may be called from many threads at once, by searches that run at the same
+ * time, so it must be thread-safe and should not block.
+ */
+public interface SearchListener {
+
+    /**
+     * Called once at the end of every search that was given this listener.
+     *
+     * @param effort the work the search did
+     */
+    void searchFinished(SearchEffort effort);
+}
@@ -0,0 +1,148 @@
+package graph;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SearchStatistics represents the mutable, thread-safe totals of the work of every search
+ * it has been attached to as a listener, such as all the searches of one script run, and
+ * can summarize them in a few lines. Recording a search never takes a lock.
+ */
+public class SearchStatistics implements SearchListener {
+    private final LongAdder searches;
+    private final LongAdder pathsFound;
+    private final LongAdder settledVertices;
+    private final LongAdder edgesRelaxed;
+    private final LongAdder queuePushes;
+    private final LongAdder stalePops;
+    private final LongAdder pathEdges;
+    private final LongAdder elapsedNanos;
+    private final LongAccumulator maxSettledVertices;
+    private final LongAccumulator maxQueueSize;
+    private final LongAccumulator maxElapsedNanos;
+
+    // RI: no field is null
+
+    // AF(this): the totals of searches searches, of which pathsFound found a path:
+    //           they settled settledVertices vertices, relaxed edgesRelaxed edges, pushed
+    //           queuePushes vertices into their queues and popped stalePops stale entries
+    //           from them, found paths of pathEdges edges in total and took elapsedNanos
+    //           nanoseconds; the largest search settled maxSettledVertices vertices, the
+    //           largest queue held maxQueueSize entries and the slowest search took
+    //           maxElapsedNanos nanoseconds
+
+    /**
+     * Creates the statistics of no searches.
+     *
+     * @spec.effects this holds no searches
+     */
+    public SearchStatistics() {
+        searches = new LongAdder();
+        pathsFound = new LongAdder();
+        settledVertices = new LongAdder();
+        edgesRelaxed = new LongAdder();
+        queuePushes = new LongAdder();
+        stalePops = new LongAdder();
+        pathEdges = new LongAdder();
+        elapsedNanos = new LongAdder();
+        maxSettledVertices = new LongAccumulator(Math::max, 0);
+        maxQueueSize = new LongAccumulator(Math::max, 0);
+        maxElapsedNanos = new LongAccumulator(Math::max, 0);
+        checkRep();
+    }
+
+    /**
+     * Adds the work of one search to these statistics.
+     *
+     * @param effort the work the search did
+     * @spec.modifies this
+     * @spec.effects adds effort to the totals of this
+     */
+    @Override
+    public void searchFinished(SearchEffort effort) {
+        searches.increment();
+        if (effort.getPathLength() >= 0) {
+            pathsFound.increment();
+            pathEdges.add(effort.getPathLength());
+        }
+        settledVertices.add(effort.getSettledVertices());
+        edgesRelaxed.add(effort.getEdgesRelaxed());
+        queuePushes.add(effort.getQueuePushes());
+        stalePops.add(effort.getStalePops());
+        elapsedNanos.add(effort.getElapsedNanos());
+        maxSettledVertices.accumulate(effort.getSettledVertices());
+        maxQueueSize.accumulate(effort.getMaxQueueSize());
+        maxElapsedNanos.accumulate(effort.getElapsedNanos());
+    }
+
+    /**
+     * @return the number of searches recorded
+     */
+    public long searchCount() {
+        return searches.sum();
+    }
+
+    /**
+     * @return the total number of vertices the searches settled
+     */
+    public long settledVertices() {
+        return settledVertices.sum();
+    }
+
+    /**
+     * @return the total number of edges the searches relaxed
+     */
+    public long edgesRelaxed() {
+        return edgesRelaxed.sum();
+    }
+
+    /**
+     * @return the total number of stale entries the searches popped from their queues
+     */
+    public long stalePops() {
+        return stalePops.sum();
+    }
+
+    /**
+     * @return the largest number of entries the queue of any search held at once
+     */
+    public long maxQueueSize() {
+        return maxQueueSize.get();
+    }
+
+    /**
+     * @return a few lines that summarize the searches, with the totals and the averages
+     * per search of their work
+     */
+    public String summary() {
+        long count = searches.sum();
+        if (count == 0) {
+            return "search statistics: no searches";
+        }
+        long found = pathsFound.sum();
+        return String.format("search statistics: %d searches, %d found a path%n"
+                        + "  settled vertices: %d total, %.1f average, %d max%n"
+                        + "  edges relaxed: %d total, %.1f average%n"
+                        + "  queue pushes: %d total, %d stale pops (%.1f%%), queue of at most %d%n"
+                        + "  path edges: %.1f average over the paths found%n"
+                        + "  time: %.3f ms total, %.3f ms average, %.3f ms max",
+                count, found,
+                settledVertices.sum(), (double) settledVertices.sum() / count, maxSettledVertices.get(),
+                edgesRelaxed.sum(), (double) edgesRelaxed.sum() / count,
+                queuePushes.sum(), stalePops.sum(),
+                queuePushes.sum() == 0 ? 0.0 : 100.0 * stalePops.sum() / queuePushes.sum(), maxQueueSize.get(),
+                found == 0 ? 0.0 : (double) pathEdges.sum() / found,
+                elapsedNanos.sum() / 1e6, elapsedNanos.sum() / 1e6 / count, maxElapsedNanos.get() / 1e6);
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    private void checkRep() {
+        assert searches != null && pathsFound != null && settledVertices != null && edgesRelaxed != null;
+        assert queuePushes != null && stalePops != null && pathEdges != null && elapsedNanos != null;
+        assert maxSettledVertices != null && maxQueueSize != null && maxElapsedNanos != null;
+    }
+}
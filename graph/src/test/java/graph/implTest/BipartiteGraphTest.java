@@ -0,0 +1,93 @@
+package graph.implTest;
+
+import graph.BipartiteGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * BipartiteGraph class.
+ */
+public class BipartiteGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    private static BipartiteGraph<String, String> smallGraph() {
+        // a1 and a2 share b1, a2 is in b2 twice, a3 is in no book and b3 has no one
+        return BipartiteGraph.fromArrays(Arrays.asList("a1", "a2", "a3"), Arrays.asList("b1", "b2", "b3"),
+                new int[]{1, 0, 1, 1}, new int[]{1, 0, 0, 1});
+    }
+
+    private static List<String> rightOf(BipartiteGraph<String, String> graph, String vertex) {
+        List<String> result = new ArrayList<>();
+        int l = graph.leftIdOf(vertex);
+        for (int e = graph.firstRightEdge(l); e < graph.endRightEdge(l); e++) {
+            result.add(graph.rightAt(graph.rightTarget(e)));
+        }
+        return result;
+    }
+
+    private static List<String> leftOf(BipartiteGraph<String, String> graph, String vertex) {
+        List<String> result = new ArrayList<>();
+        int r = graph.rightIdOf(vertex);
+        for (int e = graph.firstLeftEdge(r); e < graph.endLeftEdge(r); e++) {
+            result.add(graph.leftAt(graph.leftTarget(e)));
+        }
+        return result;
+    }
+
+    @Test
+    public void testSizes() {
+        BipartiteGraph<String, String> graph = smallGraph();
+        assertEquals(3, graph.leftSize());
+        assertEquals(3, graph.rightSize());
+        assertEquals(4, graph.incidenceCount());
+        assertEquals(Arrays.asList("a1", "a2", "a3"), graph.getLeftVertices());
+        assertEquals(Arrays.asList("b1", "b2", "b3"), graph.getRightVertices());
+        assertEquals(-1, graph.leftIdOf("b1"));
+        assertEquals(2, graph.rightIdOf("b3"));
+    }
+
+    @Test
+    public void testIncidencesAreSortedOnBothSides() {
+        BipartiteGraph<String, String> graph = smallGraph();
+        assertEquals(Arrays.asList("b1"), rightOf(graph, "a1"));
+        assertEquals(Arrays.asList("b1", "b2", "b2"), rightOf(graph, "a2"));
+        assertEquals(Arrays.asList(), rightOf(graph, "a3"));
+        assertEquals(Arrays.asList("a1", "a2"), leftOf(graph, "b1"));
+        assertEquals(Arrays.asList("a2", "a2"), leftOf(graph, "b2"));
+        assertEquals(Arrays.asList(), leftOf(graph, "b3"));
+    }
+
+    @Test
+    public void testArgumentsAreCopied() {
+        int[] incidenceLeft = {0};
+        int[] incidenceRight = {0};
+        BipartiteGraph<String, String> graph = BipartiteGraph.fromArrays(Arrays.asList("a1", "a2"),
+                Arrays.asList("b1"), incidenceLeft, incidenceRight);
+        incidenceLeft[0] = 1;
+        assertEquals(Arrays.asList("a1"), leftOf(graph, "b1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncidenceOutOfRange() {
+        BipartiteGraph.fromArrays(Arrays.asList("a1"), Arrays.asList("b1"), new int[]{0}, new int[]{1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentLengths() {
+        BipartiteGraph.fromArrays(Arrays.asList("a1"), Arrays.asList("b1"), new int[]{0, 0}, new int[]{0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateVertex() {
+        BipartiteGraph.fromArrays(Arrays.asList("a1", "a1"), Arrays.asList("b1"), new int[0], new int[0]);
+    }
+}
@@ -0,0 +1,245 @@
+package graph.implTest;
+
+import graph.CompactGraph;
+import graph.Edge;
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * CompactGraph class.
+ */
+public class CompactGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    private static Graph<String, Double> smallGraph() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("v1");
+        graph.addVertex("v2");
+        graph.addVertex("v3");
+        graph.addEdge("v1", "v2", 1.5);
+        graph.addEdge("v1", "v3", 2.0);
+        graph.addEdge("v2", "v2", 0.5);
+        graph.addEdge("v1", "v2", 3.0);
+        return graph;
+    }
+
+    @Test
+    public void testFreezeEmptyGraph() {
+        CompactGraph<String, String> compact = new Graph<String, String>().freeze();
+        assertEquals(0, compact.size());
+        assertEquals(0, compact.edgeCount());
+        assertFalse(compact.hasWeights());
+    }
+
+    @Test
+    public void testFreezeKeepsVerticesAndIds() {
+        Graph<String, Double> graph = smallGraph();
+        CompactGraph<String, Double> compact = graph.freeze();
+        assertEquals(3, compact.size());
+        assertEquals(4, compact.edgeCount());
+        assertEquals(graph.getVertices(), compact.getVertices());
+        for (int v = 0; v < compact.size(); v++) {
+            assertEquals(v, compact.idOf(compact.vertexAt(v)));
+            assertTrue(compact.containVertex(compact.vertexAt(v)));
+        }
+        assertEquals(-1, compact.idOf("cat"));
+        assertFalse(compact.containVertex("cat"));
+    }
+
+    @Test
+    public void testFreezeKeepsChildrenInOrder() {
+        Graph<String, Double> graph = smallGraph();
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        CompactGraph<String, Double> labeled = graph.freeze();
+        assertTrue(compact.hasWeights());
+        assertTrue(labeled.hasLabels());
+        for (String vertex : graph.getVertices()) {
+            List<Edge<String, Double>> expected = graph.getChildrenOf(vertex);
+            int v = compact.idOf(vertex);
+            assertEquals(expected.size(), compact.endEdge(v) - compact.firstEdge(v));
+            int e = compact.firstEdge(v);
+            for (Edge<String, Double> edge : expected) {
+                assertEquals(edge.getToVertex(), compact.vertexAt(compact.edgeTarget(e)));
+                assertEquals(edge.getLabel(), labeled.edgeLabel(e));
+                assertEquals(edge.getLabel(), compact.edgeWeight(e), 0.0);
+                e++;
+            }
+        }
+    }
+
+    @Test
+    public void testWeightedFreezeHoldsNoLabels() {
+        CompactGraph<String, Double> compact = smallGraph().freeze(Double::doubleValue);
+        assertTrue(compact.hasWeights());
+        assertFalse(compact.hasLabels());
+        assertFalse(compact.transpose().hasLabels());
+        try {
+            compact.edgeLabel(0);
+            fail("a weighted snapshot should not have labels");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            compact.getChildrenOf("v1");
+            fail("a weighted snapshot should not have labels");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testGetChildrenOfMatchesGraph() {
+        Graph<String, Double> graph = smallGraph();
+        CompactGraph<String, Double> compact = graph.freeze();
+        List<String> expected = new LinkedList<>();
+        for (Edge<String, Double> e : graph.getChildrenOf("v1")) {
+            expected.add(e.getToVertex() + "(" + e.getLabel() + ")");
+        }
+        List<String> actual = new LinkedList<>();
+        for (Edge<String, Double> e : compact.getChildrenOf("v1")) {
+            assertEquals("v1", e.getFromVertex());
+            actual.add(e.getToVertex() + "(" + e.getLabel() + ")");
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testSnapshotIgnoresLaterChanges() {
+        Graph<String, Double> graph = smallGraph();
+        CompactGraph<String, Double> compact = graph.freeze();
+        graph.addVertex("v4");
+        graph.addEdge("v3", "v4", 1.0);
+        assertEquals(3, compact.size());
+        assertEquals(4, compact.edgeCount());
+        assertFalse(compact.containVertex("v4"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEdgeWeightWithoutWeights() {
+        CompactGraph<String, Double> compact = smallGraph().freeze();
+        compact.edgeWeight(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetChildrenOfUnknownVertex() {
+        smallGraph().freeze().getChildrenOf("cat");
+    }
+
+    @Test
+    public void testTransposeReversesEveryEdge() {
+        CompactGraph<String, Double> compact = smallGraph().freeze(Double::doubleValue);
+        CompactGraph<String, Double> reverse = compact.transpose();
+        assertEquals(compact.getVertices(), reverse.getVertices());
+        assertEquals(compact.edgeCount(), reverse.edgeCount());
+        assertTrue(reverse.hasWeights());
+        int v1 = reverse.idOf("v1");
+        int v2 = reverse.idOf("v2");
+        assertEquals(0, reverse.endEdge(v1) - reverse.firstEdge(v1));
+        // v2 has incoming edges v1 -> v2 (twice) and v2 -> v2
+        assertEquals(3, reverse.endEdge(v2) - reverse.firstEdge(v2));
+        double total = 0;
+        for (int e = reverse.firstEdge(v2); e < reverse.endEdge(v2); e++) {
+            assertEquals(v2, reverse.edgeSource(e));
+            total += reverse.edgeWeight(e);
+        }
+        assertEquals(5.0, total, 0.0);
+    }
+
+    @Test
+    public void testTransposeTwiceHasSameEdges() {
+        CompactGraph<String, Double> compact = smallGraph().freeze();
+        CompactGraph<String, Double> twice = compact.transpose().transpose();
+        for (String v : compact.getVertices()) {
+            List<String> expected = new LinkedList<>();
+            for (Edge<String, Double> edge : compact.getChildrenOf(v)) {
+                expected.add(edge.getToVertex() + ":" + edge.getLabel());
+            }
+            for (Edge<String, Double> edge : twice.getChildrenOf(v)) {
+                assertTrue(expected.remove(edge.getToVertex() + ":" + edge.getLabel()));
+            }
+            assertTrue(expected.isEmpty());
+        }
+    }
+
+    @Test
+    public void testFromArrays() {
+        int[] offsets = {0, 2, 3, 3};
+        int[] targets = {1, 2, 1};
+        CompactGraph<String, String> compact = CompactGraph.fromArrays(Arrays.asList("v1", "v2", "v3"),
+                offsets, targets, Arrays.asList("a", "b", "c"), null);
+        targets[0] = 2; // the graph keeps its own copy
+        assertEquals(3, compact.size());
+        assertEquals(3, compact.edgeCount());
+        assertFalse(compact.hasWeights());
+        assertNull(compact.edgeOrder());
+        List<String> actual = new LinkedList<>();
+        for (Edge<String, String> e : compact.getChildrenOf("v1")) {
+            actual.add(e.getToVertex() + ":" + e.getLabel());
+        }
+        assertEquals(Arrays.asList("v2:a", "v3:b"), actual);
+        assertEquals("v2", compact.vertexAt(compact.edgeTarget(compact.firstEdge(compact.idOf("v2")))));
+        assertEquals(0, compact.endEdge(compact.idOf("v3")) - compact.firstEdge(compact.idOf("v3")));
+    }
+
+    @Test
+    public void testFromArraysWithWeights() {
+        double[] weights = {1.5, 2.5};
+        CompactGraph<String, Double> compact = CompactGraph.fromArrays(Arrays.asList("v1", "v2"),
+                new int[]{0, 1, 2}, new int[]{1, 0}, Arrays.asList(1.5, 2.5), weights, null);
+        weights[0] = 0; // the graph keeps its own copy
+        assertTrue(compact.hasWeights());
+        assertEquals(1.5, compact.edgeWeight(compact.firstEdge(compact.idOf("v1"))), 0);
+        assertEquals(2.5, compact.transpose().edgeWeight(compact.firstEdge(compact.idOf("v1"))), 0);
+    }
+
+    @Test
+    public void testWrapArraysKeepsWeightsOnly() {
+        double[] weights = {1.5, 2.5};
+        CompactGraph<String, Double> compact = CompactGraph.wrapArrays(Arrays.asList("v1", "v2"),
+                new int[]{0, 1, 2}, new int[]{1, 0}, null, weights, null);
+        assertTrue(compact.hasWeights());
+        assertFalse(compact.hasLabels());
+        weights[0] = 3.5; // the graph shares the array it was given
+        assertEquals(3.5, compact.edgeWeight(compact.firstEdge(compact.idOf("v1"))), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArraysNeitherLabelsNorWeights() {
+        CompactGraph.fromArrays(Arrays.asList("v1", "v2"), new int[]{0, 1, 1}, new int[]{1},
+                null, null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArraysWrongNumberOfWeights() {
+        CompactGraph.fromArrays(Arrays.asList("v1", "v2"), new int[]{0, 1, 1}, new int[]{1},
+                Arrays.asList("a"), new double[2], null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArraysDuplicateVertex() {
+        CompactGraph.fromArrays(Arrays.asList("v1", "v1"), new int[]{0, 0, 0}, new int[0],
+                Arrays.asList(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArraysTargetOutOfRange() {
+        CompactGraph.fromArrays(Arrays.asList("v1", "v2"), new int[]{0, 1, 1}, new int[]{2},
+                Arrays.asList("a"), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromArraysDecreasingOffsets() {
+        CompactGraph.fromArrays(Arrays.asList("v1", "v2"), new int[]{0, 2, 1}, new int[]{1},
+                Arrays.asList("a"), null);
+    }
+}
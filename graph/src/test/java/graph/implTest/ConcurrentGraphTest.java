@@ -0,0 +1,194 @@
+package graph.implTest;
+
+import graph.CompactGraph;
+import graph.ConcurrentGraph;
+import graph.Edge;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * ConcurrentGraph class, including a stress test of many readers against one writer.
+ */
+public class ConcurrentGraphTest {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(60);
+
+    private static final Comparator<Edge<Integer, Integer>> BY_TARGET =
+            Comparator.comparing(Edge::getToVertex);
+
+    private static final int READERS = 8;
+    private static final int VERTICES = 2000;
+    private static final int EDGES_PER_VERTEX = 10;
+
+    @Test
+    public void testAddVertexAndEdge() {
+        ConcurrentGraph<String, String> graph = new ConcurrentGraph<>();
+        assertTrue(graph.addVertex("a"));
+        assertFalse(graph.addVertex("a"));
+        assertTrue(graph.addVertex("b"));
+        assertFalse(graph.addEdge("a", "c", "x"));
+        assertTrue(graph.addEdge("a", "b", "x"));
+        assertTrue(graph.addEdge("a", "a", "y"));
+        assertEquals(2, graph.size());
+        assertEquals(List.of("b:x", "a:y"), children(graph.getChildrenOf("a")));
+        assertEquals(List.of(), graph.getChildrenOf("b"));
+    }
+
+    @Test
+    public void testChildrenAreASnapshot() {
+        ConcurrentGraph<String, String> graph = new ConcurrentGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addEdge("a", "b", "x");
+        List<Edge<String, String>> before = graph.getChildrenOf("a");
+        graph.addEdge("a", "b", "y");
+        assertEquals(1, before.size());
+        assertEquals(2, graph.getChildrenOf("a").size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testChildrenAreUnmodifiable() {
+        ConcurrentGraph<String, String> graph = new ConcurrentGraph<>();
+        graph.addVertex("a");
+        graph.getChildrenOf("a").add(new Edge<>("a", "a", "x"));
+    }
+
+    @Test
+    public void testEdgeOrder() {
+        ConcurrentGraph<Integer, Integer> graph = new ConcurrentGraph<>(BY_TARGET);
+        for (int v = 0; v < 4; v++) {
+            graph.addVertex(v);
+        }
+        graph.addEdge(0, 3, 0);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(0, 1, 3);
+        assertEquals(List.of("1:1", "1:3", "2:2", "3:0"), children(graph.getChildrenOf(0)));
+        assertSame(BY_TARGET, graph.freeze().edgeOrder());
+    }
+
+    @Test
+    public void testFreeze() {
+        ConcurrentGraph<String, Double> graph = new ConcurrentGraph<>();
+        graph.addVertex("a");
+        graph.addVertex("b");
+        graph.addEdge("a", "b", 2.5);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        graph.addEdge("b", "a", 1.0);
+        assertEquals(2, compact.size());
+        assertEquals(1, compact.edgeCount());
+        assertEquals(2.5, compact.edgeWeight(compact.firstEdge(compact.idOf("a"))), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingVertex() {
+        new ConcurrentGraph<String, String>().getChildrenOf("a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullEdgeOrder() {
+        new ConcurrentGraph<String, String>(null);
+    }
+
+    /**
+     * One writer adds vertices and edges while many readers walk the graph and take
+     * snapshots of it. The writer adds the edges of every vertex with the labels
+     * 0, 1, 2, ... in that order, so a reader that ever sees a gap, an edge to a
+     * vertex it cannot find, an unsorted list or a list that shrinks has seen a
+     * write half done.
+     */
+    @Test
+    public void testManyReadersOneWriter() throws InterruptedException {
+        ConcurrentGraph<Integer, Integer> graph = new ConcurrentGraph<>(BY_TARGET);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            try {
+                start.await();
+                Random random = new Random(331);
+                int[] added = new int[VERTICES];
+                for (int v = 0; v < VERTICES; v++) {
+                    graph.addVertex(v);
+                    for (int i = 0; i < EDGES_PER_VERTEX; i++) {
+                        int from = random.nextInt(v + 1);
+                        graph.addEdge(from, random.nextInt(v + 1), added[from]++);
+                    }
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                writing.set(false);
+            }
+        }));
+        for (int r = 0; r < READERS; r++) {
+            long seed = r;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    Random random = new Random(seed);
+                    int[] seen = new int[VERTICES];
+                    do {
+                        int v = random.nextInt(VERTICES);
+                        if (!graph.containVertex(v)) {
+                            continue;
+                        }
+                        List<Edge<Integer, Integer>> children = graph.getChildrenOf(v);
+                        assertTrue(children.size() >= seen[v]);
+                        seen[v] = children.size();
+                        boolean[] labels = new boolean[children.size()];
+                        for (int i = 0; i < children.size(); i++) {
+                            Edge<Integer, Integer> edge = children.get(i);
+                            assertTrue(graph.containVertex(edge.getToVertex()));
+                            assertTrue(i == 0 || BY_TARGET.compare(children.get(i - 1), edge) <= 0);
+                            labels[edge.getLabel()] = true;
+                        }
+                        for (boolean label : labels) {
+                            assertTrue(label);
+                        }
+                        if (random.nextInt(500) == 0) {
+                            CompactGraph<Integer, Integer> snapshot = graph.freeze();
+                            assertTrue(snapshot.size() <= graph.size());
+                        }
+                    } while (writing.get());
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        CompactGraph<Integer, Integer> compact = graph.freeze();
+        assertEquals(VERTICES, compact.size());
+        assertEquals(VERTICES * EDGES_PER_VERTEX, compact.edgeCount());
+    }
+
+    private static <T, E> List<String> children(List<Edge<T, E>> edges) {
+        List<String> children = new ArrayList<>();
+        for (Edge<T, E> edge : edges) {
+            children.add(edge.getToVertex() + ":" + edge.getLabel());
+        }
+        return children;
+    }
+}
@@ -1,5 +1,6 @@
 package graph.implTest;
 
+import graph.CompactGraph;
 import graph.Edge;
 import graph.Graph;
 import org.junit.Test;
@@ -7,6 +8,7 @@ import org.junit.Rule;
 import org.junit.rules.Timeout;
 
 
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -152,4 +154,64 @@ public class GraphTest {
         assertTrue(graph.containVertex("v6"));
         assertFalse(graph.containVertex("cat"));
     }
-}
\ No newline at end of file
+
+    private static final Comparator<Edge<String, String>> BY_TARGET =
+            Comparator.comparing((Edge<String, String> e) -> e.getToVertex());
+
+    @Test
+    public void testOrderedGraphKeepsChildrenSorted() {
+        Graph<String, String> graph = new Graph<>(BY_TARGET);
+        graph.addVertex("v1");
+        graph.addVertex("v2");
+        graph.addVertex("v3");
+        graph.addVertex("v4");
+        graph.addEdge("v1", "v4", "edge1");
+        graph.addEdge("v1", "v2", "edge2");
+        graph.addEdge("v1", "v3", "edge3");
+        graph.addEdge("v1", "v2", "edge4");
+        List<String> actual = new LinkedList<>();
+        for (Edge<String, String> e : graph.getChildrenOf("v1")) {
+            actual.add(e.getToVertex() + ":" + e.getLabel());
+        }
+        // edges that compare equal stay in the order they were added
+        assertEquals(List.of("v2:edge2", "v2:edge4", "v3:edge3", "v4:edge1"), actual);
+        assertSame(BY_TARGET, graph.edgeOrder());
+        assertNull(new Graph<String, String>().edgeOrder());
+    }
+
+    @Test
+    public void testOrderedGraphChildrenAreUnmodifiable() {
+        Graph<String, String> graph = new Graph<>(BY_TARGET);
+        graph.addVertex("v1");
+        graph.addVertex("v2");
+        graph.addEdge("v1", "v2", "edge1");
+        try {
+            graph.getChildrenOf("v1").clear();
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException ex) {
+            // DO nothing
+        }
+        assertEquals(1, graph.getChildrenOf("v1").size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOrderedGraphNullOrder() {
+        new Graph<String, String>(null);
+    }
+
+    @Test
+    public void testFreezeKeepsEdgeOrder() {
+        Graph<String, String> graph = new Graph<>(BY_TARGET);
+        graph.addVertex("v1");
+        graph.addVertex("v2");
+        graph.addVertex("v3");
+        graph.addEdge("v1", "v3", "edge1");
+        graph.addEdge("v1", "v2", "edge2");
+        CompactGraph<String, String> compact = graph.freeze();
+        assertSame(BY_TARGET, compact.edgeOrder());
+        int v1 = compact.idOf("v1");
+        assertEquals("v2", compact.vertexAt(compact.edgeTarget(compact.firstEdge(v1))));
+        assertEquals("v3", compact.vertexAt(compact.edgeTarget(compact.firstEdge(v1) + 1)));
+        assertNull(compact.transpose().edgeOrder());
+    }
+}
@@ -0,0 +1,61 @@
+package graph.implTest;
+
+import graph.SearchEffort;
+import graph.SearchStatistics;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation of the
+ * SearchStatistics class.
+ */
+public class SearchStatisticsTest {
+
+    @Test
+    public void testNoSearches() {
+        SearchStatistics statistics = new SearchStatistics();
+        assertEquals(0, statistics.searchCount());
+        assertEquals(0, statistics.settledVertices());
+        assertEquals(0, statistics.maxQueueSize());
+        assertEquals("search statistics: no searches", statistics.summary());
+    }
+
+    @Test
+    public void testTotalsAndMaxima() {
+        SearchStatistics statistics = new SearchStatistics();
+        statistics.searchFinished(new SearchEffort(10, 25, 12, 2, 6, 4, 1_000_000));
+        statistics.searchFinished(new SearchEffort(3, 5, 3, 0, 2, -1, 3_000_000));
+        assertEquals(2, statistics.searchCount());
+        assertEquals(13, statistics.settledVertices());
+        assertEquals(30, statistics.edgesRelaxed());
+        assertEquals(2, statistics.stalePops());
+        assertEquals(6, statistics.maxQueueSize());
+        String summary = statistics.summary();
+        assertTrue(summary, summary.startsWith("search statistics: 2 searches, 1 found a path"));
+        assertTrue(summary, summary.contains("settled vertices: 13 total, 6.5 average, 10 max"));
+        assertTrue(summary, summary.contains("queue pushes: 15 total, 2 stale pops"));
+        assertTrue(summary, summary.contains("path edges: 4.0 average"));
+    }
+
+    @Test
+    public void testConcurrentSearches() throws InterruptedException {
+        SearchStatistics statistics = new SearchStatistics();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int queue = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    statistics.searchFinished(new SearchEffort(1, 2, 1, 0, queue, 0, 1));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4000, statistics.searchCount());
+        assertEquals(8000, statistics.edgesRelaxed());
+        assertEquals(3, statistics.maxQueueSize());
+    }
+}
@@ -0,0 +1,327 @@
+package marvel;
+
+import graph.CompactGraph;
+import graph.Edge;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * BidirectionalBFS represents an immutable breadth first search engine over a
+ * compact snapshot of a Marvel graph. It finds the same path as
+ * MarvelPaths.bFSFindPath, which visits the neighbors of each character in
+ * lexicographic order, but it only explores part of the graph to do so.
+ *
+ * <p>A query first finds the length of the shortest path by searching from both
+ * characters at once, always growing the side whose frontier has fewer edges.
+ * Each step is either top-down, scanning the edges of the frontier, or bottom-up,
+ * letting every unreached character look for a neighbor in the frontier, whichever
+ * touches fewer edges. Then it ranks only the characters that lie on some shortest
+ * path in the order the one-sided search would have visited them, which decides the
+ * path that search would have returned.
+ */
+public class BidirectionalBFS {
+    private final CompactGraph<String, String> graph;
+    private final CompactGraph<String, String> reverse;
+    private final int[] nameRank;
+    private final int[] byName;
+    private static final boolean DEBUG = false;
+
+    /**
+     * A step is bottom-up when the frontier has more than 1 / ALPHA as many edges as
+     * the characters that have not been reached yet.
+     */
+    private static final int ALPHA = 14;
+
+    // RI: graph != null && reverse != null && reverse.size() == graph.size()
+    //     && nameRank and byName are inverse permutations of 0, ..., graph.size() - 1
+    //     && graph.vertexAt(byName[i]) < graph.vertexAt(byName[i + 1]) lexicographically
+
+    // AF(this): a search engine over graph, whose edges reversed are reverse, and where
+    //           the character with id v is the nameRank[v]-th in lexicographic order
+
+    /**
+     * Creates a search engine over the given graph.
+     *
+     * @param graph the compact graph to search, whose labels are the books
+     * @throws IllegalArgumentException if graph is null
+     * @spec.effects creates a search engine over graph
+     */
+    public BidirectionalBFS(CompactGraph<String, String> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        this.graph = graph;
+        this.reverse = graph.transpose();
+        Integer[] order = new Integer[graph.size()];
+        for (int v = 0; v < order.length; v++) {
+            order[v] = v;
+        }
+        Arrays.sort(order, Comparator.comparing(graph::vertexAt));
+        nameRank = new int[order.length];
+        byName = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            byName[i] = order[i];
+            nameRank[order[i]] = i;
+        }
+        checkRep();
+    }
+
+    /**
+     * @param start the starting vertex
+     * @param dest  the ending vertex
+     * @return a list of edges that represents the path between the starting
+     * vertex and the ending vertex, the same as the one that
+     * MarvelPaths.bFSFindPath finds, or null if there is none
+     * @throws IllegalArgumentException if start or dest is null, or not in the graph
+     */
+    public List<Edge<String, String>> findPath(String start, String dest) {
+        if (start == null || dest == null) {
+            throw new IllegalArgumentException();
+        }
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        if (startId < 0 || destId < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (startId == destId) {
+            return new LinkedList<>();
+        }
+        int n = graph.size();
+        Side forward = new Side(graph, reverse, startId);
+        Side backward = new Side(reverse, graph, destId);
+        Side last;
+        do {
+            if (forward.frontierSize == 0 || backward.frontierSize == 0) {
+                return null;
+            }
+            last = forward.frontierEdges() <= backward.frontierEdges() ? forward : backward;
+        } while (!last.expand(last == forward ? backward : forward));
+        int length = forward.depth + backward.depth;
+
+        // every vertex the last step reached that the other side has reached is in the middle
+        // of a shortest path; collect the shortest paths outward from there, level by level
+        int[][] levels = new int[length + 1][];
+        int[] dagLevel = new int[n];
+        Arrays.fill(dagLevel, -1);
+        int[] middle = new int[last.frontierSize];
+        int middleSize = 0;
+        Side other = last == forward ? backward : forward;
+        for (int i = 0; i < last.frontierSize; i++) {
+            int v = last.frontier[i];
+            if (other.level[v] >= 0) {
+                middle[middleSize++] = v;
+                dagLevel[v] = forward.depth;
+            }
+        }
+        levels[forward.depth] = Arrays.copyOf(middle, middleSize);
+        for (int i = forward.depth - 1; i >= 0; i--) {
+            levels[i] = collectLevel(levels[i + 1], reverse, forward.level, i, dagLevel, i);
+        }
+        for (int i = forward.depth + 1; i <= length; i++) {
+            levels[i] = collectLevel(levels[i - 1], graph, backward.level, length - i, dagLevel, i);
+        }
+
+        // rank each level in the order the one-sided search would visit it: by the rank
+        // of the earliest visited neighbor in the level before, then by name
+        int[] rank = new int[n];
+        int[] parent = new int[n];
+        for (int i = 1; i <= length; i++) {
+            long[] keys = new long[levels[i].length];
+            for (int k = 0; k < keys.length; k++) {
+                int x = levels[i][k];
+                int best = -1;
+                for (int e = reverse.firstEdge(x); e < reverse.endEdge(x); e++) {
+                    int u = reverse.edgeTarget(e);
+                    if (dagLevel[u] == i - 1 && (best < 0 || rank[u] < rank[best])) {
+                        best = u;
+                    }
+                }
+                parent[x] = best;
+                keys[k] = ((long) rank[best] << 32) | nameRank[x];
+            }
+            Arrays.sort(keys);
+            for (int k = 0; k < keys.length; k++) {
+                rank[byName[(int) keys[k]]] = k;
+            }
+        }
+        LinkedList<Edge<String, String>> path = new LinkedList<>();
+        for (int x = destId; x != startId; x = parent[x]) {
+            path.addFirst(new Edge<>(graph.vertexAt(parent[x]), graph.vertexAt(x), firstLabel(parent[x], x)));
+        }
+        return path;
+    }
+
+    /**
+     * Collects the vertices next to a level of shortest-path vertices that are
+     * on a shortest path one step farther from it.
+     *
+     * @param next     the vertices of the neighboring level
+     * @param edges    the graph whose edges lead from next to the vertices to collect
+     * @param level    the distance of every vertex from the end the collected level is closer to
+     * @param distance the distance from that end of the vertices to collect
+     * @param dagLevel the level of each vertex on a shortest path so far, -1 for the others
+     * @param index    the level of the vertices to collect
+     * @return the vertices of the level
+     * @spec.modifies dagLevel
+     */
+    private static int[] collectLevel(int[] next, CompactGraph<String, String> edges, int[] level,
+                                      int distance, int[] dagLevel, int index) {
+        int[] result = new int[16];
+        int size = 0;
+        for (int x : next) {
+            for (int e = edges.firstEdge(x); e < edges.endEdge(x); e++) {
+                int u = edges.edgeTarget(e);
+                if (level[u] == distance && dagLevel[u] < 0) {
+                    dagLevel[u] = index;
+                    if (size == result.length) {
+                        result = Arrays.copyOf(result, size * 2);
+                    }
+                    result[size++] = u;
+                }
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * @param from the id of a vertex
+     * @param to   the id of a vertex that from has an edge to
+     * @return the lexicographically first label of the edges from from to to
+     */
+    private String firstLabel(int from, int to) {
+        String label = null;
+        for (int e = graph.firstEdge(from); e < graph.endEdge(from); e++) {
+            if (graph.edgeTarget(e) == to && (label == null || graph.edgeLabel(e).compareTo(label) < 0)) {
+                label = graph.edgeLabel(e);
+            }
+        }
+        return label;
+    }
+
+    /**
+     * A method to check if any operation in this class would potentially
+     * violates the representation invariant.
+     */
+    private void checkRep() {
+        assert graph != null && reverse != null && reverse.size() == graph.size();
+        assert nameRank.length == graph.size() && byName.length == graph.size();
+        if (DEBUG) {
+            for (int i = 0; i < byName.length; i++) {
+                assert nameRank[byName[i]] == i;
+                assert i == 0 || graph.vertexAt(byName[i - 1]).compareTo(graph.vertexAt(byName[i])) < 0;
+            }
+        }
+    }
+
+    /**
+     * Side represents the mutable state of the search from one end of a query: the
+     * distance from that end of every vertex it has reached, and its frontier.
+     */
+    private static final class Side {
+        private final CompactGraph<String, String> out;
+        private final CompactGraph<String, String> in;
+        private final int[] level;
+        private int[] frontier;
+        private int frontierSize;
+        private int depth;
+        private long unreachedEdges;
+
+        // This class is only used during a query, so it has no RI or AF of its own:
+        // level[v] is the distance of v from the end, or -1 if it has not been reached,
+        // frontier[0 .. frontierSize) are the vertices at distance depth, and
+        // unreachedEdges is the number of edges of out entering unreached vertices.
+
+        /**
+         * @param out    the graph whose edges lead away from this end
+         * @param in     the reverse of out
+         * @param origin the id of the vertex at this end
+         */
+        private Side(CompactGraph<String, String> out, CompactGraph<String, String> in, int origin) {
+            this.out = out;
+            this.in = in;
+            level = new int[out.size()];
+            Arrays.fill(level, -1);
+            level[origin] = 0;
+            frontier = new int[]{origin};
+            frontierSize = 1;
+            depth = 0;
+            unreachedEdges = out.edgeCount() - degree(in, origin);
+        }
+
+        /**
+         * @return the number of edges leaving the frontier
+         */
+        private long frontierEdges() {
+            long edges = 0;
+            for (int i = 0; i < frontierSize; i++) {
+                edges += degree(out, frontier[i]);
+            }
+            return edges;
+        }
+
+        /**
+         * Reaches the vertices one step farther from this end.
+         *
+         * @param other the search from the other end
+         * @return true if this step reached a vertex that the other search has reached
+         * @spec.modifies this
+         */
+        private boolean expand(Side other) {
+            int[] next = new int[16];
+            int nextSize = 0;
+            boolean met = false;
+            if (frontierEdges() > unreachedEdges / ALPHA) {
+                // bottom-up: each unreached vertex stops at its first neighbor in the frontier
+                for (int v = 0; v < level.length; v++) {
+                    if (level[v] >= 0) {
+                        continue;
+                    }
+                    for (int e = in.firstEdge(v); e < in.endEdge(v); e++) {
+                        if (level[in.edgeTarget(e)] == depth) {
+                            level[v] = depth + 1;
+                            if (nextSize == next.length) {
+                                next = Arrays.copyOf(next, nextSize * 2);
+                            }
+                            next[nextSize++] = v;
+                            break;
+                        }
+                    }
+                }
+            } else {
+                for (int i = 0; i < frontierSize; i++) {
+                    int u = frontier[i];
+                    for (int e = out.firstEdge(u); e < out.endEdge(u); e++) {
+                        int v = out.edgeTarget(e);
+                        if (level[v] < 0) {
+                            level[v] = depth + 1;
+                            if (nextSize == next.length) {
+                                next = Arrays.copyOf(next, nextSize * 2);
+                            }
+                            next[nextSize++] = v;
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < nextSize; i++) {
+                unreachedEdges -= degree(in, next[i]);
+                met |= other.level[next[i]] >= 0;
+            }
+            frontier = next;
+            frontierSize = nextSize;
+            depth++;
+            return met;
+        }
+
+        /**
+         * @param graph a compact graph
+         * @param v     the id of a vertex of graph
+         * @return the number of edges leaving v in graph
+         */
+        private static int degree(CompactGraph<String, String> graph, int v) {
+            return graph.endEdge(v) - graph.firstEdge(v);
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package marvel;
+
+import graph.BipartiteGraph;
+import graph.CompactGraph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * MarvelGraphLoader represents a class that builds the compact Marvel graph straight
+ * from the bytes of a .tsv file, without going through MarvelParser and a Graph. It
+ * splits every line at its tab by hand, and interns each character and book to an int
+ * id the first time it sees its bytes, so it only creates one String per distinct
+ * name. Then it builds the edges of every character in parallel, directly into the
+ * arrays of the compact graph, instead of adding one Edge object at a time for every
+ * pair of characters in every book.
+ *
+ * <p>The graph it returns has the same vertices and edges as
+ * MarvelPaths.buildGraph(filename).freeze(), with the edges of every character in
+ * MarvelPaths.EDGE_ORDER. It can also return the bipartite graph between the
+ * characters and the books, which only stores every row of the file once. The file
+ * must have a header line naming the hero and book columns, and its fields must not
+ * be quoted.
+ */
+public class MarvelGraphLoader {
+
+    // No AF, RI, or checkRep because this class only contains static methods and
+    // it does not represent any data abstraction
+
+    /**
+     * @param filename the file in the resources/data folder that will be read
+     * @return the compact graph of the characters in the given file
+     * @throws IllegalArgumentException if the file does not exist, cannot be read, or
+     *                                  does not have a hero and a book column
+     */
+    public static CompactGraph<String, String> load(String filename) {
+        return buildCompact(parse(read(filename)));
+    }
+
+    /**
+     * @param file the .tsv file that will be read, which is mapped into memory
+     * @return the compact graph of the characters in the given file
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if file is null, or the file does not have a
+     *                                  hero and a book column
+     */
+    public static CompactGraph<String, String> load(Path file) throws IOException {
+        return buildCompact(parse(map(file)));
+    }
+
+    /**
+     * Loads the characters and books of the given file as a bipartite graph, which
+     * MarvelPaths.bFSFindPath can search without an edge for every two characters
+     * that share a book.
+     *
+     * @param filename the file in the resources/data folder that will be read
+     * @return the bipartite graph between the characters in the given file, on the
+     * left, and their books, on the right, both numbered in lexicographic order
+     * @throws IllegalArgumentException if the file does not exist, cannot be read, or
+     *                                  does not have a hero and a book column
+     */
+    public static BipartiteGraph<String, String> loadBipartite(String filename) {
+        return buildBipartite(parse(read(filename)));
+    }
+
+    /**
+     * Loads the characters and books of the given file as a bipartite graph.
+     *
+     * @param file the .tsv file that will be read, which is mapped into memory
+     * @return the bipartite graph between the characters in the given file, on the
+     * left, and their books, on the right, both numbered in lexicographic order
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if file is null, or the file does not have a
+     *                                  hero and a book column
+     */
+    public static BipartiteGraph<String, String> loadBipartite(Path file) throws IOException {
+        return buildBipartite(parse(map(file)));
+    }
+
+    /**
+     * @param filename the file in the resources/data folder that will be read
+     * @return the bytes of the file
+     * @throws IllegalArgumentException if the file does not exist or cannot be read
+     */
+    private static ByteBuffer read(String filename) {
+        InputStream stream = MarvelGraphLoader.class.getResourceAsStream("/data/" + filename);
+        if (stream == null) {
+            throw new IllegalArgumentException("provided an invalid file name");
+        }
+        // resources may be packed in a jar, so they are read into memory rather than mapped
+        try (InputStream in = stream) {
+            return ByteBuffer.wrap(in.readAllBytes());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("could not read " + filename, e);
+        }
+    }
+
+    /**
+     * @param file the file that will be read
+     * @return the bytes of the file, mapped into memory
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if file is null
+     */
+    private static ByteBuffer map(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * @param data the bytes of a .tsv file, from its position to its limit
+     * @return the rows of the data, with the characters and books numbered in
+     * lexicographic order
+     * @throws IllegalArgumentException if the data does not have a hero and a book column
+     */
+    private static Rows parse(ByteBuffer data) {
+        Charset charset = Charset.defaultCharset(); // the same one MarvelParser decodes with
+        int position = data.position();
+        int limit = data.limit();
+        if (position == limit) {
+            return new Rows(new String[0], new String[0], new int[0], new int[0], 0);
+        }
+
+        // find the hero and book columns in the header
+        int lineEnd = lineEnd(data, position, limit);
+        int heroColumn = -1;
+        int bookColumn = -1;
+        int column = 0;
+        for (int start = position; start <= lineEnd; column++) {
+            int end = fieldEnd(data, start, lineEnd);
+            String name = decode(data, start, end, charset);
+            if (name.equals("hero")) {
+                heroColumn = column;
+            } else if (name.equals("book")) {
+                bookColumn = column;
+            }
+            start = end + 1;
+        }
+        if (heroColumn < 0 || bookColumn < 0) {
+            throw new IllegalArgumentException("the file needs a hero and a book column");
+        }
+        position = nextLine(data, lineEnd, limit);
+
+        // intern the character and the book of every row
+        Interner heroes = new Interner();
+        Interner books = new Interner();
+        int[] rowHero = new int[1024];
+        int[] rowBook = new int[1024];
+        int rows = 0;
+        while (position < limit) {
+            lineEnd = lineEnd(data, position, limit);
+            if (lineEnd > position) {
+                int hero = -1;
+                int book = -1;
+                column = 0;
+                for (int start = position; start <= lineEnd && (hero < 0 || book < 0); column++) {
+                    int end = fieldEnd(data, start, lineEnd);
+                    if (column == heroColumn) {
+                        hero = heroes.intern(data, start, end);
+                    } else if (column == bookColumn) {
+                        book = books.intern(data, start, end);
+                    }
+                    start = end + 1;
+                }
+                if (hero >= 0 && book >= 0) {
+                    if (rows == rowHero.length) {
+                        rowHero = Arrays.copyOf(rowHero, rows * 2);
+                        rowBook = Arrays.copyOf(rowBook, rows * 2);
+                    }
+                    rowHero[rows] = hero;
+                    rowBook[rows] = book;
+                    rows++;
+                }
+            }
+            position = nextLine(data, lineEnd, limit);
+        }
+
+        // number the characters and the books in lexicographic order, which also merges
+        // different bytes that decode to the same name
+        String[] heroNames = heroes.names(data, charset);
+        String[] bookNames = books.names(data, charset);
+        int[] heroRank = rank(heroNames);
+        int[] bookRank = rank(bookNames);
+        String[] sortedHeroes = sortedDistinct(heroNames, heroRank);
+        String[] sortedBooks = sortedDistinct(bookNames, bookRank);
+        for (int r = 0; r < rows; r++) {
+            rowHero[r] = heroRank[rowHero[r]];
+            rowBook[r] = bookRank[rowBook[r]];
+        }
+        return new Rows(sortedHeroes, sortedBooks, rowHero, rowBook, rows);
+    }
+
+    /**
+     * @param table the rows of a .tsv file
+     * @return the bipartite graph between the characters and the books of the rows
+     */
+    private static BipartiteGraph<String, String> buildBipartite(Rows table) {
+        return BipartiteGraph.fromArrays(Arrays.asList(table.heroes), Arrays.asList(table.books),
+                Arrays.copyOf(table.rowHero, table.rows), Arrays.copyOf(table.rowBook, table.rows));
+    }
+
+    /**
+     * @param table the rows of a .tsv file
+     * @return the compact graph of the characters of the rows
+     */
+    private static CompactGraph<String, String> buildCompact(Rows table) {
+        String[] sortedHeroes = table.heroes;
+        String[] sortedBooks = table.books;
+        int[] rowHero = table.rowHero;
+        int[] rowBook = table.rowBook;
+        int rows = table.rows;
+        int n = sortedHeroes.length;
+
+        // group the characters of each book, in the order of the file, and the places
+        // each character appears in those groups
+        int[] bookStart = new int[sortedBooks.length + 1];
+        int[] heroStart = new int[n + 1];
+        for (int r = 0; r < rows; r++) {
+            bookStart[rowBook[r] + 1]++;
+            heroStart[rowHero[r] + 1]++;
+        }
+        for (int b = 0; b < sortedBooks.length; b++) {
+            bookStart[b + 1] += bookStart[b];
+        }
+        for (int v = 0; v < n; v++) {
+            heroStart[v + 1] += heroStart[v];
+        }
+        int[] members = new int[rows];
+        int[] memberBook = new int[rows];
+        int[] appearances = new int[rows];
+        int[] nextMember = Arrays.copyOf(bookStart, sortedBooks.length);
+        int[] nextAppearance = Arrays.copyOf(heroStart, n);
+        for (int r = 0; r < rows; r++) {
+            int slot = nextMember[rowBook[r]]++;
+            members[slot] = rowHero[r];
+            memberBook[slot] = rowBook[r];
+            appearances[nextAppearance[rowHero[r]]++] = slot;
+        }
+
+        // a character that appears once in a book has an edge to every other appearance
+        // of a character in it, which is also how buildGraph treats a repeated row
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            long degree = 0;
+            for (int a = heroStart[v]; a < heroStart[v + 1]; a++) {
+                int b = memberBook[appearances[a]];
+                degree += bookStart[b + 1] - bookStart[b] - 1;
+            }
+            if (offsets[v] + degree > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("the graph has too many edges");
+            }
+            offsets[v + 1] = offsets[v] + (int) degree;
+        }
+        int[] targets = new int[offsets[n]];
+        String[] labels = new String[offsets[n]];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            // the ranks of the target and the book, so sorting the keys sorts the edges
+            long[] keys = new long[offsets[v + 1] - offsets[v]];
+            int k = 0;
+            for (int a = heroStart[v]; a < heroStart[v + 1]; a++) {
+                int slot = appearances[a];
+                int b = memberBook[slot];
+                for (int m = bookStart[b]; m < bookStart[b + 1]; m++) {
+                    if (m != slot) {
+                        keys[k++] = ((long) members[m] << 32) | b;
+                    }
+                }
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length; i++) {
+                targets[offsets[v] + i] = (int) (keys[i] >>> 32);
+                labels[offsets[v] + i] = sortedBooks[(int) keys[i]];
+            }
+        });
+        return CompactGraph.fromArrays(Arrays.asList(sortedHeroes), offsets, targets, Arrays.asList(labels),
+                MarvelPaths.EDGE_ORDER);
+    }
+
+    /**
+     * @param names the names, some of which may be equal
+     * @return the rank of each name among the distinct names in lexicographic order
+     */
+    private static int[] rank(String[] names) {
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> names[i]));
+        int[] rank = new int[names.length];
+        int distinct = -1;
+        for (int i = 0; i < order.length; i++) {
+            if (i == 0 || !names[order[i]].equals(names[order[i - 1]])) {
+                distinct++;
+            }
+            rank[order[i]] = distinct;
+        }
+        return rank;
+    }
+
+    /**
+     * @param names the names, some of which may be equal
+     * @param rank  the rank of each name, as returned by rank(names)
+     * @return the distinct names in lexicographic order
+     */
+    private static String[] sortedDistinct(String[] names, int[] rank) {
+        int distinct = 0;
+        for (int r : rank) {
+            distinct = Math.max(distinct, r + 1);
+        }
+        String[] sorted = new String[distinct];
+        for (int i = 0; i < names.length; i++) {
+            sorted[rank[i]] = names[i];
+        }
+        return sorted;
+    }
+
+    /**
+     * @return the index of the newline or carriage return that ends the line starting
+     * at start, or limit if it is the last line and has neither
+     */
+    private static int lineEnd(ByteBuffer data, int start, int limit) {
+        int i = start;
+        while (i < limit && data.get(i) != '\n' && data.get(i) != '\r') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index of the first byte of the line after the one ending at lineEnd
+     */
+    private static int nextLine(ByteBuffer data, int lineEnd, int limit) {
+        if (lineEnd < limit && data.get(lineEnd) == '\r') {
+            lineEnd++;
+        }
+        if (lineEnd < limit && data.get(lineEnd) == '\n') {
+            lineEnd++;
+        }
+        return lineEnd;
+    }
+
+    /**
+     * @return the index of the tab that ends the field starting at start, or lineEnd if
+     * it is the last field of its line
+     */
+    private static int fieldEnd(ByteBuffer data, int start, int lineEnd) {
+        int i = start;
+        while (i < lineEnd && data.get(i) != '\t') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the bytes from start to end, decoded with the given charset
+     */
+    private static String decode(ByteBuffer data, int start, int end, Charset charset) {
+        byte[] bytes = new byte[end - start];
+        ByteBuffer field = data.duplicate();
+        field.position(start);
+        field.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * Rows represents the rows of a .tsv file, where row r is the character with id
+     * rowHero[r] appearing in the book with id rowBook[r], and the characters and the
+     * books are numbered by their order in heroes and books.
+     */
+    private static final class Rows {
+        private final String[] heroes;
+        private final String[] books;
+        private final int[] rowHero;
+        private final int[] rowBook;
+        private final int rows;
+
+        private Rows(String[] heroes, String[] books, int[] rowHero, int[] rowBook, int rows) {
+            this.heroes = heroes;
+            this.books = books;
+            this.rowHero = rowHero;
+            this.rowBook = rowBook;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Interner represents a mutable table that numbers distinct byte sequences of a
+     * buffer in the order they are first seen, without decoding them.
+     */
+    private static final class Interner {
+        private int[] table = new int[1024];
+        private int[] starts = new int[512];
+        private int[] ends = new int[512];
+        private int[] hashes = new int[512];
+        private int size = 0;
+
+        // This class is only used while loading, so it has no RI or AF of its own:
+        // the sequence with id i is the bytes from starts[i] to ends[i], whose hash is
+        // hashes[i], and table is an open-addressing hash table holding i + 1 for every
+        // id i, or 0 in empty slots, and is never more than half full.
+
+        /**
+         * @return the id of the bytes from start to end, which is new if they have not
+         * been seen before
+         */
+        private int intern(ByteBuffer data, int start, int end) {
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + data.get(i);
+            }
+            hash ^= hash >>> 16;
+            int mask = table.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int id = table[slot] - 1;
+                if (id < 0) {
+                    break;
+                }
+                if (hashes[id] == hash && sameBytes(data, starts[id], ends[id], start, end)) {
+                    return id;
+                }
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            hashes[size] = hash;
+            size++;
+            if (2 * size > table.length) {
+                table = new int[table.length * 2];
+                for (int id = 0; id < size; id++) {
+                    put(id);
+                }
+            } else {
+                put(size - 1);
+            }
+            return size - 1;
+        }
+
+        /**
+         * Adds the given id to the first empty slot of its hash.
+         */
+        private void put(int id) {
+            int mask = table.length - 1;
+            int slot = hashes[id] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+
+        /**
+         * @return the decoded name of every id, in the order of the ids
+         */
+        private String[] names(ByteBuffer data, Charset charset) {
+            String[] names = new String[size];
+            for (int id = 0; id < size; id++) {
+                names[id] = decode(data, starts[id], ends[id], charset);
+            }
+            return names;
+        }
+
+        /**
+         * @return true if the bytes from start1 to end1 are the same as from start2 to end2
+         */
+        private static boolean sameBytes(ByteBuffer data, int start1, int end1, int start2, int end2) {
+            if (end1 - start1 != end2 - start2) {
+                return false;
+            }
+            for (int i = 0; i < end1 - start1; i++) {
+                if (data.get(start1 + i) != data.get(start2 + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
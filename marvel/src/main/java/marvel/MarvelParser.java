@@ -15,9 +15,13 @@ package marvel;
 import com.opencsv.bean.CsvToBeanBuilder;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Iterator;
 
 /**
@@ -50,7 +54,33 @@ public class MarvelParser {
             // the @spec.requires, but it's good to program defensively. :)
             throw new IllegalArgumentException("provided an invalid file name");
         }
-        Reader reader = new BufferedReader(new InputStreamReader(stream));
+        return parseData(new BufferedReader(new InputStreamReader(stream)));
+    }
+
+    /**
+     * Reads a Marvel Universe dataset anywhere on the filesystem, such as one written by a
+     * data generator, in the same format as parseData(String) reads
+     *
+     * @param file the path of the file that will be read
+     * @return an iterator over the lines of the file, after its header line
+     * @throws IllegalArgumentException if file is null or cannot be read
+     */
+    public static Iterator<BeanReader> parseData(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("provided an invalid file name");
+        }
+        try {
+            return parseData(Files.newBufferedReader(file, Charset.defaultCharset()));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("cannot read " + file, e);
+        }
+    }
+
+    /**
+     * @param reader the reader of the file that will be read
+     * @return an iterator over the lines read by reader, after its header line
+     */
+    private static Iterator<BeanReader> parseData(Reader reader) {
         Iterator<BeanReader> csvUserIterator = new CsvToBeanBuilder<BeanReader>(reader)
                 .withType(BeanReader.class)
                 .withSeparator('\t')
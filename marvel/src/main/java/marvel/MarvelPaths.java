@@ -1,8 +1,13 @@
 package marvel;
 
+import graph.BipartiteGraph;
+import graph.CompactGraph;
 import graph.Edge;
 import graph.Graph;
+import graph.SearchEffort;
+import graph.SearchListener;
 
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -16,6 +21,21 @@ public class MarvelPaths {
     // No AF, RI, or checkRep because this class only contains static methods and
     // it does not represent any data abstraction
 
+    /**
+     * The order in which breadth first search visits the neighbors of a character:
+     * by the name of the neighbor, then by the title of the book they share.
+     * Graphs built by buildGraph keep their edges in this order.
+     */
+    public static final Comparator<Edge<String, String>> EDGE_ORDER = new Comparator<Edge<String, String>>() {
+        public int compare(Edge<String, String> thisOne, Edge<String, String> other) {
+            int compareName = thisOne.getToVertex().compareTo(other.getToVertex());
+            if (compareName == 0) {
+                return thisOne.getLabel().compareTo(other.getLabel());
+            }
+            return compareName;
+        }
+    };
+
     /**
      * An interactive console that allows the users to type in two heroes
      * that exists in the graph and prints out the path between them if
@@ -24,7 +44,8 @@ public class MarvelPaths {
      * @param args
      */
     public static void main(String[] args) {
-        Graph<String, String> graph = buildGraph("biggerData.tsv");
+        CompactGraph<String, String> graph = MarvelGraphLoader.load("biggerData.tsv");
+        BidirectionalBFS search = new BidirectionalBFS(graph);
         System.out.println("Welcome to the interactive realm of Marvel social network");
         boolean tryAgain = false;
         Scanner input = new Scanner(System.in);
@@ -44,7 +65,7 @@ public class MarvelPaths {
                 }
             } else {
                 System.out.println("path from " + startHero + " to " + endHero + ":");
-                List<Edge<String, String>> paths = bFSFindPath(graph, startHero, endHero);
+                List<Edge<String, String>> paths = search.findPath(startHero, endHero);
                 String result = "";
                 if (paths == null) {
                     result = "Oops! There is no connection between these two heroes";
@@ -63,11 +84,31 @@ public class MarvelPaths {
 
     /**
      * @param filename the input file that is used to build the graph
-     * @return the graph that is built from the given input file
+     * @return the graph that is built from the given input file, whose edges
+     * are kept in EDGE_ORDER
      */
     public static Graph<String, String> buildGraph(String filename) {
-        Graph<String, String> graph = new Graph<>();
-        Iterator<BeanReader> marvelIR = MarvelParser.parseData(filename);
+        return buildGraph(MarvelParser.parseData(filename));
+    }
+
+    /**
+     * @param file the path of an input file anywhere on the filesystem, such as
+     *             one written by a data generator, that is used to build the graph
+     * @return the graph that is built from the given input file, whose edges
+     * are kept in EDGE_ORDER
+     * @throws IllegalArgumentException if file is null or cannot be read
+     */
+    public static Graph<String, String> buildGraph(Path file) {
+        return buildGraph(MarvelParser.parseData(file));
+    }
+
+    /**
+     * @param marvelIR the lines of the input file
+     * @return the graph that is built from the given lines, whose edges are
+     * kept in EDGE_ORDER
+     */
+    private static Graph<String, String> buildGraph(Iterator<BeanReader> marvelIR) {
+        Graph<String, String> graph = new Graph<>(EDGE_ORDER);
         Map<String, List<String>> bookToChar = new HashMap<>();
         while (marvelIR.hasNext()) {
             BeanReader line = marvelIR.next();
@@ -102,38 +143,296 @@ public class MarvelPaths {
      * @spec.requires both start and dest are in the given graph
      */
     public static List<Edge<String, String>> bFSFindPath(Graph<String, String> graph, String start, String dest) {
+        return bFSFindPath(graph, start, dest, null);
+    }
+
+    /**
+     * Finds the path like bFSFindPath(Graph, String, String), and tells the given listener
+     * how much work the search did.
+     *
+     * @param graph    the given graph that will be used for BFS
+     * @param start    the starting vertex
+     * @param dest     the ending vertex
+     * @param listener the listener to tell about the search, or null to count nothing
+     * @return a list of edges that represents the path between the starting
+     * vertex and the ending vertex
+     * @throws IllegalArgumentException if start or dest is null
+     * @spec.requires both start and dest are in the given graph
+     */
+    public static List<Edge<String, String>> bFSFindPath(Graph<String, String> graph, String start, String dest,
+                                                         SearchListener listener) {
         if (start == null || dest == null) {
             throw new IllegalArgumentException();
         }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        long settled = 0;
+        long relaxed = 0;
+        int maxQueue = 1;
+        List<Edge<String, String>> found = null;
         Queue<String> visited = new LinkedList<>();
-        Map<String, List<Edge<String, String>>> noteToPath = new HashMap<>();
+        // the edge that first reached each vertex, null for the start vertex
+        Map<String, Edge<String, String>> parentEdge = new HashMap<>();
         visited.add(start);
-        noteToPath.put(start, new LinkedList<>());
+        parentEdge.put(start, null);
         while (!visited.isEmpty()) {
             String currNode = visited.remove();
+            settled++;
             if (currNode.equals(dest)) {
-                return noteToPath.get(currNode);
+                LinkedList<Edge<String, String>> path = new LinkedList<>();
+                for (Edge<String, String> e = parentEdge.get(dest); e != null; e = parentEdge.get(e.getFromVertex())) {
+                    path.addFirst(e);
+                }
+                found = path;
+                break;
             }
             List<Edge<String, String>> neighbors = graph.getChildrenOf(currNode);
-            neighbors.sort(new Comparator<Edge<String, String>>() {
-                public int compare(Edge<String, String> thisOne, Edge<String, String> other) {
-                    int compareName = thisOne.getToVertex().compareTo(other.getToVertex());
-                    if (compareName == 0) {
-                        return thisOne.getLabel().compareTo(other.getLabel());
-                    }
-                    return compareName;
-                }
-            });
+            if (graph.edgeOrder() != EDGE_ORDER) {
+                // sort a copy, since the graph may be searched by other threads
+                neighbors = new ArrayList<>(neighbors);
+                neighbors.sort(EDGE_ORDER);
+            }
+            relaxed += neighbors.size();
             for (Edge<String, String> e : neighbors) {
                 String neighborNode = e.getToVertex();
-                if (!noteToPath.containsKey(neighborNode)) {
-                    List<Edge<String, String>> copyEdge = new ArrayList<>(noteToPath.get(currNode));
-                    copyEdge.add(e);
-                    noteToPath.put(neighborNode, copyEdge);
+                if (!parentEdge.containsKey(neighborNode)) {
+                    parentEdge.put(neighborNode, e);
                     visited.add(neighborNode);
                 }
             }
+            maxQueue = Math.max(maxQueue, visited.size());
+        }
+        if (listener != null) {
+            // every vertex ever reached was pushed once, the start included
+            report(listener, settled, relaxed, parentEdge.size(), maxQueue, found, startNanos);
+        }
+        return found;
+    }
+
+    /**
+     * @param graph the given compact graph that will be used for BFS
+     * @param start the starting vertex
+     * @param dest  the ending vertex
+     * @return a list of edges that represents the path between the starting
+     * vertex and the ending vertex, the same as the one that
+     * bFSFindPath(Graph, String, String) finds on the graph that graph is
+     * a snapshot of
+     * @throws IllegalArgumentException if start or dest is null
+     * @spec.requires both start and dest are in the given graph
+     */
+    public static List<Edge<String, String>> bFSFindPath(CompactGraph<String, String> graph, String start, String dest) {
+        return bFSFindPath(graph, start, dest, null);
+    }
+
+    /**
+     * Finds the path like bFSFindPath(CompactGraph, String, String), and tells the given
+     * listener how much work the search did.
+     *
+     * @param graph    the given compact graph that will be used for BFS
+     * @param start    the starting vertex
+     * @param dest     the ending vertex
+     * @param listener the listener to tell about the search, or null to count nothing
+     * @return a list of edges that represents the path between the starting
+     * vertex and the ending vertex
+     * @throws IllegalArgumentException if start or dest is null
+     * @spec.requires both start and dest are in the given graph
+     */
+    public static List<Edge<String, String>> bFSFindPath(CompactGraph<String, String> graph, String start, String dest,
+                                                         SearchListener listener) {
+        if (start == null || dest == null) {
+            throw new IllegalArgumentException();
+        }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        long relaxed = 0;
+        int maxQueue = 1;
+        List<Edge<String, String>> found = null;
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        // parentEdge[v] is the edge that first reached v, -1 if v has not been
+        // reached yet, and -2 for the start vertex
+        int[] parentEdge = new int[graph.size()];
+        int[] parentNode = new int[graph.size()];
+        Arrays.fill(parentEdge, -1);
+        int[] visited = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        visited[tail++] = startId;
+        parentEdge[startId] = -2;
+        while (head < tail) {
+            int currNode = visited[head++];
+            if (currNode == destId) {
+                found = buildPath(graph, parentEdge, parentNode, destId);
+                break;
+            }
+            int degree = graph.endEdge(currNode) - graph.firstEdge(currNode);
+            relaxed += degree;
+            Integer[] neighbors = null; // stays null if the edges are already in EDGE_ORDER
+            if (graph.edgeOrder() != EDGE_ORDER) {
+                neighbors = new Integer[degree];
+                for (int i = 0; i < degree; i++) {
+                    neighbors[i] = graph.firstEdge(currNode) + i;
+                }
+                Arrays.sort(neighbors, new Comparator<Integer>() {
+                    public int compare(Integer thisOne, Integer other) {
+                        int compareName = graph.vertexAt(graph.edgeTarget(thisOne))
+                                .compareTo(graph.vertexAt(graph.edgeTarget(other)));
+                        if (compareName == 0) {
+                            return graph.edgeLabel(thisOne).compareTo(graph.edgeLabel(other));
+                        }
+                        return compareName;
+                    }
+                });
+            }
+            for (int i = 0; i < degree; i++) {
+                int e = neighbors == null ? graph.firstEdge(currNode) + i : neighbors[i];
+                int neighborNode = graph.edgeTarget(e);
+                if (parentEdge[neighborNode] == -1) {
+                    parentEdge[neighborNode] = e;
+                    parentNode[neighborNode] = currNode;
+                    visited[tail++] = neighborNode;
+                }
+            }
+            maxQueue = Math.max(maxQueue, tail - head);
+        }
+        if (listener != null) {
+            report(listener, head, relaxed, tail, maxQueue, found, startNanos);
+        }
+        return found;
+    }
+
+    /**
+     * Runs breadth first search over the characters of a bipartite graph by hopping from
+     * a character to its books and from those books to their other characters. A
+     * character's unvisited neighbors are visited in lexicographic order, each reached
+     * through the first book it shares with the character, so the path is the same as
+     * bFSFindPath(Graph, String, String) finds on the graph with an edge for every two
+     * characters in the same book. Every book only has to be looked at once, since all
+     * of its characters are visited the first time it is.
+     *
+     * @param graph the given bipartite graph between characters, on the left, and books,
+     *              on the right, that will be used for BFS
+     * @param start the starting vertex
+     * @param dest  the ending vertex
+     * @return a list of edges, labeled by books, that represents the path between the
+     * starting vertex and the ending vertex
+     * @throws IllegalArgumentException if start or dest is null
+     * @spec.requires both start and dest are characters of the given graph, and the
+     * characters and the books of the given graph are numbered in lexicographic order,
+     * as they are by MarvelGraphLoader.loadBipartite
+     */
+    public static List<Edge<String, String>> bFSFindPath(BipartiteGraph<String, String> graph, String start, String dest) {
+        return bFSFindPath(graph, start, dest, null);
+    }
+
+    /**
+     * Finds the path like bFSFindPath(BipartiteGraph, String, String), and tells the given
+     * listener how much work the search did. The edges it relaxed are those from the books
+     * it looked at to their characters.
+     *
+     * @param graph    the given bipartite graph between characters, on the left, and books,
+     *                 on the right, that will be used for BFS
+     * @param start    the starting vertex
+     * @param dest     the ending vertex
+     * @param listener the listener to tell about the search, or null to count nothing
+     * @return a list of edges, labeled by books, that represents the path between the
+     * starting vertex and the ending vertex
+     * @throws IllegalArgumentException if start or dest is null
+     * @spec.requires both start and dest are characters of the given graph, and the
+     * characters and the books of the given graph are numbered in lexicographic order,
+     * as they are by MarvelGraphLoader.loadBipartite
+     */
+    public static List<Edge<String, String>> bFSFindPath(BipartiteGraph<String, String> graph, String start, String dest,
+                                                         SearchListener listener) {
+        if (start == null || dest == null) {
+            throw new IllegalArgumentException();
+        }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        long relaxed = 0;
+        int maxQueue = 1;
+        List<Edge<String, String>> found = null;
+        int startId = graph.leftIdOf(start);
+        int destId = graph.leftIdOf(dest);
+        // parentBook[v] is the book that first reached v, -1 if v has not been
+        // reached yet, and -2 for the start vertex
+        int[] parentBook = new int[graph.leftSize()];
+        int[] parentNode = new int[graph.leftSize()];
+        Arrays.fill(parentBook, -1);
+        boolean[] bookVisited = new boolean[graph.rightSize()];
+        int[] visited = new int[graph.leftSize()];
+        int head = 0;
+        int tail = 0;
+        visited[tail++] = startId;
+        parentBook[startId] = -2;
+        while (head < tail) {
+            int currNode = visited[head++];
+            if (currNode == destId) {
+                LinkedList<Edge<String, String>> path = new LinkedList<>();
+                for (int v = destId; parentBook[v] >= 0; v = parentNode[v]) {
+                    path.addFirst(new Edge<>(graph.leftAt(parentNode[v]), graph.leftAt(v),
+                            graph.rightAt(parentBook[v])));
+                }
+                found = path;
+                break;
+            }
+            // the books are in lexicographic order, so the first one to reach a neighbor
+            // is the one its edge would be labeled with
+            int reached = tail;
+            for (int e = graph.firstRightEdge(currNode); e < graph.endRightEdge(currNode); e++) {
+                int book = graph.rightTarget(e);
+                if (bookVisited[book]) {
+                    continue;
+                }
+                bookVisited[book] = true;
+                relaxed += graph.endLeftEdge(book) - graph.firstLeftEdge(book);
+                for (int f = graph.firstLeftEdge(book); f < graph.endLeftEdge(book); f++) {
+                    int neighborNode = graph.leftTarget(f);
+                    if (parentBook[neighborNode] == -1) {
+                        parentBook[neighborNode] = book;
+                        parentNode[neighborNode] = currNode;
+                        visited[tail++] = neighborNode;
+                    }
+                }
+            }
+            Arrays.sort(visited, reached, tail); // visit the new neighbors in lexicographic order
+            maxQueue = Math.max(maxQueue, tail - head);
+        }
+        if (listener != null) {
+            report(listener, head, relaxed, tail, maxQueue, found, startNanos);
+        }
+        return found;
+    }
+
+    /**
+     * Tells the listener how much work a breadth first search did. A breadth first search
+     * settles every vertex as soon as it reaches it, so it never pops a stale entry.
+     *
+     * @param listener   the listener to tell
+     * @param settled    the number of vertices the search took off its queue
+     * @param relaxed    the number of edges the search looked at
+     * @param pushes     the number of vertices the search put in its queue
+     * @param maxQueue   the largest number of vertices the queue held at once
+     * @param path       the path the search found, or null if it found none
+     * @param startNanos the value of System.nanoTime() when the search started
+     */
+    private static void report(SearchListener listener, long settled, long relaxed, long pushes, long maxQueue,
+                               List<Edge<String, String>> path, long startNanos) {
+        listener.searchFinished(new SearchEffort(settled, relaxed, pushes, 0, maxQueue,
+                path == null ? -1 : path.size(), System.nanoTime() - startNanos));
+    }
+
+    /**
+     * @param graph      the compact graph that was searched
+     * @param parentEdge the edge that first reached each vertex
+     * @param parentNode the vertex that each parent edge starts from
+     * @param dest       the id of the ending vertex
+     * @return the list of edges from the starting vertex to dest
+     */
+    private static List<Edge<String, String>> buildPath(CompactGraph<String, String> graph, int[] parentEdge,
+                                                        int[] parentNode, int dest) {
+        LinkedList<Edge<String, String>> path = new LinkedList<>();
+        for (int v = dest; parentEdge[v] >= 0; v = parentNode[v]) {
+            int e = parentEdge[v];
+            path.addFirst(new Edge<>(graph.vertexAt(parentNode[v]), graph.vertexAt(v), graph.edgeLabel(e)));
         }
-        return null;
+        return path;
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package marvel.implTest;
+
+import graph.BipartiteGraph;
+import graph.CompactGraph;
+import marvel.MarvelGraphLoader;
+import marvel.MarvelPaths;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains a set of test cases that can be used to test the implementation
+ * of the MarvelGraphLoader class.
+ */
+public class MarvelGraphLoaderTest {
+
+    /**
+     * The loader builds the same graph as buildGraph on every data file
+     */
+    @Test
+    public void testSameGraphAsBuildGraph() {
+        for (String file : new String[]{"oneNode.tsv", "TwoNodes.tsv", "cycle.tsv", "isolatedNode.tsv",
+                "biggerData.tsv", "staffSuperheroes.tsv", "marvel.tsv"}) {
+            assertSameGraph(MarvelPaths.buildGraph(file).freeze(), MarvelGraphLoader.load(file));
+        }
+    }
+
+    @Test
+    public void testEdgesAreInEdgeOrder() {
+        assertSame(MarvelPaths.EDGE_ORDER, MarvelGraphLoader.load("staffSuperheroes.tsv").edgeOrder());
+    }
+
+    /**
+     * A repeated row, swapped columns, carriage returns and a missing final newline are
+     * read the way buildGraph reads them
+     */
+    @Test
+    public void testMappedFile() throws IOException {
+        Path file = Files.createTempFile("marvel", ".tsv");
+        try {
+            Files.write(file, ("book\thero\r\nB1\tA\r\nB1\tB\r\nB1\tA\r\n\r\nB2\tC\r\nB2\tB")
+                    .getBytes(StandardCharsets.UTF_8));
+            CompactGraph<String, String> graph = MarvelGraphLoader.load(file);
+            assertEquals(List.of("A", "B", "C"), graph.getVertices());
+            assertEquals(List.of("A:B1", "A:B1", "B:B1", "B:B1"), children(graph, "A"));
+            assertEquals(List.of("A:B1", "A:B1", "C:B2"), children(graph, "B"));
+            assertEquals(List.of("B:B2"), children(graph, "C"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testBipartite() throws IOException {
+        Path file = Files.createTempFile("marvel", ".tsv");
+        try {
+            Files.write(file, "hero\tbook\nB\tX\nA\tX\nB\tW\nB\tX\n".getBytes(StandardCharsets.UTF_8));
+            BipartiteGraph<String, String> graph = MarvelGraphLoader.loadBipartite(file);
+            assertEquals(List.of("A", "B"), graph.getLeftVertices());
+            assertEquals(List.of("W", "X"), graph.getRightVertices());
+            assertEquals(4, graph.incidenceCount());
+            int x = graph.rightIdOf("X");
+            assertEquals(3, graph.endLeftEdge(x) - graph.firstLeftEdge(x));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testEmptyFile() {
+        CompactGraph<String, String> graph = MarvelGraphLoader.load("empty.tsv");
+        assertEquals(0, graph.size());
+        assertEquals(0, graph.edgeCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingFile() {
+        MarvelGraphLoader.load("Ernst-the-Bicycling-Wizard.tsv");
+    }
+
+    private static List<String> children(CompactGraph<String, String> graph, String vertex) {
+        List<String> children = new ArrayList<>();
+        int v = graph.idOf(vertex);
+        for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+            children.add(graph.vertexAt(graph.edgeTarget(e)) + ":" + graph.edgeLabel(e));
+        }
+        return children;
+    }
+
+    private static void assertSameGraph(CompactGraph<String, String> expected, CompactGraph<String, String> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (String vertex : expected.getVertices()) {
+            assertTrue(actual.containVertex(vertex));
+            assertEquals(children(expected, vertex), children(actual, vertex));
+        }
+    }
+}
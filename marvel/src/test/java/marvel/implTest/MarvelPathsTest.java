@@ -1,9 +1,19 @@
 package marvel.implTest;
 
+import graph.BipartiteGraph;
+import graph.CompactGraph;
+import graph.Edge;
 import graph.Graph;
+import graph.SearchEffort;
+import marvel.BidirectionalBFS;
+import marvel.MarvelGraphLoader;
 import marvel.MarvelPaths;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 /**
@@ -27,4 +37,168 @@ public class MarvelPathsTest {
             fail("Wrong Exception thrown");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * BFS over a compact snapshot finds the same path as BFS over the graph
+     */
+    @Test
+    public void testCompactGraphFindsSamePaths() {
+        Graph<String, String> graph = MarvelPaths.buildGraph("staffSuperheroes.tsv");
+        for (String start : graph.getVertices()) {
+            for (String dest : graph.getVertices()) {
+                assertSamePath(MarvelPaths.bFSFindPath(graph, start, dest),
+                        MarvelPaths.bFSFindPath(graph.freeze(), start, dest));
+            }
+        }
+    }
+
+    /**
+     * The bidirectional search finds the same path as BFS over the graph
+     */
+    @Test
+    public void testBidirectionalFindsSamePaths() {
+        for (String file : new String[]{"staffSuperheroes.tsv", "cycle.tsv", "isolatedNode.tsv", "biggerData.tsv"}) {
+            Graph<String, String> graph = MarvelPaths.buildGraph(file);
+            BidirectionalBFS search = new BidirectionalBFS(graph.freeze());
+            for (String start : graph.getVertices()) {
+                for (String dest : graph.getVertices()) {
+                    assertSamePath(MarvelPaths.bFSFindPath(graph, start, dest), search.findPath(start, dest));
+                }
+            }
+        }
+    }
+
+    /**
+     * The bidirectional search finds the same path as BFS on random pairs of the full
+     * Marvel graph, where it mixes top-down and bottom-up steps
+     */
+    @Test
+    public void testBidirectionalFindsSamePathsOnMarvel() {
+        CompactGraph<String, String> graph = MarvelPaths.buildGraph("marvel.tsv").freeze();
+        BidirectionalBFS search = new BidirectionalBFS(graph);
+        Random random = new Random(331);
+        for (int i = 0; i < 10; i++) {
+            String start = graph.vertexAt(random.nextInt(graph.size()));
+            String dest = graph.vertexAt(random.nextInt(graph.size()));
+            assertSamePath(MarvelPaths.bFSFindPath(graph, start, dest), search.findPath(start, dest));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBidirectionalUnknownCharacter() {
+        Graph<String, String> graph = MarvelPaths.buildGraph("staffSuperheroes.tsv");
+        new BidirectionalBFS(graph.freeze()).findPath("Ernst-the-Bicycling-Wizard", "Batman");
+    }
+
+    private static void assertSamePath(List<Edge<String, String>> expected, List<Edge<String, String>> actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getFromVertex(), actual.get(i).getFromVertex());
+            assertEquals(expected.get(i).getToVertex(), actual.get(i).getToVertex());
+            assertEquals(expected.get(i).getLabel(), actual.get(i).getLabel());
+        }
+    }
+
+    /**
+     * BFS over a graph that is not kept in EDGE_ORDER finds the same paths without
+     * reordering the edges of the graph
+     */
+    @Test
+    public void testUnorderedGraphIsNotModified() {
+        Graph<String, String> ordered = MarvelPaths.buildGraph("staffSuperheroes.tsv");
+        assertSame(MarvelPaths.EDGE_ORDER, ordered.edgeOrder());
+        Graph<String, String> unordered = new Graph<>();
+        for (String v : ordered.getVertices()) {
+            unordered.addVertex(v);
+        }
+        for (String v : ordered.getVertices()) {
+            List<Edge<String, String>> children = ordered.getChildrenOf(v);
+            for (int i = children.size() - 1; i >= 0; i--) {
+                unordered.addEdge(v, children.get(i).getToVertex(), children.get(i).getLabel());
+            }
+        }
+        CompactGraph<String, String> compact = unordered.freeze();
+        for (String start : ordered.getVertices()) {
+            List<String> before = new ArrayList<>();
+            for (Edge<String, String> e : unordered.getChildrenOf(start)) {
+                before.add(e.getToVertex() + ":" + e.getLabel());
+            }
+            for (String dest : ordered.getVertices()) {
+                List<Edge<String, String>> expected = MarvelPaths.bFSFindPath(ordered, start, dest);
+                assertSamePath(expected, MarvelPaths.bFSFindPath(unordered, start, dest));
+                assertSamePath(expected, MarvelPaths.bFSFindPath(compact, start, dest));
+            }
+            List<String> after = new ArrayList<>();
+            for (Edge<String, String> e : unordered.getChildrenOf(start)) {
+                after.add(e.getToVertex() + ":" + e.getLabel());
+            }
+            assertEquals(before, after);
+        }
+    }
+
+    /**
+     * BFS over the bipartite graph of characters and books finds the same path as
+     * BFS over the graph with an edge for every two characters in the same book
+     */
+    @Test
+    public void testBipartiteFindsSamePaths() {
+        for (String file : new String[]{"staffSuperheroes.tsv", "cycle.tsv", "isolatedNode.tsv", "biggerData.tsv"}) {
+            Graph<String, String> graph = MarvelPaths.buildGraph(file);
+            BipartiteGraph<String, String> bipartite = MarvelGraphLoader.loadBipartite(file);
+            for (String start : graph.getVertices()) {
+                for (String dest : graph.getVertices()) {
+                    assertSamePath(MarvelPaths.bFSFindPath(graph, start, dest),
+                            MarvelPaths.bFSFindPath(bipartite, start, dest));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBipartiteFindsSamePathsOnMarvel() {
+        CompactGraph<String, String> graph = MarvelGraphLoader.load("marvel.tsv");
+        BipartiteGraph<String, String> bipartite = MarvelGraphLoader.loadBipartite("marvel.tsv");
+        Random random = new Random(332);
+        for (int i = 0; i < 50; i++) {
+            String start = graph.vertexAt(random.nextInt(graph.size()));
+            String dest = graph.vertexAt(random.nextInt(graph.size()));
+            assertSamePath(MarvelPaths.bFSFindPath(graph, start, dest), MarvelPaths.bFSFindPath(bipartite, start, dest));
+        }
+    }
+
+    /**
+     * Every version of BFS tells its listener about every search, and the graph and its
+     * compact snapshot, which visit the same vertices in the same order, report the same work
+     */
+    @Test
+    public void testListenerCountsWork() {
+        String file = "staffSuperheroes.tsv";
+        Graph<String, String> graph = MarvelPaths.buildGraph(file);
+        CompactGraph<String, String> compact = graph.freeze();
+        BipartiteGraph<String, String> bipartite = MarvelGraphLoader.loadBipartite(file);
+        for (String start : graph.getVertices()) {
+            for (String dest : graph.getVertices()) {
+                List<SearchEffort> efforts = new ArrayList<>();
+                List<Edge<String, String>> path = MarvelPaths.bFSFindPath(graph, start, dest, efforts::add);
+                assertSamePath(path, MarvelPaths.bFSFindPath(compact, start, dest, efforts::add));
+                assertSamePath(path, MarvelPaths.bFSFindPath(bipartite, start, dest, efforts::add));
+                assertEquals(3, efforts.size());
+                for (SearchEffort effort : efforts) {
+                    assertEquals(path == null ? -1 : path.size(), effort.getPathLength());
+                    assertEquals(0, effort.getStalePops());
+                    assertTrue(effort.getSettledVertices() >= 1);
+                    assertTrue(effort.getQueuePushes() >= effort.getSettledVertices());
+                }
+                assertEquals(efforts.get(0).getSettledVertices(), efforts.get(1).getSettledVertices());
+                assertEquals(efforts.get(0).getEdgesRelaxed(), efforts.get(1).getEdgesRelaxed());
+                assertEquals(efforts.get(0).getQueuePushes(), efforts.get(1).getQueuePushes());
+                assertEquals(efforts.get(0).getMaxQueueSize(), efforts.get(1).getMaxQueueSize());
+                assertEquals(efforts.get(0).getSettledVertices(), efforts.get(2).getSettledVertices());
+            }
+        }
+    }
+}
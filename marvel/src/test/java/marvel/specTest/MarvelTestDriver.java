@@ -13,6 +13,7 @@ package marvel.specTest;
 
 import graph.Edge;
 import graph.Graph;
+import graph.SearchStatistics;
 
 import marvel.MarvelPaths;
 
@@ -80,6 +81,13 @@ public class MarvelTestDriver {
     private final Map<String, Graph<String, String>> graphs = new HashMap<>();
     private final PrintWriter output;
     private final BufferedReader input;
+    /**
+     * The totals of the work of every search this driver runs, which it prints to standard
+     * error after the script when the system property searchStatistics is true, or null
+     * to count nothing
+     **/
+    private final SearchStatistics statistics =
+            Boolean.getBoolean("searchStatistics") ? new SearchStatistics() : null;
 
     // Leave this constructor public
     public MarvelTestDriver(Reader r, Writer w) {
@@ -116,6 +124,10 @@ public class MarvelTestDriver {
             }
             output.flush();
         }
+        if (statistics != null) {
+            // standard error, so that the output of the script stays as expected
+            System.err.println(statistics.summary());
+        }
     }
 
     private void executeCommand(String command, List<String> arguments) {
@@ -235,7 +247,7 @@ public class MarvelTestDriver {
         Graph<String, String> graph = graphs.get(graphName);
         parentName = parentName.replace("_", " ");
         String result = "the children of " + parentName + " in " + graphName + " are:";
-        List<Edge<String, String>> children = graph.getChildrenOf(parentName);
+        List<Edge<String, String>> children = new ArrayList<>(graph.getChildrenOf(parentName));
         children.sort(new EdgeSort());
         for (Edge<String, String> child : children) {
             result += " " + child.getToVertex() + "(" + child.getLabel() + ")";
@@ -280,7 +292,7 @@ public class MarvelTestDriver {
                 output.println("unknown character " + nodeB);
             }
         } else {
-            List<Edge<String, String>> paths = MarvelPaths.bFSFindPath(graph, nodeA, nodeB);
+            List<Edge<String, String>> paths = MarvelPaths.bFSFindPath(graph, nodeA, nodeB, statistics);
             output.println("path from " + nodeA + " to " + nodeB + ":");
             if (paths == null) {
                 output.println("no path found");
@@ -0,0 +1,121 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import graph.SearchListener;
+import pathfinder.datastructures.DistanceHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * AStar represents a class that implements the A* search algorithm to find
+ * the minimum-cost path between two vertices in the given graph. It orders
+ * the vertices it explores by their cost from the start plus a heuristic
+ * estimate of their cost to the destination, so it explores far fewer
+ * vertices than Dijkstra's algorithm when the estimate is good. Like Dijkstra, it gives
+ * up with a CancellationException if its thread is interrupted.
+ */
+public class AStar {
+
+    // No AF, RI, or checkRep because this class only contains static methods and
+    // it does not represent any data abstraction
+
+    /**
+     * @param graph     the given compact graph that will be used for A*,
+     *                  whose edge weights are the costs of the edges
+     * @param start     the type of T starting vertex
+     * @param dest      the type of T ending vertex
+     * @param heuristic the estimate of the cost from any vertex to dest
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start, dest or heuristic is null, or
+     *                                  if start or dest is not in the given graph
+     * @throws CancellationException    if the thread is interrupted during the search
+     * @spec.requires graph.hasWeights(), no edge weight is negative and
+     * heuristic is admissible
+     */
+    public static <T> Path<T> aStarAlgo(CompactGraph<T, ?> graph, T start, T dest, Heuristic<? super T> heuristic) {
+        return aStarAlgo(graph, start, dest, heuristic, null);
+    }
+
+    /**
+     * Finds the minimum-cost path like aStarAlgo(CompactGraph, T, T, Heuristic), and tells
+     * the given listener how much work the search did.
+     *
+     * @param graph     the given compact graph that will be used for A*,
+     *                  whose edge weights are the costs of the edges
+     * @param start     the type of T starting vertex
+     * @param dest      the type of T ending vertex
+     * @param heuristic the estimate of the cost from any vertex to dest
+     * @param listener  the listener to tell about the search, or null to count nothing
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start, dest or heuristic is null, or
+     *                                  if start or dest is not in the given graph
+     * @throws CancellationException    if the thread is interrupted during the search
+     * @spec.requires graph.hasWeights(), no edge weight is negative and
+     * heuristic is admissible
+     */
+    public static <T> Path<T> aStarAlgo(CompactGraph<T, ?> graph, T start, T dest, Heuristic<? super T> heuristic,
+                                        SearchListener listener) {
+        if (start == null || dest == null || heuristic == null) {
+            throw new IllegalArgumentException();
+        }
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        if (startId < 0 || destId < 0) {
+            throw new IllegalArgumentException();
+        }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        double[] distance = new double[graph.size()];
+        double[] estimate = new double[graph.size()]; // NaN until the heuristic is evaluated
+        int[] parentEdge = new int[graph.size()];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(estimate, Double.NaN);
+        distance[startId] = 0;
+        estimate[startId] = heuristic.estimate(start, dest);
+        parentEdge[startId] = -1;
+        DistanceHeap active = new DistanceHeap(16);
+        active.add(startId, estimate[startId]);
+        long[] effort = new long[Dijkstra.EFFORT_COUNTERS];
+        effort[Dijkstra.PUSHES] = 1;
+        effort[Dijkstra.MAX_QUEUE] = 1;
+        Path<T> path = null;
+        while (!active.isEmpty()) {
+            int minDestNode = active.minVertex();
+            double minPriority = active.minDistance();
+            active.removeMin();
+            if (minPriority > distance[minDestNode] + estimate[minDestNode]) {
+                effort[Dijkstra.STALE_POPS]++;
+                continue; // a shorter path to this vertex has already been explored
+            }
+            effort[Dijkstra.SETTLED]++;
+            Dijkstra.checkInterrupted(effort[Dijkstra.SETTLED]);
+            if (minDestNode == destId) {
+                path = Dijkstra.buildPath(graph, v -> parentEdge[v], startId, destId);
+                break;
+            }
+            double minCost = distance[minDestNode];
+            effort[Dijkstra.RELAXED] += graph.endEdge(minDestNode) - graph.firstEdge(minDestNode);
+            for (int e = graph.firstEdge(minDestNode); e < graph.endEdge(minDestNode); e++) {
+                int child = graph.edgeTarget(e);
+                double childCost = minCost + graph.edgeWeight(e);
+                if (childCost < distance[child]) {
+                    if (Double.isNaN(estimate[child])) {
+                        estimate[child] = heuristic.estimate(graph.vertexAt(child), dest);
+                    }
+                    distance[child] = childCost;
+                    parentEdge[child] = e;
+                    active.add(child, childCost + estimate[child]);
+                    effort[Dijkstra.PUSHES]++;
+                }
+            }
+            effort[Dijkstra.MAX_QUEUE] = Math.max(effort[Dijkstra.MAX_QUEUE], active.size());
+        }
+        if (listener != null) {
+            listener.searchFinished(Dijkstra.effortOf(effort, path, System.nanoTime() - startNanos));
+        }
+        return path;
+    }
+}
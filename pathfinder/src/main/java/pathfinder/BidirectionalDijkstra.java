@@ -0,0 +1,194 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import graph.SearchListener;
+import pathfinder.datastructures.DistanceHeap;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * BidirectionalDijkstra represents a class that finds the minimum-cost path between
+ * two vertices by running Dijkstra's algorithm forward from the start and backward
+ * from the destination at the same time, over the reverse of the graph. The two
+ * searches meet in the middle, so on long routes each of them only explores about
+ * half as far as a single search would. Like Dijkstra, it gives up with a
+ * CancellationException if its thread is interrupted.
+ */
+public class BidirectionalDijkstra {
+
+    // No AF, RI, or checkRep because this class only contains static methods and
+    // it does not represent any data abstraction
+
+    /**
+     * Finds the minimum-cost path, computing the reverse of the graph first. Callers
+     * that query the same graph many times should keep its transpose and use
+     * bidirectionalDijkstraAlgo(CompactGraph, CompactGraph, T, T) instead.
+     *
+     * @param graph the given compact graph, whose edge weights are the costs of the edges
+     * @param start the type of T starting vertex
+     * @param dest  the type of T ending vertex
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start or dest is null, or if they
+     *                                  are not in the given graph
+     * @throws CancellationException    if the thread is interrupted during the search
+     * @spec.requires graph.hasWeights() and no edge weight is negative
+     */
+    public static <T> Path<T> bidirectionalDijkstraAlgo(CompactGraph<T, ?> graph, T start, T dest) {
+        return bidirectionalDijkstraAlgo(graph, graph.transpose(), start, dest);
+    }
+
+    /**
+     * Finds the minimum-cost path by alternately settling a vertex of the forward search
+     * from start and of the backward search from dest, always on the side whose next
+     * vertex is closer. Every time an edge joins the two searches, the cost of the path
+     * through it is a candidate. The search stops as soon as the closest unsettled
+     * vertices of the two sides are together at least as far as the best candidate,
+     * since no path found after that can be cheaper.
+     *
+     * @param graph   the given compact graph, whose edge weights are the costs of the edges
+     * @param reverse the reverse of graph, as returned by graph.transpose()
+     * @param start   the type of T starting vertex
+     * @param dest    the type of T ending vertex
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start or dest is null, if they are not in
+     *                                  the given graph, or if reverse does not have the
+     *                                  same number of vertices as graph
+     * @throws CancellationException    if the thread is interrupted during the search
+     * @spec.requires graph.hasWeights(), no edge weight is negative and
+     * reverse is the transpose of graph
+     */
+    public static <T> Path<T> bidirectionalDijkstraAlgo(CompactGraph<T, ?> graph, CompactGraph<T, ?> reverse,
+                                                        T start, T dest) {
+        return bidirectionalDijkstraAlgo(graph, reverse, start, dest, null);
+    }
+
+    /**
+     * Finds the minimum-cost path like bidirectionalDijkstraAlgo(CompactGraph, CompactGraph,
+     * T, T), and tells the given listener how much work both sides of the search did
+     * together, with the largest size their two queues reached together.
+     *
+     * @param graph    the given compact graph, whose edge weights are the costs of the edges
+     * @param reverse  the reverse of graph, as returned by graph.transpose()
+     * @param start    the type of T starting vertex
+     * @param dest     the type of T ending vertex
+     * @param listener the listener to tell about the search, or null to count nothing
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start or dest is null, if they are not in
+     *                                  the given graph, or if reverse does not have the
+     *                                  same number of vertices as graph
+     * @throws CancellationException    if the thread is interrupted during the search
+     * @spec.requires graph.hasWeights(), no edge weight is negative and
+     * reverse is the transpose of graph
+     */
+    public static <T> Path<T> bidirectionalDijkstraAlgo(CompactGraph<T, ?> graph, CompactGraph<T, ?> reverse,
+                                                        T start, T dest, SearchListener listener) {
+        if (start == null || dest == null || reverse.size() != graph.size()) {
+            throw new IllegalArgumentException();
+        }
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        if (startId < 0 || destId < 0) {
+            throw new IllegalArgumentException();
+        }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        long[] effort = new long[Dijkstra.EFFORT_COUNTERS];
+        Path<T> path = startId == destId ? new Path<>(start)
+                : search(graph, reverse, startId, destId, effort);
+        if (listener != null) {
+            listener.searchFinished(Dijkstra.effortOf(effort, path, System.nanoTime() - startNanos));
+        }
+        return path;
+    }
+
+    /**
+     * Runs the two searches of bidirectionalDijkstraAlgo and adds the work they did to
+     * the given counters.
+     *
+     * @param graph   the compact graph to search
+     * @param reverse the reverse of graph
+     * @param startId the id of the starting vertex
+     * @param destId  the id of the ending vertex, which is not startId
+     * @param effort  the counters to add the work to, indexed like the counters of
+     *                Dijkstra.search
+     * @return the minimum-cost path from startId to destId, or null if there is none
+     * @spec.modifies effort
+     */
+    private static <T> Path<T> search(CompactGraph<T, ?> graph, CompactGraph<T, ?> reverse, int startId,
+                                      int destId, long[] effort) {
+        double[] forwardDistance = new double[graph.size()];
+        double[] backwardDistance = new double[graph.size()];
+        int[] forwardEdge = new int[graph.size()];
+        int[] backwardEdge = new int[graph.size()];
+        Arrays.fill(forwardDistance, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardDistance, Double.POSITIVE_INFINITY);
+        forwardDistance[startId] = 0;
+        backwardDistance[destId] = 0;
+        forwardEdge[startId] = -1;
+        backwardEdge[destId] = -1;
+        DistanceHeap forward = new DistanceHeap(16);
+        DistanceHeap backward = new DistanceHeap(16);
+        forward.add(startId, 0);
+        backward.add(destId, 0);
+        effort[Dijkstra.PUSHES] += 2;
+        effort[Dijkstra.MAX_QUEUE] = Math.max(effort[Dijkstra.MAX_QUEUE], 2);
+        double best = Double.POSITIVE_INFINITY; // the cost of the cheapest path found so far
+        int meeting = -1; // the vertex where that path crosses from one search to the other
+        while (!forward.isEmpty() && !backward.isEmpty()
+                && forward.minDistance() + backward.minDistance() < best) {
+            boolean forwardSide = forward.minDistance() <= backward.minDistance();
+            DistanceHeap active = forwardSide ? forward : backward;
+            CompactGraph<T, ?> searched = forwardSide ? graph : reverse;
+            double[] distance = forwardSide ? forwardDistance : backwardDistance;
+            double[] otherDistance = forwardSide ? backwardDistance : forwardDistance;
+            int[] parentEdge = forwardSide ? forwardEdge : backwardEdge;
+            int minDestNode = active.minVertex();
+            double minCost = active.minDistance();
+            active.removeMin();
+            if (minCost > distance[minDestNode]) {
+                effort[Dijkstra.STALE_POPS]++;
+                continue; // a shorter path to this vertex has already been settled
+            }
+            effort[Dijkstra.SETTLED]++;
+            Dijkstra.checkInterrupted(effort[Dijkstra.SETTLED]);
+            effort[Dijkstra.RELAXED] += searched.endEdge(minDestNode) - searched.firstEdge(minDestNode);
+            for (int e = searched.firstEdge(minDestNode); e < searched.endEdge(minDestNode); e++) {
+                int child = searched.edgeTarget(e);
+                double childCost = minCost + searched.edgeWeight(e);
+                if (childCost < distance[child]) {
+                    distance[child] = childCost;
+                    parentEdge[child] = e;
+                    active.add(child, childCost);
+                    effort[Dijkstra.PUSHES]++;
+                }
+                if (distance[child] + otherDistance[child] < best) {
+                    best = distance[child] + otherDistance[child];
+                    meeting = child;
+                }
+            }
+            effort[Dijkstra.MAX_QUEUE] = Math.max(effort[Dijkstra.MAX_QUEUE], forward.size() + backward.size());
+        }
+        if (meeting < 0) {
+            return null;
+        }
+        Path<T> path = Dijkstra.buildPath(graph, v -> forwardEdge[v], startId, meeting);
+        // the backward search's parent edges lead from the meeting vertex on to dest
+        List<T> ends = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        for (int v = meeting; v != destId; v = reverse.edgeSource(backwardEdge[v])) {
+            ends.add(reverse.vertexAt(reverse.edgeSource(backwardEdge[v])));
+            costs.add(reverse.edgeWeight(backwardEdge[v]));
+        }
+        double[] segmentCosts = new double[costs.size()];
+        for (int i = 0; i < segmentCosts.length; i++) {
+            segmentCosts[i] = costs.get(i);
+        }
+        return path.extend(ends, segmentCosts);
+    }
+}
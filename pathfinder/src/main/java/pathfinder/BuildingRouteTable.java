@@ -0,0 +1,235 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * BuildingRouteTable represents an immutable table of the minimum-cost routes between
+ * every pair of named buildings in a compact graph. It is built by one single-source
+ * Dijkstra search per building, run in parallel, and keeps for each building only the
+ * part of its shortest-path tree that leads to the other buildings. Looking up a route
+ * is then a table lookup plus walking the stored predecessor chain. Building the table
+ * gives up with a CancellationException if the thread building it is interrupted.
+ *
+ * @param <T> The type of the vertices of the graph.
+ */
+public class BuildingRouteTable<T> {
+    private final CompactGraph<T, ?> graph;
+    private final Map<String, Integer> index;
+    private final int[] buildingVertex;
+    private final double[] costs;
+    private final int[][] treeVertices;
+    private final int[][] treeEdges;
+    private final long buildNanos;
+    // the number of distinct threads that ran the searches
+    private final int threads;
+    private static final boolean DEBUG = false;
+
+    // RI: graph != null && index != null && buildingVertex != null && costs != null
+    //     && treeVertices != null && treeEdges != null
+    //     && index maps n distinct names to 0, ..., n - 1 where n = buildingVertex.length
+    //     && costs.length == n * n && treeVertices.length == treeEdges.length == n
+    //     && treeVertices[i] is sorted and treeVertices[i].length == treeEdges[i].length
+
+    // AF(this): for the buildings b_i with index.get(b_i) == i located at
+    //           graph.vertexAt(buildingVertex[i]), costs[i * n + j] is the minimum cost
+    //           of a route from b_i to b_j (positive infinity if there is none), and the
+    //           last edge of the minimum-cost route from b_i to any vertex
+    //           treeVertices[i][k] is treeEdges[i][k]
+
+    /**
+     * Precomputes the minimum-cost routes between every pair of the given buildings.
+     *
+     * @param graph     the compact graph whose edge weights are the costs of the edges
+     * @param buildings a mapping from the name of each building to its vertex
+     * @throws IllegalArgumentException if a building is not a vertex of the graph
+     * @throws CancellationException    if the thread is interrupted while the table is built
+     * @spec.requires graph.hasWeights() and no edge weight is negative
+     * @spec.effects creates a table of the routes between every pair of buildings
+     */
+    public BuildingRouteTable(CompactGraph<T, ?> graph, Map<String, T> buildings) {
+        long startTime = System.nanoTime();
+        this.graph = graph;
+        int n = buildings.size();
+        index = new HashMap<>();
+        buildingVertex = new int[n];
+        for (String name : new TreeSet<>(buildings.keySet())) {
+            int vertex = graph.idOf(buildings.get(name));
+            if (vertex < 0) {
+                throw new IllegalArgumentException("building " + name + " is not in the graph");
+            }
+            buildingVertex[index.size()] = vertex;
+            index.put(name, index.size());
+        }
+        costs = new double[n * n];
+        treeVertices = new int[n][];
+        treeEdges = new int[n][];
+        // each search only writes its own row of the table, so they can run in parallel
+        Set<Thread> workers = ConcurrentHashMap.newKeySet();
+        // the workers are not interrupted with the thread that waits for them, so they
+        // check it before every search
+        Thread builder = Thread.currentThread();
+        IntStream.range(0, n).parallel().forEach(source -> {
+            if (builder.isInterrupted()) {
+                throw new CancellationException("the table build was interrupted");
+            }
+            workers.add(Thread.currentThread());
+            precompute(source);
+        });
+        threads = workers.size();
+        buildNanos = System.nanoTime() - startTime;
+        checkRep();
+    }
+
+    /**
+     * Runs one single-source search from a building and stores its row of the table.
+     *
+     * @param source the index of the building to search from
+     * @spec.modifies this.costs, this.treeVertices, this.treeEdges
+     * @spec.effects stores the costs from the source to every building and the part of
+     * its shortest-path tree that leads to them
+     */
+    private void precompute(int source) {
+        int n = buildingVertex.length;
+        double[] distance = new double[graph.size()];
+        int[] parentEdge = new int[graph.size()];
+        Dijkstra.search(graph, buildingVertex[source], -1, distance, parentEdge);
+        // mark the vertices on the routes to the other buildings, stopping each walk back
+        // at the first vertex that an earlier route already marked
+        boolean[] onRoute = new boolean[graph.size()];
+        int count = 0;
+        for (int target = 0; target < n; target++) {
+            costs[source * n + target] = distance[buildingVertex[target]];
+            if (Double.isInfinite(distance[buildingVertex[target]])) {
+                continue;
+            }
+            for (int v = buildingVertex[target]; v != buildingVertex[source] && !onRoute[v];
+                 v = graph.edgeSource(parentEdge[v])) {
+                onRoute[v] = true;
+                count++;
+            }
+        }
+        int[] vertices = new int[count];
+        int[] edges = new int[count];
+        int k = 0;
+        for (int v = 0; v < onRoute.length; v++) {
+            if (onRoute[v]) {
+                vertices[k] = v;
+                edges[k] = parentEdge[v];
+                k++;
+            }
+        }
+        treeVertices[source] = vertices;
+        treeEdges[source] = edges;
+    }
+
+    /**
+     * @param building the name of a building
+     * @return true if this table contains routes from and to the given building
+     */
+    public boolean contains(String building) {
+        return index.containsKey(building);
+    }
+
+    /**
+     * @param start the name of the building at the beginning of the route
+     * @param end   the name of the building at the end of the route
+     * @return the minimum cost of a route from start to end, or positive infinity if there is none
+     * @throws IllegalArgumentException if start or end is not a building in this table
+     */
+    public double costOf(String start, String end) {
+        return costs[indexOf(start) * buildingVertex.length + indexOf(end)];
+    }
+
+    /**
+     * @param start the name of the building at the beginning of the route
+     * @param end   the name of the building at the end of the route
+     * @return the minimum-cost route from start to end, the same one that
+     * Dijkstra.dijkstraAlgo finds, or null if there is none
+     * @throws IllegalArgumentException if start or end is not a building in this table
+     */
+    public Path<T> route(String start, String end) {
+        int source = indexOf(start);
+        int target = indexOf(end);
+        if (Double.isInfinite(costs[source * buildingVertex.length + target])) {
+            return null;
+        }
+        int[] vertices = treeVertices[source];
+        int[] edges = treeEdges[source];
+        return Dijkstra.buildPath(graph, v -> edges[Arrays.binarySearch(vertices, v)],
+                buildingVertex[source], buildingVertex[target]);
+    }
+
+    /**
+     * @return the number of buildings in this table
+     */
+    public int size() {
+        return buildingVertex.length;
+    }
+
+    /**
+     * @return the number of nanoseconds it took to build this table
+     */
+    public long buildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return an estimate of the number of bytes of memory this table uses, not counting
+     * the graph and the building names
+     */
+    public long memoryBytes() {
+        long bytes = 8L * costs.length + 4L * buildingVertex.length;
+        for (int i = 0; i < treeVertices.length; i++) {
+            // two int arrays per building plus their array headers
+            bytes += 4L * (treeVertices[i].length + treeEdges[i].length) + 32;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return a one-line summary of how long this table took to build and how much memory it uses
+     */
+    public String report() {
+        return String.format("precomputed %d x %d building routes in %.1f ms on %d threads, using %.1f KB",
+                size(), size(), buildNanos / 1e6, threads, memoryBytes() / 1024.0);
+    }
+
+    /**
+     * @param building the name of a building
+     * @return the index of the building in this table
+     * @throws IllegalArgumentException if the building is not in this table
+     */
+    private int indexOf(String building) {
+        Integer i = building == null ? null : index.get(building);
+        if (i == null) {
+            throw new IllegalArgumentException();
+        }
+        return i;
+    }
+
+    /**
+     * A method to check if any operation in this class would potentially
+     * violates the representation invariant.
+     */
+    private void checkRep() {
+        assert graph != null && index != null && buildingVertex != null && costs != null;
+        assert treeVertices != null && treeEdges != null;
+        int n = buildingVertex.length;
+        assert index.size() == n && costs.length == n * n;
+        assert treeVertices.length == n && treeEdges.length == n;
+        if (DEBUG) {
+            for (int i = 0; i < n; i++) {
+                assert treeVertices[i].length == treeEdges[i].length;
+                for (int k = 1; k < treeVertices[i].length; k++) {
+                    assert treeVertices[i][k - 1] < treeVertices[i][k];
+                }
+            }
+        }
+    }
+}
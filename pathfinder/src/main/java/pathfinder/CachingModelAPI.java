@@ -0,0 +1,379 @@
+package pathfinder;
+
+import pathfinder.datastructures.FrequencySketch;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CachingModelAPI represents a model that answers every request by asking another model,
+ * but remembers a bounded number of the shortest paths it has found so that popular routes
+ * are only searched for once. Paths are immutable, so a cached path is shared between all
+ * callers. It is safe to use from many threads at the same time, as long as the wrapped
+ * model is. Two threads that miss on the same route at the same time may both search for it.
+ */
+public class CachingModelAPI implements ModelAPI {
+    private final ModelAPI model;
+    private final EvictionPolicy policy;
+    private final int capacity;
+    private final int windowCapacity;
+    private final LinkedHashMap<RouteKey, Path<Point>> window;
+    private final LinkedHashMap<RouteKey, Path<Point>> main;
+    private final FrequencySketch sketch;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private static final boolean DEBUG = false;
+
+    // RI: model != null && policy != null && capacity > 0 && window != null && main != null
+    //     && hits != null && misses != null && evictions != null
+    //     && (policy == LRU) == (windowCapacity == 0) == (sketch == null)
+    //     && window.size() <= windowCapacity && main.size() <= capacity - windowCapacity
+    //     && window and main have no key in common
+
+    // AF(this): a cache in front of model whose cached routes are the entries of window
+    //           and main, each ordered from least to most recently used, which has answered
+    //           hits requests from the cache, sent misses requests on to model, and dropped
+    //           evictions routes to make room for others
+
+    /**
+     * Creates a cache in front of the given model.
+     *
+     * @param model    the model that finds the paths that are not cached
+     * @param capacity the maximum number of paths to keep
+     * @param policy   the way to choose which path to drop when the cache is full
+     * @throws IllegalArgumentException if model or policy is null, or capacity is not positive
+     * @spec.effects creates an empty cache of at most capacity paths in front of model
+     */
+    public CachingModelAPI(ModelAPI model, int capacity, EvictionPolicy policy) {
+        if (model == null || policy == null || capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.model = model;
+        this.policy = policy;
+        this.capacity = capacity;
+        // W-TinyLFU gives about 1% of the space to new routes, before they have to
+        // prove that they are asked for more often than the routes already cached
+        this.windowCapacity = policy == EvictionPolicy.TINY_LFU ? Math.max(1, capacity / 100) : 0;
+        this.window = new LinkedHashMap<>(16, 0.75f, true);
+        this.main = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = policy == EvictionPolicy.TINY_LFU ? new FrequencySketch(capacity) : null;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        checkRep();
+    }
+
+    @Override
+    public boolean shortNameExists(String shortName) {
+        return model.shortNameExists(shortName);
+    }
+
+    @Override
+    public String longNameForShort(String shortName) {
+        return model.longNameForShort(shortName);
+    }
+
+    @Override
+    public Map<String, String> buildingNames() {
+        return model.buildingNames();
+    }
+
+    /**
+     * Finds the shortest path between the two provided buildings, from the cache if it has
+     * been found before, otherwise by asking the wrapped model and caching the result.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding} or {@code endBuilding} are
+     *                                  {@literal null}, or not valid short names of buildings in
+     *                                  this campus map.
+     */
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName) {
+        return find(new RouteKey(startShortName, endShortName, null));
+    }
+
+    /**
+     * Finds the shortest path between the two provided buildings with the given algorithm,
+     * from the cache if it has been found with that algorithm before, otherwise by asking the
+     * wrapped model and caching the result.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param algorithm      The search algorithm used to find the path.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding}, {@code endBuilding} or
+     *                                  {@code algorithm} are {@literal null}, or the buildings
+     *                                  are not valid short names of buildings in this campus map.
+     */
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchAlgorithm algorithm) {
+        if (algorithm == null) {
+            throw new IllegalArgumentException();
+        }
+        return find(new RouteKey(startShortName, endShortName, algorithm));
+    }
+
+    /**
+     * Finds the shortest paths from one building to each of the provided buildings. The
+     * paths that are cached are taken from the cache, and the others are found with a single
+     * request to the wrapped model, so it can still answer them all with one search, and are
+     * then cached.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @param endShortNames  The short names of the buildings at the ends of the paths, which may repeat.
+     * @return The path from {@code startShortName} to each of {@code endShortNames}, in the same
+     * order, with {@literal null} for every one that no path reaches.
+     * @throws IllegalArgumentException if {@code startShortName}, {@code endShortNames} or any of
+     *                                  {@code endShortNames} are {@literal null}, or not valid short
+     *                                  names of buildings in this campus map.
+     */
+    @Override
+    public List<Path<Point>> findShortestPaths(String startShortName, List<String> endShortNames) {
+        if (endShortNames == null) {
+            throw new IllegalArgumentException();
+        }
+        List<Path<Point>> paths = new ArrayList<>(Collections.nCopies(endShortNames.size(), null));
+        List<Integer> missing = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < endShortNames.size(); i++) {
+                RouteKey key = new RouteKey(startShortName, endShortNames.get(i), null);
+                if (sketch != null) {
+                    sketch.increment(key);
+                }
+                Map<RouteKey, Path<Point>> cached = window.containsKey(key) ? window : main;
+                Path<Point> path = cached.get(key);
+                if (path != null || cached.containsKey(key)) {
+                    hits.increment();
+                    paths.set(i, path);
+                } else {
+                    missing.add(i);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return paths;
+        }
+        misses.add(missing.size());
+        List<String> missingEnds = new ArrayList<>(missing.size());
+        for (int i : missing) {
+            missingEnds.add(endShortNames.get(i));
+        }
+        List<Path<Point>> found = model.findShortestPaths(startShortName, missingEnds);
+        synchronized (this) {
+            for (int k = 0; k < missing.size(); k++) {
+                RouteKey key = new RouteKey(startShortName, missingEnds.get(k), null);
+                if (!window.containsKey(key) && !main.containsKey(key)) {
+                    insert(key, found.get(k));
+                }
+                paths.set(missing.get(k), found.get(k));
+            }
+            checkRep();
+        }
+        return paths;
+    }
+
+    /**
+     * Finds every building that can be reached from the provided building within the
+     * budget, by asking the wrapped model. Its answer is not cached, and the paths it
+     * explores are not added to the cache.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @param budget         The largest cost of a path to a building in the answer.
+     * @param withSegments   Whether to return the segments of the paths explored within the budget.
+     * @return Every building within {@code budget} of {@code startShortName}, with the minimum
+     * cost of reaching it, and the segments explored if {@code withSegments} is true.
+     * @throws IllegalArgumentException if {@code startShortName} is {@literal null} or not a valid
+     *                                  short name of a building in this campus map, or if
+     *                                  {@code budget} is negative or NaN.
+     */
+    @Override
+    public Isochrone reachableBuildings(String startShortName, double budget, boolean withSegments) {
+        return model.reachableBuildings(startShortName, budget, withSegments);
+    }
+
+    /**
+     * @return the number of requests that were answered from the cache
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of requests that were sent on to the wrapped model
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of paths that were dropped, or not admitted, to make room for others
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of paths in the cache
+     */
+    public synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    /**
+     * @return the maximum number of paths in the cache
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the way this cache chooses which path to drop when it is full
+     */
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return a one-line summary of the counters of this cache
+     */
+    public String report() {
+        long hitCount = hitCount();
+        long requests = hitCount + missCount();
+        return String.format("route cache (%s, %d/%d paths): %d hits, %d misses, %d evictions, %.1f%% hit rate",
+                policy, size(), capacity, hitCount, missCount(), evictionCount(),
+                requests == 0 ? 0.0 : 100.0 * hitCount / requests);
+    }
+
+    /**
+     * Looks up the path for the given route, asking the wrapped model if it is not cached.
+     * The wrapped model is asked without holding the lock of this cache.
+     *
+     * @param key the route to find
+     * @return the path for the route, or null if there is none
+     * @throws IllegalArgumentException if the wrapped model rejects the route
+     * @spec.modifies this
+     */
+    private Path<Point> find(RouteKey key) {
+        synchronized (this) {
+            if (sketch != null) {
+                sketch.increment(key);
+            }
+            Map<RouteKey, Path<Point>> cached = window.containsKey(key) ? window : main;
+            Path<Point> path = cached.get(key);
+            if (path != null || cached.containsKey(key)) {
+                hits.increment();
+                return path;
+            }
+        }
+        misses.increment();
+        Path<Point> path = key.algorithm == null
+                ? model.findShortestPath(key.start, key.end)
+                : model.findShortestPath(key.start, key.end, key.algorithm);
+        synchronized (this) {
+            if (!window.containsKey(key) && !main.containsKey(key)) {
+                insert(key, path);
+            }
+            checkRep();
+        }
+        return path;
+    }
+
+    /**
+     * Adds a route that is not cached yet, dropping another one if the cache is full.
+     *
+     * @param key  the route
+     * @param path the path for the route
+     * @spec.requires the lock of this cache is held
+     * @spec.modifies this
+     */
+    private void insert(RouteKey key, Path<Point> path) {
+        if (windowCapacity > 0) {
+            window.put(key, path);
+            if (window.size() <= windowCapacity) {
+                return;
+            }
+            // the least recently used route of the window becomes the candidate for main
+            Iterator<Map.Entry<RouteKey, Path<Point>>> eldest = window.entrySet().iterator();
+            Map.Entry<RouteKey, Path<Point>> candidate = eldest.next();
+            eldest.remove();
+            key = candidate.getKey();
+            path = candidate.getValue();
+        }
+        int mainCapacity = capacity - windowCapacity;
+        if (main.size() < mainCapacity) {
+            main.put(key, path);
+            return;
+        }
+        evictions.increment();
+        if (mainCapacity == 0) {
+            return;
+        }
+        Iterator<RouteKey> eldest = main.keySet().iterator();
+        RouteKey victim = eldest.next();
+        if (sketch == null || sketch.frequency(key) > sketch.frequency(victim)) {
+            eldest.remove();
+            main.put(key, path);
+        }
+    }
+
+    /**
+     * A method to check if any operation in this class would potentially
+     * violates the representation invariant.
+     */
+    private synchronized void checkRep() {
+        assert model != null && policy != null && capacity > 0;
+        assert window != null && main != null;
+        assert hits != null && misses != null && evictions != null;
+        assert (windowCapacity == 0) == (sketch == null);
+        assert window.size() <= windowCapacity && main.size() <= capacity - windowCapacity;
+        if (DEBUG) {
+            for (RouteKey key : window.keySet()) {
+                assert !main.containsKey(key);
+            }
+        }
+    }
+
+    /**
+     * The key a path is cached under: its two buildings and the algorithm it was found with,
+     * which is null for paths found with the wrapped model's own choice of algorithm.
+     */
+    private static final class RouteKey {
+        private final String start;
+        private final String end;
+        private final SearchAlgorithm algorithm;
+
+        private RouteKey(String start, String end, SearchAlgorithm algorithm) {
+            this.start = start;
+            this.end = end;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof RouteKey)) {
+                return false;
+            }
+            RouteKey other = (RouteKey) obj;
+            return Objects.equals(start, other.start) && Objects.equals(end, other.end)
+                    && algorithm == other.algorithm;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(start, end, algorithm);
+        }
+    }
+}
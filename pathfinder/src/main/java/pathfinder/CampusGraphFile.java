@@ -0,0 +1,320 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CampusGraphFile represents the parsed data of a campus map, that is its graph and its
+ * buildings, as read from a precompiled binary file. Reading the file copies whole arrays
+ * out of a memory-mapped buffer instead of parsing text, so a campus map starts much
+ * faster from it than from the campus_buildings.tsv and campus_paths.tsv files it was
+ * compiled from. Compile the bundled files with the compileCampusGraph Gradle task, or
+ * call CampusMap.writeGraphFile.
+ *
+ * <p>The file is little-endian and laid out as follows, where V, E and B are the numbers
+ * of vertices, edges and buildings:
+ * <pre>
+ *     int      MAGIC, VERSION, V, E, B, and the number of bytes of the name table
+ *     double[] the x and y coordinates of every vertex, 2 * V in all
+ *     double[] the distance of every edge, E in all
+ *     int[]    the id of the first edge of every vertex, followed by E, V + 1 in all
+ *     int[]    the id of the vertex every edge goes to, E in all
+ *     int[]    the id of the vertex of every building, B in all
+ *     bytes    the name table: the short and the long name of every building, each an
+ *              int number of bytes followed by the name in UTF-8
+ * </pre>
+ * The arrays of doubles start at an offset that is a multiple of 8. A file can hold at
+ * most 2 GB, the most that one buffer can map.
+ */
+public class CampusGraphFile {
+    private final CompactGraph<Point, Double> graph;
+    private final Map<String, String> longNames;
+    private final Map<String, Point> buildings;
+    private static final boolean DEBUG = false;
+
+    /**
+     * The first int of every campus graph file.
+     */
+    public static final int MAGIC = 0x43475246;
+
+    /**
+     * The version of the layout this class reads and writes; a file of any other version
+     * is rejected, so that it is compiled again.
+     */
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    // RI: graph != null && graph.hasWeights() && longNames != null && buildings != null
+    //     && longNames.keySet().equals(buildings.keySet()) && no key or value is null
+    //     && every value of buildings is a vertex of graph
+
+    // AF(this): the campus map data whose paths are the edges of graph, weighted by
+    //           their distances, and where the building with the short name s has the
+    //           long name longNames.get(s) and lies at the vertex buildings.get(s)
+
+    /**
+     * Creates the data of a campus map
+     *
+     * @spec.requires the arguments satisfy the RI and are not modified afterwards
+     */
+    private CampusGraphFile(CompactGraph<Point, Double> graph, Map<String, String> longNames,
+                            Map<String, Point> buildings) {
+        this.graph = graph;
+        this.longNames = longNames;
+        this.buildings = buildings;
+        checkRep();
+    }
+
+    /**
+     * Compiles the given campus data files into a campus graph file.
+     *
+     * @param args the file to write, then optionally the campus buildings file and the campus
+     *             paths file to compile; the files bundled with this project are compiled if
+     *             they are not given
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && args.length != 3) {
+            System.err.println("usage: CampusGraphFile <output> [<campus_buildings.tsv> <campus_paths.tsv>]");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        CampusMap map = args.length == 1 ? new CampusMap() : new CampusMap(Paths.get(args[1]), Paths.get(args[2]));
+        map.writeGraphFile(Paths.get(args[0]));
+        System.out.println(String.format("compiled %s in %.1f ms", args[0], (System.nanoTime() - start) / 1e6));
+    }
+
+    /**
+     * Writes the given campus data as a campus graph file.
+     *
+     * @param file      the file to write, which is replaced if it exists
+     * @param graph     the graph of the campus, whose weights are the distances of the paths
+     * @param longNames the long name of every building, by its short name
+     * @param buildings the vertex of every building, by its short name
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if any argument is null, if graph has no weights, if
+     *                                  longNames and buildings have different short names,
+     *                                  or if a building is not a vertex of graph
+     */
+    public static void write(java.nio.file.Path file, CompactGraph<Point, Double> graph,
+                             Map<String, String> longNames, Map<String, Point> buildings) throws IOException {
+        if (file == null || graph == null || !graph.hasWeights() || longNames == null || buildings == null
+                || !longNames.keySet().equals(buildings.keySet())) {
+            throw new IllegalArgumentException();
+        }
+        List<String> shortNames = new ArrayList<>(buildings.keySet());
+        Collections.sort(shortNames);
+        int[] buildingIds = new int[shortNames.size()];
+        List<byte[]> names = new ArrayList<>();
+        long nameBytes = 0;
+        for (int b = 0; b < shortNames.size(); b++) {
+            buildingIds[b] = graph.idOf(buildings.get(shortNames.get(b)));
+            if (buildingIds[b] < 0) {
+                throw new IllegalArgumentException("building " + shortNames.get(b) + " is not in the graph");
+            }
+            for (String name : new String[]{shortNames.get(b), longNames.get(shortNames.get(b))}) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                names.add(bytes);
+                nameBytes += Integer.BYTES + bytes.length;
+            }
+        }
+        int n = graph.size();
+        int m = graph.edgeCount();
+        if (fileSize(n, m, buildingIds.length, nameBytes) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("the graph is too large for one campus graph file");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(
+                (int) fileSize(n, m, buildingIds.length, nameBytes)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putInt(buildingIds.length).putInt((int) nameBytes);
+        for (int v = 0; v < n; v++) {
+            buffer.putDouble(graph.vertexAt(v).getX()).putDouble(graph.vertexAt(v).getY());
+        }
+        for (int e = 0; e < m; e++) {
+            buffer.putDouble(graph.edgeWeight(e));
+        }
+        for (int v = 0; v < n; v++) {
+            buffer.putInt(graph.firstEdge(v));
+        }
+        buffer.putInt(m);
+        for (int e = 0; e < m; e++) {
+            buffer.putInt(graph.edgeTarget(e));
+        }
+        for (int id : buildingIds) {
+            buffer.putInt(id);
+        }
+        for (byte[] name : names) {
+            buffer.putInt(name.length).put(name);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads a campus graph file by mapping it into memory.
+     *
+     * @param file the file to read
+     * @return the campus data held in the file
+     * @throws IOException              if the file cannot be read, is not a campus graph file,
+     *                                  or was written in another version of the layout
+     * @throws IllegalArgumentException if file is null
+     */
+    public static CampusGraphFile read(java.nio.file.Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException();
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a campus graph file");
+            }
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            return read(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException(file + " is not a campus graph file", e);
+        }
+    }
+
+    /**
+     * @param buffer the contents of a campus graph file, in little-endian order
+     * @return the campus data held in the buffer
+     * @throws IOException              if the buffer does not start with MAGIC and VERSION
+     * @throws BufferUnderflowException if the buffer is shorter than its header says
+     * @throws IllegalArgumentException if the buffer is longer than its header says, or
+     *                                  does not hold a valid graph, or if a building is
+     *                                  not at a vertex of the graph
+     */
+    private static CampusGraphFile read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("not a campus graph file");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("campus graph file version " + version + " is not " + VERSION);
+        }
+        int n = buffer.getInt();
+        int m = buffer.getInt();
+        int b = buffer.getInt();
+        int nameBytes = buffer.getInt();
+        if (n < 0 || m < 0 || b < 0 || nameBytes < 0 || fileSize(n, m, b, nameBytes) != buffer.capacity()) {
+            throw new IllegalArgumentException();
+        }
+        double[] coordinates = new double[2 * n];
+        buffer.asDoubleBuffer().get(coordinates);
+        buffer.position(buffer.position() + coordinates.length * Double.BYTES);
+        double[] weights = new double[m];
+        buffer.asDoubleBuffer().get(weights);
+        buffer.position(buffer.position() + m * Double.BYTES);
+        int[] offsets = new int[n + 1];
+        buffer.asIntBuffer().get(offsets);
+        buffer.position(buffer.position() + offsets.length * Integer.BYTES);
+        int[] targets = new int[m];
+        buffer.asIntBuffer().get(targets);
+        buffer.position(buffer.position() + m * Integer.BYTES);
+        List<Point> vertices = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            vertices.add(new Point(coordinates[2 * v], coordinates[2 * v + 1]));
+        }
+        // the graph takes the arrays, and only needs the distances as weights
+        CompactGraph<Point, Double> graph = CompactGraph.wrapArrays(vertices, offsets, targets, null, weights,
+                null);
+        int[] buildingIds = new int[b];
+        buffer.asIntBuffer().get(buildingIds);
+        buffer.position(buffer.position() + b * Integer.BYTES);
+        for (int id : buildingIds) {
+            if (id < 0 || id >= n) {
+                throw new IllegalArgumentException();
+            }
+        }
+        Map<String, String> longNames = new HashMap<>();
+        Map<String, Point> buildings = new HashMap<>();
+        for (int id : buildingIds) {
+            String shortName = readName(buffer);
+            longNames.put(shortName, readName(buffer));
+            buildings.put(shortName, graph.vertexAt(id));
+        }
+        if (buffer.hasRemaining() || buildings.size() != b) {
+            throw new IllegalArgumentException();
+        }
+        return new CampusGraphFile(graph, longNames, buildings);
+    }
+
+    /**
+     * @param buffer the buffer positioned at a name of the name table
+     * @return the name, after which buffer is positioned
+     * @throws IllegalArgumentException if the length of the name is negative
+     */
+    private static String readName(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the number of bytes of a campus graph file with the given numbers of vertices,
+     * edges, buildings and bytes of the name table
+     */
+    private static long fileSize(long n, long m, long b, long nameBytes) {
+        return HEADER_BYTES + (2 * n + m) * Double.BYTES + (n + 1 + m + b) * Integer.BYTES + nameBytes;
+    }
+
+    /**
+     * @return the graph of the campus, whose edge weights are the distances of the paths
+     * and which holds no edge labels
+     */
+    public CompactGraph<Point, Double> getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return an unmodifiable map from the short name of every building to its long name
+     */
+    public Map<String, String> getLongNames() {
+        return Collections.unmodifiableMap(longNames);
+    }
+
+    /**
+     * @return an unmodifiable map from the short name of every building to its location
+     */
+    public Map<String, Point> getBuildings() {
+        return Collections.unmodifiableMap(buildings);
+    }
+
+    private void checkRep() {
+        assert graph != null && graph.hasWeights() && longNames != null && buildings != null;
+        if (DEBUG) {
+            assert longNames.keySet().equals(buildings.keySet());
+            for (String shortName : buildings.keySet()) {
+                assert shortName != null && longNames.get(shortName) != null;
+                assert graph.containVertex(buildings.get(shortName));
+            }
+        }
+    }
+}
@@ -11,13 +11,24 @@
 
 package pathfinder;
 
+import graph.CompactGraph;
 import graph.Graph;
+import graph.SearchListener;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 import pathfinder.parser.CampusBuilding;
 import pathfinder.parser.CampusPath;
 import pathfinder.parser.CampusPathsParser;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,23 +40,41 @@ import java.util.Map;
  * path between those two buildings.
  */
 public class CampusMap implements ModelAPI {
-    private Graph<Point, Double> campusGraph;
+    private CompactGraph<Point, Double> campusGraph;
+    private CompactGraph<Point, Double> reverseGraph;
     private Map<String, String> nameSToL;
     private Map<String, Point> nameToPoint;
+    private SearchAlgorithm searchAlgorithm;
+    private Heuristic<Point> heuristic;
+    private BuildingRouteTable<Point> routeTable;
+    private ContractionHierarchy<Point> hierarchy;
+    private volatile SearchListener searchListener;
     private static final boolean DEBUG = false;
 
-    // RI: campusGraph != null && nameSToL != null && nameToPoint != null
+    // RI: campusGraph != null && reverseGraph != null && nameSToL != null && nameToPoint != null
+    //     && searchAlgorithm != null && heuristic != null
     //     && nameSToL does not contain any null entry && nameToPoint does
     //     not contain any null entry
 
     // AF(this): an empty graph {} if nameSToL and nameToPoint are empty.
-    //           this.campusGraph has the coordinates as its vertices and
-    //           each edge label between two existing coordinates in this
-    //           graph represents the cost going from one location to another.
+    //           this.campusGraph is a compact snapshot of the graph that has
+    //           the coordinates as its vertices and each edge weight between
+    //           two existing coordinates in this graph represents the cost
+    //           going from one location to another.
+    //           this.reverseGraph is campusGraph with every edge reversed
     //           this.nameSToL maps from the short name of the campus buildings
     //           to their full name.
     //           this.nameToPoint maps the name of a location to its actual
     //           Cartesian coordinate
+    //           this.searchAlgorithm is the algorithm findShortestPath uses and
+    //           this.heuristic is the estimate of the distance that A* uses
+    //           this.routeTable holds the precomputed routes between every pair of
+    //           buildings, or is null if they have not been precomputed
+    //           this.hierarchy is the contraction hierarchy of campusGraph, or is null
+    //           if it has not been needed yet
+    //           this.searchListener is told about every search of this map, whatever its
+    //           algorithm, but not about lookups in routeTable or the searches that build
+    //           it, or is null if none is
 
     /**
      * Constructs a campus map based on campus_buildings.tsv and campus_paths.tsv
@@ -53,19 +82,72 @@ public class CampusMap implements ModelAPI {
      * full name. Updates a string representation for each location in the map
      * and its corresponding Cartesian coordinates.
      *
-     * @spec.effects this.campusGraph is updated to be a graph that represents
-     * the campus map.
+     * @spec.effects this.campusGraph is updated to be a compact snapshot of
+     * the graph that represents the campus map, and this.reverseGraph its reverse.
      * this.nameSToL is updated to contain each building's short
      * name to its corresponding full name
      * this.nameToPoint is updated to have a Cartesian coordinate
      * for each string representation of the location on campus
+     * this.searchAlgorithm is Dijkstra's algorithm and this.heuristic is the
+     * straight-line distance, in the same units as the path distances
      */
     public CampusMap() {
+        this(CampusPathsParser.parseCampusBuildings("campus_buildings.tsv"),
+                CampusPathsParser.parseCampusPaths("campus_paths.tsv"));
+    }
+
+    /**
+     * Constructs a campus map the same way as CampusMap() does, but from a campus
+     * buildings file and a campus paths file anywhere on the filesystem, such as
+     * ones written by a data generator
+     *
+     * @param buildingsFile the path of the campus buildings file
+     * @param pathsFile     the path of the campus paths file
+     * @throws CampusPathsParser.ParserException if either file cannot be read or
+     *                                           parsed as expected
+     * @spec.requires buildingsFile != null && pathsFile != null
+     * @spec.effects the same as CampusMap(), with the buildings and paths of the
+     * given files
+     */
+    public CampusMap(java.nio.file.Path buildingsFile, java.nio.file.Path pathsFile) {
+        this(CampusPathsParser.parseCampusBuildings(buildingsFile),
+                CampusPathsParser.parseCampusPaths(pathsFile));
+    }
+
+    /**
+     * Constructs a campus map the same way as CampusMap() does, but from a campus graph
+     * file compiled by writeGraphFile, which is mapped into memory instead of parsed
+     *
+     * @param graphFile the path of the campus graph file
+     * @throws IOException              if the file cannot be read, or is not a campus graph
+     *                                  file of the current version
+     * @throws IllegalArgumentException if graphFile is null
+     * @spec.effects the same as CampusMap(), with the buildings and paths the file was
+     * compiled from
+     */
+    public CampusMap(java.nio.file.Path graphFile) throws IOException {
+        CampusGraphFile data = CampusGraphFile.read(graphFile);
+        searchAlgorithm = SearchAlgorithm.DIJKSTRA;
+        nameSToL = new HashMap<>(data.getLongNames());
+        nameToPoint = new HashMap<>(data.getBuildings());
+        campusGraph = data.getGraph();
+        reverseGraph = campusGraph.transpose();
+        heuristic = Heuristic.straightLine(minCostPerDistance());
+        checkRep();
+    }
+
+    /**
+     * Constructs a campus map from the parsed buildings and paths
+     *
+     * @param buildings the buildings on campus
+     * @param paths     the path segments between locations on campus
+     * @spec.effects the same as CampusMap(), with the given buildings and paths
+     */
+    private CampusMap(List<CampusBuilding> buildings, List<CampusPath> paths) {
+        searchAlgorithm = SearchAlgorithm.DIJKSTRA;
         nameSToL = new HashMap<>();
         nameToPoint = new HashMap<>();
-        campusGraph = new Graph<>();
-        List<CampusBuilding> buildings = CampusPathsParser.parseCampusBuildings("campus_buildings.tsv");
-        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("campus_paths.tsv");
+        Graph<Point, Double> campusGraph = new Graph<>();
         // loop through each campus buildings
         for (CampusBuilding b : buildings) {
             String shortName = b.getShortName(); // get the short name of this building
@@ -92,6 +174,10 @@ public class CampusMap implements ModelAPI {
             // as the distance between them
             campusGraph.addEdge(pStart, pEnd, path.getDistance());
         }
+        // queries only read the graph, so keep a compact snapshot of it
+        this.campusGraph = campusGraph.freeze(Double::doubleValue);
+        this.reverseGraph = this.campusGraph.transpose();
+        heuristic = Heuristic.straightLine(minCostPerDistance());
         checkRep();
     }
 
@@ -133,7 +219,9 @@ public class CampusMap implements ModelAPI {
     }
 
     /**
-     * Finds the shortest path, by distance, between the two provided buildings.
+     * Finds the shortest path, by distance, between the two provided buildings. If the
+     * routes between buildings have been precomputed, this looks the path up in the
+     * table, otherwise it uses the search algorithm of this campus map.
      *
      * @param startShortName The short name of the building at the beginning of this path.
      * @param endShortName   The short name of the building at the end of this path.
@@ -146,7 +234,277 @@ public class CampusMap implements ModelAPI {
     @Override
     public Path<Point> findShortestPath(String startShortName, String endShortName) {
         checkRep();
-        return Dijkstra.dijkstraAlgo(campusGraph, nameToPoint.get(startShortName), nameToPoint.get(endShortName));
+        if (routeTable != null && routeTable.contains(startShortName) && routeTable.contains(endShortName)) {
+            return routeTable.route(startShortName, endShortName);
+        }
+        return findShortestPath(startShortName, endShortName, searchAlgorithm);
+    }
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings, using the
+     * given search algorithm.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param algorithm      The search algorithm used to find the path.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding}, {@code endBuilding} or
+     *                                  {@code algorithm} are {@literal null}, or the buildings
+     *                                  are not valid short names of buildings in this campus map.
+     */
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchAlgorithm algorithm) {
+        checkRep();
+        if (algorithm == null) {
+            throw new IllegalArgumentException();
+        }
+        Point start = nameToPoint.get(startShortName);
+        Point end = nameToPoint.get(endShortName);
+        switch (algorithm) {
+            case A_STAR:
+                return AStar.aStarAlgo(campusGraph, start, end, heuristic, searchListener);
+            case BIDIRECTIONAL_DIJKSTRA:
+                return BidirectionalDijkstra.bidirectionalDijkstraAlgo(campusGraph, reverseGraph, start, end,
+                        searchListener);
+            case CONTRACTION_HIERARCHIES:
+                return contractionHierarchy().findShortestPath(start, end, searchListener);
+            case DIJKSTRA:
+            default:
+                return Dijkstra.dijkstraAlgo(campusGraph, start, end, searchListener);
+        }
+    }
+
+    /**
+     * Finds the shortest paths, by distance, from one building to each of the provided
+     * buildings. If the routes between buildings have been precomputed, this looks the
+     * paths up in the table, otherwise it answers every destination with a single
+     * Dijkstra search from the start that stops once all of them are reached.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @param endShortNames  The short names of the buildings at the ends of the paths, which may repeat.
+     * @return The path from {@code startShortName} to each of {@code endShortNames}, in the same
+     * order, with {@literal null} for every one that no path reaches.
+     * @throws IllegalArgumentException if {@code startShortName}, {@code endShortNames} or any of
+     *                                  {@code endShortNames} are {@literal null}, or not valid short
+     *                                  names of buildings in this campus map.
+     */
+    @Override
+    public List<Path<Point>> findShortestPaths(String startShortName, List<String> endShortNames) {
+        checkRep();
+        if (startShortName == null || endShortNames == null || !nameSToL.containsKey(startShortName)) {
+            throw new IllegalArgumentException();
+        }
+        List<Point> ends = new ArrayList<>(endShortNames.size());
+        for (String endShortName : endShortNames) {
+            if (endShortName == null || !nameSToL.containsKey(endShortName)) {
+                throw new IllegalArgumentException();
+            }
+            ends.add(nameToPoint.get(endShortName));
+        }
+        if (routeTable != null && routeTable.contains(startShortName)
+                && endShortNames.stream().allMatch(routeTable::contains)) {
+            List<Path<Point>> paths = new ArrayList<>(endShortNames.size());
+            for (String endShortName : endShortNames) {
+                paths.add(routeTable.route(startShortName, endShortName));
+            }
+            return paths;
+        }
+        return Dijkstra.dijkstraAlgo(campusGraph, nameToPoint.get(startShortName), ends, searchListener);
+    }
+
+    /**
+     * Finds every building that can be reached from the provided building at a cost of at
+     * most the given budget, with a single Dijkstra search that stops at the budget.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @param budget         The largest cost of a path to a building in the answer.
+     * @param withSegments   Whether to return the last segment of the path to every point
+     *                       within the budget, which together outline the reachable area.
+     * @return Every building within {@code budget} of {@code startShortName}, with the minimum
+     * cost of reaching it, and the segments explored if {@code withSegments} is true.
+     * @throws IllegalArgumentException if {@code startShortName} is {@literal null} or not a valid
+     *                                  short name of a building in this campus map, or if
+     *                                  {@code budget} is negative or NaN.
+     */
+    @Override
+    public Isochrone reachableBuildings(String startShortName, double budget, boolean withSegments) {
+        checkRep();
+        if (startShortName == null || !nameSToL.containsKey(startShortName)) {
+            throw new IllegalArgumentException();
+        }
+        ShortestPathTree<Point> tree = Dijkstra.shortestPathTree(campusGraph, nameToPoint.get(startShortName), budget,
+                searchListener);
+        Map<String, Double> costs = new HashMap<>();
+        for (String building : nameSToL.keySet()) {
+            Point point = nameToPoint.get(building);
+            if (tree.reaches(point)) {
+                costs.put(building, tree.costTo(point));
+            }
+        }
+        return new Isochrone(startShortName, budget, costs,
+                withSegments ? tree.segments() : Collections.emptyList());
+    }
+
+    /**
+     * Precomputes the shortest paths between every pair of buildings, running one search
+     * per building in parallel. Afterwards findShortestPath(String, String) looks paths up
+     * in the table instead of searching. This should be called before this campus map is
+     * shared between threads.
+     *
+     * @return the table of routes, whose report() tells how long it took to build and
+     * how much memory it uses
+     * @spec.modifies this
+     * @spec.effects this.routeTable holds the routes between every pair of buildings
+     */
+    public BuildingRouteTable<Point> precomputeBuildingRoutes() {
+        checkRep();
+        Map<String, Point> buildings = new HashMap<>();
+        for (String shortName : nameSToL.keySet()) {
+            buildings.put(shortName, nameToPoint.get(shortName));
+        }
+        routeTable = new BuildingRouteTable<>(campusGraph, buildings);
+        checkRep();
+        return routeTable;
+    }
+
+    /**
+     * Returns the contraction hierarchy of this campus map, contracting the graph the
+     * first time it is needed.
+     *
+     * @return the contraction hierarchy of this campus map
+     * @spec.modifies this
+     * @spec.effects this.hierarchy is the contraction hierarchy of this.campusGraph
+     */
+    public synchronized ContractionHierarchy<Point> contractionHierarchy() {
+        if (hierarchy == null) {
+            hierarchy = ContractionHierarchy.contract(campusGraph);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Writes the contraction hierarchy of this campus map, contracting the graph first
+     * if it has not been needed yet.
+     *
+     * @param out the stream to write the hierarchy to, which is not closed
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeContractionHierarchy(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        contractionHierarchy().write(data);
+        data.flush();
+    }
+
+    /**
+     * Loads a contraction hierarchy written by writeContractionHierarchy, so that this
+     * campus map does not have to contract its graph.
+     *
+     * @param in the stream to read the hierarchy from, which is not closed
+     * @throws IOException              if the stream cannot be read or does not hold a hierarchy
+     * @throws IllegalArgumentException if the hierarchy was written for different campus data
+     * @spec.modifies this
+     * @spec.effects this.hierarchy is the hierarchy read from in
+     */
+    public void readContractionHierarchy(InputStream in) throws IOException {
+        ContractionHierarchy<Point> loaded = ContractionHierarchy.read(
+                new DataInputStream(new BufferedInputStream(in)), campusGraph);
+        synchronized (this) {
+            hierarchy = loaded;
+        }
+    }
+
+    /**
+     * Compiles the graph and the buildings of this campus map into a campus graph file,
+     * which CampusMap(java.nio.file.Path) loads much faster than the data files.
+     *
+     * @param file the file to write, which is replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void writeGraphFile(java.nio.file.Path file) throws IOException {
+        checkRep();
+        Map<String, Point> buildings = new HashMap<>();
+        for (String shortName : nameSToL.keySet()) {
+            buildings.put(shortName, nameToPoint.get(shortName));
+        }
+        CampusGraphFile.write(file, campusGraph, nameSToL, buildings);
+    }
+
+    /**
+     * @return the search algorithm that findShortestPath(String, String) uses
+     */
+    public SearchAlgorithm getSearchAlgorithm() {
+        checkRep();
+        return searchAlgorithm;
+    }
+
+    /**
+     * Selects the search algorithm that findShortestPath(String, String) uses.
+     *
+     * @param algorithm the search algorithm to use
+     * @throws IllegalArgumentException if algorithm is null
+     * @spec.modifies this
+     * @spec.effects this.searchAlgorithm = algorithm
+     */
+    public void setSearchAlgorithm(SearchAlgorithm algorithm) {
+        checkRep();
+        if (algorithm == null) {
+            throw new IllegalArgumentException();
+        }
+        this.searchAlgorithm = algorithm;
+        checkRep();
+    }
+
+    /**
+     * Sets the listener that is told how much work every search of this campus map did,
+     * whatever its algorithm, including the searches that answer findShortestPaths and
+     * reachableBuildings. Lookups in the route table and the searches that build it are
+     * not reported.
+     *
+     * @param listener the listener to tell, or null to stop telling one
+     * @spec.modifies this
+     * @spec.effects this.searchListener = listener
+     */
+    public void setSearchListener(SearchListener listener) {
+        this.searchListener = listener;
+    }
+
+    /**
+     * Replaces the estimate of the distance between two locations that A* uses.
+     *
+     * @param heuristic the estimate to use, which must never be more than the
+     *                  length of the shortest path between the two locations
+     * @throws IllegalArgumentException if heuristic is null
+     * @spec.modifies this
+     * @spec.effects this.heuristic = heuristic
+     */
+    public void setHeuristic(Heuristic<Point> heuristic) {
+        checkRep();
+        if (heuristic == null) {
+            throw new IllegalArgumentException();
+        }
+        this.heuristic = heuristic;
+        checkRep();
+    }
+
+    /**
+     * @return the smallest ratio of an edge's distance to the straight-line distance
+     * between its endpoints, which converts straight-line distances between the
+     * coordinates into the units of the path distances without overestimating
+     */
+    private double minCostPerDistance() {
+        double min = Double.POSITIVE_INFINITY;
+        for (int v = 0; v < campusGraph.size(); v++) {
+            Point from = campusGraph.vertexAt(v);
+            for (int e = campusGraph.firstEdge(v); e < campusGraph.endEdge(v); e++) {
+                Point to = campusGraph.vertexAt(campusGraph.edgeTarget(e));
+                double length = Math.hypot(from.getX() - to.getX(), from.getY() - to.getY());
+                if (length > 0) {
+                    min = Math.min(min, campusGraph.edgeWeight(e) / length);
+                }
+            }
+        }
+        return Double.isInfinite(min) ? 0 : Math.max(min, 0);
     }
 
     /**
@@ -155,8 +513,11 @@ public class CampusMap implements ModelAPI {
      */
     private void checkRep() {
         assert campusGraph != null;
+        assert reverseGraph != null;
         assert nameSToL != null;
         assert nameToPoint != null;
+        assert searchAlgorithm != null;
+        assert heuristic != null;
         if (DEBUG) {
             for (String s : nameSToL.keySet()) {
                 assert s != null;
@@ -0,0 +1,836 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import graph.SearchListener;
+import pathfinder.datastructures.DistanceHeap;
+import pathfinder.datastructures.Path;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * ContractionHierarchy represents an immutable index of a weighted graph that answers
+ * minimum-cost path queries much faster than Dijkstra's algorithm. It is built once by
+ * contracting the vertices of the graph one at a time, from the least to the most important:
+ * whenever removing a vertex would make the shortest path between two of its neighbors
+ * longer, a shortcut edge with the cost of the path through it is added. A query then only
+ * searches upward in that order, forward from the start and backward from the destination,
+ * and unpacks the shortcuts on the cheapest meeting path back into edges of the graph.
+ *
+ * @param <T> The type of the vertices of the graph.
+ */
+public class ContractionHierarchy<T> {
+    private final CompactGraph<T, ?> graph;
+    private final int[] rank;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] edgeCost;
+    private final int[] firstChild;
+    private final int[] secondChild;
+    private final int originalEdges;
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    private final int[] downOffsets;
+    private final int[] downEdges;
+    private static final boolean DEBUG = false;
+
+    /**
+     * The first int of a serialized hierarchy, "CHG2" in ASCII.
+     */
+    private static final int MAGIC = 0x43484732;
+
+    /**
+     * The number of vertices a witness search may settle before it gives up and a
+     * shortcut is added anyway. Extra shortcuts never make a query wrong, only slower.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /**
+     * The number of vertices a witness search may settle when it only estimates how many
+     * shortcuts a contraction would add, to rank the vertices.
+     */
+    private static final int SIMULATED_SETTLE_LIMIT = 50;
+
+    // RI: graph != null && rank is a permutation of 0, ..., graph.size() - 1
+    //     && edgeFrom, edgeTo, edgeCost, firstChild and secondChild all have the same length m
+    //     && 0 <= originalEdges <= m && for all e < originalEdges, firstChild[e] == secondChild[e] == -1
+    //     && for all e >= originalEdges, firstChild[e] and secondChild[e] are edges less than e
+    //        with edgeFrom[firstChild[e]] == edgeFrom[e], edgeTo[firstChild[e]] == edgeFrom[secondChild[e]],
+    //        edgeTo[secondChild[e]] == edgeTo[e], and edgeCost[e] == the sum of their costs
+    //     && upOffsets and downOffsets have length graph.size() + 1
+    //     && upEdges holds, grouped by edgeFrom, every edge e with rank[edgeFrom[e]] < rank[edgeTo[e]]
+    //     && downEdges holds, grouped by edgeTo, every edge e with rank[edgeFrom[e]] > rank[edgeTo[e]]
+
+    // AF(this): the hierarchy of graph in which the vertex with id v was contracted
+    //           rank[v]-th, whose edges are the edges e from edgeFrom[e] to edgeTo[e] with the
+    //           cost edgeCost[e], where each edge e < originalEdges is an edge of graph and each
+    //           other edge is a shortcut for firstChild[e] followed by secondChild[e]
+
+    /**
+     * Creates a hierarchy from its contracted edges, indexing them by direction.
+     *
+     * @spec.requires the arguments satisfy the RI and are not modified afterwards
+     */
+    private ContractionHierarchy(CompactGraph<T, ?> graph, int[] rank, int[] edgeFrom, int[] edgeTo,
+                                 double[] edgeCost, int[] firstChild, int[] secondChild, int originalEdges) {
+        this.graph = graph;
+        this.rank = rank;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.edgeCost = edgeCost;
+        this.firstChild = firstChild;
+        this.secondChild = secondChild;
+        this.originalEdges = originalEdges;
+        int n = rank.length;
+        upOffsets = new int[n + 1];
+        downOffsets = new int[n + 1];
+        for (int e = 0; e < edgeFrom.length; e++) {
+            if (rank[edgeFrom[e]] < rank[edgeTo[e]]) {
+                upOffsets[edgeFrom[e] + 1]++;
+            } else {
+                downOffsets[edgeTo[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        upEdges = new int[upOffsets[n]];
+        downEdges = new int[downOffsets[n]];
+        int[] nextUp = Arrays.copyOf(upOffsets, n);
+        int[] nextDown = Arrays.copyOf(downOffsets, n);
+        for (int e = 0; e < edgeFrom.length; e++) {
+            if (rank[edgeFrom[e]] < rank[edgeTo[e]]) {
+                upEdges[nextUp[edgeFrom[e]]++] = e;
+            } else {
+                downEdges[nextDown[edgeTo[e]]++] = e;
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * Builds the hierarchy of the given graph. Vertices are contracted in the order of how
+     * many more edges their contraction adds than it removes, plus how many of their
+     * neighbors have already been contracted, which keeps the hierarchy small and spreads
+     * the contracted vertices evenly over the graph.
+     *
+     * @param graph the given compact graph, whose edge weights are the costs of the edges
+     * @return the hierarchy of graph
+     * @throws IllegalArgumentException if graph is null or does not store edge weights
+     * @spec.requires no edge weight is negative
+     */
+    public static <T> ContractionHierarchy<T> contract(CompactGraph<T, ?> graph) {
+        if (graph == null || !graph.hasWeights()) {
+            throw new IllegalArgumentException();
+        }
+        return new Contractor<>(graph).contract();
+    }
+
+    /**
+     * Reads a hierarchy written by write(DataOutput). The hierarchy must have been built
+     * from a graph with the same edges, targets and weights as the given one, which is
+     * checked against a fingerprint of that graph and against the edges of the hierarchy.
+     *
+     * @param in    the input to read the hierarchy from
+     * @param graph the graph the hierarchy was built from
+     * @return the hierarchy that was written
+     * @throws IOException              if the input cannot be read or does not hold a hierarchy
+     * @throws IllegalArgumentException if graph is null, or the hierarchy was built from a
+     *                                  different graph
+     */
+    public static <T> ContractionHierarchy<T> read(DataInput in, CompactGraph<T, ?> graph) throws IOException {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a contraction hierarchy");
+        }
+        int n = in.readInt();
+        int graphEdges = in.readInt();
+        long graphFingerprint = in.readLong();
+        if (n != graph.size() || graphEdges != graph.edgeCount() || graphFingerprint != fingerprint(graph)) {
+            throw new IllegalArgumentException("the hierarchy was built from a different graph");
+        }
+        int m = in.readInt();
+        int originalEdges = in.readInt();
+        if (m < 0 || originalEdges < 0 || originalEdges > m) {
+            throw new IOException("corrupt contraction hierarchy");
+        }
+        int[] rank = new int[n];
+        boolean[] ranked = new boolean[n];
+        for (int v = 0; v < n; v++) {
+            rank[v] = in.readInt();
+            if (rank[v] < 0 || rank[v] >= n || ranked[rank[v]]) {
+                throw new IOException("corrupt contraction hierarchy");
+            }
+            ranked[rank[v]] = true;
+        }
+        int[] edgeFrom = new int[m];
+        int[] edgeTo = new int[m];
+        double[] edgeCost = new double[m];
+        int[] firstChild = new int[m];
+        int[] secondChild = new int[m];
+        for (int e = 0; e < m; e++) {
+            edgeFrom[e] = in.readInt();
+            edgeTo[e] = in.readInt();
+            edgeCost[e] = in.readDouble();
+            firstChild[e] = in.readInt();
+            secondChild[e] = in.readInt();
+            if (edgeFrom[e] < 0 || edgeFrom[e] >= n || edgeTo[e] < 0 || edgeTo[e] >= n
+                    || !validChildren(e, originalEdges, edgeFrom, edgeTo, edgeCost, firstChild, secondChild)) {
+                throw new IOException("corrupt contraction hierarchy");
+            }
+            if (e < originalEdges && !hasEdge(graph, edgeFrom[e], edgeTo[e], edgeCost[e])) {
+                throw new IllegalArgumentException("the hierarchy was built from a different graph");
+            }
+        }
+        return new ContractionHierarchy<>(graph, rank, edgeFrom, edgeTo, edgeCost, firstChild,
+                secondChild, originalEdges);
+    }
+
+    /**
+     * Tells whether the children of an edge read so far are consistent: an edge of the
+     * graph has none, and a shortcut stands for two earlier consecutive edges whose costs
+     * add up to its own.
+     *
+     * @param e the edge to check, whose endpoints, cost and children have been read, as
+     *          have those of every earlier edge
+     * @return true if the children of e are consistent
+     */
+    private static boolean validChildren(int e, int originalEdges, int[] edgeFrom, int[] edgeTo,
+                                         double[] edgeCost, int[] firstChild, int[] secondChild) {
+        int first = firstChild[e];
+        int second = secondChild[e];
+        if (e < originalEdges) {
+            return first == -1 && second == -1;
+        }
+        return 0 <= first && first < e && 0 <= second && second < e
+                && edgeFrom[first] == edgeFrom[e] && edgeTo[first] == edgeFrom[second]
+                && edgeTo[second] == edgeTo[e] && edgeCost[first] + edgeCost[second] == edgeCost[e];
+    }
+
+    /**
+     * @param graph  the graph to look in
+     * @param from   the id of the vertex the edge leaves
+     * @param to     the id of the vertex the edge enters
+     * @param weight the weight of the edge
+     * @return true if graph has an edge from from to to with the given weight
+     */
+    private static boolean hasEdge(CompactGraph<?, ?> graph, int from, int to, double weight) {
+        for (int e = graph.firstEdge(from); e < graph.endEdge(from); e++) {
+            if (graph.edgeTarget(e) == to && graph.edgeWeight(e) == weight) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes a 64-bit fingerprint of the structure and the weights of a graph: of the
+     * first edge of every vertex, and of the target and the weight of every edge. Two
+     * graphs with the same fingerprint have the same hierarchy, except with a negligible
+     * chance of a collision.
+     *
+     * @param graph the graph, which stores edge weights
+     * @return the fingerprint of graph
+     */
+    private static long fingerprint(CompactGraph<?, ?> graph) {
+        long h = graph.size();
+        for (int v = 0; v < graph.size(); v++) {
+            h = mix(h, graph.firstEdge(v));
+        }
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            h = mix(h, graph.edgeTarget(e));
+            h = mix(h, Double.doubleToLongBits(graph.edgeWeight(e)));
+        }
+        return h;
+    }
+
+    /**
+     * @param h     the fingerprint so far
+     * @param value the next value to add to it
+     * @return the fingerprint with value added
+     */
+    private static long mix(long h, long value) {
+        h = (h ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Writes this hierarchy so that read(DataInput, CompactGraph) can load it again without
+     * contracting the graph.
+     *
+     * @param out the output to write the hierarchy to
+     * @throws IOException if the output cannot be written
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(graph.size());
+        out.writeInt(graph.edgeCount());
+        out.writeLong(fingerprint(graph));
+        out.writeInt(edgeFrom.length);
+        out.writeInt(originalEdges);
+        for (int r : rank) {
+            out.writeInt(r);
+        }
+        for (int e = 0; e < edgeFrom.length; e++) {
+            out.writeInt(edgeFrom[e]);
+            out.writeInt(edgeTo[e]);
+            out.writeDouble(edgeCost[e]);
+            out.writeInt(firstChild[e]);
+            out.writeInt(secondChild[e]);
+        }
+    }
+
+    /**
+     * @return the number of edges of the graph that this hierarchy keeps
+     */
+    public int originalEdgeCount() {
+        return originalEdges;
+    }
+
+    /**
+     * @return the number of shortcut edges this hierarchy added
+     */
+    public int shortcutCount() {
+        return edgeFrom.length - originalEdges;
+    }
+
+    /**
+     * Finds the minimum-cost path with a search that only follows edges to vertices that
+     * were contracted later, forward from start and backward from dest. Each side stops once
+     * its next vertex is at least as far as the cheapest path through a vertex both sides
+     * have reached, and that path is unpacked into edges of the graph.
+     *
+     * @param start the type of T starting vertex
+     * @param dest  the type of T ending vertex
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start or dest is null, or if they
+     *                                  are not in the graph of this hierarchy
+     * @throws CancellationException    if the thread is interrupted during the search
+     */
+    public Path<T> findShortestPath(T start, T dest) {
+        return findShortestPath(start, dest, null);
+    }
+
+    /**
+     * Finds the minimum-cost path like findShortestPath(T, T), and tells the given listener
+     * how much work both sides of the search did together, counting the edges of this
+     * hierarchy, shortcuts included, and the largest size their two queues reached together.
+     *
+     * @param start    the type of T starting vertex
+     * @param dest     the type of T ending vertex
+     * @param listener the listener to tell about the search, or null to count nothing
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start or dest is null, or if they
+     *                                  are not in the graph of this hierarchy
+     * @throws CancellationException    if the thread is interrupted during the search
+     */
+    public Path<T> findShortestPath(T start, T dest, SearchListener listener) {
+        if (start == null || dest == null) {
+            throw new IllegalArgumentException();
+        }
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        if (startId < 0 || destId < 0) {
+            throw new IllegalArgumentException();
+        }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        long[] effort = new long[Dijkstra.EFFORT_COUNTERS];
+        Path<T> path = startId == destId ? new Path<>(start) : search(startId, destId, effort);
+        if (listener != null) {
+            listener.searchFinished(Dijkstra.effortOf(effort, path, System.nanoTime() - startNanos));
+        }
+        return path;
+    }
+
+    /**
+     * Runs the upward searches of findShortestPath and adds the work they did to the
+     * given counters.
+     *
+     * @param startId the id of the starting vertex
+     * @param destId  the id of the ending vertex, which is not startId
+     * @param effort  the counters to add the work to, indexed like the counters of
+     *                Dijkstra.search
+     * @return the minimum-cost path from startId to destId, or null if there is none
+     * @spec.modifies effort
+     */
+    private Path<T> search(int startId, int destId, long[] effort) {
+        int n = graph.size();
+        double[] forwardDistance = new double[n];
+        double[] backwardDistance = new double[n];
+        int[] forwardEdge = new int[n];
+        int[] backwardEdge = new int[n];
+        Arrays.fill(forwardDistance, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardDistance, Double.POSITIVE_INFINITY);
+        forwardDistance[startId] = 0;
+        backwardDistance[destId] = 0;
+        DistanceHeap forward = new DistanceHeap(16);
+        DistanceHeap backward = new DistanceHeap(16);
+        forward.add(startId, 0);
+        backward.add(destId, 0);
+        effort[Dijkstra.PUSHES] += 2;
+        effort[Dijkstra.MAX_QUEUE] = Math.max(effort[Dijkstra.MAX_QUEUE], 2);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while (true) {
+            double forwardMin = forward.isEmpty() ? Double.POSITIVE_INFINITY : forward.minDistance();
+            double backwardMin = backward.isEmpty() ? Double.POSITIVE_INFINITY : backward.minDistance();
+            boolean forwardSide = forwardMin <= backwardMin;
+            if (Math.min(forwardMin, backwardMin) >= best) {
+                break; // neither side can reach a cheaper meeting vertex
+            }
+            DistanceHeap active = forwardSide ? forward : backward;
+            double[] distance = forwardSide ? forwardDistance : backwardDistance;
+            double[] otherDistance = forwardSide ? backwardDistance : forwardDistance;
+            int[] parentEdge = forwardSide ? forwardEdge : backwardEdge;
+            int[] offsets = forwardSide ? upOffsets : downOffsets;
+            int[] edges = forwardSide ? upEdges : downEdges;
+            int[] ends = forwardSide ? edgeTo : edgeFrom;
+            int minDestNode = active.minVertex();
+            double minCost = active.minDistance();
+            active.removeMin();
+            if (minCost > distance[minDestNode]) {
+                effort[Dijkstra.STALE_POPS]++;
+                continue; // a shorter path to this vertex has already been settled
+            }
+            effort[Dijkstra.SETTLED]++;
+            Dijkstra.checkInterrupted(effort[Dijkstra.SETTLED]);
+            effort[Dijkstra.RELAXED] += offsets[minDestNode + 1] - offsets[minDestNode];
+            for (int i = offsets[minDestNode]; i < offsets[minDestNode + 1]; i++) {
+                int e = edges[i];
+                int child = ends[e];
+                double childCost = minCost + edgeCost[e];
+                if (childCost < distance[child]) {
+                    distance[child] = childCost;
+                    parentEdge[child] = e;
+                    active.add(child, childCost);
+                    effort[Dijkstra.PUSHES]++;
+                    if (childCost + otherDistance[child] < best) {
+                        best = childCost + otherDistance[child];
+                        meeting = child;
+                    }
+                }
+            }
+            effort[Dijkstra.MAX_QUEUE] = Math.max(effort[Dijkstra.MAX_QUEUE], forward.size() + backward.size());
+        }
+        if (meeting < 0) {
+            return null;
+        }
+        List<Integer> route = new ArrayList<>();
+        for (int v = meeting; v != startId; v = edgeFrom[forwardEdge[v]]) {
+            route.add(forwardEdge[v]);
+        }
+        Collections.reverse(route);
+        for (int v = meeting; v != destId; v = edgeTo[backwardEdge[v]]) {
+            route.add(backwardEdge[v]);
+        }
+        return unpack(startId, route);
+    }
+
+    /**
+     * Unpacks the given edges of this hierarchy into a path of edges of the graph.
+     *
+     * @param start the id of the vertex the edges begin at
+     * @param route the consecutive edges of this hierarchy, each of them maybe a shortcut
+     * @return the path through the graph edges the route stands for
+     */
+    private Path<T> unpack(int start, List<Integer> route) {
+        List<T> ends = new ArrayList<>();
+        List<Double> costs = new ArrayList<>();
+        int[] stack = new int[16];
+        for (int edge : route) {
+            int size = 0;
+            stack[size++] = edge;
+            while (size > 0) {
+                int e = stack[--size];
+                if (firstChild[e] < 0) {
+                    ends.add(graph.vertexAt(edgeTo[e]));
+                    costs.add(edgeCost[e]);
+                } else {
+                    if (size + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[size++] = secondChild[e];
+                    stack[size++] = firstChild[e];
+                }
+            }
+        }
+        double[] segmentCosts = new double[costs.size()];
+        for (int i = 0; i < segmentCosts.length; i++) {
+            segmentCosts[i] = costs.get(i);
+        }
+        return new Path<>(graph.vertexAt(start)).extend(ends, segmentCosts);
+    }
+
+    /**
+     * A method to check if any operation in this class would potentially
+     * violates the representation invariant.
+     */
+    private void checkRep() {
+        assert graph != null && rank != null && rank.length == graph.size();
+        assert edgeFrom != null && edgeTo != null && edgeCost != null;
+        assert firstChild != null && secondChild != null;
+        int m = edgeFrom.length;
+        assert edgeTo.length == m && edgeCost.length == m;
+        assert firstChild.length == m && secondChild.length == m;
+        assert 0 <= originalEdges && originalEdges <= m;
+        assert upEdges.length + downEdges.length == m;
+        if (DEBUG) {
+            boolean[] seen = new boolean[rank.length];
+            for (int r : rank) {
+                assert 0 <= r && r < rank.length && !seen[r];
+                seen[r] = true;
+            }
+            for (int e = originalEdges; e < m; e++) {
+                assert firstChild[e] < e && secondChild[e] < e;
+                assert edgeFrom[firstChild[e]] == edgeFrom[e];
+                assert edgeTo[firstChild[e]] == edgeFrom[secondChild[e]];
+                assert edgeTo[secondChild[e]] == edgeTo[e];
+            }
+        }
+    }
+
+    /**
+     * Contractor represents the mutable state of contracting a graph: the edges and
+     * shortcuts found so far, which vertices are left, and the scratch space of the
+     * witness searches.
+     *
+     * @param <T> The type of the vertices of the graph.
+     */
+    private static final class Contractor<T> {
+        private final CompactGraph<T, ?> graph;
+        private int[] from;
+        private int[] to;
+        private double[] cost;
+        private int[] first;
+        private int[] second;
+        private int edges;
+        private final int[][] outEdges;
+        private final int[] outCount;
+        private final int[][] inEdges;
+        private final int[] inCount;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] depth;
+        private final double[] witnessDistance;
+        private final int[] touched;
+        private int touchedCount;
+        private final int[] neighborEdge;
+        private final DistanceHeap witnessHeap;
+
+        // This class is only used while contracting, so it has no RI or AF of its own:
+        // edge e goes from from[e] to to[e] for e < edges, and outEdges[v][0 .. outCount[v])
+        // and inEdges[v][0 .. inCount[v]) list the edges leaving and entering v.
+
+        /**
+         * Loads the edges of the graph, leaving out self-loops since they are never
+         * on a minimum-cost path.
+         *
+         * @param graph the graph to contract
+         */
+        private Contractor(CompactGraph<T, ?> graph) {
+            this.graph = graph;
+            int n = graph.size();
+            int m = graph.edgeCount();
+            from = new int[Math.max(m, 16)];
+            to = new int[from.length];
+            cost = new double[from.length];
+            first = new int[from.length];
+            second = new int[from.length];
+            outEdges = new int[n][];
+            outCount = new int[n];
+            inEdges = new int[n][];
+            inCount = new int[n];
+            for (int v = 0; v < n; v++) {
+                outEdges[v] = new int[4];
+                inEdges[v] = new int[4];
+            }
+            contracted = new boolean[n];
+            contractedNeighbors = new int[n];
+            depth = new int[n];
+            witnessDistance = new double[n];
+            Arrays.fill(witnessDistance, Double.POSITIVE_INFINITY);
+            touched = new int[n];
+            neighborEdge = new int[n];
+            Arrays.fill(neighborEdge, -1);
+            witnessHeap = new DistanceHeap(16);
+            for (int v = 0; v < n; v++) {
+                for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                    if (graph.edgeTarget(e) != v) {
+                        addEdge(v, graph.edgeTarget(e), graph.edgeWeight(e), -1, -1);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Contracts every vertex, always picking the one whose contraction looks cheapest.
+         * The priority of a vertex only depends on the vertices around it, so it is computed
+         * again whenever one of its neighbors is contracted, and older queue entries for it
+         * are skipped.
+         *
+         * @return the hierarchy
+         */
+        private ContractionHierarchy<T> contract() {
+            int n = graph.size();
+            int originalEdges = edges;
+            double[] priority = new double[n];
+            DistanceHeap queue = new DistanceHeap(n);
+            for (int v = 0; v < n; v++) {
+                priority[v] = priority(v);
+                queue.add(v, priority[v]);
+            }
+            int[] rank = new int[n];
+            int order = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.minVertex();
+                double queued = queue.minDistance();
+                queue.removeMin();
+                if (contracted[v] || queued != priority[v]) {
+                    continue; // the priority of v has changed since this entry was added
+                }
+                shortcuts(v, true);
+                rank[v] = order++;
+                for (int neighbor : neighbors(v)) {
+                    outCount[neighbor] = prune(outEdges[neighbor], outCount[neighbor], to);
+                    inCount[neighbor] = prune(inEdges[neighbor], inCount[neighbor], from);
+                    depth[neighbor] = Math.max(depth[neighbor], depth[v] + 1);
+                    priority[neighbor] = priority(neighbor);
+                    queue.add(neighbor, priority[neighbor]);
+                }
+            }
+            return new ContractionHierarchy<>(graph, rank, Arrays.copyOf(from, edges), Arrays.copyOf(to, edges),
+                    Arrays.copyOf(cost, edges), Arrays.copyOf(first, edges), Arrays.copyOf(second, edges),
+                    originalEdges);
+        }
+
+        /**
+         * Removes the edges to contracted vertices from the given list, and every edge
+         * that is not the cheapest one to the vertex at its other end, so the witness
+         * searches only see the graph that is left.
+         *
+         * @param list  the edges entering or leaving a vertex
+         * @param size  the number of edges in list
+         * @param other from if the edges enter the vertex, to if they leave it
+         * @return the number of edges left at the front of list
+         * @spec.modifies list
+         */
+        private int prune(int[] list, int size, int[] other) {
+            int[] kept = cheapestEdges(list, size, other);
+            System.arraycopy(kept, 0, list, 0, kept.length);
+            return kept.length;
+        }
+
+        /**
+         * @param v the id of a vertex
+         * @return the ids of the neighbors of v that have not been contracted, without duplicates
+         */
+        private int[] neighbors(int v) {
+            int[] result = new int[inCount[v] + outCount[v]];
+            int count = 0;
+            for (int i = 0; i < inCount[v] + outCount[v]; i++) {
+                int neighbor = i < inCount[v] ? from[inEdges[v][i]] : to[outEdges[v][i - inCount[v]]];
+                if (!contracted[neighbor] && neighborEdge[neighbor] < 0) {
+                    neighborEdge[neighbor] = count;
+                    result[count++] = neighbor;
+                }
+            }
+            result = Arrays.copyOf(result, count);
+            for (int neighbor : result) {
+                neighborEdge[neighbor] = -1;
+            }
+            return result;
+        }
+
+        /**
+         * @param v the id of a vertex that has not been contracted
+         * @return twice how many more edges contracting v adds than it removes, plus the
+         * number of neighbors of v that have been contracted and the depth of v in the
+         * hierarchy so far
+         */
+        private double priority(int v) {
+            int removed = 0;
+            for (int i = 0; i < inCount[v]; i++) {
+                removed += contracted[from[inEdges[v][i]]] ? 0 : 1;
+            }
+            for (int i = 0; i < outCount[v]; i++) {
+                removed += contracted[to[outEdges[v][i]]] ? 0 : 1;
+            }
+            return 2 * (shortcuts(v, false) - removed) + contractedNeighbors[v] + depth[v];
+        }
+
+        /**
+         * Finds the shortcuts that contracting v needs: for every pair of remaining
+         * neighbors u and w, the path u -> v -> w needs a shortcut unless a witness
+         * search from u finds a path to w that avoids v and costs no more.
+         *
+         * @param v        the id of a vertex that has not been contracted
+         * @param contract true to add the shortcuts and contract v, false to only count them
+         * @return the number of shortcuts contracting v needs
+         * @spec.modifies this
+         */
+        private int shortcuts(int v, boolean contract) {
+            int[] ins = cheapestEdges(inEdges[v], inCount[v], from);
+            int[] outs = cheapestEdges(outEdges[v], outCount[v], to);
+            if (contract) {
+                contracted[v] = true;
+            }
+            int count = 0;
+            double maxOut = 0;
+            for (int out : outs) {
+                maxOut = Math.max(maxOut, cost[out]);
+            }
+            for (int in : ins) {
+                int u = from[in];
+                witnessSearch(u, v, cost[in] + maxOut, contract ? WITNESS_SETTLE_LIMIT : SIMULATED_SETTLE_LIMIT);
+                for (int out : outs) {
+                    int w = to[out];
+                    if (w != u && witnessDistance[w] > cost[in] + cost[out]) {
+                        count++;
+                        if (contract) {
+                            addEdge(u, w, cost[in] + cost[out], in, out);
+                        }
+                    }
+                }
+                clearWitnessSearch();
+            }
+            if (contract) {
+                for (int in : ins) {
+                    contractedNeighbors[from[in]]++;
+                }
+                for (int out : outs) {
+                    contractedNeighbors[to[out]]++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * @param list  the edges entering or leaving a vertex
+         * @param size  the number of edges in list
+         * @param other from if the edges enter the vertex, to if they leave it
+         * @return for every neighbor at the other end that has not been contracted, the
+         * cheapest edge in list between it and the vertex
+         */
+        private int[] cheapestEdges(int[] list, int size, int[] other) {
+            int[] result = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int e = list[i];
+                int neighbor = other[e];
+                if (contracted[neighbor]) {
+                    continue;
+                }
+                if (neighborEdge[neighbor] < 0) {
+                    neighborEdge[neighbor] = count;
+                    result[count++] = e;
+                } else if (cost[e] < cost[result[neighborEdge[neighbor]]]) {
+                    result[neighborEdge[neighbor]] = e;
+                }
+            }
+            result = Arrays.copyOf(result, count);
+            for (int e : result) {
+                neighborEdge[other[e]] = -1;
+            }
+            return result;
+        }
+
+        /**
+         * Runs Dijkstra's algorithm from source over the vertices that have not been
+         * contracted, other than v, until it settles a vertex farther than limit or
+         * settles settleLimit vertices.
+         *
+         * @param source      the id of the vertex to search from
+         * @param v           the id of the vertex being contracted
+         * @param limit       the cost beyond which no witness is needed
+         * @param settleLimit the number of vertices to settle before giving up
+         * @spec.modifies this.witnessDistance
+         */
+        private void witnessSearch(int source, int v, double limit, int settleLimit) {
+            witnessDistance[source] = 0;
+            touched[touchedCount++] = source;
+            witnessHeap.clear();
+            witnessHeap.add(source, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < settleLimit) {
+                int x = witnessHeap.minVertex();
+                double d = witnessHeap.minDistance();
+                witnessHeap.removeMin();
+                if (d > witnessDistance[x]) {
+                    continue;
+                }
+                if (d > limit) {
+                    break;
+                }
+                settled++;
+                for (int i = 0; i < outCount[x]; i++) {
+                    int e = outEdges[x][i];
+                    int y = to[e];
+                    if (y == v || contracted[y]) {
+                        continue;
+                    }
+                    double candidate = d + cost[e];
+                    if (candidate < witnessDistance[y]) {
+                        if (Double.isInfinite(witnessDistance[y])) {
+                            touched[touchedCount++] = y;
+                        }
+                        witnessDistance[y] = candidate;
+                        witnessHeap.add(y, candidate);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Resets the distances of the last witness search to positive infinity.
+         *
+         * @spec.modifies this.witnessDistance
+         */
+        private void clearWitnessSearch() {
+            for (int i = 0; i < touchedCount; i++) {
+                witnessDistance[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+        }
+
+        /**
+         * Adds an edge, or a shortcut for two consecutive edges.
+         *
+         * @spec.modifies this
+         */
+        private void addEdge(int u, int w, double c, int firstEdge, int secondEdge) {
+            if (edges == from.length) {
+                int length = from.length * 2;
+                from = Arrays.copyOf(from, length);
+                to = Arrays.copyOf(to, length);
+                cost = Arrays.copyOf(cost, length);
+                first = Arrays.copyOf(first, length);
+                second = Arrays.copyOf(second, length);
+            }
+            from[edges] = u;
+            to[edges] = w;
+            cost[edges] = c;
+            first[edges] = firstEdge;
+            second[edges] = secondEdge;
+            if (outCount[u] == outEdges[u].length) {
+                outEdges[u] = Arrays.copyOf(outEdges[u], outCount[u] * 2);
+            }
+            outEdges[u][outCount[u]++] = edges;
+            if (inCount[w] == inEdges[w].length) {
+                inEdges[w] = Arrays.copyOf(inEdges[w], inCount[w] * 2);
+            }
+            inEdges[w][inCount[w]++] = edges;
+            edges++;
+        }
+    }
+}
@@ -1,21 +1,51 @@
 package pathfinder;
 
+import graph.CompactGraph;
 import graph.Edge;
 import graph.Graph;
+import graph.SearchEffort;
+import graph.SearchListener;
+import pathfinder.datastructures.DistanceHeap;
 import pathfinder.datastructures.Path;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Dijkstra represents a class that implements Dijkstra algorithm to find
  * the minimum-cost path between two vertices in the given graph.
+ *
+ * <p>A search checks every INTERRUPT_CHECK_INTERVAL settled vertices whether its thread
+ * has been interrupted, and if it has, gives up by throwing a CancellationException, so
+ * that a server can cancel a search that has run past its deadline.
  */
 public class Dijkstra {
 
     // No AF, RI, or checkRep because this class only contains static methods and
     // it does not represent any data abstraction
 
+    // the indexes of the counters of the work a search did
+    static final int SETTLED = 0;
+    static final int RELAXED = 1;
+    static final int PUSHES = 2;
+    static final int STALE_POPS = 3;
+    static final int MAX_QUEUE = 4;
+    static final int EFFORT_COUNTERS = 5;
+
+    /**
+     * The number of vertices a search settles between two checks of whether its thread
+     * has been interrupted; a power of two.
+     */
+    public static final int INTERRUPT_CHECK_INTERVAL = 1024;
+
     /**
+     * Finds the minimum-cost path by searching the given graph directly, numbering only
+     * the vertices the search reaches, so a query costs nothing for the rest of the graph.
+     * Callers that query the same graph many times may still want to freeze it once and
+     * use dijkstraAlgo(CompactGraph, T, T) instead, which visits the edges faster.
+     *
      * @param graph the given graph that will be used for Dijkstra
      * @param start the type of T starting vertex
      * @param dest  the type of T ending vertex
@@ -25,36 +55,490 @@ public class Dijkstra {
      * @spec.requires both start and dest are in the given graph
      */
     public static <T> Path<T> dijkstraAlgo(Graph<T, Double> graph, T start, T dest) {
+        return dijkstraAlgo(graph, start, dest, null);
+    }
+
+    /**
+     * Finds the minimum-cost path like dijkstraAlgo(Graph, T, T), and tells the given
+     * listener how much work the search did.
+     *
+     * @param graph    the given graph that will be used for Dijkstra
+     * @param start    the type of T starting vertex
+     * @param dest     the type of T ending vertex
+     * @param listener the listener to tell about the search, or null to count nothing
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start or dest is null
+     * @throws CancellationException    if the thread is interrupted during the search
+     * @spec.requires both start and dest are in the given graph
+     */
+    public static <T> Path<T> dijkstraAlgo(Graph<T, Double> graph, T start, T dest, SearchListener listener) {
+        if (start == null || dest == null || !graph.containVertex(start) || !graph.containVertex(dest)) {
+            throw new IllegalArgumentException();
+        }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        long[] effort = listener == null ? null : new long[EFFORT_COUNTERS];
+        // the search numbers each vertex the first time it reaches it, in these
+        Map<T, Integer> ids = new HashMap<>();
+        List<T> vertices = new ArrayList<>();
+        ids.put(start, 0);
+        vertices.add(start);
+        double[] distance = {0};
+        int[] parent = {-1};
+        double[] parentCost = {0};
+        DistanceHeap active = new DistanceHeap(16);
+        active.add(0, 0);
+        long settled = 0;
+        long relaxed = 0;
+        long pushes = 1;
+        long stalePops = 0;
+        int maxQueue = 1;
+        int destId = -1;
+        while (!active.isEmpty()) {
+            int minDestNode = active.minVertex();
+            double minCost = active.minDistance();
+            active.removeMin();
+            if (minCost > distance[minDestNode]) {
+                stalePops++;
+                continue; // a shorter path to this vertex has already been finished
+            }
+            settled++;
+            checkInterrupted(settled);
+            T vertex = vertices.get(minDestNode);
+            if (vertex.equals(dest)) {
+                destId = minDestNode;
+                break;
+            }
+            List<Edge<T, Double>> children = graph.getChildrenOf(vertex);
+            relaxed += children.size();
+            for (Edge<T, Double> edge : children) {
+                double childCost = minCost + edge.getLabel();
+                Integer known = ids.get(edge.getToVertex());
+                int child;
+                if (known != null) {
+                    child = known;
+                    if (!(childCost < distance[child])) {
+                        continue;
+                    }
+                } else {
+                    child = vertices.size();
+                    ids.put(edge.getToVertex(), child);
+                    vertices.add(edge.getToVertex());
+                    if (child == distance.length) {
+                        distance = Arrays.copyOf(distance, child * 2);
+                        parent = Arrays.copyOf(parent, child * 2);
+                        parentCost = Arrays.copyOf(parentCost, child * 2);
+                    }
+                }
+                distance[child] = childCost;
+                parent[child] = minDestNode;
+                parentCost[child] = edge.getLabel();
+                active.add(child, childCost);
+                pushes++;
+            }
+            maxQueue = Math.max(maxQueue, active.size());
+        }
+        Path<T> path = null;
+        if (destId >= 0) {
+            List<T> ends = new ArrayList<>();
+            List<Double> costs = new ArrayList<>();
+            for (int v = destId; v != 0; v = parent[v]) {
+                ends.add(vertices.get(v));
+                costs.add(parentCost[v]);
+            }
+            Collections.reverse(ends);
+            double[] segmentCosts = new double[costs.size()];
+            for (int i = 0; i < segmentCosts.length; i++) {
+                segmentCosts[i] = costs.get(segmentCosts.length - 1 - i);
+            }
+            path = new Path<>(start).extend(ends, segmentCosts);
+        }
+        if (listener != null) {
+            effort[SETTLED] = settled;
+            effort[RELAXED] = relaxed;
+            effort[PUSHES] = pushes;
+            effort[STALE_POPS] = stalePops;
+            effort[MAX_QUEUE] = maxQueue;
+            listener.searchFinished(effortOf(effort, path, System.nanoTime() - startNanos));
+        }
+        return path;
+    }
+
+    /**
+     * Finds the minimum-cost path by keeping the best known distance and the
+     * predecessor of every vertex in arrays, so the Path is only built once
+     * for the vertices on the result.
+     *
+     * @param graph the given compact graph that will be used for Dijkstra,
+     *              whose edge weights are the costs of the edges
+     * @param start the type of T starting vertex
+     * @param dest  the type of T ending vertex
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start or dest is null, or if they
+     *                                  are not in the given graph
+     * @spec.requires graph.hasWeights() and no edge weight is negative
+     */
+    public static <T> Path<T> dijkstraAlgo(CompactGraph<T, ?> graph, T start, T dest) {
+        return dijkstraAlgo(graph, start, dest, null);
+    }
+
+    /**
+     * Finds the minimum-cost path like dijkstraAlgo(CompactGraph, T, T), and tells the
+     * given listener how much work the search did.
+     *
+     * @param graph    the given compact graph that will be used for Dijkstra,
+     *                 whose edge weights are the costs of the edges
+     * @param start    the type of T starting vertex
+     * @param dest     the type of T ending vertex
+     * @param listener the listener to tell about the search, or null to count nothing
+     * @return the minimum-cost path segments from the start
+     * vertex to the ending vertex, null if no path is found
+     * @throws IllegalArgumentException if start or dest is null, or if they
+     *                                  are not in the given graph
+     * @spec.requires graph.hasWeights() and no edge weight is negative
+     */
+    public static <T> Path<T> dijkstraAlgo(CompactGraph<T, ?> graph, T start, T dest, SearchListener listener) {
         if (start == null || dest == null) {
             throw new IllegalArgumentException();
         }
-        Queue<Path<T>> active = new PriorityQueue<>(new Comparator<Path<T>>() {
-            @Override
-            public int compare(Path<T> o1, Path<T> o2) {
-                return Double.compare(o1.getCost(), o2.getCost());
+        int startId = graph.idOf(start);
+        int destId = graph.idOf(dest);
+        if (startId < 0 || destId < 0) {
+            throw new IllegalArgumentException();
+        }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        double[] distance = new double[graph.size()];
+        int[] parentEdge = new int[graph.size()];
+        long[] effort = listener == null ? null : new long[EFFORT_COUNTERS];
+        Path<T> path = null;
+        if (search(graph, startId, v -> v == destId, distance, parentEdge, effort)) {
+            path = buildPath(graph, v -> parentEdge[v], startId, destId);
+        }
+        if (listener != null) {
+            listener.searchFinished(effortOf(effort, path, System.nanoTime() - startNanos));
+        }
+        return path;
+    }
+
+    /**
+     * Finds the minimum-cost paths from the start vertex to every vertex in the given graph.
+     *
+     * @param graph the given compact graph that will be used for Dijkstra,
+     *              whose edge weights are the costs of the edges
+     * @param start the type of T starting vertex
+     * @return the tree of minimum-cost paths from start to every vertex it can reach
+     * @throws IllegalArgumentException if start is null or not in the given graph
+     * @spec.requires graph.hasWeights() and no edge weight is negative
+     */
+    public static <T> ShortestPathTree<T> shortestPathTree(CompactGraph<T, ?> graph, T start) {
+        if (start == null || !graph.containVertex(start)) {
+            throw new IllegalArgumentException();
+        }
+        int startId = graph.idOf(start);
+        double[] distance = new double[graph.size()];
+        int[] parentEdge = new int[graph.size()];
+        search(graph, startId, -1, distance, parentEdge);
+        return new ShortestPathTree<>(graph, startId, distance, parentEdge);
+    }
+
+    /**
+     * Finds the minimum-cost paths from the start vertex to every vertex that can be
+     * reached within the given budget, with a search that stops at the budget.
+     *
+     * @param graph  the given compact graph that will be used for Dijkstra,
+     *               whose edge weights are the costs of the edges
+     * @param start  the type of T starting vertex
+     * @param budget the largest cost of a path in the tree
+     * @return the tree of minimum-cost paths from start to every vertex it can reach
+     * at a cost of at most budget
+     * @throws IllegalArgumentException if start is null or not in the given graph, or
+     *                                  if budget is negative or NaN
+     * @spec.requires graph.hasWeights() and no edge weight is negative
+     */
+    public static <T> ShortestPathTree<T> shortestPathTree(CompactGraph<T, ?> graph, T start, double budget) {
+        return shortestPathTree(graph, start, budget, null);
+    }
+
+    /**
+     * Finds the minimum-cost paths from the start vertex to every vertex that can be
+     * reached within the given budget like shortestPathTree(CompactGraph, T, double), and
+     * tells the given listener how much work the search did.
+     *
+     * @param graph    the given compact graph that will be used for Dijkstra,
+     *                 whose edge weights are the costs of the edges
+     * @param start    the type of T starting vertex
+     * @param budget   the largest cost of a path in the tree
+     * @param listener the listener to tell about the search, or null to count nothing
+     * @return the tree of minimum-cost paths from start to every vertex it can reach
+     * at a cost of at most budget
+     * @throws IllegalArgumentException if start is null or not in the given graph, or
+     *                                  if budget is negative or NaN
+     * @spec.requires graph.hasWeights() and no edge weight is negative
+     */
+    public static <T> ShortestPathTree<T> shortestPathTree(CompactGraph<T, ?> graph, T start, double budget,
+                                                           SearchListener listener) {
+        if (start == null || !graph.containVertex(start) || !(budget >= 0)) {
+            throw new IllegalArgumentException();
+        }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        int startId = graph.idOf(start);
+        double[] distance = new double[graph.size()];
+        int[] parentEdge = new int[graph.size()];
+        long[] effort = listener == null ? null : new long[EFFORT_COUNTERS];
+        // every vertex still waiting costs at least as much as the first one over budget
+        search(graph, startId, v -> distance[v] > budget, distance, parentEdge, effort);
+        for (int v = 0; v < distance.length; v++) {
+            if (distance[v] > budget) {
+                distance[v] = Double.POSITIVE_INFINITY;
+            }
+        }
+        if (listener != null) {
+            listener.searchFinished(effortOf(effort, null, System.nanoTime() - startNanos));
+        }
+        return new ShortestPathTree<>(graph, startId, distance, parentEdge);
+    }
+
+    /**
+     * Finds the minimum-cost paths from the start vertex to each of the given vertices
+     * with a single search, which stops as soon as every one of them is finished.
+     *
+     * @param graph the given compact graph that will be used for Dijkstra,
+     *              whose edge weights are the costs of the edges
+     * @param start the type of T starting vertex
+     * @param dests the type of T ending vertices, which may repeat
+     * @return the minimum-cost path from start to each of dests, in the same order,
+     * with null for every one that no path reaches
+     * @throws IllegalArgumentException if start, dests or any of dests is null, or
+     *                                  if they are not in the given graph
+     * @spec.requires graph.hasWeights() and no edge weight is negative
+     */
+    public static <T> List<Path<T>> dijkstraAlgo(CompactGraph<T, ?> graph, T start, List<T> dests) {
+        return dijkstraAlgo(graph, start, dests, null);
+    }
+
+    /**
+     * Finds the minimum-cost paths from the start vertex to each of the given vertices like
+     * dijkstraAlgo(CompactGraph, T, List), and tells the given listener how much work the
+     * search did.
+     *
+     * @param graph    the given compact graph that will be used for Dijkstra,
+     *                 whose edge weights are the costs of the edges
+     * @param start    the type of T starting vertex
+     * @param dests    the type of T ending vertices, which may repeat
+     * @param listener the listener to tell about the search, or null to count nothing
+     * @return the minimum-cost path from start to each of dests, in the same order,
+     * with null for every one that no path reaches
+     * @throws IllegalArgumentException if start, dests or any of dests is null, or
+     *                                  if they are not in the given graph
+     * @spec.requires graph.hasWeights() and no edge weight is negative
+     */
+    public static <T> List<Path<T>> dijkstraAlgo(CompactGraph<T, ?> graph, T start, List<T> dests,
+                                                 SearchListener listener) {
+        if (start == null || dests == null || !graph.containVertex(start)) {
+            throw new IllegalArgumentException();
+        }
+        int startId = graph.idOf(start);
+        int[] destIds = new int[dests.size()];
+        boolean[] isDest = new boolean[graph.size()];
+        int remaining = 0;
+        for (int i = 0; i < destIds.length; i++) {
+            T dest = dests.get(i);
+            destIds[i] = dest == null ? -1 : graph.idOf(dest);
+            if (destIds[i] < 0) {
+                throw new IllegalArgumentException();
             }
-        });
-        Set<T> finished = new HashSet<>();
-        // Add a path from start to itself to active
-        Path<T> startPath = new Path<>(start);
-        active.add(startPath);
+            if (!isDest[destIds[i]]) {
+                isDest[destIds[i]] = true;
+                remaining++;
+            }
+        }
+        long startNanos = listener == null ? 0 : System.nanoTime();
+        double[] distance = new double[graph.size()];
+        int[] parentEdge = new int[graph.size()];
+        int[] left = {remaining};
+        long[] effort = listener == null ? null : new long[EFFORT_COUNTERS];
+        if (remaining > 0) {
+            search(graph, startId, v -> isDest[v] && --left[0] == 0, distance, parentEdge, effort);
+        }
+        List<Path<T>> paths = new ArrayList<>(destIds.length);
+        for (int dest : destIds) {
+            paths.add(distance[dest] == Double.POSITIVE_INFINITY ? null
+                    : buildPath(graph, v -> parentEdge[v], startId, dest));
+        }
+        if (listener != null) {
+            listener.searchFinished(effortOf(effort, null, System.nanoTime() - startNanos));
+        }
+        return paths;
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from start until dest is finished, or until every
+     * reachable vertex is finished if dest is -1.
+     *
+     * @param graph      the compact graph to search
+     * @param start      the id of the starting vertex
+     * @param dest       the id of the ending vertex, or -1 to search the whole graph
+     * @param distance   the array that receives the minimum cost of every finished vertex,
+     *                   which is positive infinity for vertices that were not reached
+     * @param parentEdge the array that receives the last edge on the minimum-cost path to
+     *                   every finished vertex other than start
+     * @return true if dest was finished, false otherwise
+     * @spec.requires distance.length == parentEdge.length == graph.size()
+     * @spec.modifies distance, parentEdge
+     */
+    static boolean search(CompactGraph<?, ?> graph, int start, int dest, double[] distance,
+                          int[] parentEdge) {
+        return search(graph, start, v -> v == dest, distance, parentEdge);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from start until a vertex that stop accepts is finished,
+     * or until every reachable vertex is finished.
+     *
+     * @param graph      the compact graph to search
+     * @param start      the id of the starting vertex
+     * @param stop       the test, called once on every vertex as it is finished, that
+     *                   tells whether the search can stop there
+     * @param distance   the array that receives the minimum cost of every finished vertex,
+     *                   which is positive infinity for vertices that were not reached
+     * @param parentEdge the array that receives the last edge on the minimum-cost path to
+     *                   every finished vertex other than start
+     * @return true if the search stopped at a vertex stop accepted, false otherwise
+     * @spec.requires distance.length == parentEdge.length == graph.size()
+     * @spec.modifies distance, parentEdge
+     */
+    static boolean search(CompactGraph<?, ?> graph, int start, IntPredicate stop, double[] distance,
+                          int[] parentEdge) {
+        return search(graph, start, stop, distance, parentEdge, null);
+    }
+
+    /**
+     * Runs Dijkstra's algorithm like search(CompactGraph, int, IntPredicate, double[], int[]),
+     * and adds the work it did to the given counters.
+     *
+     * @param graph      the compact graph to search
+     * @param start      the id of the starting vertex
+     * @param stop       the test, called once on every vertex as it is finished, that
+     *                   tells whether the search can stop there
+     * @param distance   the array that receives the minimum cost of every finished vertex,
+     *                   which is positive infinity for vertices that were not reached
+     * @param parentEdge the array that receives the last edge on the minimum-cost path to
+     *                   every finished vertex other than start
+     * @param effort     the counters to add the work to, indexed by SETTLED, RELAXED,
+     *                   PUSHES and STALE_POPS, with the largest queue size kept at
+     *                   MAX_QUEUE, or null to count nothing
+     * @return true if the search stopped at a vertex stop accepted, false otherwise
+     * @throws CancellationException if the thread is interrupted during the search
+     * @spec.requires distance.length == parentEdge.length == graph.size() and
+     * effort is null or effort.length == EFFORT_COUNTERS
+     * @spec.modifies distance, parentEdge, effort
+     */
+    static boolean search(CompactGraph<?, ?> graph, int start, IntPredicate stop, double[] distance,
+                          int[] parentEdge, long[] effort) {
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        distance[start] = 0;
+        parentEdge[start] = -1;
+        DistanceHeap active = new DistanceHeap(16);
+        active.add(start, 0);
+        // counted in locals, which cost next to nothing, and only stored if asked for
+        long settled = 0;
+        long relaxed = 0;
+        long pushes = 1;
+        long stalePops = 0;
+        int maxQueue = 1;
+        boolean stopped = false;
         while (!active.isEmpty()) {
-            Path<T> minPath = active.remove();
-            T minDestNode = minPath.getEnd();
-            if (minDestNode.equals(dest)) { // equals method?? for generic??
-                return minPath;
-            }
-            if (!finished.contains(minDestNode)) {
-                for (Edge<T, Double> e : graph.getChildrenOf(minDestNode)) {
-                    T child = e.getToVertex();
-                    if (!finished.contains(child)) {
-                        Path<T> newPath = minPath.extend(child, e.getLabel());
-                        active.add(newPath);
-                    }
+            int minDestNode = active.minVertex();
+            double minCost = active.minDistance();
+            active.removeMin();
+            if (minCost > distance[minDestNode]) {
+                stalePops++;
+                continue; // a shorter path to this vertex has already been finished
+            }
+            settled++;
+            checkInterrupted(settled);
+            if (stop.test(minDestNode)) {
+                stopped = true;
+                break;
+            }
+            relaxed += graph.endEdge(minDestNode) - graph.firstEdge(minDestNode);
+            for (int e = graph.firstEdge(minDestNode); e < graph.endEdge(minDestNode); e++) {
+                int child = graph.edgeTarget(e);
+                double childCost = minCost + graph.edgeWeight(e);
+                if (childCost < distance[child]) {
+                    distance[child] = childCost;
+                    parentEdge[child] = e;
+                    active.add(child, childCost);
+                    pushes++;
                 }
-                finished.add(minDestNode);
             }
+            maxQueue = Math.max(maxQueue, active.size());
+        }
+        if (effort != null) {
+            effort[SETTLED] += settled;
+            effort[RELAXED] += relaxed;
+            effort[PUSHES] += pushes;
+            effort[STALE_POPS] += stalePops;
+            effort[MAX_QUEUE] = Math.max(effort[MAX_QUEUE], maxQueue);
+        }
+        return stopped;
+    }
+
+    /**
+     * Gives up on a search if its thread has been interrupted, checking only once every
+     * INTERRUPT_CHECK_INTERVAL settled vertices so that the check costs almost nothing.
+     *
+     * @param settled the number of vertices the search has settled so far
+     * @throws CancellationException if settled is a multiple of INTERRUPT_CHECK_INTERVAL
+     *                               and the thread has been interrupted
+     */
+    static void checkInterrupted(long settled) {
+        if ((settled & (INTERRUPT_CHECK_INTERVAL - 1)) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("the search was interrupted");
+        }
+    }
+
+    /**
+     * @param effort       the counters of a search
+     * @param path         the path the search found, or null if it found none or did not
+     *                     look for a single path
+     * @param elapsedNanos how long the search took, in nanoseconds
+     * @return the record of the work the search did
+     */
+    static SearchEffort effortOf(long[] effort, Path<?> path, long elapsedNanos) {
+        int pathLength = -1;
+        if (path != null) {
+            pathLength = 0;
+            for (Path<?>.Segment ignored : path) {
+                pathLength++;
+            }
+        }
+        return new SearchEffort(effort[SETTLED], effort[RELAXED], effort[PUSHES], effort[STALE_POPS],
+                effort[MAX_QUEUE], pathLength, elapsedNanos);
+    }
+
+    /**
+     * Builds the path that ends at dest by following the parent edges back to start.
+     *
+     * @param graph      the compact graph that was searched
+     * @param parentEdge the edge that reached each vertex on the minimum-cost path, by vertex id
+     * @param start      the id of the starting vertex
+     * @param dest       the id of the ending vertex
+     * @return the path from start to dest
+     */
+    static <T> Path<T> buildPath(CompactGraph<T, ?> graph, IntUnaryOperator parentEdge, int start, int dest) {
+        List<T> ends = new ArrayList<>();
+        List<Integer> edges = new ArrayList<>();
+        for (int v = dest; v != start; v = graph.edgeSource(edges.get(edges.size() - 1))) {
+            ends.add(graph.vertexAt(v));
+            edges.add(parentEdge.applyAsInt(v));
+        }
+        Collections.reverse(ends);
+        double[] costs = new double[edges.size()];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = graph.edgeWeight(edges.get(costs.length - 1 - i));
         }
-        return null;
+        return new Path<>(graph.vertexAt(start)).extend(ends, costs);
     }
-}
\ No newline at end of file
+}
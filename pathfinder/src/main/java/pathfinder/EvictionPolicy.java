@@ -0,0 +1,20 @@
+package pathfinder;
+
+/**
+ * The ways a CachingModelAPI can choose which cached route to drop when it is full.
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Drops the route that was used least recently.
+     */
+    LRU,
+
+    /**
+     * Keeps new routes in a small LRU window, and only lets a route that leaves the window
+     * replace the least recently used route of the main cache if it has been asked for more
+     * often recently (W-TinyLFU). This keeps popular routes cached when many routes are only
+     * asked for once.
+     */
+    TINY_LFU
+}
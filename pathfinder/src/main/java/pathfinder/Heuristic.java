@@ -0,0 +1,53 @@
+package pathfinder;
+
+import pathfinder.datastructures.Point;
+
+/**
+ * A Heuristic estimates the minimum cost of getting from one vertex to another.
+ * A* only finds minimum-cost paths with an admissible heuristic, one that never
+ * estimates more than the actual minimum cost.
+ *
+ * @param <T> The type of the vertices whose costs are estimated.
+ */
+@FunctionalInterface
+public interface Heuristic<T> {
+
+    /**
+     * @param from The vertex to estimate the cost from.
+     * @param dest The vertex to estimate the cost to.
+     * @return An estimate of the minimum cost of any path from {@code from} to {@code dest},
+     * which is never negative.
+     */
+    public double estimate(T from, T dest);
+
+    /**
+     * @return A heuristic that estimates every cost as 0, which makes A* behave
+     * exactly like Dijkstra's algorithm.
+     */
+    public static <T> Heuristic<T> zero() {
+        return (from, dest) -> 0;
+    }
+
+    /**
+     * @return A heuristic that estimates the cost between two points as the
+     * straight-line distance between them. It is admissible when no edge costs
+     * less than the distance between its endpoints.
+     */
+    public static Heuristic<Point> straightLine() {
+        return straightLine(1.0);
+    }
+
+    /**
+     * @param costPerUnit The minimum cost of travelling one unit of distance.
+     * @return A heuristic that estimates the cost between two points as the
+     * straight-line distance between them times {@code costPerUnit}. It is admissible
+     * when no edge costs less than {@code costPerUnit} times the distance between its endpoints.
+     * @throws IllegalArgumentException if {@code costPerUnit} is negative, infinite or NaN.
+     */
+    public static Heuristic<Point> straightLine(double costPerUnit) {
+        if (!(costPerUnit >= 0) || Double.isInfinite(costPerUnit)) {
+            throw new IllegalArgumentException("Cost per unit must be a finite, non-negative number.");
+        }
+        return (from, dest) -> costPerUnit * Math.hypot(from.getX() - dest.getX(), from.getY() - dest.getY());
+    }
+}
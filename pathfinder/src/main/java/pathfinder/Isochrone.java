@@ -0,0 +1,111 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Isochrone represents the immutable answer to a reachability query: every building
+ * that can be reached from a start building at a cost of at most some budget, with
+ * the minimum cost of reaching it, and optionally the segments of the paths explored
+ * to reach every point within the budget, which together outline the reachable area.
+ */
+public class Isochrone {
+    private final String start;
+    private final double budget;
+    private final LinkedHashMap<String, Double> buildings;
+    private final List<Path<Point>.Segment> segments;
+    private static final boolean DEBUG = false;
+
+    // RI: start != null && budget >= 0 && buildings != null && segments != null
+    //     && buildings contains start && no key or value of buildings is null
+    //     && every value of buildings is at most budget && the entries of buildings
+    //     are ordered by value, then by key && segments does not contain null
+
+    // AF(this): the buildings reachable from the building with the short name start
+    //           at a cost of at most budget, where buildings maps the short name of
+    //           each of them to the minimum cost of reaching it, and segments holds
+    //           the last segment of the minimum-cost path to every point within the
+    //           budget, or nothing if they were not asked for
+
+    /**
+     * Creates the answer to a reachability query.
+     *
+     * @param start     the short name of the starting building
+     * @param budget    the largest cost of a path in the answer
+     * @param buildings the minimum cost of reaching every building within the budget,
+     *                  by short name
+     * @param segments  the segments of the paths to every point within the budget, which
+     *                  may be empty
+     * @spec.requires the arguments satisfy the RI, except for the order of buildings
+     */
+    Isochrone(String start, double budget, Map<String, Double> buildings, List<Path<Point>.Segment> segments) {
+        this.start = start;
+        this.budget = budget;
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(buildings.entrySet());
+        entries.sort(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        this.buildings = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : entries) {
+            this.buildings.put(entry.getKey(), entry.getValue());
+        }
+        this.segments = new ArrayList<>(segments);
+        checkRep();
+    }
+
+    /**
+     * @return the short name of the starting building
+     */
+    public String getStart() {
+        return start;
+    }
+
+    /**
+     * @return the largest cost of a path in this answer
+     */
+    public double getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return an unmodifiable map from the short name of every building within the budget,
+     * including the start, to the minimum cost of reaching it, ordered from the nearest
+     * building to the farthest
+     */
+    public Map<String, Double> getBuildings() {
+        return Collections.unmodifiableMap(buildings);
+    }
+
+    /**
+     * @return an unmodifiable list of the last segment of the minimum-cost path to every
+     * point within the budget, or an empty list if they were not asked for
+     */
+    public List<Path<Point>.Segment> getSegments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * A method to check if any operation in this class would potentially
+     * violates the representation invariant.
+     */
+    private void checkRep() {
+        assert start != null && budget >= 0 && buildings != null && segments != null;
+        assert buildings.containsKey(start);
+        if (DEBUG) {
+            Comparator<Map.Entry<String, Double>> order =
+                    Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+            Map.Entry<String, Double> previous = null;
+            for (Map.Entry<String, Double> entry : buildings.entrySet()) {
+                assert entry.getKey() != null && entry.getValue() != null && entry.getValue() <= budget;
+                assert previous == null || order.compare(previous, entry) <= 0;
+                previous = entry;
+            }
+            assert !segments.contains(null);
+        }
+    }
+}
@@ -14,7 +14,12 @@ package pathfinder;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /*
 In the pathfinder homework, the text user interface calls these methods to talk
@@ -68,6 +73,82 @@ public interface ModelAPI {
      *                                  this campus map.
      */
     public Path<Point> findShortestPath(String startShortName, String endShortName);
+
+    /**
+     * Finds the shortest path, by distance, between the two provided buildings, using the
+     * given search algorithm. Every algorithm finds a path of the same minimum cost.
+     *
+     * @param startShortName The short name of the building at the beginning of this path.
+     * @param endShortName   The short name of the building at the end of this path.
+     * @param algorithm      The search algorithm used to find the path.
+     * @return A path between {@code startBuilding} and {@code endBuilding}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code startBuilding}, {@code endBuilding} or
+     *                                  {@code algorithm} are {@literal null}, or the buildings
+     *                                  are not valid short names of buildings in this campus map.
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchAlgorithm algorithm);
+
+    /**
+     * Finds the shortest paths, by distance, from one building to each of the provided
+     * buildings. Models that can answer every destination with a single search should
+     * override this; by default it finds each path on its own.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @param endShortNames  The short names of the buildings at the ends of the paths, which may repeat.
+     * @return The path from {@code startShortName} to each of {@code endShortNames}, in the same
+     * order, with {@literal null} for every one that no path reaches.
+     * @throws IllegalArgumentException if {@code startShortName}, {@code endShortNames} or any of
+     *                                  {@code endShortNames} are {@literal null}, or not valid short
+     *                                  names of buildings in this campus map.
+     */
+    public default List<Path<Point>> findShortestPaths(String startShortName, List<String> endShortNames) {
+        if (endShortNames == null) {
+            throw new IllegalArgumentException();
+        }
+        List<Path<Point>> paths = new ArrayList<>(endShortNames.size());
+        for (String endShortName : endShortNames) {
+            paths.add(findShortestPath(startShortName, endShortName));
+        }
+        return paths;
+    }
+
+    /**
+     * Finds every building that can be reached from the provided building at a cost of at
+     * most the given budget. Models that can stop a single search at the budget should
+     * override this; by default it finds the path to every building and keeps the ones
+     * within the budget, and the segments it returns are those of these paths.
+     *
+     * @param startShortName The short name of the building at the beginning of the paths.
+     * @param budget         The largest cost of a path to a building in the answer.
+     * @param withSegments   Whether to return the segments of the paths explored within the budget.
+     * @return Every building within {@code budget} of {@code startShortName}, with the minimum
+     * cost of reaching it, and the segments explored if {@code withSegments} is true.
+     * @throws IllegalArgumentException if {@code startShortName} is {@literal null} or not a valid
+     *                                  short name of a building in this campus map, or if
+     *                                  {@code budget} is negative or NaN.
+     */
+    public default Isochrone reachableBuildings(String startShortName, double budget, boolean withSegments) {
+        if (!(budget >= 0)) {
+            throw new IllegalArgumentException();
+        }
+        List<String> buildings = new ArrayList<>(buildingNames().keySet());
+        List<Path<Point>> paths = findShortestPaths(startShortName, buildings);
+        Map<String, Double> costs = new HashMap<>();
+        Set<Path<Point>.Segment> segments = new LinkedHashSet<>();
+        for (int i = 0; i < buildings.size(); i++) {
+            Path<Point> path = paths.get(i);
+            if (path != null && path.getCost() <= budget) {
+                costs.put(buildings.get(i), path.getCost());
+                if (withSegments) {
+                    for (Path<Point>.Segment segment : path) {
+                        segments.add(segment);
+                    }
+                }
+            }
+        }
+        return new Isochrone(startShortName, budget, costs, new ArrayList<>(segments));
+    }
     // You'll need to change this return type to use the generic Path once you've
     // updated the Path ADT to be generic.
 }
@@ -0,0 +1,277 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * PathJsonWriter writes paths of points to an output stream as JSON, in the same shape
+ * and with the same numbers that Gson writes them in, which is the shape the campus
+ * paths frontend reads:
+ *
+ * <pre>{"cost":c,"start":{"x":x,"y":y},"path":[{"start":{...},"end":{...},"cost":c},...]}</pre>
+ *
+ * <p>Unlike Gson, it does not look at the fields of the path and its segments through
+ * reflection and writes no intermediate strings other than the numbers: every character
+ * goes straight into one buffer, which is reused for every path and written to the stream
+ * whenever it fills up. A writer is not safe to use from several threads at once.
+ */
+public class PathJsonWriter implements Flushable {
+    /**
+     * The size of the buffer of a writer created without one.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count;
+    private boolean inArray;
+    private boolean firstInArray;
+    private static final boolean DEBUG = false;
+
+    // RI: out != null && buffer != null && buffer.length >= 32
+    //     && 0 <= count <= buffer.length && (!firstInArray || inArray)
+
+    // AF(this): a JSON writer whose output so far is everything written to out followed
+    //           by buffer[0..count), and which is inside a top-level array iff inArray,
+    //           before its first element iff firstInArray
+
+    /**
+     * Creates a writer with a buffer of DEFAULT_BUFFER_SIZE bytes.
+     *
+     * @param out the stream to write to
+     * @throws IllegalArgumentException if out is null
+     */
+    public PathJsonWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a writer with a buffer of the given size.
+     *
+     * @param out        the stream to write to
+     * @param bufferSize the number of bytes to buffer before writing them to out
+     * @throws IllegalArgumentException if out is null or bufferSize is less than 32, which
+     *                                  is enough for the longest number
+     */
+    public PathJsonWriter(OutputStream out, int bufferSize) {
+        if (out == null || bufferSize < 32) {
+            throw new IllegalArgumentException();
+        }
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+        checkRep();
+    }
+
+    /**
+     * Writes the given path, or null, as a JSON value, after a comma if it is not the
+     * first element of the array this writer is in.
+     *
+     * @param path the path to write, which may be null
+     * @throws IOException              if the stream cannot be written
+     * @throws IllegalArgumentException if a coordinate or a cost of the path is NaN or
+     *                                  infinite, which JSON cannot hold
+     * @spec.modifies this
+     */
+    public void path(Path<Point> path) throws IOException {
+        separate();
+        if (path == null) {
+            ascii("null");
+            return;
+        }
+        ascii("{\"cost\":");
+        number(path.getCost());
+        ascii(",\"start\":");
+        point(path.getStart());
+        ascii(",\"path\":[");
+        boolean first = true;
+        for (Path<Point>.Segment segment : path) {
+            if (!first) {
+                ascii(",");
+            }
+            first = false;
+            ascii("{\"start\":");
+            point(segment.getStart());
+            ascii(",\"end\":");
+            point(segment.getEnd());
+            ascii(",\"cost\":");
+            number(segment.getCost());
+            ascii("}");
+        }
+        ascii("]}");
+        checkRep();
+    }
+
+    /**
+     * Writes the given path, or null, as a JSON value in the compact form
+     * {"cost":c,"precision":p,"polyline":"..."}, where the polyline holds the points of
+     * the path encoded by Polyline.encode, after a comma if it is not the first element
+     * of the array this writer is in. The costs of the segments are left out.
+     *
+     * @param path      the path to write, which may be null
+     * @param precision the number of decimal digits to round every coordinate to
+     * @throws IOException              if the stream cannot be written
+     * @throws IllegalArgumentException if the path cannot be encoded at the given precision,
+     *                                  or if its cost is NaN or infinite
+     * @spec.modifies this
+     */
+    public void polyline(Path<Point> path, int precision) throws IOException {
+        String encoded = path == null ? null : Polyline.encode(path, precision);
+        separate();
+        if (path == null) {
+            ascii("null");
+            return;
+        }
+        ascii("{\"cost\":");
+        number(path.getCost());
+        ascii(",\"precision\":");
+        ascii(Integer.toString(precision));
+        ascii(",\"polyline\":\"");
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            if (c == '\\') {
+                // the only character of an encoded polyline that JSON strings must escape
+                ascii("\\\\");
+            } else {
+                ascii(c);
+            }
+        }
+        ascii("\"}");
+        checkRep();
+    }
+
+    /**
+     * Starts a top-level JSON array, whose elements are the paths written until endArray.
+     *
+     * @throws IOException           if the stream cannot be written
+     * @throws IllegalStateException if this writer is already in an array
+     * @spec.modifies this
+     */
+    public void beginArray() throws IOException {
+        if (inArray) {
+            throw new IllegalStateException();
+        }
+        ascii("[");
+        inArray = true;
+        firstInArray = true;
+        checkRep();
+    }
+
+    /**
+     * Ends the array started by beginArray.
+     *
+     * @throws IOException           if the stream cannot be written
+     * @throws IllegalStateException if this writer is not in an array
+     * @spec.modifies this
+     */
+    public void endArray() throws IOException {
+        if (!inArray) {
+            throw new IllegalStateException();
+        }
+        ascii("]");
+        inArray = false;
+        firstInArray = false;
+        checkRep();
+    }
+
+    /**
+     * Writes everything buffered so far to the stream, and flushes the stream, so that the
+     * reader sees it without waiting for the rest.
+     *
+     * @throws IOException if the stream cannot be written
+     * @spec.modifies this
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Writes a comma if the next value is not the first element of the current array.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    private void separate() throws IOException {
+        if (inArray && !firstInArray) {
+            ascii(",");
+        }
+        firstInArray = false;
+    }
+
+    /**
+     * @param point the point to write as {"x":x,"y":y}
+     * @throws IOException if the stream cannot be written
+     */
+    private void point(Point point) throws IOException {
+        ascii("{\"x\":");
+        number(point.getX());
+        ascii(",\"y\":");
+        number(point.getY());
+        ascii("}");
+    }
+
+    /**
+     * @param value the number to write, formatted as Gson formats it
+     * @throws IOException              if the stream cannot be written
+     * @throws IllegalArgumentException if value is NaN or infinite
+     */
+    private void number(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(value + " is not a valid JSON number");
+        }
+        ascii(Double.toString(value));
+    }
+
+    /**
+     * @param text the characters to write, which are all ASCII
+     * @throws IOException if the stream cannot be written
+     */
+    private void ascii(String text) throws IOException {
+        int length = text.length();
+        if (count + length > buffer.length) {
+            drain();
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[count++] = (byte) text.charAt(i);
+        }
+    }
+
+    /**
+     * @param c the character to write, which is ASCII
+     * @throws IOException if the stream cannot be written
+     */
+    private void ascii(char c) throws IOException {
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = (byte) c;
+    }
+
+    /**
+     * Writes the buffered bytes to the stream and empties the buffer.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    /**
+     * A method to check if any operation in this class would potentially
+     * violates the representation invariant.
+     */
+    private void checkRep() {
+        assert out != null && buffer != null;
+        if (DEBUG) {
+            assert buffer.length >= 32 && 0 <= count && count <= buffer.length;
+            assert !firstInArray || inArray;
+        }
+    }
+}
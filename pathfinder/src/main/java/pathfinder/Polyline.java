@@ -0,0 +1,156 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polyline encodes the points of a path as a compact string, in the style of the Google
+ * encoded polyline format: every coordinate is rounded to a fixed number of decimal digits,
+ * only its difference from the same coordinate of the previous point is kept, and the
+ * difference is written five bits at a time as the printable ASCII characters '?' to '~'.
+ * The first point is kept whole, as its difference from (0, 0). Since the consecutive points
+ * of a campus path are close together, most coordinates take three or four characters
+ * instead of the dozens a JSON segment spends on them.
+ *
+ * <p>Unlike the Google format, which packs 32-bit integers, the rounded coordinates may be
+ * as large as 2^52, so that a decoder in JavaScript, whose bit operators work on 32 bits,
+ * must combine the five-bit groups with arithmetic instead.
+ */
+public class Polyline {
+    /**
+     * The number of decimal digits the coordinates of a path are rounded to by default,
+     * which is as many as the campus data has.
+     */
+    public static final int DEFAULT_PRECISION = 4;
+
+    /**
+     * The largest number of decimal digits a coordinate may be rounded to.
+     */
+    public static final int MAX_PRECISION = 8;
+
+    // the largest rounded coordinate, which keeps every difference within 2^53
+    private static final double MAX_ROUNDED = (double) (1L << 51);
+
+    // No AF, RI, or checkRep because this class only contains static methods and
+    // it does not represent any data abstraction
+
+    /**
+     * Encodes the start of the given path and the end of every segment of it.
+     *
+     * @param path      the path to encode
+     * @param precision the number of decimal digits to round every coordinate to
+     * @return the encoded points of the path, in order
+     * @throws IllegalArgumentException if path is null, if precision is not between 0 and
+     *                                  MAX_PRECISION, or if a coordinate of the path is NaN,
+     *                                  infinite or too large to encode at that precision
+     */
+    public static String encode(Path<Point> path, int precision) {
+        if (path == null || precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException();
+        }
+        double scale = Math.pow(10, precision);
+        StringBuilder encoded = new StringBuilder();
+        long[] previous = new long[2];
+        encodePoint(path.getStart(), scale, previous, encoded);
+        for (Path<Point>.Segment segment : path) {
+            encodePoint(segment.getEnd(), scale, previous, encoded);
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Decodes the points encoded by encode.
+     *
+     * @param encoded   the encoded points
+     * @param precision the number of decimal digits the points were rounded to
+     * @return the points, in order, with their coordinates rounded to precision digits
+     * @throws IllegalArgumentException if encoded is null or not a sequence of whole encoded
+     *                                  points, or if precision is not between 0 and MAX_PRECISION
+     */
+    public static List<Point> decode(String encoded, int precision) {
+        if (encoded == null || precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException();
+        }
+        double scale = Math.pow(10, precision);
+        List<Point> points = new ArrayList<>();
+        long x = 0;
+        long y = 0;
+        int[] index = {0};
+        while (index[0] < encoded.length()) {
+            x += decodeValue(encoded, index);
+            if (index[0] == encoded.length()) {
+                throw new IllegalArgumentException("the last point has no y coordinate");
+            }
+            y += decodeValue(encoded, index);
+            points.add(new Point(x / scale, y / scale));
+        }
+        return points;
+    }
+
+    /**
+     * Appends the differences between the rounded coordinates of the given point and those
+     * of the previous point.
+     *
+     * @param point    the point to encode
+     * @param scale    the power of ten to multiply the coordinates by before rounding
+     * @param previous the rounded coordinates of the previous point, which are replaced
+     *                 by those of point
+     * @param encoded  the string to append to
+     * @throws IllegalArgumentException if a coordinate cannot be encoded
+     */
+    private static void encodePoint(Point point, double scale, long[] previous, StringBuilder encoded) {
+        double[] coordinates = {point.getX(), point.getY()};
+        for (int i = 0; i < 2; i++) {
+            double scaled = coordinates[i] * scale;
+            if (!(Math.abs(scaled) < MAX_ROUNDED)) {
+                throw new IllegalArgumentException(coordinates[i] + " cannot be encoded");
+            }
+            long rounded = Math.round(scaled);
+            encodeValue(rounded - previous[i], encoded);
+            previous[i] = rounded;
+        }
+    }
+
+    /**
+     * @param value   the signed difference to append
+     * @param encoded the string to append to
+     */
+    private static void encodeValue(long value, StringBuilder encoded) {
+        // zigzag: 0, -1, 1, -2, 2, ... become 0, 1, 2, 3, 4, ...
+        long bits = (value << 1) ^ (value >> 63);
+        while (bits >= 0x20) {
+            encoded.append((char) ((0x20 | (bits & 0x1f)) + 63));
+            bits >>>= 5;
+        }
+        encoded.append((char) (bits + 63));
+    }
+
+    /**
+     * @param encoded the encoded points
+     * @param index   the position of the first character of the value, which is moved
+     *                past its last character
+     * @return the signed difference at the position
+     * @throws IllegalArgumentException if the value is cut off or holds a character
+     *                                  outside '?' to '~'
+     */
+    private static long decodeValue(String encoded, int[] index) {
+        long bits = 0;
+        int shift = 0;
+        int chunk;
+        do {
+            if (index[0] == encoded.length() || shift > 55) {
+                throw new IllegalArgumentException("the encoded value is cut off");
+            }
+            chunk = encoded.charAt(index[0]++) - 63;
+            if (chunk < 0 || chunk > 0x3f) {
+                throw new IllegalArgumentException("the encoded value holds an invalid character");
+            }
+            bits |= (long) (chunk & 0x1f) << shift;
+            shift += 5;
+        } while (chunk >= 0x20);
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+}
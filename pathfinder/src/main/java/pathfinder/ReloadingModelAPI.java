@@ -0,0 +1,323 @@
+package pathfinder;
+
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ReloadingModelAPI represents a model that answers every request with the latest model
+ * loaded from a data directory. A background thread watches the directory, and when the
+ * watched files change it loads a new model from them and swaps it in for the old one in
+ * a single step. A request that has already taken the old model, by calling current(),
+ * finishes on it undisturbed, and no request ever waits for a load. If a load fails, the
+ * old model is kept.
+ *
+ * <p>Each call to a ModelAPI method of this class is answered by whichever model is current
+ * at that moment, so callers that make several calls for one request, such as checking
+ * that both buildings exist before finding the path between them, should call current()
+ * once and use the model it returns.
+ */
+public class ReloadingModelAPI implements ModelAPI, AutoCloseable {
+    private final java.nio.file.Path directory;
+    private final List<String> files;
+    private final long quietMillis;
+    private final Function<java.nio.file.Path, ModelAPI> loader;
+    private volatile ModelAPI model;
+    private volatile Runnable listener;
+    private volatile long lastReloadNanos;
+    private volatile String lastError;
+    private final LongAdder reloads;
+    private final LongAdder failedReloads;
+    // held while reloading, so that two reloads cannot swap their models in out of order
+    private final Object reloadLock;
+    private WatchService watcher;
+    private Thread watcherThread;
+    private static final boolean DEBUG = false;
+
+    // RI: directory != null && files != null && files does not contain null
+    //     && quietMillis >= 0 && loader != null && model != null && listener != null
+    //     && reloads != null && failedReloads != null && reloadLock != null
+    //     && (watcher == null) == (watcherThread == null)
+
+    // AF(this): the model most recently loaded from directory by loader, which is
+    //           reloaded quietMillis after the last change to any of files, has been
+    //           reloaded reloads times of which failedReloads failed, the last
+    //           one taking lastReloadNanos and failing with lastError if it failed,
+    //           and calls listener after every reload. watcherThread, if not null,
+    //           watches directory through watcher.
+
+    /**
+     * Creates a model that answers requests with the model loaded from the given directory.
+     * The directory is not watched until start() is called.
+     *
+     * @param directory   the directory to load the model from
+     * @param files       the names of the files in directory that the model is loaded from
+     * @param quietMillis how long the files must stay unchanged before they are reloaded, so
+     *                    that a file that is still being written is not read
+     * @param loader      the function that loads a model from the directory
+     * @throws IllegalArgumentException if any argument is null, if files contains null, or
+     *                                  if quietMillis is negative
+     * @throws RuntimeException         whatever loader throws, if the first load fails
+     * @spec.effects loads the first model from directory
+     */
+    public ReloadingModelAPI(java.nio.file.Path directory, Collection<String> files, long quietMillis,
+                             Function<java.nio.file.Path, ModelAPI> loader) {
+        if (directory == null || files == null || quietMillis < 0 || loader == null) {
+            throw new IllegalArgumentException();
+        }
+        this.files = new ArrayList<>(files);
+        if (this.files.contains(null)) {
+            throw new IllegalArgumentException();
+        }
+        this.directory = directory;
+        this.quietMillis = quietMillis;
+        this.loader = loader;
+        this.listener = () -> {
+        };
+        this.reloads = new LongAdder();
+        this.failedReloads = new LongAdder();
+        this.reloadLock = new Object();
+        long start = System.nanoTime();
+        this.model = load();
+        this.lastReloadNanos = System.nanoTime() - start;
+        checkRep();
+    }
+
+    /**
+     * Starts watching the directory in a background daemon thread.
+     *
+     * @throws IOException           if the directory cannot be watched
+     * @throws IllegalStateException if the directory is already being watched
+     * @spec.modifies this
+     * @spec.effects starts reloading the model whenever the watched files change
+     */
+    public synchronized void start() throws IOException {
+        if (watcher != null) {
+            throw new IllegalStateException();
+        }
+        watcher = FileSystems.getDefault().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        WatchService watching = watcher;
+        watcherThread = new Thread(() -> watch(watching), "campus-data-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        checkRep();
+    }
+
+    /**
+     * Stops watching the directory. The current model keeps answering requests.
+     *
+     * @throws IOException if the watch service cannot be closed
+     * @spec.modifies this
+     * @spec.effects stops reloading the model when the watched files change
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher == null) {
+            return;
+        }
+        watcher.close();
+        watcherThread.interrupt();
+        watcher = null;
+        watcherThread = null;
+        checkRep();
+    }
+
+    /**
+     * Loads a new model from the directory now, in the calling thread, and swaps it in
+     * if the load succeeds.
+     *
+     * @return true if the new model was swapped in, false if the load failed and the old
+     * model was kept
+     * @spec.modifies this
+     * @spec.effects replaces the current model with one loaded from the directory, unless
+     * the load fails, and calls the reload listener
+     */
+    public boolean reload() {
+        boolean swapped;
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            try {
+                model = load();
+                lastError = null;
+                swapped = true;
+            } catch (RuntimeException e) {
+                failedReloads.increment();
+                lastError = e.toString();
+                swapped = false;
+            }
+            lastReloadNanos = System.nanoTime() - start;
+            reloads.increment();
+        }
+        listener.run();
+        return swapped;
+    }
+
+    /**
+     * @param listener the function to call after every reload, from the thread that
+     *                 reloaded, which may read the counters of this model
+     * @throws IllegalArgumentException if listener is null
+     * @spec.modifies this
+     */
+    public void setReloadListener(Runnable listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException();
+        }
+        this.listener = listener;
+    }
+
+    /**
+     * @return the model that requests are answered with at this moment, which is never
+     * changed by a later reload
+     */
+    public ModelAPI current() {
+        return model;
+    }
+
+    /**
+     * @return the number of reloads since this model was created, counting the failed ones
+     * but not the first load
+     */
+    public long reloadCount() {
+        return reloads.sum();
+    }
+
+    /**
+     * @return the number of reloads that failed and kept the old model
+     */
+    public long failedReloadCount() {
+        return failedReloads.sum();
+    }
+
+    /**
+     * @return the number of nanoseconds the most recent load took, including the first
+     */
+    public long lastReloadNanos() {
+        return lastReloadNanos;
+    }
+
+    /**
+     * @return a one-line summary of the reloads of this model
+     */
+    public String report() {
+        String error = lastError;
+        return String.format("data reloads from %s: %d reloads, %d failed, last took %.1f ms%s",
+                directory, reloadCount(), failedReloadCount(), lastReloadNanos / 1e6,
+                error == null ? "" : " and failed with " + error);
+    }
+
+    @Override
+    public boolean shortNameExists(String shortName) {
+        return model.shortNameExists(shortName);
+    }
+
+    @Override
+    public String longNameForShort(String shortName) {
+        return model.longNameForShort(shortName);
+    }
+
+    @Override
+    public Map<String, String> buildingNames() {
+        return model.buildingNames();
+    }
+
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName) {
+        return model.findShortestPath(startShortName, endShortName);
+    }
+
+    @Override
+    public Path<Point> findShortestPath(String startShortName, String endShortName, SearchAlgorithm algorithm) {
+        return model.findShortestPath(startShortName, endShortName, algorithm);
+    }
+
+    @Override
+    public List<Path<Point>> findShortestPaths(String startShortName, List<String> endShortNames) {
+        return model.findShortestPaths(startShortName, endShortNames);
+    }
+
+    @Override
+    public Isochrone reachableBuildings(String startShortName, double budget, boolean withSegments) {
+        return model.reachableBuildings(startShortName, budget, withSegments);
+    }
+
+    /**
+     * @return the model that loader loads from the directory
+     * @throws IllegalStateException if loader returns null
+     */
+    private ModelAPI load() {
+        ModelAPI loaded = loader.apply(directory);
+        if (loaded == null) {
+            throw new IllegalStateException("the loader returned no model");
+        }
+        return loaded;
+    }
+
+    /**
+     * Waits for changes to the watched files, and reloads the model once they have not
+     * changed for quietMillis, until the watch service is closed.
+     *
+     * @param watching the watch service of the directory
+     */
+    private void watch(WatchService watching) {
+        try {
+            while (true) {
+                WatchKey key = watching.take();
+                boolean changed = changedWatchedFile(key);
+                // a file being copied in is modified many times, so wait for it to settle
+                while (changed) {
+                    key = watching.poll(quietMillis, TimeUnit.MILLISECONDS);
+                    if (key == null) {
+                        reload();
+                        changed = false;
+                    } else {
+                        changedWatchedFile(key);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // close() was called
+        }
+    }
+
+    /**
+     * @param key the key that some events of the directory were signalled on
+     * @return true if any of the events was a change to a watched file
+     * @spec.effects resets key, so that it is signalled again on later events
+     */
+    private boolean changedWatchedFile(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || context instanceof java.nio.file.Path && files.contains(context.toString())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void checkRep() {
+        assert directory != null && files != null && loader != null && model != null && listener != null;
+        assert quietMillis >= 0 && reloads != null && failedReloads != null && reloadLock != null;
+        if (DEBUG) {
+            assert !files.contains(null);
+            assert (watcher == null) == (watcherThread == null);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package pathfinder;
+
+/**
+ * The shortest-path search algorithms that a CampusMap can use to answer
+ * findShortestPath. Every algorithm finds a minimum-cost path.
+ */
+public enum SearchAlgorithm {
+
+    /**
+     * Dijkstra's algorithm, which explores outward from the start in every direction.
+     */
+    DIJKSTRA,
+
+    /**
+     * A* search, which explores toward the destination guided by an admissible heuristic.
+     */
+    A_STAR,
+
+    /**
+     * Dijkstra's algorithm run forward from the start and backward from the destination
+     * at the same time, until the two searches meet in the middle.
+     */
+    BIDIRECTIONAL_DIJKSTRA,
+
+    /**
+     * A search over a contraction hierarchy of the graph, which is built the first time it
+     * is needed and then only explores upward from the start and the destination.
+     */
+    CONTRACTION_HIERARCHIES
+}
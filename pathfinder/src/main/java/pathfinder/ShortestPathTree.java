@@ -0,0 +1,129 @@
+package pathfinder;
+
+import graph.CompactGraph;
+import pathfinder.datastructures.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ShortestPathTree represents the immutable result of a single-source search:
+ * the minimum cost from one start vertex to every vertex of a compact graph,
+ * and the last edge of a minimum-cost path to each of them.
+ *
+ * @param <T> The type of the vertices of the graph.
+ */
+public class ShortestPathTree<T> {
+    private final CompactGraph<T, ?> graph;
+    private final int start;
+    private final double[] distance;
+    private final int[] parentEdge;
+
+    // RI: graph != null && distance != null && parentEdge != null
+    //     && distance.length == parentEdge.length == graph.size()
+    //     && 0 <= start < graph.size() && distance[start] == 0
+
+    // AF(this): the tree of minimum-cost paths from graph.vertexAt(start), where
+    //           the minimum cost to the vertex with id v is distance[v] (positive
+    //           infinity if v cannot be reached) and its minimum-cost path ends
+    //           with the edge parentEdge[v] for every reached v != start
+
+    /**
+     * Creates a tree from the results of a search.
+     *
+     * @param graph      the graph that was searched
+     * @param start      the id of the starting vertex
+     * @param distance   the minimum cost of every vertex
+     * @param parentEdge the last edge on the minimum-cost path to every vertex
+     * @spec.requires the arguments satisfy the RI and are not modified afterwards
+     */
+    ShortestPathTree(CompactGraph<T, ?> graph, int start, double[] distance, int[] parentEdge) {
+        this.graph = graph;
+        this.start = start;
+        this.distance = distance;
+        this.parentEdge = parentEdge;
+        checkRep();
+    }
+
+    /**
+     * @return the starting vertex of every path in this tree
+     */
+    public T getStart() {
+        return graph.vertexAt(start);
+    }
+
+    /**
+     * @param dest the type of T ending vertex
+     * @return true if there is a path from the start to dest
+     * @throws IllegalArgumentException if dest is not in the graph
+     */
+    public boolean reaches(T dest) {
+        return !Double.isInfinite(distance[idOf(dest)]);
+    }
+
+    /**
+     * @param dest the type of T ending vertex
+     * @return the minimum cost of a path from the start to dest, or positive
+     * infinity if there is none
+     * @throws IllegalArgumentException if dest is not in the graph
+     */
+    public double costTo(T dest) {
+        return distance[idOf(dest)];
+    }
+
+    /**
+     * @param dest the type of T ending vertex
+     * @return the minimum-cost path from the start to dest, null if there is none
+     * @throws IllegalArgumentException if dest is not in the graph
+     */
+    public Path<T> pathTo(T dest) {
+        int destId = idOf(dest);
+        if (Double.isInfinite(distance[destId])) {
+            return null;
+        }
+        return Dijkstra.buildPath(graph, v -> parentEdge[v], start, destId);
+    }
+
+    /**
+     * @return the last segment of the minimum-cost path to every vertex the start reaches,
+     * other than the start itself, which together form this tree
+     */
+    public List<Path<T>.Segment> segments() {
+        List<Path<T>.Segment> segments = new ArrayList<>();
+        for (int v = 0; v < distance.length; v++) {
+            if (v != start && !Double.isInfinite(distance[v])) {
+                int edge = parentEdge[v];
+                // a path of one edge holds exactly the segment of that edge
+                Path<T> last = new Path<>(graph.vertexAt(graph.edgeSource(edge)))
+                        .extend(graph.vertexAt(v), graph.edgeWeight(edge));
+                segments.add(last.iterator().next());
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * @param vertex the type of T vertex
+     * @return the id of the vertex in the graph
+     * @throws IllegalArgumentException if vertex is null or not in the graph
+     */
+    private int idOf(T vertex) {
+        int id = vertex == null ? -1 : graph.idOf(vertex);
+        if (id < 0) {
+            throw new IllegalArgumentException();
+        }
+        return id;
+    }
+
+    /**
+     * A method to check if any operation in this class would potentially
+     * violates the representation invariant.
+     */
+    private void checkRep() {
+        assert graph != null;
+        assert distance != null && parentEdge != null;
+        assert distance.length == graph.size() && parentEdge.length == graph.size();
+        assert 0 <= start && start < graph.size();
+        assert distance[start] == 0;
+    }
+}
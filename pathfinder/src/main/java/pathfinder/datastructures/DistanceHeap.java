@@ -0,0 +1,178 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable binary min-heap of (vertex id, distance) entries, ordered by
+ * distance. The entries are kept in parallel primitive arrays, so adding an entry does not
+ * allocate an object. The heap has no decrease-key operation: a search that finds a shorter
+ * distance to a vertex adds another entry for it and skips the stale entries when they are
+ * removed later (lazy deletion).
+ */
+public class DistanceHeap {
+
+    // AF(this) =
+    //      the entries of the heap => (vertices[i], distances[i]) for 0 <= i < size
+    //      the entry with the minimum distance => (vertices[0], distances[0])
+
+    // Rep Invariant:
+    //      vertices != null && distances != null &&
+    //      vertices.length == distances.length &&
+    //      0 <= size <= vertices.length &&
+    //      distances[(i - 1) / 2] <= distances[i] for all 0 < i < size
+
+    /**
+     * The vertex id of each entry, in heap order.
+     */
+    private int[] vertices;
+
+    /**
+     * The distance of each entry, in heap order.
+     */
+    private double[] distances;
+
+    /**
+     * The number of entries in this heap.
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty heap.
+     *
+     * @param initialCapacity The number of entries the heap can hold before it has to grow.
+     * @throws IllegalArgumentException if initialCapacity is negative.
+     */
+    public DistanceHeap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity may not be negative.");
+        }
+        this.vertices = new int[Math.max(initialCapacity, 1)];
+        this.distances = new double[vertices.length];
+        this.size = 0;
+        checkRep();
+    }
+
+    /**
+     * Adds an entry to this heap.
+     *
+     * @param vertex   The vertex id of the entry.
+     * @param distance The distance of the entry.
+     * @spec.modifies this
+     * @spec.effects Adds (vertex, distance) to this heap.
+     */
+    public void add(int vertex, double distance) {
+        if (size == vertices.length) {
+            vertices = Arrays.copyOf(vertices, size * 2);
+            distances = Arrays.copyOf(distances, size * 2);
+        }
+        int i = size++;
+        // sift the new entry up until its parent is not farther than it
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (distances[parent] <= distance) {
+                break;
+            }
+            vertices[i] = vertices[parent];
+            distances[i] = distances[parent];
+            i = parent;
+        }
+        vertices[i] = vertex;
+        distances[i] = distance;
+    }
+
+    /**
+     * @return {@literal true} iff this heap contains no entries.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return The number of entries in this heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The vertex id of the entry with the minimum distance.
+     * @throws NoSuchElementException if this heap is empty.
+     */
+    public int minVertex() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return vertices[0];
+    }
+
+    /**
+     * @return The minimum distance of any entry in this heap.
+     * @throws NoSuchElementException if this heap is empty.
+     */
+    public double minDistance() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return distances[0];
+    }
+
+    /**
+     * Removes the entry with the minimum distance from this heap.
+     *
+     * @throws NoSuchElementException if this heap is empty.
+     * @spec.modifies this
+     * @spec.effects Removes the entry returned by minVertex() and minDistance().
+     */
+    public void removeMin() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        size--;
+        if (size == 0) {
+            return;
+        }
+        int vertex = vertices[size];
+        double distance = distances[size];
+        int i = 0;
+        // sift the last entry down from the root until no child is closer than it
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && distances[child + 1] < distances[child]) {
+                child++;
+            }
+            if (distance <= distances[child]) {
+                break;
+            }
+            vertices[i] = vertices[child];
+            distances[i] = distances[child];
+            i = child;
+        }
+        vertices[i] = vertex;
+        distances[i] = distance;
+    }
+
+    /**
+     * Removes every entry from this heap, keeping its capacity.
+     *
+     * @spec.modifies this
+     * @spec.effects Sets this to empty.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert vertices != null;
+        assert distances != null;
+        assert vertices.length == distances.length;
+        assert 0 <= size && size <= vertices.length;
+    }
+}
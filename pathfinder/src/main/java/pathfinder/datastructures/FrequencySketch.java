@@ -0,0 +1,173 @@
+package pathfinder.datastructures;
+
+/**
+ * This represents a mutable, approximate count of how often each key has been seen
+ * recently (a count-min sketch). Every key is hashed into one small counter in each of
+ * four rows, and its frequency is the smallest of those counters, so an estimate is never
+ * lower than the true count but may be higher when keys collide. Each row is a power of two
+ * between eight and sixteen times wider than the number of keys the sketch should tell apart,
+ * to keep collisions rare. The counters saturate at 15, and all of them are halved once the
+ * sketch has counted ten times that number of keys, so old popularity fades away. A sketch
+ * tells apart at most MAX_EXPECTED_KEYS keys; asking for more gives a sketch of that size,
+ * whose estimates are still never too low but collide more often.
+ */
+public class FrequencySketch {
+
+    /**
+     * The largest number of keys a sketch is sized for, which keeps its rows within 2^20
+     * counters.
+     */
+    public static final int MAX_EXPECTED_KEYS = 1 << 16;
+
+    // AF(this) =
+    //      the estimated recent frequency of a key k => the minimum of
+    //          table[i][index(k, i)] for 0 <= i < ROWS
+    //      the number of counts since the counters were last halved => additions
+
+    // Rep Invariant:
+    //      table != null && table.length == ROWS &&
+    //      table[i].length == mask + 1 for all 0 <= i < ROWS &&
+    //      mask + 1 is a power of two &&
+    //      0 <= table[i][j] <= MAX_COUNT for all i, j &&
+    //      0 <= additions < sampleSize
+
+    /**
+     * The number of rows, each hashing a key with a different seed.
+     */
+    private static final int ROWS = 4;
+
+    /**
+     * The largest value a counter can hold.
+     */
+    private static final int MAX_COUNT = 15;
+
+    /**
+     * The multiplier used to hash a key for each row.
+     */
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    /**
+     * The counters, one row per seed.
+     */
+    private final int[][] table;
+
+    /**
+     * The width of each row minus one, used to turn a hash into a column.
+     */
+    private final int mask;
+
+    /**
+     * The number of counts after which every counter is halved.
+     */
+    private final int sampleSize;
+
+    /**
+     * The number of counts since the counters were last halved.
+     */
+    private int additions;
+
+    /**
+     * Creates a new sketch in which every key has a frequency of 0.
+     *
+     * @param expectedKeys The number of distinct keys the sketch should tell apart, of which
+     *                     at most MAX_EXPECTED_KEYS are used.
+     * @throws IllegalArgumentException if expectedKeys is not positive.
+     */
+    public FrequencySketch(int expectedKeys) {
+        if (expectedKeys <= 0) {
+            throw new IllegalArgumentException("The number of expected keys must be positive.");
+        }
+        // larger sizes would overflow the width and the sample size
+        int keys = Math.min(expectedKeys, MAX_EXPECTED_KEYS);
+        int width = Integer.highestOneBit(Math.max(keys - 1, 1) << 4);
+        this.table = new int[ROWS][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * keys;
+        this.additions = 0;
+        checkRep();
+    }
+
+    /**
+     * Counts one more occurrence of the given key, halving every counter if the
+     * sketch has counted enough keys since the last time.
+     *
+     * @param key The key that was seen.
+     * @spec.requires key != null
+     * @spec.modifies this
+     * @spec.effects increases the estimated frequency of key by 1, unless it is already 15
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        for (int i = 0; i < ROWS; i++) {
+            int[] row = table[i];
+            int column = index(hash, i);
+            if (row[column] < MAX_COUNT) {
+                row[column]++;
+            }
+        }
+        additions++;
+        if (additions == sampleSize) {
+            reset();
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns the estimated number of times the given key was seen recently.
+     *
+     * @param key The key to look up.
+     * @return The estimated recent frequency of key, between 0 and 15.
+     * @spec.requires key != null
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < ROWS; i++) {
+            frequency = Math.min(frequency, table[i][index(hash, i)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * Halves every counter.
+     *
+     * @spec.modifies this
+     */
+    private void reset() {
+        for (int[] row : table) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] >>>= 1;
+            }
+        }
+        additions = 0;
+    }
+
+    /**
+     * @param hash The spread hash of a key.
+     * @param row  The row to look up.
+     * @return The column of the key's counter in the given row.
+     */
+    private int index(int hash, int row) {
+        int h = hash * SEEDS[row];
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @param hashCode The hash code of a key.
+     * @return The hash code with its high bits mixed into its low bits.
+     */
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x7FEB352D;
+        return h ^ (h >>> 15);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert table != null && table.length == ROWS;
+        assert (mask & (mask + 1)) == 0;
+        assert 0 <= additions && additions < sampleSize;
+    }
+}
@@ -90,6 +90,40 @@ public class Path<T> implements Iterable<Path<T>.Segment> {
         return extendedPath;
     }
 
+    /**
+     * Appends a sequence of segments to the end of this path. The first new segment originates at
+     * the current last position in this path and terminates at {@code newEnds.get(0)}, and each
+     * following segment terminates at the next position in {@code newEnds}. The result is equal to
+     * calling {@link #extend(Object, double)} once per position, but this path is copied only once.
+     *
+     * @param newEnds      The positions being added at the end of each segment, in order.
+     * @param segmentCosts The cost of each segment being added, in the same order.
+     * @return A new path representing the current path with the given segments appended to the end.
+     * @throws IllegalArgumentException if newEnds and segmentCosts have different lengths.
+     */
+    public Path<T> extend(List<? extends T> newEnds, double[] segmentCosts) {
+        checkRep();
+        if (newEnds.size() != segmentCosts.length) {
+            throw new IllegalArgumentException("Each new position needs exactly one segment cost.");
+        }
+        Path<T> extendedPath = new Path<>(start);
+        extendedPath.path = new ArrayList<>(this.path.size() + newEnds.size());
+        extendedPath.path.addAll(this.path);
+        extendedPath.cost = this.cost;
+        T previous = this.getEnd();
+        for (int i = 0; i < segmentCosts.length; i++) {
+            T newEnd = newEnds.get(i);
+            extendedPath.path.add(new Segment(previous, newEnd, segmentCosts[i]));
+            extendedPath.cost += segmentCosts[i];
+            previous = newEnd;
+        }
+        //
+        extendedPath.checkRep();
+        checkRep();
+        //
+        return extendedPath;
+    }
+
     /**
      * @return The total cost along this path.
      */
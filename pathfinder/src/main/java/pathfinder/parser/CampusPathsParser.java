@@ -19,6 +19,7 @@ import com.opencsv.CSVReaderBuilder;
 import java.io.*;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -41,8 +42,31 @@ public class CampusPathsParser {
      * @throws ParserException if the file cannot be found or parsed as expected
      */
     public static List<CampusBuilding> parseCampusBuildings(String file) {
+        return parseCampusBuildings(initializeReader(file));
+    }
+
+    /**
+     * Parses a campus buildings file anywhere on the filesystem, such as one
+     * written by a data generator, and returns a list of objects containing all
+     * the data in that file.
+     *
+     * @param file The path of a campus buildings file to parse.
+     * @return A {@link List} of {@link CampusBuilding} objects, one for each
+     * line in the parsed file, containing the data contained within that line.
+     * @throws ParserException if the file cannot be found or parsed as expected
+     */
+    public static List<CampusBuilding> parseCampusBuildings(Path file) {
+        return parseCampusBuildings(initializeReader(file));
+    }
+
+    /**
+     * @param reader The reader of a campus buildings file, past its header line.
+     * @return A {@link List} of {@link CampusBuilding} objects, one for each
+     * line read, and closes the reader.
+     * @throws ParserException if the file cannot be parsed as expected
+     */
+    private static List<CampusBuilding> parseCampusBuildings(CSVReader reader) {
         List<CampusBuilding> buildings = new ArrayList<>();
-        CSVReader reader = initializeReader(file);
         //
         for(String[] line : reader) {
             if(line.length != 4) {
@@ -79,8 +103,31 @@ public class CampusPathsParser {
      * @throws ParserException if the file cannot be found or parsed as expected
      */
     public static List<CampusPath> parseCampusPaths(String file) {
+        return parseCampusPaths(initializeReader(file));
+    }
+
+    /**
+     * Parses a campus paths file anywhere on the filesystem, such as one
+     * written by a data generator, and returns a list of objects containing all
+     * the data in that file.
+     *
+     * @param file The path of a campus paths file to parse.
+     * @return A {@link List} of {@link CampusPath} objects, one for each
+     * line in the parsed file, containing the data contained within that line.
+     * @throws ParserException if the file cannot be found or parsed as expected
+     */
+    public static List<CampusPath> parseCampusPaths(Path file) {
+        return parseCampusPaths(initializeReader(file));
+    }
+
+    /**
+     * @param reader The reader of a campus paths file, past its header line.
+     * @return A {@link List} of {@link CampusPath} objects, one for each
+     * line read, and closes the reader.
+     * @throws ParserException if the file cannot be parsed as expected
+     */
+    private static List<CampusPath> parseCampusPaths(CSVReader reader) {
         List<CampusPath> paths = new ArrayList<>();
-        CSVReader reader = initializeReader(file);
         //
         for(String[] line : reader) {
             if(line.length != 5) {
@@ -128,7 +175,32 @@ public class CampusPathsParser {
         } catch(IOException e) {
             throw new ParserException("Cannot create parser.", e);
         }
-        //
+        return initializeReader(fileReader);
+    }
+
+    /**
+     * Initializes a CSV reader with the provided file on the filesystem,
+     * configured the same way as {@link #initializeReader(String)}.
+     *
+     * @param file The file to initialize a parser for.
+     * @return A new {@link CSVReader} prepared to begin reading from that file.
+     */
+    private static CSVReader initializeReader(Path file) {
+        Reader fileReader;
+        try {
+            fileReader = Files.newBufferedReader(file, Charset.defaultCharset());
+        } catch(IOException e) {
+            throw new ParserException("Cannot create parser.", e);
+        }
+        return initializeReader(fileReader);
+    }
+
+    /**
+     * @param fileReader The reader of the file to parse.
+     * @return A new {@link CSVReader} that parses tab-character separated fields
+     * per line from fileReader, and skips the first line.
+     */
+    private static CSVReader initializeReader(Reader fileReader) {
         CSVParser parser = new CSVParserBuilder().withSeparator('\t').build();
         return new CSVReaderBuilder(fileReader)
                 .withCSVParser(parser)
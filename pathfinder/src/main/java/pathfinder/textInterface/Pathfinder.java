@@ -11,6 +11,7 @@
 
 package pathfinder.textInterface;
 
+import graph.SearchStatistics;
 import pathfinder.CampusMap;
 
 /**
@@ -23,15 +24,23 @@ public class Pathfinder {
 
     /**
      * The main entry point for this application. Initializes and launches the application.
+     * If the system property searchStatistics is true, it also counts the work of every
+     * Dijkstra search the application runs, and prints a summary of it to standard error
+     * once the user quits.
      *
      * @param args The command-line arguments provided to the system.
      */
     public static void main(String[] args) {
         CampusMap map = new CampusMap();
+        SearchStatistics statistics = Boolean.getBoolean("searchStatistics") ? new SearchStatistics() : null;
+        map.setSearchListener(statistics);
         TextInterfaceView view = new TextInterfaceView();
         TextInterfaceController controller = new TextInterfaceController(map, view);
         //
         view.setInputHandler(controller);
         controller.launchApplication();
+        if (statistics != null) {
+            System.err.println(statistics.summary());
+        }
     }
 }
@@ -0,0 +1,190 @@
+package pathfinder.implTest;
+
+import graph.CompactGraph;
+import graph.Graph;
+import graph.SearchEffort;
+import org.junit.Test;
+import pathfinder.AStar;
+import pathfinder.CampusMap;
+import pathfinder.Dijkstra;
+import pathfinder.Heuristic;
+import pathfinder.SearchAlgorithm;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class TestAStar {
+
+    private static final int GRID_SIZE = 30;
+
+    /**
+     * @return a grid of GRID_SIZE x GRID_SIZE points where neighboring points are
+     * connected in both directions by edges that cost their distance
+     */
+    private static CompactGraph<Point, Double> grid() {
+        Graph<Point, Double> graph = new Graph<>();
+        for (int x = 0; x < GRID_SIZE; x++) {
+            for (int y = 0; y < GRID_SIZE; y++) {
+                graph.addVertex(new Point(x, y));
+            }
+        }
+        for (int x = 0; x < GRID_SIZE; x++) {
+            for (int y = 0; y < GRID_SIZE; y++) {
+                if (x + 1 < GRID_SIZE) {
+                    graph.addEdge(new Point(x, y), new Point(x + 1, y), 1.0);
+                    graph.addEdge(new Point(x + 1, y), new Point(x, y), 1.0);
+                }
+                if (y + 1 < GRID_SIZE) {
+                    graph.addEdge(new Point(x, y), new Point(x, y + 1), 1.0);
+                    graph.addEdge(new Point(x, y + 1), new Point(x, y), 1.0);
+                }
+            }
+        }
+        return graph.freeze(Double::doubleValue);
+    }
+
+    /**
+     * A heuristic that counts how many times it is evaluated, which is the number of
+     * vertices A* puts on its frontier.
+     */
+    private static class CountingHeuristic implements Heuristic<Point> {
+        private final Heuristic<Point> estimate;
+        private int evaluations;
+
+        CountingHeuristic(Heuristic<Point> estimate) {
+            this.estimate = estimate;
+        }
+
+        @Override
+        public double estimate(Point from, Point dest) {
+            evaluations++;
+            return estimate.estimate(from, dest);
+        }
+    }
+
+    @Test
+    public void testSameCostAsDijkstraOnGrid() {
+        CompactGraph<Point, Double> grid = grid();
+        Point start = new Point(2, 3);
+        Point dest = new Point(25, 17);
+        Path<Point> expected = Dijkstra.dijkstraAlgo(grid, start, dest);
+        Path<Point> path = AStar.aStarAlgo(grid, start, dest, Heuristic.straightLine());
+        assertEquals(expected.getCost(), path.getCost(), 1e-9);
+        assertEquals(start, path.getStart());
+        assertEquals(dest, path.getEnd());
+    }
+
+    @Test
+    public void testStraightLineExploresFewerVertices() {
+        CompactGraph<Point, Double> grid = grid();
+        CountingHeuristic zero = new CountingHeuristic(Heuristic.zero());
+        CountingHeuristic straightLine = new CountingHeuristic(Heuristic.straightLine());
+        AStar.aStarAlgo(grid, new Point(0, 0), new Point(GRID_SIZE - 1, 0), zero);
+        AStar.aStarAlgo(grid, new Point(0, 0), new Point(GRID_SIZE - 1, 0), straightLine);
+        assertTrue(straightLine.evaluations * 4 < zero.evaluations);
+    }
+
+    @Test
+    public void testNoPathAndPathToItself() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addEdge("B", "A", 1.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        assertNull(AStar.aStarAlgo(compact, "A", "B", Heuristic.zero()));
+        assertEquals(new Path<>("A"), AStar.aStarAlgo(compact, "A", "A", Heuristic.zero()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullHeuristic() {
+        AStar.aStarAlgo(grid(), new Point(0, 0), new Point(1, 0), null);
+    }
+
+    @Test
+    public void testCampusMapSamePathsAsDijkstra() {
+        CampusMap map = new CampusMap();
+        for (String start : map.buildingNames().keySet()) {
+            for (String end : map.buildingNames().keySet()) {
+                assertEquals(map.findShortestPath(start, end, SearchAlgorithm.DIJKSTRA),
+                        map.findShortestPath(start, end, SearchAlgorithm.A_STAR));
+            }
+        }
+    }
+
+    @Test
+    public void testCampusMapSearchAlgorithmSelection() {
+        CampusMap map = new CampusMap();
+        assertEquals(SearchAlgorithm.DIJKSTRA, map.getSearchAlgorithm());
+        map.setSearchAlgorithm(SearchAlgorithm.A_STAR);
+        assertEquals(SearchAlgorithm.A_STAR, map.getSearchAlgorithm());
+        assertEquals(map.findShortestPath("CSE", "MGH", SearchAlgorithm.DIJKSTRA),
+                map.findShortestPath("CSE", "MGH"));
+    }
+
+    @Test
+    public void testListenerCountsWork() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addEdge("A", "B", 1.0);
+        graph.addEdge("B", "C", 1.0);
+        graph.addEdge("A", "C", 5.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        List<SearchEffort> efforts = new ArrayList<>();
+        Path<String> path = AStar.aStarAlgo(compact, "A", "C", Heuristic.zero(), efforts::add);
+        assertEquals(2.0, path.getCost(), 0);
+        assertEquals(1, efforts.size());
+        assertEquals(3, efforts.get(0).getSettledVertices());
+        assertEquals(3, efforts.get(0).getEdgesRelaxed());
+        assertEquals(4, efforts.get(0).getQueuePushes());
+        assertEquals(0, efforts.get(0).getStalePops());
+        assertEquals(2, efforts.get(0).getMaxQueueSize());
+        assertEquals(2, efforts.get(0).getPathLength());
+        AStar.aStarAlgo(compact, "C", "A", Heuristic.zero(), efforts::add);
+        assertEquals(-1, efforts.get(1).getPathLength());
+    }
+
+    @Test
+    public void testCampusMapReportsSearchesToListener() {
+        CampusMap map = new CampusMap();
+        List<SearchEffort> efforts = new ArrayList<>();
+        map.setSearchListener(efforts::add);
+        Path<Point> path = map.findShortestPath("CSE", "MGH", SearchAlgorithm.A_STAR);
+        int segments = 0;
+        for (Path<Point>.Segment segment : path) {
+            segments++;
+        }
+        assertEquals(1, efforts.size());
+        assertEquals(segments, efforts.get(0).getPathLength());
+        assertTrue(efforts.get(0).getSettledVertices() > 0);
+    }
+
+    @Test
+    public void testInterruptedSearchIsCancelled() {
+        Graph<Integer, Double> graph = new Graph<>();
+        int size = 4 * Dijkstra.INTERRUPT_CHECK_INTERVAL;
+        for (int i = 0; i < size; i++) {
+            graph.addVertex(i);
+            if (i > 0) {
+                graph.addEdge(i - 1, i, 1.0);
+            }
+        }
+        CompactGraph<Integer, Double> compact = graph.freeze(Double::doubleValue);
+        Thread.currentThread().interrupt();
+        try {
+            AStar.aStarAlgo(compact, 0, size - 1, Heuristic.zero());
+            fail("the interrupted search should have been cancelled");
+        } catch (CancellationException e) {
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(size - 1, AStar.aStarAlgo(compact, 0, size - 1, Heuristic.zero()).getCost(), 0.0);
+    }
+}
@@ -0,0 +1,167 @@
+package pathfinder.implTest;
+
+import graph.CompactGraph;
+import graph.Edge;
+import graph.Graph;
+import graph.SearchEffort;
+import org.junit.Test;
+import pathfinder.BidirectionalDijkstra;
+import pathfinder.CampusMap;
+import pathfinder.Dijkstra;
+import pathfinder.SearchAlgorithm;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class TestBidirectionalDijkstra {
+
+    @Test
+    public void testSameCostAsDijkstraOnRandomGraphs() {
+        Random random = new Random(331);
+        for (int trial = 0; trial < 50; trial++) {
+            Graph<Integer, Double> graph = new Graph<>();
+            int n = 2 + random.nextInt(40);
+            for (int v = 0; v < n; v++) {
+                graph.addVertex(v);
+            }
+            int m = random.nextInt(4 * n);
+            for (int i = 0; i < m; i++) {
+                // whole-number costs, including 0, so there are many ties
+                graph.addEdge(random.nextInt(n), random.nextInt(n), (double) random.nextInt(10));
+            }
+            CompactGraph<Integer, Double> compact = graph.freeze(Double::doubleValue);
+            CompactGraph<Integer, Double> reverse = compact.transpose();
+            for (int start = 0; start < n; start++) {
+                for (int dest = 0; dest < n; dest++) {
+                    Path<Integer> expected = Dijkstra.dijkstraAlgo(compact, start, dest);
+                    Path<Integer> path = BidirectionalDijkstra.bidirectionalDijkstraAlgo(compact, reverse, start, dest);
+                    if (expected == null) {
+                        assertNull(path);
+                    } else {
+                        assertEquals(expected.getCost(), path.getCost(), 0.0);
+                        assertEquals(Integer.valueOf(start), path.getStart());
+                        assertEquals(Integer.valueOf(dest), path.getEnd());
+                        assertConnected(graph, path);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that every segment of the path is an edge of the graph with the segment's cost.
+     */
+    private static void assertConnected(Graph<Integer, Double> graph, Path<Integer> path) {
+        double total = 0;
+        for (Path<Integer>.Segment segment : path) {
+            boolean found = false;
+            for (Edge<Integer, Double> edge : graph.getChildrenOf(segment.getStart())) {
+                if (edge.getToVertex().equals(segment.getEnd()) && edge.getLabel() == segment.getCost()) {
+                    found = true;
+                }
+            }
+            assertTrue(found);
+            total += segment.getCost();
+        }
+        assertEquals(path.getCost(), total, 1e-9);
+    }
+
+    @Test
+    public void testPathToItself() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addEdge("A", "B", 1.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        assertEquals(new Path<>("A"), BidirectionalDijkstra.bidirectionalDijkstraAlgo(compact, "A", "A"));
+        assertNull(BidirectionalDijkstra.bidirectionalDijkstraAlgo(compact, "B", "A"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownVertex() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        BidirectionalDijkstra.bidirectionalDijkstraAlgo(graph.freeze(Double::doubleValue), "A", "Z");
+    }
+
+    @Test
+    public void testCampusMapSamePathsAsDijkstra() {
+        CampusMap map = new CampusMap();
+        for (String start : map.buildingNames().keySet()) {
+            for (String end : map.buildingNames().keySet()) {
+                Path<Point> expected = map.findShortestPath(start, end, SearchAlgorithm.DIJKSTRA);
+                Path<Point> path = map.findShortestPath(start, end, SearchAlgorithm.BIDIRECTIONAL_DIJKSTRA);
+                assertEquals(expected.getCost(), path.getCost(), 1e-9);
+                assertEquals(expected, path);
+            }
+        }
+    }
+
+    @Test
+    public void testListenerCountsWork() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addEdge("A", "B", 1.0);
+        graph.addEdge("B", "C", 1.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        CompactGraph<String, Double> reverse = compact.transpose();
+        List<SearchEffort> efforts = new ArrayList<>();
+        BidirectionalDijkstra.bidirectionalDijkstraAlgo(compact, reverse, "A", "C", efforts::add);
+        assertEquals(1, efforts.size());
+        assertEquals(2, efforts.get(0).getPathLength());
+        assertTrue(efforts.get(0).getSettledVertices() >= 2);
+        assertTrue(efforts.get(0).getQueuePushes() >= efforts.get(0).getSettledVertices());
+        assertTrue(efforts.get(0).getMaxQueueSize() >= 2);
+        BidirectionalDijkstra.bidirectionalDijkstraAlgo(compact, reverse, "A", "A", efforts::add);
+        assertEquals(0, efforts.get(1).getSettledVertices());
+        assertEquals(0, efforts.get(1).getPathLength());
+        BidirectionalDijkstra.bidirectionalDijkstraAlgo(compact, reverse, "C", "A", efforts::add);
+        assertEquals(-1, efforts.get(2).getPathLength());
+    }
+
+    @Test
+    public void testCampusMapReportsSearchesToListener() {
+        CampusMap map = new CampusMap();
+        List<SearchEffort> efforts = new ArrayList<>();
+        map.setSearchListener(efforts::add);
+        Path<Point> path = map.findShortestPath("CSE", "MGH", SearchAlgorithm.BIDIRECTIONAL_DIJKSTRA);
+        int segments = 0;
+        for (Path<Point>.Segment segment : path) {
+            segments++;
+        }
+        assertEquals(1, efforts.size());
+        assertEquals(segments, efforts.get(0).getPathLength());
+        assertTrue(efforts.get(0).getSettledVertices() > 0);
+    }
+
+    @Test
+    public void testInterruptedSearchIsCancelled() {
+        Graph<Integer, Double> graph = new Graph<>();
+        int size = 4 * Dijkstra.INTERRUPT_CHECK_INTERVAL;
+        for (int i = 0; i < size; i++) {
+            graph.addVertex(i);
+            if (i > 0) {
+                graph.addEdge(i - 1, i, 1.0);
+            }
+        }
+        CompactGraph<Integer, Double> compact = graph.freeze(Double::doubleValue);
+        Thread.currentThread().interrupt();
+        try {
+            BidirectionalDijkstra.bidirectionalDijkstraAlgo(compact, 0, size - 1);
+            fail("the interrupted search should have been cancelled");
+        } catch (CancellationException e) {
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(size - 1, BidirectionalDijkstra.bidirectionalDijkstraAlgo(compact, 0, size - 1).getCost(), 0.0);
+    }
+}
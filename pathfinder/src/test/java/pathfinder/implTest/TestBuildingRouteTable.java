@@ -0,0 +1,116 @@
+package pathfinder.implTest;
+
+import graph.CompactGraph;
+import graph.Graph;
+import org.junit.Test;
+import pathfinder.BuildingRouteTable;
+import pathfinder.CampusMap;
+import pathfinder.Dijkstra;
+import pathfinder.SearchAlgorithm;
+import pathfinder.ShortestPathTree;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class TestBuildingRouteTable {
+
+    @Test
+    public void testSmallGraphRoutes() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addVertex("D");
+        graph.addEdge("A", "C", 1.0);
+        graph.addEdge("C", "B", 1.0);
+        graph.addEdge("A", "B", 5.0);
+        graph.addEdge("B", "A", 4.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        Map<String, String> buildings = new HashMap<>();
+        buildings.put("a", "A");
+        buildings.put("b", "B");
+        buildings.put("d", "D");
+        BuildingRouteTable<String> table = new BuildingRouteTable<>(compact, buildings);
+        assertEquals(3, table.size());
+        assertTrue(table.contains("a"));
+        assertFalse(table.contains("c"));
+        assertEquals(2.0, table.costOf("a", "b"), 1e-9);
+        assertEquals(4.0, table.costOf("b", "a"), 1e-9);
+        assertEquals(new Path<>("A").extend("C", 1.0).extend("B", 1.0), table.route("a", "b"));
+        assertEquals(new Path<>("B"), table.route("b", "b"));
+        assertTrue(Double.isInfinite(table.costOf("a", "d")));
+        assertNull(table.route("a", "d"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownBuilding() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        Map<String, String> buildings = new HashMap<>();
+        buildings.put("a", "A");
+        new BuildingRouteTable<>(graph.freeze(Double::doubleValue), buildings).route("a", "z");
+    }
+
+    @Test
+    public void testCampusMapSamePathsAsDijkstra() {
+        CampusMap map = new CampusMap();
+        BuildingRouteTable<Point> table = map.precomputeBuildingRoutes();
+        assertEquals(map.buildingNames().size(), table.size());
+        assertTrue(table.memoryBytes() > 0);
+        assertTrue(table.report().startsWith("precomputed"));
+        for (String start : map.buildingNames().keySet()) {
+            for (String end : map.buildingNames().keySet()) {
+                Path<Point> expected = map.findShortestPath(start, end, SearchAlgorithm.DIJKSTRA);
+                assertEquals(expected, map.findShortestPath(start, end));
+                assertEquals(expected.getCost(), table.costOf(start, end), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testShortestPathTreeMatchesDijkstra() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addEdge("A", "B", 3.0);
+        graph.addEdge("A", "C", 1.0);
+        graph.addEdge("C", "B", 1.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        ShortestPathTree<String> tree = Dijkstra.shortestPathTree(compact, "C");
+        assertEquals("C", tree.getStart());
+        assertTrue(tree.reaches("B"));
+        assertFalse(tree.reaches("A"));
+        assertEquals(1.0, tree.costTo("B"), 1e-9);
+        assertNull(tree.pathTo("A"));
+        for (String dest : graph.getVertices()) {
+            assertEquals(Dijkstra.dijkstraAlgo(compact, "A", dest),
+                    Dijkstra.shortestPathTree(compact, "A").pathTo(dest));
+        }
+    }
+
+    @Test
+    public void testInterruptedBuildIsCancelled() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addEdge("A", "B", 1.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        Map<String, String> buildings = Map.of("A", "A", "B", "B");
+        Thread.currentThread().interrupt();
+        try {
+            new BuildingRouteTable<>(compact, buildings);
+            fail("the interrupted search should have been cancelled");
+        } catch (CancellationException e) {
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(1.0, new BuildingRouteTable<>(compact, buildings).costOf("A", "B"), 0.0);
+    }
+}
@@ -0,0 +1,239 @@
+package pathfinder.implTest;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pathfinder.CachingModelAPI;
+import pathfinder.CampusMap;
+import pathfinder.EvictionPolicy;
+import pathfinder.Isochrone;
+import pathfinder.ModelAPI;
+import pathfinder.SearchAlgorithm;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TestCachingModelAPI {
+    private static CampusMap campusMap;
+    private static List<String> buildings;
+
+    @BeforeClass
+    public static void setUp() {
+        campusMap = new CampusMap();
+        buildings = new ArrayList<>(campusMap.buildingNames().keySet());
+    }
+
+    @Test
+    public void testSecondRequestIsAHit() {
+        CountingModel counting = new CountingModel(campusMap);
+        CachingModelAPI cache = new CachingModelAPI(counting, 10, EvictionPolicy.LRU);
+        Path<Point> first = cache.findShortestPath("CSE", "KNE");
+        Path<Point> second = cache.findShortestPath("CSE", "KNE");
+        assertSame(first, second);
+        assertEquals(campusMap.findShortestPath("CSE", "KNE"), first);
+        assertEquals(1, counting.searches.get());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(0, cache.evictionCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testAlgorithmIsPartOfTheKey() {
+        CountingModel counting = new CountingModel(campusMap);
+        CachingModelAPI cache = new CachingModelAPI(counting, 10, EvictionPolicy.LRU);
+        cache.findShortestPath("CSE", "KNE");
+        cache.findShortestPath("CSE", "KNE", SearchAlgorithm.A_STAR);
+        cache.findShortestPath("CSE", "KNE", SearchAlgorithm.A_STAR);
+        assertEquals(2, counting.searches.get());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void testLruEvictsLeastRecentlyUsed() {
+        CountingModel counting = new CountingModel(campusMap);
+        CachingModelAPI cache = new CachingModelAPI(counting, 2, EvictionPolicy.LRU);
+        cache.findShortestPath("CSE", "KNE");
+        cache.findShortestPath("CSE", "MGH");
+        cache.findShortestPath("CSE", "KNE");
+        cache.findShortestPath("CSE", "SUZ"); // evicts CSE -> MGH
+        assertEquals(1, cache.evictionCount());
+        assertEquals(2, cache.size());
+        cache.findShortestPath("CSE", "KNE");
+        assertEquals(3, counting.searches.get());
+        cache.findShortestPath("CSE", "MGH");
+        assertEquals(4, counting.searches.get());
+    }
+
+    @Test
+    public void testTinyLfuKeepsPopularRoutesDuringAScan() {
+        CountingModel counting = new CountingModel(campusMap);
+        CachingModelAPI cache = new CachingModelAPI(counting, 20, EvictionPolicy.TINY_LFU);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 10; i++) {
+                cache.findShortestPath(buildings.get(0), buildings.get(i));
+            }
+        }
+        // every other route is only asked for once, and should not push the popular ones out
+        for (String start : buildings.subList(1, 4)) {
+            for (String end : buildings) {
+                cache.findShortestPath(start, end);
+            }
+        }
+        int before = counting.searches.get();
+        for (int i = 0; i < 10; i++) {
+            cache.findShortestPath(buildings.get(0), buildings.get(i));
+        }
+        assertEquals(before, counting.searches.get());
+        assertTrue(cache.size() <= 20);
+        assertTrue(cache.evictionCount() > 0);
+    }
+
+    @Test
+    public void testCachedNoPathAndRejectedNames() {
+        CachingModelAPI cache = new CachingModelAPI(campusMap, 4, EvictionPolicy.TINY_LFU);
+        try {
+            cache.findShortestPath("CSE", "NOT A BUILDING");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(0, cache.size());
+        assertEquals(campusMap.buildingNames(), cache.buildingNames());
+        assertTrue(cache.shortNameExists("CSE"));
+        assertEquals(campusMap.longNameForShort("CSE"), cache.longNameForShort("CSE"));
+        assertTrue(cache.report().startsWith("route cache (TINY_LFU, 0/4 paths)"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePositive() {
+        new CachingModelAPI(campusMap, 0, EvictionPolicy.LRU);
+    }
+
+    @Test
+    public void testConcurrentRequestsGetCorrectPaths() throws Exception {
+        CachingModelAPI cache = new CachingModelAPI(campusMap, 64, EvictionPolicy.TINY_LFU);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String start = buildings.get((i * 7 + seed) % 12);
+                        String end = buildings.get((i * 3 + seed * 5) % 12);
+                        if (!campusMap.findShortestPath(start, end).equals(cache.findShortestPath(start, end))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(2000, cache.hitCount() + cache.missCount());
+    }
+
+    @Test
+    public void testBatchMissesAreGroupedIntoOneRequest() {
+        CountingModel counting = new CountingModel(campusMap);
+        CachingModelAPI cache = new CachingModelAPI(counting, 10, EvictionPolicy.LRU);
+        cache.findShortestPath("CSE", "KNE");
+        List<String> ends = List.of("KNE", "MGH", "SUZ", "MGH");
+        List<Path<Point>> paths = cache.findShortestPaths("CSE", ends);
+        assertEquals(campusMap.findShortestPaths("CSE", ends), paths);
+        // only the first path was searched for on its own, the rest with one grouped request
+        assertEquals(1, counting.searches.get());
+        assertEquals(1, counting.batches.get());
+        assertEquals(List.of("MGH", "SUZ", "MGH"), counting.lastBatch);
+        assertEquals(1, cache.hitCount());
+        assertEquals(4, cache.missCount());
+        assertEquals(3, cache.size());
+        assertEquals(paths, cache.findShortestPaths("CSE", ends));
+        assertEquals(1, counting.batches.get());
+        assertEquals(5, cache.hitCount());
+    }
+
+    @Test
+    public void testReachableBuildingsAreNotCached() {
+        CountingModel counting = new CountingModel(campusMap);
+        CachingModelAPI cache = new CachingModelAPI(counting, 10, EvictionPolicy.LRU);
+        Isochrone reachable = cache.reachableBuildings("CSE", 1000, true);
+        Isochrone expected = campusMap.reachableBuildings("CSE", 1000, true);
+        assertEquals(expected.getBuildings(), reachable.getBuildings());
+        assertEquals(expected.getSegments(), reachable.getSegments());
+        assertEquals(1, counting.reachable.get());
+        assertEquals(0, counting.searches.get());
+        assertEquals(0, counting.batches.get());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.missCount());
+    }
+
+    /**
+     * A model that counts how many paths it was asked to find, how many grouped requests
+     * for paths from one building it was sent, and how many reachability requests.
+     */
+    private static class CountingModel implements ModelAPI {
+        private final ModelAPI model;
+        private final AtomicInteger searches = new AtomicInteger();
+        private final AtomicInteger batches = new AtomicInteger();
+        private volatile List<String> lastBatch;
+        private final AtomicInteger reachable = new AtomicInteger();
+
+        CountingModel(ModelAPI model) {
+            this.model = model;
+        }
+
+        @Override
+        public boolean shortNameExists(String shortName) {
+            return model.shortNameExists(shortName);
+        }
+
+        @Override
+        public String longNameForShort(String shortName) {
+            return model.longNameForShort(shortName);
+        }
+
+        @Override
+        public Map<String, String> buildingNames() {
+            return model.buildingNames();
+        }
+
+        @Override
+        public Path<Point> findShortestPath(String startShortName, String endShortName) {
+            searches.incrementAndGet();
+            return model.findShortestPath(startShortName, endShortName);
+        }
+
+        @Override
+        public Path<Point> findShortestPath(String startShortName, String endShortName, SearchAlgorithm algorithm) {
+            searches.incrementAndGet();
+            return model.findShortestPath(startShortName, endShortName, algorithm);
+        }
+
+        @Override
+        public List<Path<Point>> findShortestPaths(String startShortName, List<String> endShortNames) {
+            batches.incrementAndGet();
+            lastBatch = endShortNames;
+            return model.findShortestPaths(startShortName, endShortNames);
+        }
+
+        @Override
+        public Isochrone reachableBuildings(String startShortName, double budget, boolean withSegments) {
+            reachable.incrementAndGet();
+            return model.reachableBuildings(startShortName, budget, withSegments);
+        }
+    }
+}
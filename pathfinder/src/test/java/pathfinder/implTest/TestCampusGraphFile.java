@@ -0,0 +1,111 @@
+package pathfinder.implTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pathfinder.CampusGraphFile;
+import pathfinder.CampusMap;
+import pathfinder.SearchAlgorithm;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestCampusGraphFile {
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("campus", ".graph");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    /**
+     * A campus map loaded from its compiled file has the same buildings and finds the
+     * same paths as the one it was compiled from
+     */
+    @Test
+    public void testSameMapAsDataFiles() throws IOException {
+        CampusMap parsed = new CampusMap();
+        parsed.writeGraphFile(file);
+        CampusMap mapped = new CampusMap(file);
+        assertEquals(parsed.buildingNames(), mapped.buildingNames());
+        List<String> buildings = new ArrayList<>(parsed.buildingNames().keySet());
+        buildings.sort(null);
+        for (int i = 0; i < buildings.size(); i += 7) {
+            for (int j = 0; j < buildings.size(); j += 5) {
+                assertEquals(parsed.findShortestPath(buildings.get(i), buildings.get(j)),
+                        mapped.findShortestPath(buildings.get(i), buildings.get(j)));
+            }
+        }
+        assertEquals(parsed.findShortestPath("CSE", "KNE", SearchAlgorithm.A_STAR),
+                mapped.findShortestPath("CSE", "KNE", SearchAlgorithm.A_STAR));
+    }
+
+    @Test
+    public void testReadGraph() throws IOException {
+        new CampusMap().writeGraphFile(file);
+        CampusGraphFile data = CampusGraphFile.read(file);
+        assertEquals(51, data.getBuildings().size());
+        assertEquals("Paul G. Allen Center for Computer Science & Engineering", data.getLongNames().get("CSE"));
+        assertTrue(data.getGraph().containVertex(data.getBuildings().get("CSE")));
+        assertTrue(data.getGraph().hasWeights());
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongVersion() throws IOException {
+        new CampusMap().writeGraphFile(file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(Integer.BYTES, CampusGraphFile.VERSION + 1);
+        Files.write(file, bytes);
+        new CampusMap(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedFile() throws IOException {
+        new CampusMap().writeGraphFile(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        CampusGraphFile.read(file);
+    }
+
+    /**
+     * A building whose vertex id is not the id of a vertex makes the file invalid
+     */
+    @Test
+    public void testBuildingAtUnknownVertex() throws IOException {
+        new CampusMap().writeGraphFile(file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int n = buffer.getInt(2 * Integer.BYTES);
+        int m = buffer.getInt(3 * Integer.BYTES);
+        int firstBuilding = 6 * Integer.BYTES + (2 * n + m) * Double.BYTES + (n + 1 + m) * Integer.BYTES;
+        for (int id : new int[]{n, -1}) {
+            buffer.putInt(firstBuilding, id);
+            Files.write(file, bytes);
+            try {
+                CampusGraphFile.read(file);
+                fail("a building at vertex " + id + " should have been rejected");
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().endsWith("is not a campus graph file"));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAGraphFile() throws IOException {
+        Files.write(file, "start-x\tstart-y\tend-x\tend-y\tdistance\n".getBytes());
+        CampusGraphFile.read(file);
+    }
+}
@@ -0,0 +1,226 @@
+package pathfinder.implTest;
+
+import graph.CompactGraph;
+import graph.Graph;
+import graph.SearchEffort;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.ContractionHierarchy;
+import pathfinder.Dijkstra;
+import pathfinder.SearchAlgorithm;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+public class TestContractionHierarchy {
+
+    /**
+     * @return a random graph with whole-number costs, including 0, so there are many ties
+     */
+    private static CompactGraph<Integer, Double> randomGraph(Random random) {
+        Graph<Integer, Double> graph = new Graph<>();
+        int n = 2 + random.nextInt(40);
+        for (int v = 0; v < n; v++) {
+            graph.addVertex(v);
+        }
+        int m = random.nextInt(4 * n);
+        for (int i = 0; i < m; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), (double) random.nextInt(10));
+        }
+        return graph.freeze(Double::doubleValue);
+    }
+
+    @Test
+    public void testSameCostAsDijkstraOnRandomGraphs() {
+        Random random = new Random(331);
+        for (int trial = 0; trial < 50; trial++) {
+            CompactGraph<Integer, Double> graph = randomGraph(random);
+            ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.contract(graph);
+            for (int start = 0; start < graph.size(); start++) {
+                for (int dest = 0; dest < graph.size(); dest++) {
+                    Path<Integer> expected = Dijkstra.dijkstraAlgo(graph, start, dest);
+                    Path<Integer> path = hierarchy.findShortestPath(start, dest);
+                    if (expected == null) {
+                        assertNull(path);
+                    } else {
+                        assertEquals(expected.getCost(), path.getCost(), 0.0);
+                        assertEquals(Integer.valueOf(start), path.getStart());
+                        assertEquals(Integer.valueOf(dest), path.getEnd());
+                        assertUnpacked(graph, path);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that every segment of the path is an edge of the graph with the segment's
+     * cost, so no shortcut was left packed.
+     */
+    private static void assertUnpacked(CompactGraph<Integer, Double> graph, Path<Integer> path) {
+        for (Path<Integer>.Segment segment : path) {
+            int from = graph.idOf(segment.getStart());
+            boolean found = false;
+            for (int e = graph.firstEdge(from); e < graph.endEdge(from); e++) {
+                if (graph.vertexAt(graph.edgeTarget(e)).equals(segment.getEnd())
+                        && graph.edgeWeight(e) == segment.getCost()) {
+                    found = true;
+                }
+            }
+            assertTrue(found);
+        }
+    }
+
+    @Test
+    public void testWriteAndReadGiveSamePaths() throws IOException {
+        CompactGraph<Integer, Double> graph = randomGraph(new Random(7));
+        ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.contract(graph);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hierarchy.write(new DataOutputStream(bytes));
+        ContractionHierarchy<Integer> read = ContractionHierarchy.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), graph);
+        assertEquals(hierarchy.shortcutCount(), read.shortcutCount());
+        assertEquals(hierarchy.originalEdgeCount(), read.originalEdgeCount());
+        for (int start = 0; start < graph.size(); start++) {
+            for (int dest = 0; dest < graph.size(); dest++) {
+                assertEquals(hierarchy.findShortestPath(start, dest), read.findShortestPath(start, dest));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsOtherData() throws IOException {
+        CompactGraph<Integer, Double> graph = randomGraph(new Random(7));
+        byte[] bytes = new byte[64];
+        ContractionHierarchy.read(new DataInputStream(new ByteArrayInputStream(bytes)), graph);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadRejectsGraphWithOtherWeights() throws IOException {
+        Graph<Integer, Double> graph = new Graph<>();
+        Graph<Integer, Double> changed = new Graph<>();
+        for (int v = 0; v < 3; v++) {
+            graph.addVertex(v);
+            changed.addVertex(v);
+        }
+        graph.addEdge(0, 1, 1.0);
+        graph.addEdge(1, 2, 1.0);
+        changed.addEdge(0, 1, 1.0);
+        changed.addEdge(1, 2, 5.0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ContractionHierarchy.contract(graph.freeze(Double::doubleValue)).write(new DataOutputStream(bytes));
+        ContractionHierarchy.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                changed.freeze(Double::doubleValue));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadRejectsRankThatIsNotPermutation() throws IOException {
+        CompactGraph<Integer, Double> graph = randomGraph(new Random(7));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ContractionHierarchy.contract(graph).write(new DataOutputStream(bytes));
+        byte[] corrupt = bytes.toByteArray();
+        // give the second vertex the rank of the first: the header is 5 ints and a long
+        System.arraycopy(corrupt, 28, corrupt, 32, 4);
+        ContractionHierarchy.read(new DataInputStream(new ByteArrayInputStream(corrupt)), graph);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testContractNeedsWeights() {
+        Graph<String, String> graph = new Graph<>();
+        graph.addVertex("A");
+        ContractionHierarchy.contract(graph.freeze());
+    }
+
+    @Test
+    public void testCampusMapSamePathsAsDijkstra() throws IOException {
+        CampusMap map = new CampusMap();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        map.writeContractionHierarchy(bytes);
+        CampusMap loaded = new CampusMap();
+        loaded.readContractionHierarchy(new ByteArrayInputStream(bytes.toByteArray()));
+        for (String start : map.buildingNames().keySet()) {
+            for (String end : map.buildingNames().keySet()) {
+                Path<Point> expected = map.findShortestPath(start, end, SearchAlgorithm.DIJKSTRA);
+                Path<Point> path = map.findShortestPath(start, end, SearchAlgorithm.CONTRACTION_HIERARCHIES);
+                assertEquals(expected.getCost(), path.getCost(), 1e-9);
+                assertEquals(expected, path);
+                assertEquals(path, loaded.findShortestPath(start, end, SearchAlgorithm.CONTRACTION_HIERARCHIES));
+            }
+        }
+    }
+
+    @Test
+    public void testListenerCountsWork() {
+        CompactGraph<Integer, Double> graph = randomGraph(new Random(7));
+        ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.contract(graph);
+        List<SearchEffort> efforts = new ArrayList<>();
+        for (int start = 0; start < graph.size(); start++) {
+            for (int dest = 0; dest < graph.size(); dest++) {
+                Path<Integer> path = hierarchy.findShortestPath(start, dest, efforts::add);
+                SearchEffort effort = efforts.get(efforts.size() - 1);
+                int segments = -1;
+                if (path != null) {
+                    segments = 0;
+                    for (Path<Integer>.Segment segment : path) {
+                        segments++;
+                    }
+                }
+                assertEquals(segments, effort.getPathLength());
+                assertTrue(effort.getQueuePushes() >= effort.getSettledVertices());
+                assertEquals(start == dest, effort.getSettledVertices() == 0);
+            }
+        }
+        assertEquals(graph.size() * graph.size(), efforts.size());
+    }
+
+    @Test
+    public void testCampusMapReportsSearchesToListener() {
+        CampusMap map = new CampusMap();
+        List<SearchEffort> efforts = new ArrayList<>();
+        map.setSearchListener(efforts::add);
+        Path<Point> path = map.findShortestPath("CSE", "MGH", SearchAlgorithm.CONTRACTION_HIERARCHIES);
+        int segments = 0;
+        for (Path<Point>.Segment segment : path) {
+            segments++;
+        }
+        assertEquals(1, efforts.size());
+        assertEquals(segments, efforts.get(0).getPathLength());
+        assertTrue(efforts.get(0).getSettledVertices() > 0);
+    }
+
+    @Test
+    public void testInterruptedSearchIsCancelled() {
+        // the start only has edges out, so it is contracted first and its upward search
+        // settles every one of its neighbors while looking for the unreachable vertex
+        Graph<Integer, Double> graph = new Graph<>();
+        int size = 2 * Dijkstra.INTERRUPT_CHECK_INTERVAL;
+        for (int i = 0; i <= size; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i < size; i++) {
+            graph.addEdge(0, i, 1.0);
+        }
+        ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.contract(graph.freeze(Double::doubleValue));
+        Thread.currentThread().interrupt();
+        try {
+            hierarchy.findShortestPath(0, size);
+            fail("the interrupted search should have been cancelled");
+        } catch (CancellationException e) {
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertNull(hierarchy.findShortestPath(0, size));
+    }
+}
@@ -1,10 +1,19 @@
 package pathfinder.implTest;
 
+import graph.CompactGraph;
 import graph.Graph;
+import graph.SearchEffort;
+import graph.SearchStatistics;
 
 import org.junit.Test;
+import pathfinder.CampusMap;
 import pathfinder.Dijkstra;
 import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static org.junit.Assert.*;
 
@@ -21,4 +30,172 @@ public class TestDijkstra {
         graph.addEdge("D", "B", 1.0);
         Path<String> path = Dijkstra.dijkstraAlgo(graph, "A", "B");
     }
+
+    @Test
+    public void testCompactGraphFindsSamePath() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addVertex("D");
+        graph.addEdge("A", "C", 1.0);
+        graph.addEdge("C", "D", 1.0);
+        graph.addEdge("D", "B", 1.0);
+        graph.addEdge("A", "B", 5.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        for (String start : graph.getVertices()) {
+            for (String dest : graph.getVertices()) {
+                assertEquals(Dijkstra.dijkstraAlgo(graph, start, dest),
+                        Dijkstra.dijkstraAlgo(compact, start, dest));
+            }
+        }
+    }
+
+    @Test
+    public void testPicksCheaperLongerRoute() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addVertex("D");
+        graph.addEdge("A", "B", 10.0);
+        graph.addEdge("A", "C", 1.0);
+        graph.addEdge("C", "D", 2.0);
+        graph.addEdge("D", "B", 3.0);
+        graph.addEdge("C", "B", 8.0);
+        Path<String> expected = new Path<>("A").extend("C", 1.0).extend("D", 2.0).extend("B", 3.0);
+        Path<String> path = Dijkstra.dijkstraAlgo(graph.freeze(Double::doubleValue), "A", "B");
+        assertEquals(expected, path);
+        assertEquals(6.0, path.getCost(), 1e-9);
+    }
+
+    @Test
+    public void testNoPathAndPathToItself() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addEdge("B", "A", 1.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        assertNull(Dijkstra.dijkstraAlgo(compact, "A", "B"));
+        assertEquals(new Path<>("A"), Dijkstra.dijkstraAlgo(compact, "A", "A"));
+    }
+
+    @Test
+    public void testManyDestinationsMatchSingleSearches() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addVertex("D");
+        graph.addVertex("E");
+        graph.addEdge("A", "B", 10.0);
+        graph.addEdge("A", "C", 1.0);
+        graph.addEdge("C", "D", 2.0);
+        graph.addEdge("D", "B", 3.0);
+        graph.addEdge("E", "A", 1.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        List<String> dests = List.of("B", "E", "A", "D", "B");
+        List<Path<String>> paths = Dijkstra.dijkstraAlgo(compact, "A", dests);
+        assertEquals(dests.size(), paths.size());
+        for (int i = 0; i < dests.size(); i++) {
+            assertEquals(Dijkstra.dijkstraAlgo(compact, "A", dests.get(i)), paths.get(i));
+        }
+        assertNull(paths.get(1));
+        assertEquals(List.of(), Dijkstra.dijkstraAlgo(compact, "A", List.of()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testManyDestinationsMissingVertex() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        Dijkstra.dijkstraAlgo(graph.freeze(Double::doubleValue), "A", List.of("A", "Z"));
+    }
+
+    @Test
+    public void testCampusMapFindsManyPaths() {
+        CampusMap map = new CampusMap();
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        String start = buildings.get(0);
+        List<Path<Point>> paths = map.findShortestPaths(start, buildings);
+        for (int i = 0; i < buildings.size(); i++) {
+            assertEquals(map.findShortestPath(start, buildings.get(i)), paths.get(i));
+        }
+        map.precomputeBuildingRoutes();
+        assertEquals(paths, map.findShortestPaths(start, buildings));
+    }
+
+    @Test
+    public void testListenerCountsWork() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addVertex("D");
+        graph.addEdge("A", "B", 10.0);
+        graph.addEdge("A", "C", 1.0);
+        graph.addEdge("C", "B", 2.0);
+        graph.addEdge("B", "D", 1.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        List<SearchEffort> efforts = new ArrayList<>();
+        Path<String> path = Dijkstra.dijkstraAlgo(compact, "A", "B", efforts::add);
+        assertEquals(Dijkstra.dijkstraAlgo(compact, "A", "B"), path);
+        assertEquals(1, efforts.size());
+        // A, C and B are settled; B is pushed twice, once for each way to it
+        assertEquals(3, efforts.get(0).getSettledVertices());
+        assertEquals(3, efforts.get(0).getEdgesRelaxed());
+        assertEquals(4, efforts.get(0).getQueuePushes());
+        assertEquals(0, efforts.get(0).getStalePops());
+        assertEquals(2, efforts.get(0).getMaxQueueSize());
+        assertEquals(2, efforts.get(0).getPathLength());
+        Dijkstra.dijkstraAlgo(compact, "D", "A", efforts::add);
+        assertEquals(-1, efforts.get(1).getPathLength());
+        Dijkstra.dijkstraAlgo(compact, "A", List.of("B", "D"), efforts::add);
+        assertEquals(4, efforts.get(2).getSettledVertices());
+        assertEquals(-1, efforts.get(2).getPathLength());
+    }
+
+    @Test
+    public void testListenerCountsStalePops() {
+        Graph<String, Double> graph = new Graph<>();
+        for (String vertex : new String[]{"A", "B", "C", "D", "E"}) {
+            graph.addVertex(vertex);
+        }
+        graph.addEdge("A", "B", 10.0);
+        graph.addEdge("A", "C", 1.0);
+        graph.addEdge("C", "B", 2.0);
+        graph.addEdge("B", "D", 1.0);
+        graph.addEdge("B", "E", 20.0);
+        SearchStatistics statistics = new SearchStatistics();
+        Path<String> path = Dijkstra.dijkstraAlgo(graph, "A", "E", statistics);
+        assertEquals(Dijkstra.dijkstraAlgo(graph, "A", "E"), path);
+        assertEquals(1, statistics.searchCount());
+        // every vertex is settled, and the entry of B at cost 10 is popped after B is finished
+        assertEquals(5, statistics.settledVertices());
+        assertEquals(5, statistics.edgesRelaxed());
+        assertEquals(1, statistics.stalePops());
+        assertEquals(3, statistics.maxQueueSize());
+    }
+
+    @Test
+    public void testInterruptedSearchIsCancelled() {
+        Graph<Integer, Double> graph = new Graph<>();
+        int size = 4 * Dijkstra.INTERRUPT_CHECK_INTERVAL;
+        for (int i = 0; i < size; i++) {
+            graph.addVertex(i);
+            if (i > 0) {
+                graph.addEdge(i - 1, i, 1.0);
+            }
+        }
+        CompactGraph<Integer, Double> compact = graph.freeze(Double::doubleValue);
+        Thread.currentThread().interrupt();
+        try {
+            Dijkstra.dijkstraAlgo(compact, 0, size - 1);
+            fail("the interrupted search should have been cancelled");
+        } catch (CancellationException e) {
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(size - 1, Dijkstra.dijkstraAlgo(compact, 0, size - 1).getCost(), 0.0);
+    }
 }
@@ -0,0 +1,116 @@
+package pathfinder.implTest;
+
+import graph.CompactGraph;
+import graph.Graph;
+import graph.SearchEffort;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pathfinder.CachingModelAPI;
+import pathfinder.CampusMap;
+import pathfinder.Dijkstra;
+import pathfinder.EvictionPolicy;
+import pathfinder.Isochrone;
+import pathfinder.ShortestPathTree;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TestIsochrone {
+    private static CampusMap campusMap;
+
+    @BeforeClass
+    public static void setUp() {
+        campusMap = new CampusMap();
+    }
+
+    @Test
+    public void testBoundedTreeStopsAtBudget() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addVertex("D");
+        graph.addEdge("A", "B", 2.0);
+        graph.addEdge("B", "C", 3.0);
+        graph.addEdge("A", "D", 1.0);
+        graph.addEdge("D", "C", 10.0);
+        CompactGraph<String, Double> compact = graph.freeze(Double::doubleValue);
+        ShortestPathTree<String> tree = Dijkstra.shortestPathTree(compact, "A", 4.0);
+        assertTrue(tree.reaches("A"));
+        assertTrue(tree.reaches("B"));
+        assertTrue(tree.reaches("D"));
+        assertFalse(tree.reaches("C"));
+        assertEquals(2.0, tree.costTo("B"), 0);
+        assertNull(tree.pathTo("C"));
+        assertEquals(2, tree.segments().size());
+        assertEquals(5.0, Dijkstra.shortestPathTree(compact, "A", 5.0).costTo("C"), 0);
+    }
+
+    @Test
+    public void testMatchesPathToEveryBuilding() {
+        double budget = 1500;
+        Isochrone isochrone = campusMap.reachableBuildings("CSE", budget, false);
+        assertEquals("CSE", isochrone.getStart());
+        assertEquals(0.0, isochrone.getBuildings().get("CSE"), 0);
+        assertTrue(isochrone.getSegments().isEmpty());
+        for (String building : campusMap.buildingNames().keySet()) {
+            Path<Point> path = campusMap.findShortestPath("CSE", building);
+            boolean within = path != null && path.getCost() <= budget;
+            assertEquals(building, within, isochrone.getBuildings().containsKey(building));
+            if (within) {
+                assertEquals(path.getCost(), isochrone.getBuildings().get(building), 1e-9);
+            }
+        }
+        // the default implementation finds one path per building and must agree
+        CachingModelAPI cache = new CachingModelAPI(campusMap, 10, EvictionPolicy.LRU);
+        assertEquals(isochrone.getBuildings(), cache.reachableBuildings("CSE", budget, false).getBuildings());
+    }
+
+    @Test
+    public void testBuildingsOrderedByCost() {
+        Isochrone isochrone = campusMap.reachableBuildings("CSE", 3000, true);
+        List<Double> costs = new ArrayList<>(isochrone.getBuildings().values());
+        for (int i = 1; i < costs.size(); i++) {
+            assertTrue(costs.get(i - 1) <= costs.get(i));
+        }
+        assertFalse(isochrone.getSegments().isEmpty());
+        for (Path<Point>.Segment segment : isochrone.getSegments()) {
+            assertTrue(segment.getCost() <= 3000);
+        }
+    }
+
+    @Test
+    public void testZeroBudget() {
+        Map<String, Double> buildings = campusMap.reachableBuildings("CSE", 0, true).getBuildings();
+        assertEquals(0.0, buildings.get("CSE"), 0);
+        for (double cost : buildings.values()) {
+            assertEquals(0.0, cost, 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBudget() {
+        campusMap.reachableBuildings("CSE", -1, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownBuilding() {
+        campusMap.reachableBuildings("NOT A BUILDING", 100, false);
+    }
+
+    @Test
+    public void testReportsSearchToListener() {
+        CampusMap map = new CampusMap();
+        List<SearchEffort> efforts = new ArrayList<>();
+        map.setSearchListener(efforts::add);
+        Isochrone isochrone = map.reachableBuildings("CSE", 1500, false);
+        assertEquals(1, efforts.size());
+        assertEquals(-1, efforts.get(0).getPathLength());
+        assertTrue(efforts.get(0).getSettledVertices() >= isochrone.getBuildings().size());
+    }
+}
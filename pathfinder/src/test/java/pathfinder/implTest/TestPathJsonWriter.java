@@ -0,0 +1,82 @@
+package pathfinder.implTest;
+
+import com.google.gson.Gson;
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.PathJsonWriter;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestPathJsonWriter {
+    private static final Gson GSON = new Gson();
+
+    @Test
+    public void testMatchesGsonOnCampusPaths() throws IOException {
+        CampusMap map = new CampusMap();
+        List<String> buildings = new ArrayList<>(map.buildingNames().keySet());
+        for (String end : buildings.subList(0, 20)) {
+            Path<Point> path = map.findShortestPath("CSE", end);
+            assertEquals(GSON.toJson(path), write(path, 64));
+        }
+    }
+
+    @Test
+    public void testMatchesGsonOnOddNumbers() throws IOException {
+        Random random = new Random(331);
+        Path<Point> path = new Path<>(new Point(0, -0.0));
+        double[] values = {1e-5, 123456789.25, -3.5, 1e21, Double.MIN_VALUE, 0.1 + 0.2};
+        for (double value : values) {
+            path = path.extend(new Point(value, random.nextDouble() * 5000), Math.abs(value));
+        }
+        assertEquals(GSON.toJson(path), write(path, 32));
+        assertEquals(GSON.toJson(new Path<>(new Point(1, 2))), write(new Path<>(new Point(1, 2)), 32));
+    }
+
+    @Test
+    public void testArrayWithNull() throws IOException {
+        Path<Point> path = new Path<>(new Point(1, 2)).extend(new Point(3, 4), 5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PathJsonWriter json = new PathJsonWriter(out);
+        json.beginArray();
+        json.path(path);
+        json.path(null);
+        json.path(path);
+        json.endArray();
+        assertEquals(0, out.size());
+        json.flush();
+        assertEquals(GSON.toJson(Arrays.asList(path, null, path)), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNaNCost() throws IOException {
+        write(new Path<>(new Point(0, 0)).extend(new Point(1, 1), Double.NaN), 32);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEndArrayOutsideArray() throws IOException {
+        new PathJsonWriter(new ByteArrayOutputStream()).endArray();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTinyBuffer() {
+        new PathJsonWriter(new ByteArrayOutputStream(), 8);
+    }
+
+    private static String write(Path<Point> path, int bufferSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PathJsonWriter json = new PathJsonWriter(out, bufferSize);
+        json.path(path);
+        json.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
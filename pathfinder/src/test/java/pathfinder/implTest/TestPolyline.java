@@ -0,0 +1,111 @@
+package pathfinder.implTest;
+
+import org.junit.Test;
+import pathfinder.CampusMap;
+import pathfinder.PathJsonWriter;
+import pathfinder.Polyline;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestPolyline {
+    @Test
+    public void testGoogleExample() {
+        // the example of the Google encoded polyline format, with y as the latitude
+        Path<Point> path = new Path<>(new Point(-120.2, 38.5))
+                .extend(new Point(-120.95, 40.7), 1)
+                .extend(new Point(-126.453, 43.252), 1);
+        List<Point> points = Polyline.decode(Polyline.encode(path, 5), 5);
+        assertEquals(List.of(new Point(-120.2, 38.5), new Point(-120.95, 40.7),
+                new Point(-126.453, 43.252)), points);
+        // the Google format puts the latitude first
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", encodeSwapped(path, 5));
+    }
+
+    @Test
+    public void testRoundTripCampusPath() {
+        CampusMap map = new CampusMap();
+        Path<Point> path = map.findShortestPath("CSE", "MUS");
+        List<Point> points = Polyline.decode(Polyline.encode(path, Polyline.DEFAULT_PRECISION),
+                Polyline.DEFAULT_PRECISION);
+        List<Point> expected = new ArrayList<>();
+        expected.add(path.getStart());
+        for (Path<Point>.Segment segment : path) {
+            expected.add(segment.getEnd());
+        }
+        assertEquals(expected.size(), points.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getX(), points.get(i).getX(), 1e-4);
+            assertEquals(expected.get(i).getY(), points.get(i).getY(), 1e-4);
+        }
+    }
+
+    @Test
+    public void testPolylineIsSeveralTimesSmaller() throws IOException {
+        Path<Point> path = new CampusMap().findShortestPath("CSE", "MUS");
+        int segments = write(path, false).length();
+        int polyline = write(path, true).length();
+        assertTrue(segments + " vs " + polyline, polyline * 4 < segments);
+    }
+
+    @Test
+    public void testWriterEscapesBackslash() throws IOException {
+        // a difference of -15 is zigzagged to 29, which is encoded as the character '\'
+        Path<Point> path = new Path<>(new Point(-15, 0));
+        assertEquals("\\?", Polyline.encode(path, 0));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PathJsonWriter json = new PathJsonWriter(out);
+        json.polyline(path, 0);
+        json.flush();
+        assertEquals("{\"cost\":0.0,\"precision\":0,\"polyline\":\"\\\\?\"}", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLargeCoordinates() {
+        Path<Point> path = new Path<>(new Point(-1e7, 1e7)).extend(new Point(1e7, -1e7), 1);
+        List<Point> points = Polyline.decode(Polyline.encode(path, 8), 8);
+        assertEquals(List.of(new Point(-1e7, 1e7), new Point(1e7, -1e7)), points);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooLargeCoordinate() {
+        Polyline.encode(new Path<>(new Point(1e12, 0)), 8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCutOffValue() {
+        Polyline.decode("_", 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingY() {
+        Polyline.decode("?", 4);
+    }
+
+    private static String encodeSwapped(Path<Point> path, int precision) {
+        Path<Point> swapped = new Path<>(new Point(path.getStart().getY(), path.getStart().getX()));
+        for (Path<Point>.Segment segment : path) {
+            swapped = swapped.extend(new Point(segment.getEnd().getY(), segment.getEnd().getX()), segment.getCost());
+        }
+        return Polyline.encode(swapped, precision);
+    }
+
+    private static String write(Path<Point> path, boolean polyline) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PathJsonWriter json = new PathJsonWriter(out);
+        if (polyline) {
+            json.polyline(path, Polyline.DEFAULT_PRECISION);
+        } else {
+            json.path(path);
+        }
+        json.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,120 @@
+package pathfinder.implTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.ModelAPI;
+import pathfinder.ReloadingModelAPI;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TestReloadingModelAPI {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30);
+
+    private static final String BUILDINGS = "campus_buildings.tsv";
+    private static final String PATHS = "campus_paths.tsv";
+    private static final List<String> FILES = List.of(BUILDINGS, PATHS);
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("campus");
+        writeBuildings("Alpha Hall");
+        write(PATHS, "start-x\tstart-y\tend-x\tend-y\tdistance\n0\t0\t3\t4\t5\n3\t4\t0\t0\t5\n");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve(BUILDINGS));
+        Files.deleteIfExists(directory.resolve(PATHS));
+        Files.deleteIfExists(directory.resolve("notes.txt"));
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testReloadSwapsModel() throws IOException {
+        ReloadingModelAPI model = new ReloadingModelAPI(directory, FILES, 0, TestReloadingModelAPI::load);
+        ModelAPI before = model.current();
+        assertEquals("Alpha Hall", model.longNameForShort("A"));
+        assertEquals(5.0, model.findShortestPath("A", "B").getCost(), 0);
+        writeBuildings("Alpha Center");
+        assertTrue(model.reload());
+        assertEquals("Alpha Center", model.longNameForShort("A"));
+        // a request that took the old model before the reload still sees the old data
+        assertEquals("Alpha Hall", before.longNameForShort("A"));
+        assertNotSame(before, model.current());
+        assertEquals(1, model.reloadCount());
+        assertEquals(0, model.failedReloadCount());
+        assertTrue(model.lastReloadNanos() > 0);
+    }
+
+    @Test
+    public void testFailedReloadKeepsOldModel() throws IOException {
+        ReloadingModelAPI model = new ReloadingModelAPI(directory, FILES, 0, TestReloadingModelAPI::load);
+        ModelAPI before = model.current();
+        write(BUILDINGS, "short_name\tlongName\tx\ty\nA\tAlpha Hall\tnot a number\t0\n");
+        assertFalse(model.reload());
+        assertSame(before, model.current());
+        assertEquals(1, model.failedReloadCount());
+        assertTrue(model.report().contains("failed with"));
+    }
+
+    @Test
+    public void testWatcherReloadsChangedFile() throws IOException, InterruptedException {
+        AtomicInteger reloads = new AtomicInteger();
+        try (ReloadingModelAPI model = new ReloadingModelAPI(directory, FILES, 50, TestReloadingModelAPI::load)) {
+            model.setReloadListener(reloads::incrementAndGet);
+            model.start();
+            write("notes.txt", "not a watched file");
+            // move the new file into place whole, so the watcher never sees it half written
+            Path written = Files.createTempFile(directory, "new", ".tmp");
+            Files.write(written, ("short_name\tlongName\tx\ty\nA\tAlpha Center\t0\t0\nB\tBeta Hall\t3\t4\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.move(written, directory.resolve(BUILDINGS), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            while (!model.longNameForShort("A").equals("Alpha Center")) {
+                Thread.sleep(10);
+            }
+            assertTrue(reloads.get() >= 1);
+            assertEquals(0, model.failedReloadCount());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStartTwice() throws IOException {
+        try (ReloadingModelAPI model = new ReloadingModelAPI(directory, FILES, 0, TestReloadingModelAPI::load)) {
+            model.start();
+            model.start();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullLoader() {
+        new ReloadingModelAPI(directory, FILES, 0, null);
+    }
+
+    private static ModelAPI load(Path directory) {
+        return new CampusMap(directory.resolve(BUILDINGS), directory.resolve(PATHS));
+    }
+
+    private void writeBuildings(String longName) throws IOException {
+        write(BUILDINGS, "short_name\tlongName\tx\ty\nA\t" + longName + "\t0\t0\nB\tBeta Hall\t3\t4\n");
+    }
+
+    private void write(String file, String contents) throws IOException {
+        Files.write(directory.resolve(file), contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
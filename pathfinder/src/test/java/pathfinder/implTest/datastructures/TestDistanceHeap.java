@@ -0,0 +1,68 @@
+package pathfinder.implTest.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.DistanceHeap;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestDistanceHeap {
+
+    @Test
+    public void testNewHeapIsEmpty() {
+        DistanceHeap heap = new DistanceHeap(4);
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    public void testRemovesInDistanceOrder() {
+        DistanceHeap heap = new DistanceHeap(1);
+        heap.add(3, 3.5);
+        heap.add(1, 1.0);
+        heap.add(7, 0.25);
+        heap.add(2, 2.0);
+        assertEquals(4, heap.size());
+        int[] expectedVertices = {7, 1, 2, 3};
+        double[] expectedDistances = {0.25, 1.0, 2.0, 3.5};
+        for (int i = 0; i < expectedVertices.length; i++) {
+            assertEquals(expectedVertices[i], heap.minVertex());
+            assertEquals(expectedDistances[i], heap.minDistance(), 0.0);
+            heap.removeMin();
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testRandomEntriesComeOutSorted() {
+        DistanceHeap heap = new DistanceHeap(2);
+        Random random = new Random(331);
+        for (int i = 0; i < 1000; i++) {
+            heap.add(i, random.nextDouble() * 100);
+        }
+        double previous = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            assertTrue(heap.minDistance() >= previous);
+            previous = heap.minDistance();
+            heap.removeMin();
+        }
+    }
+
+    @Test
+    public void testClear() {
+        DistanceHeap heap = new DistanceHeap(2);
+        heap.add(1, 1.0);
+        heap.add(2, 2.0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.add(5, 5.0);
+        assertEquals(5, heap.minVertex());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRemoveFromEmptyHeap() {
+        new DistanceHeap(0).removeMin();
+    }
+}
@@ -0,0 +1,65 @@
+package pathfinder.implTest.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.FrequencySketch;
+
+import static org.junit.Assert.*;
+
+public class TestFrequencySketch {
+
+    @Test
+    public void testUnseenKeyHasZeroFrequency() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        assertEquals(0, sketch.frequency("CSE"));
+    }
+
+    @Test
+    public void testCountsAreNeverUnderestimated() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("CSE");
+        }
+        sketch.increment("KNE");
+        assertTrue(sketch.frequency("CSE") >= 5);
+        assertTrue(sketch.frequency("KNE") >= 1);
+        assertTrue(sketch.frequency("CSE") > sketch.frequency("KNE"));
+    }
+
+    @Test
+    public void testCountsSaturate() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("CSE");
+        }
+        assertEquals(15, sketch.frequency("CSE"));
+    }
+
+    @Test
+    public void testCountsAgeOut() {
+        FrequencySketch sketch = new FrequencySketch(4);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("CSE");
+        }
+        int before = sketch.frequency("CSE");
+        // the sketch halves every counter after 10 * 4 counts
+        for (int i = 0; i < 32; i++) {
+            sketch.increment(i);
+        }
+        assertTrue(sketch.frequency("CSE") < before);
+    }
+
+    @Test
+    public void testHugeExpectedKeysAreClamped() {
+        FrequencySketch sketch = new FrequencySketch(Integer.MAX_VALUE);
+        for (int i = 0; i < 3; i++) {
+            sketch.increment("CSE");
+        }
+        assertTrue(sketch.frequency("CSE") >= 3);
+        assertEquals(0, sketch.frequency("KNE"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExpectedKeysMustBePositive() {
+        new FrequencySketch(0);
+    }
+}
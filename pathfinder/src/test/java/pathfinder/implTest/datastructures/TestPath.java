@@ -5,6 +5,7 @@ import org.junit.Test;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 import static org.junit.Assert.assertEquals;
@@ -106,4 +107,24 @@ public class TestPath {
         assertEquals(path2.hashCode(), path2.hashCode());
         assertEquals(path3.hashCode(), path3.hashCode());
     }
+
+    @Test
+    public void testExtendManyEqualsRepeatedExtend() {
+        Path<Point> repeated = new Path<>(new Point(1.0, 2.0));
+        repeated = repeated.extend(new Point(3.0, 2.0), 2.0D);
+        repeated = repeated.extend(new Point(3.0, 5.0), 3.0D);
+        repeated = repeated.extend(new Point(0.5, 5.0), 2.5D);
+        Path<Point> bulk = new Path<>(new Point(1.0, 2.0));
+        bulk = bulk.extend(new Point(3.0, 2.0), 2.0D);
+        bulk = bulk.extend(Arrays.asList(new Point(3.0, 5.0), new Point(0.5, 5.0)), new double[]{3.0D, 2.5D});
+        assertEquals(repeated, bulk);
+        assertEquals(repeated.getCost(), bulk.getCost(), EPSILON);
+        assertEquals(new Point(0.5, 5.0), bulk.getEnd());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExtendManyMismatchedCosts() {
+        Path<Point> path = new Path<>(new Point(1.0, 2.0));
+        path.extend(Arrays.asList(new Point(3.0, 5.0), new Point(0.5, 5.0)), new double[]{3.0D});
+    }
 }
@@ -13,6 +13,7 @@ package pathfinder.specTest;
 
 import graph.Edge;
 import graph.Graph;
+import graph.SearchStatistics;
 import pathfinder.Dijkstra;
 import pathfinder.datastructures.Path;
 
@@ -37,6 +38,13 @@ public class PathfinderTestDriver {
     private final Map<String, Graph<String, Double>> graphs = new HashMap<>();
     private final PrintWriter output;
     private final BufferedReader input;
+    /**
+     * The totals of the work of every search this driver runs, which it prints to standard
+     * error after the script when the system property searchStatistics is true, or null
+     * to count nothing
+     **/
+    private final SearchStatistics statistics =
+            Boolean.getBoolean("searchStatistics") ? new SearchStatistics() : null;
 
     // Leave this constructor public
     public PathfinderTestDriver(Reader r, Writer w) {
@@ -71,6 +79,10 @@ public class PathfinderTestDriver {
             }
             output.flush();
         }
+        if (statistics != null) {
+            // standard error, so that the output of the script stays as expected
+            System.err.println(statistics.summary());
+        }
     }
 
     private void executeCommand(String command, List<String> arguments) {
@@ -219,7 +231,7 @@ public class PathfinderTestDriver {
                 output.println("unknown node " + nodeB);
             }
         } else {
-            Path<String> paths = Dijkstra.dijkstraAlgo(graph, nodeA, nodeB);
+            Path<String> paths = Dijkstra.dijkstraAlgo(graph, nodeA, nodeB, statistics);
             output.println("path from " + nodeA + " to " + nodeB + ":");
             if (paths == null) {
                 output.println("no path found");